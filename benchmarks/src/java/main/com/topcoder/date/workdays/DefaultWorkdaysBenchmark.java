@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.date.workdays;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.topcoder.direct.benchmarks.BenchmarkFixtures;
+
+/**
+ * <p>
+ * Benchmark for {@link DefaultWorkdays#add(Date, WorkdaysUnitOfTime, int)}, which is called for every phase of
+ * every project whose dates are calculated.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is used by JMH only, one instance per trial.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DefaultWorkdaysBenchmark {
+    /**
+     * <p>
+     * Represents the number of non-workdays in the schedule.
+     * </p>
+     */
+    @Param({"0", "1000" })
+    private int nonWorkdayCount;
+
+    /**
+     * <p>
+     * Represents the workday schedule under test.
+     * </p>
+     */
+    private DefaultWorkdays workdays;
+
+    /**
+     * <p>
+     * Represents the date the amounts are added to.
+     * </p>
+     */
+    private Date startDate;
+
+    /**
+     * <p>
+     * Builds the workday schedule.
+     * </p>
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        workdays = BenchmarkFixtures.createWorkdays(nonWorkdayCount);
+        startDate = BenchmarkFixtures.getStartDate();
+    }
+
+    /**
+     * <p>
+     * Adds a month of workdays, the usual length of a contest.
+     * </p>
+     *
+     * @return the calculated date
+     */
+    @Benchmark
+    public Date addDays() {
+        return workdays.add(startDate, WorkdaysUnitOfTime.DAYS, 30);
+    }
+
+    /**
+     * <p>
+     * Adds the length of a 72 hours review phase.
+     * </p>
+     *
+     * @return the calculated date
+     */
+    @Benchmark
+    public Date addHours() {
+        return workdays.add(startDate, WorkdaysUnitOfTime.HOURS, 72);
+    }
+
+    /**
+     * <p>
+     * Adds a phase length expressed in minutes, the unit used when the phase length is not a whole hour.
+     * </p>
+     *
+     * @return the calculated date
+     */
+    @Benchmark
+    public Date addMinutes() {
+        return workdays.add(startDate, WorkdaysUnitOfTime.MINUTES, 7 * 24 * 60);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.topcoder.date.workdays.DefaultWorkdays;
+import com.topcoder.project.phases.Dependency;
+import com.topcoder.project.phases.Phase;
+import com.topcoder.project.phases.PhaseStatus;
+import com.topcoder.project.phases.PhaseType;
+import com.topcoder.project.phases.Project;
+
+/**
+ * <p>
+ * Builds the fixtures shared by the benchmarks. The fixtures are sized after the largest data seen in production:
+ * projects with 30 phases, workday schedules with several years of non-workdays and submission zips of a few MB.
+ * </p>
+ *
+ * <p>
+ * All the fixtures are built from a fixed random seed, so two runs of the benchmarks measure the same work and their
+ * results can be compared.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public final class BenchmarkFixtures {
+    /**
+     * <p>
+     * Represents the number of phases in the generated projects and phase templates.
+     * </p>
+     */
+    public static final int PHASE_COUNT = 30;
+
+    /**
+     * <p>
+     * Represents the number of non-workdays in the generated workday schedules, roughly ten years of holidays.
+     * </p>
+     */
+    public static final int NON_WORKDAY_COUNT = 1000;
+
+    /**
+     * <p>
+     * Represents the seed of the random generator used to build the fixtures.
+     * </p>
+     */
+    private static final long SEED = 20130901L;
+
+    /**
+     * <p>
+     * Represents the number of milliseconds in one hour.
+     * </p>
+     */
+    private static final long ONE_HOUR = 60 * 60 * 1000L;
+
+    /**
+     * <p>
+     * Represents the name of the phase types used in the generated projects, repeated to reach PHASE_COUNT.
+     * </p>
+     */
+    private static final String[] PHASE_TYPE_NAMES = {"Registration", "Submission", "Screening", "Review",
+        "Appeals", "Appeals Response", "Aggregation", "Aggregation Review", "Final Fix", "Final Review"};
+
+    /**
+     * <p>
+     * Private constructor to prevent instantiation.
+     * </p>
+     */
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * <p>
+     * Gets the fixed start date used by the fixtures, a Monday morning.
+     * </p>
+     *
+     * @return the start date
+     */
+    public static Date getStartDate() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2013, Calendar.SEPTEMBER, 2, 9, 0, 0);
+        return calendar.getTime();
+    }
+
+    /**
+     * <p>
+     * Creates a workday schedule with the given number of non-workdays spread over the years following the start
+     * date.
+     * </p>
+     *
+     * @param nonWorkdayCount
+     *            the number of non-workdays
+     * @return the workday schedule
+     */
+    public static DefaultWorkdays createWorkdays(int nonWorkdayCount) {
+        DefaultWorkdays workdays = new DefaultWorkdays();
+        workdays.setWorkdayStartTimeHours(9);
+        workdays.setWorkdayStartTimeMinutes(0);
+        workdays.setWorkdayEndTimeHours(17);
+        workdays.setWorkdayEndTimeMinutes(0);
+
+        Random random = new Random(SEED);
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(getStartDate());
+        for (int i = 0; i < nonWorkdayCount; i++) {
+            calendar.add(Calendar.DAY_OF_YEAR, 1 + random.nextInt(4));
+            workdays.addNonWorkday(calendar.getTime());
+        }
+        return workdays;
+    }
+
+    /**
+     * <p>
+     * Creates a project with PHASE_COUNT phases. The phases follow each other like the real contest phases, except
+     * every third phase which starts one hour after the start of the phase two steps before it, so the phases
+     * overlap and the project end date depends on more than one path. The phases match the ones of the
+     * phase_templates/Benchmark_Template.xml fixture.
+     * </p>
+     *
+     * @param workdays
+     *            the workday schedule of the project
+     * @return the project
+     */
+    public static Project createProject(DefaultWorkdays workdays) {
+        Project project = new Project(getStartDate(), workdays);
+        Phase[] phases = new Phase[PHASE_COUNT];
+        PhaseStatus status = new PhaseStatus(1, "Scheduled");
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phases[i] = new Phase(project, (24 + i % 5 * 24) * ONE_HOUR);
+            phases[i].setId(i + 1);
+            phases[i].setPhaseType(new PhaseType(i % PHASE_TYPE_NAMES.length + 1,
+                PHASE_TYPE_NAMES[i % PHASE_TYPE_NAMES.length]));
+            phases[i].setPhaseStatus(status);
+            if (i > 1 && i % 3 == 0) {
+                phases[i].addDependency(new Dependency(phases[i - 2], phases[i], true, true, ONE_HOUR));
+            } else if (i > 0) {
+                phases[i].addDependency(new Dependency(phases[i - 1], phases[i], false, true, 0));
+            }
+            project.addPhase(phases[i]);
+        }
+        return project;
+    }
+
+    /**
+     * <p>
+     * Creates a submission zip with the given number of files of the given size. Half of the files are random
+     * bytes, which do not compress, and half are source-like text, so the zip looks like a real submission.
+     * </p>
+     *
+     * @param fileCount
+     *            the number of files in the zip
+     * @param fileSize
+     *            the size of each file, in bytes
+     * @return the zip content
+     * @throws IOException
+     *             if the zip can not be built
+     */
+    public static byte[] createZip(int fileCount, int fileSize) throws IOException {
+        Random random = new Random(SEED);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zos = new ZipOutputStream(bytes);
+        try {
+            byte[] content = new byte[fileSize];
+            for (int i = 0; i < fileCount; i++) {
+                if (i % 2 == 0) {
+                    random.nextBytes(content);
+                    zos.putNextEntry(new ZipEntry("submission/images/file" + i + ".png"));
+                } else {
+                    for (int j = 0; j < fileSize; j++) {
+                        content[j] = j % 80 == 79 ? (byte) '\n' : (byte) ('a' + random.nextInt(8));
+                    }
+                    zos.putNextEntry(new ZipEntry("submission/src/File" + i + ".java"));
+                }
+                zos.write(content);
+                zos.closeEntry();
+            }
+        } finally {
+            zos.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * <p>
+     * Creates a temporary file which is deleted when the JVM exits.
+     * </p>
+     *
+     * @param prefix
+     *            the file name prefix
+     * @param suffix
+     *            the file name suffix
+     * @return the temporary file
+     * @throws IOException
+     *             if the file can not be created
+     */
+    public static File createTempFile(String prefix, String suffix) throws IOException {
+        File file = File.createTempFile(prefix, suffix);
+        file.deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * <p>
+ * Compares two JMH result files written with <code>-rf json</code>, and reports the benchmarks whose score became
+ * worse than the baseline by more than the given threshold.
+ * </p>
+ *
+ * <p>
+ * All the benchmarks of this module measure the average time, so a greater score is worse.
+ * </p>
+ *
+ * <p>
+ * Usage: <code>BenchmarkResultComparator baseline.json current.json [thresholdPercent]</code>. The process exits
+ * with status 1 when a regression is found, so it can fail the build.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public final class BenchmarkResultComparator {
+    /**
+     * <p>
+     * Represents the default regression threshold, in percent.
+     * </p>
+     */
+    private static final double DEFAULT_THRESHOLD = 10.0;
+
+    /**
+     * <p>
+     * Private constructor to prevent instantiation.
+     * </p>
+     */
+    private BenchmarkResultComparator() {
+    }
+
+    /**
+     * <p>
+     * Compares the result files given on the command line.
+     * </p>
+     *
+     * @param args
+     *            the baseline file, the current file and the optional threshold
+     * @throws IOException
+     *             if any of the files can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkResultComparator baseline.json current.json [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        Map<String, JsonNode> baseline = readResults(new File(args[0]));
+        Map<String, JsonNode> current = readResults(new File(args[1]));
+
+        int regressions = 0;
+        for (Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode metric = entry.getValue();
+            JsonNode baselineMetric = baseline.get(entry.getKey());
+            if (baselineMetric == null) {
+                System.out.println(String.format("NEW        %-60s %12.3f %s", entry.getKey(),
+                    metric.get("score").getDoubleValue(), metric.get("scoreUnit").getTextValue()));
+                continue;
+            }
+            double before = baselineMetric.get("score").getDoubleValue();
+            double after = metric.get("score").getDoubleValue();
+            double change = before == 0 ? 0 : (after - before) * 100 / before;
+            String status = "OK";
+            if (change > threshold) {
+                status = "REGRESSION";
+                regressions++;
+            } else if (change < -threshold) {
+                status = "IMPROVED";
+            }
+            System.out.println(String.format("%-10s %-60s %12.3f -> %12.3f %s (%+.1f%%)", status, entry.getKey(),
+                before, after, metric.get("scoreUnit").getTextValue(), change));
+        }
+
+        System.out.println(regressions + " regression(s) above " + threshold + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the primary metrics of a JMH result file, keyed by the benchmark name and its parameters.
+     * </p>
+     *
+     * @param file
+     *            the result file
+     * @return the primary metrics
+     * @throws IOException
+     *             if the file can not be read
+     */
+    private static Map<String, JsonNode> readResults(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<String, JsonNode>();
+        JsonNode root = new ObjectMapper().readTree(file);
+        for (Iterator<JsonNode> it = root.getElements(); it.hasNext();) {
+            JsonNode result = it.next();
+            StringBuilder key = new StringBuilder(result.get("benchmark").getTextValue());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                for (Iterator<Entry<String, JsonNode>> fields = params.getFields(); fields.hasNext();) {
+                    Entry<String, JsonNode> param = fields.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            results.put(key.toString(), result.get("primaryMetric"));
+        }
+        return results;
+    }
+}
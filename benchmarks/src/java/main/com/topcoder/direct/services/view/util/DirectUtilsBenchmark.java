@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.topcoder.direct.benchmarks.BenchmarkFixtures;
+import com.topcoder.servlet.request.UploadedFile;
+
+/**
+ * <p>
+ * Benchmark for {@link DirectUtils#appendStringToFilesInZip(UploadedFile, String)}, which rewrites every
+ * submission zip downloaded from the submission pages.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is used by JMH only, one instance per trial.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DirectUtilsBenchmark {
+    /**
+     * <p>
+     * Represents the size of each file in the zip, in bytes.
+     * </p>
+     */
+    private static final int FILE_SIZE = 64 * 1024;
+
+    /**
+     * <p>
+     * Represents the size of the zip content, in MB.
+     * </p>
+     */
+    @Param({"1", "8" })
+    private int zipSizeMB;
+
+    /**
+     * <p>
+     * Represents the uploaded submission.
+     * </p>
+     */
+    private UploadedFile submission;
+
+    /**
+     * <p>
+     * Builds the submission zip.
+     * </p>
+     *
+     * @throws Exception
+     *             if the zip can not be built
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        submission = new BenchmarkUploadedFile(BenchmarkFixtures.createZip(zipSizeMB * 1024 * 1024 / FILE_SIZE,
+            FILE_SIZE));
+    }
+
+    /**
+     * <p>
+     * Appends the submitter handle to all the files of the submission.
+     * </p>
+     *
+     * @return the number of bytes of the rewritten zip
+     * @throws Exception
+     *             if the zip can not be rewritten
+     */
+    @Benchmark
+    public int appendStringToFilesInZip() throws Exception {
+        InputStream in = DirectUtils.appendStringToFilesInZip(submission, "handle");
+        try {
+            return in.available();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * <p>
+     * An uploaded file which keeps its content in memory.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class BenchmarkUploadedFile extends UploadedFile {
+        /**
+         * <p>
+         * Represents the file content.
+         * </p>
+         */
+        private final byte[] content;
+
+        /**
+         * <p>
+         * Creates the uploaded file.
+         * </p>
+         *
+         * @param content
+         *            the file content
+         */
+        BenchmarkUploadedFile(byte[] content) {
+            super("benchmark", "application/zip");
+            this.content = content;
+        }
+
+        /**
+         * <p>
+         * Gets the remote file name.
+         * </p>
+         *
+         * @return the remote file name
+         */
+        public String getRemoteFileName() {
+            return "submission.zip";
+        }
+
+        /**
+         * <p>
+         * Gets the file size.
+         * </p>
+         *
+         * @return the file size
+         */
+        public long getSize() {
+            return content.length;
+        }
+
+        /**
+         * <p>
+         * Gets a stream over the file content.
+         * </p>
+         *
+         * @return the stream
+         */
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.management.project.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.topcoder.direct.benchmarks.BenchmarkFixtures;
+
+/**
+ * <p>
+ * Benchmark for the result mapping of {@link Helper#doQuery(Connection, String, Object[], Helper.DataType[])},
+ * which builds the rows of all the project queries.
+ * </p>
+ *
+ * <p>
+ * The connection is an in-memory fake which serves the same rows on every query, so only the mapping done by
+ * <code>Helper</code> is measured, not the database.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is used by JMH only, one instance per trial.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HelperBenchmark {
+    /**
+     * <p>
+     * Represents the benchmarked query, the columns match the ones of the project property queries.
+     * </p>
+     */
+    private static final String QUERY = "SELECT project_id, project_info_type_id, value, create_user, create_date,"
+        + " modify_user, modify_date, amount, is_active FROM project_info WHERE project_id IN (?)";
+
+    /**
+     * <p>
+     * Represents the types of the columns of the query.
+     * </p>
+     */
+    private static final Helper.DataType[] COLUMN_TYPES = {Helper.LONG_TYPE, Helper.LONG_TYPE, Helper.STRING_TYPE,
+        Helper.STRING_TYPE, Helper.DATE_TYPE, Helper.STRING_TYPE, Helper.DATE_TYPE, Helper.DOUBLE_TYPE,
+        Helper.BOOLEAN_TYPE};
+
+    /**
+     * <p>
+     * Represents the number of rows returned by the query.
+     * </p>
+     */
+    @Param({"100", "5000" })
+    private int rowCount;
+
+    /**
+     * <p>
+     * Represents the fake connection.
+     * </p>
+     */
+    private Connection connection;
+
+    /**
+     * <p>
+     * Builds the rows and the fake connection.
+     * </p>
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Object[][] rows = new Object[rowCount][];
+        Timestamp date = new Timestamp(BenchmarkFixtures.getStartDate().getTime());
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = new Object[] {new Long(i / BenchmarkFixtures.PHASE_COUNT), new Long(i % 60 + 1),
+                "value of property " + i, "132456", date, "132456", date, i % 4 == 0 ? null : new Double(i * 0.5),
+                Boolean.valueOf(i % 2 == 0)};
+        }
+        connection = (Connection) createProxy(Connection.class, new FakeJdbcHandler(rows));
+    }
+
+    /**
+     * <p>
+     * Runs the query and maps its rows.
+     * </p>
+     *
+     * @return the mapped rows
+     * @throws Exception
+     *             if the query fails
+     */
+    @Benchmark
+    public Object[][] doQuery() throws Exception {
+        return Helper.doQuery(connection, QUERY, new Object[] {new Long(1)}, COLUMN_TYPES);
+    }
+
+    /**
+     * <p>
+     * Creates a proxy of the given JDBC interface.
+     * </p>
+     *
+     * @param type
+     *            the JDBC interface
+     * @param handler
+     *            the invocation handler
+     * @return the proxy
+     */
+    private static Object createProxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(HelperBenchmark.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    /**
+     * <p>
+     * Implements the parts of the JDBC connection, statement, result set and result set meta data used by
+     * <code>Helper</code> on top of in-memory rows.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class FakeJdbcHandler implements InvocationHandler {
+        /**
+         * <p>
+         * Represents the rows served by the result sets.
+         * </p>
+         */
+        private final Object[][] rows;
+
+        /**
+         * <p>
+         * Represents the current row of the result set, -1 before the first row.
+         * </p>
+         */
+        private int current;
+
+        /**
+         * <p>
+         * Represents whether the last value read was null.
+         * </p>
+         */
+        private boolean wasNull;
+
+        /**
+         * <p>
+         * Creates the handler.
+         * </p>
+         *
+         * @param rows
+         *            the rows served by the result sets
+         */
+        FakeJdbcHandler(Object[][] rows) {
+            this.rows = rows;
+        }
+
+        /**
+         * <p>
+         * Handles a call on the fake JDBC objects.
+         * </p>
+         *
+         * @param proxy
+         *            the proxy
+         * @param method
+         *            the called method
+         * @param args
+         *            the arguments
+         * @return the result of the call
+         */
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if ("prepareStatement".equals(name)) {
+                return createProxy(PreparedStatement.class, this);
+            }
+            if ("executeQuery".equals(name)) {
+                current = -1;
+                return createProxy(ResultSet.class, this);
+            }
+            if ("getMetaData".equals(name)) {
+                return createProxy(ResultSetMetaData.class, this);
+            }
+            if ("getColumnCount".equals(name)) {
+                return rows.length == 0 ? COLUMN_TYPES.length : rows[0].length;
+            }
+            if ("next".equals(name)) {
+                return ++current < rows.length;
+            }
+            if ("wasNull".equals(name)) {
+                return wasNull;
+            }
+            if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof Integer) {
+                Object value = rows[current][((Integer) args[0]) - 1];
+                wasNull = value == null;
+                if ("getLong".equals(name)) {
+                    return value == null ? 0L : ((Long) value).longValue();
+                }
+                if ("getDouble".equals(name)) {
+                    return value == null ? 0.0 : ((Double) value).doubleValue();
+                }
+                if ("getBoolean".equals(name)) {
+                    return value == null ? Boolean.FALSE : value;
+                }
+                return value;
+            }
+            // setObject, close and the other calls do nothing
+            return null;
+        }
+    }
+}
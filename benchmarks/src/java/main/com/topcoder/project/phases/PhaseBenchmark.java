@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.project.phases;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.topcoder.direct.benchmarks.BenchmarkFixtures;
+
+/**
+ * <p>
+ * Benchmark for {@link Phase#calcEndDate()} on a project with
+ * {@link BenchmarkFixtures#PHASE_COUNT} phases.
+ * </p>
+ *
+ * <p>
+ * The project caches the calculated dates until it is changed, so the <code>recalculate</code> benchmark moves the
+ * project start date back and forth by one hour before each call to measure the full calculation, while the
+ * <code>cached</code> benchmark measures the cached path.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is used by JMH only, one instance per trial.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhaseBenchmark {
+    /**
+     * <p>
+     * Represents the number of non-workdays in the schedule of the project.
+     * </p>
+     */
+    @Param({"0", "1000" })
+    private int nonWorkdayCount;
+
+    /**
+     * <p>
+     * Represents the project under test.
+     * </p>
+     */
+    private Project project;
+
+    /**
+     * <p>
+     * Represents the last phase of the project, which depends on all the others.
+     * </p>
+     */
+    private Phase lastPhase;
+
+    /**
+     * <p>
+     * Represents the two start dates the project alternates between.
+     * </p>
+     */
+    private Date[] startDates;
+
+    /**
+     * <p>
+     * Represents the number of calls made so far, used to pick the next start date.
+     * </p>
+     */
+    private int calls;
+
+    /**
+     * <p>
+     * Builds the project.
+     * </p>
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        project = BenchmarkFixtures.createProject(BenchmarkFixtures.createWorkdays(nonWorkdayCount));
+        Phase[] phases = project.getAllPhases();
+        lastPhase = phases[phases.length - 1];
+        Date startDate = BenchmarkFixtures.getStartDate();
+        startDates = new Date[] {startDate, new Date(startDate.getTime() + 60 * 60 * 1000L)};
+    }
+
+    /**
+     * <p>
+     * Calculates the end date of the project from scratch.
+     * </p>
+     *
+     * @return the calculated date
+     */
+    @Benchmark
+    public Date recalculate() {
+        project.setStartDate(startDates[calls++ & 1]);
+        return lastPhase.calcEndDate();
+    }
+
+    /**
+     * <p>
+     * Gets the end date of the project when it is already calculated.
+     * </p>
+     *
+     * @return the calculated date
+     */
+    @Benchmark
+    public Date cached() {
+        return lastPhase.calcEndDate();
+    }
+}
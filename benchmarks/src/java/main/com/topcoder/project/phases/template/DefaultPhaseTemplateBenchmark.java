@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.project.phases.template;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.topcoder.direct.benchmarks.BenchmarkFixtures;
+import com.topcoder.project.phases.Project;
+import com.topcoder.project.phases.template.persistence.XmlPhaseTemplatePersistence;
+import com.topcoder.project.phases.template.startdategenerator.RelativeWeekTimeStartDateGenerator;
+
+/**
+ * <p>
+ * Benchmark for {@link DefaultPhaseTemplate#applyTemplate(String, Date)} with an XML template of
+ * {@link BenchmarkFixtures#PHASE_COUNT} phases, the way contests are created from templates. The template file is
+ * in the test_files directory of this module.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is used by JMH only, one instance per trial.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DefaultPhaseTemplateBenchmark {
+    /**
+     * <p>
+     * Represents the name of the benchmarked template.
+     * </p>
+     */
+    private static final String TEMPLATE_NAME = "Benchmark";
+
+    /**
+     * <p>
+     * Represents the template file, loaded from the class path.
+     * </p>
+     */
+    private static final String TEMPLATE_FILE = "phase_templates/Benchmark_Template.xml";
+
+    /**
+     * <p>
+     * Represents the phase template under test.
+     * </p>
+     */
+    private DefaultPhaseTemplate template;
+
+    /**
+     * <p>
+     * Represents the start date of the generated projects.
+     * </p>
+     */
+    private Date startDate;
+
+    /**
+     * <p>
+     * Loads the template.
+     * </p>
+     *
+     * @throws Exception
+     *             if the template can not be loaded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        template = new DefaultPhaseTemplate(new XmlPhaseTemplatePersistence(new String[] {TEMPLATE_FILE}),
+            new RelativeWeekTimeStartDateGenerator(Calendar.MONDAY, 9, 0, 0, 1),
+            BenchmarkFixtures.createWorkdays(BenchmarkFixtures.NON_WORKDAY_COUNT));
+        startDate = BenchmarkFixtures.getStartDate();
+    }
+
+    /**
+     * <p>
+     * Creates a project from the template and calculates its end date, as done when a contest is created.
+     * </p>
+     *
+     * @return the project end date
+     * @throws Exception
+     *             if the template can not be applied
+     */
+    @Benchmark
+    public Date applyTemplate() throws Exception {
+        Project project = template.applyTemplate(TEMPLATE_NAME, startDate);
+        return project.calcEndDate();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.util.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.topcoder.direct.benchmarks.BenchmarkFixtures;
+
+/**
+ * <p>
+ * Benchmark for {@link DefaultConfigManager#getString(String, String)}, which the components call on every
+ * request to read their configuration.
+ * </p>
+ *
+ * <p>
+ * The namespace is loaded from a properties file with as many properties as the largest namespaces of the
+ * application. The lookups run from four threads, since the config manager is shared by all the request threads.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is used by JMH only, one instance per trial shared by the benchmark threads.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class DefaultConfigManagerBenchmark {
+    /**
+     * <p>
+     * Represents the namespace used by the benchmark.
+     * </p>
+     */
+    private static final String NAMESPACE = "com.topcoder.direct.benchmarks.ConfigManager";
+
+    /**
+     * <p>
+     * Represents the number of properties in the namespace.
+     * </p>
+     */
+    private static final int PROPERTY_COUNT = 500;
+
+    /**
+     * <p>
+     * Represents the config manager under test.
+     * </p>
+     */
+    private DefaultConfigManager configManager;
+
+    /**
+     * <p>
+     * Writes the namespace file and loads it.
+     * </p>
+     *
+     * @throws Exception
+     *             if the namespace can not be loaded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            properties.setProperty("component" + i % 10 + ".property" + i, "value" + i);
+        }
+        File file = BenchmarkFixtures.createTempFile("config_manager", ".properties");
+        OutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, null);
+        } finally {
+            out.close();
+        }
+
+        configManager = new DefaultConfigManager();
+        configManager.add(NAMESPACE, file.getAbsolutePath(), ConfigManager.CONFIG_PROPERTIES_FORMAT);
+    }
+
+    /**
+     * <p>
+     * Reads an existing property.
+     * </p>
+     *
+     * @return the property value
+     * @throws Exception
+     *             if the namespace is unknown
+     */
+    @Benchmark
+    public String getExistingString() throws Exception {
+        return configManager.getString(NAMESPACE, "component7.property257");
+    }
+
+    /**
+     * <p>
+     * Reads a missing property, as done for the optional properties.
+     * </p>
+     *
+     * @return the property value
+     * @throws Exception
+     *             if the namespace is unknown
+     */
+    @Benchmark
+    public String getMissingString() throws Exception {
+        return configManager.getString(NAMESPACE, "component7.missing");
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.cronos.onlinereview.services.uploads;
+
+import javax.activation.DataHandler;
+import java.rmi.RemoteException;
+
+/**
+ * <p>
+ * Defines the web service contract for uploading a submission in fixed size chunks. The client assigns the ID of
+ * the upload session, sends the chunks in any order with their checksums, and commits the session once every chunk
+ * is received, which creates the submission like
+ * {@link UploadExternalServices#uploadSubmission(long, long, String, javax.activation.DataHandler)}. An interrupted
+ * upload is resumed by beginning the same session again and sending the chunks it reports missing. The sessions
+ * which are not committed expire after a period of inactivity, and their partial content is deleted.
+ * </p>
+ *
+ * <p>
+ * Thread safety: the implementations must be thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface ChunkedUploadExternalServices {
+
+    /**
+     * <p>
+     * Begins, or resumes, the chunked upload of a submission.
+     * </p>
+     * <p>
+     * If the session exists with the same arguments, its status is returned so that the client only sends the
+     * missing chunks.
+     * </p>
+     *
+     * @param sessionId the client assigned ID of the upload session
+     * @param projectId the project's id
+     * @param userId    the user's id
+     * @param filename  the file name to use
+     * @param length    the length of the submission file in bytes
+     *
+     * @return the status of the upload session
+     *
+     * @throws UploadServicesException  if the session exists with different arguments
+     * @throws RemoteException          if an internal exception occurs (wrap it)
+     * @throws IllegalArgumentException if any id is &lt; 0, if length is not positive, if any argument is
+     *                                  <code>null</code> or trim to empty
+     */
+    ChunkedUploadStatus beginSubmissionUpload(String sessionId, long projectId, long userId, String filename,
+        long length) throws RemoteException, UploadServicesException;
+
+    /**
+     * <p>
+     * Receives a chunk of a submission. Sending a chunk again overwrites it.
+     * </p>
+     *
+     * @param sessionId  the ID of the upload session
+     * @param chunkIndex the index of the chunk, from 0
+     * @param checksum   the hexadecimal MD5 digest of the chunk
+     * @param chunk      the chunk data
+     *
+     * @return the status of the upload session
+     *
+     * @throws UploadServicesException  if the session does not exist or expired, if the chunk has not the expected
+     *                                  length, or if it does not match the checksum
+     * @throws RemoteException          if an internal exception occurs (wrap it)
+     * @throws IllegalArgumentException if chunkIndex is &lt; 0, if any argument is <code>null</code> or trim to empty
+     */
+    ChunkedUploadStatus uploadSubmissionChunk(String sessionId, int chunkIndex, String checksum, DataHandler chunk)
+        throws RemoteException, UploadServicesException;
+
+    /**
+     * <p>
+     * Commits a chunked upload once every chunk is received, creating the submission.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     *
+     * @return the id of the new submission
+     *
+     * @throws UploadServicesException  if the session does not exist or expired, if some chunks are missing, or if
+     *                                  any error occurs while creating the submission
+     * @throws RemoteException          if an internal exception occurs (wrap it)
+     * @throws IllegalArgumentException if sessionId is <code>null</code> or trim to empty
+     */
+    long commitSubmissionUpload(String sessionId) throws RemoteException, UploadServicesException;
+
+    /**
+     * <p>
+     * Cancels a chunked upload, deleting its partial content. Does nothing if the session does not exist.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     *
+     * @throws RemoteException          if an internal exception occurs (wrap it)
+     * @throws IllegalArgumentException if sessionId is <code>null</code> or trim to empty
+     */
+    void cancelSubmissionUpload(String sessionId) throws RemoteException;
+}
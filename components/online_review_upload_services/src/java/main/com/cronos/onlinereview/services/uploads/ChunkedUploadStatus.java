@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.cronos.onlinereview.services.uploads;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * Describes the state of a chunked upload session: the fixed size of its chunks and the chunks already received,
+ * so that a client can resume an interrupted upload by sending only the missing chunks.
+ * </p>
+ *
+ * <p>
+ * Thread safety: this class is mutable and not thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class ChunkedUploadStatus implements Serializable {
+
+    /**
+     * <p>
+     * The serial version ID.
+     * </p>
+     */
+    private static final long serialVersionUID = -6211309385431576704L;
+
+    /**
+     * <p>
+     * Represents the client assigned ID of the upload session.
+     * </p>
+     */
+    private String sessionId;
+
+    /**
+     * <p>
+     * Represents the total length of the uploaded file in bytes.
+     * </p>
+     */
+    private long length;
+
+    /**
+     * <p>
+     * Represents the size of the chunks in bytes. Every chunk but the last one has this size.
+     * </p>
+     */
+    private int chunkSize;
+
+    /**
+     * <p>
+     * Represents the number of chunks of the uploaded file.
+     * </p>
+     */
+    private int chunkCount;
+
+    /**
+     * <p>
+     * Represents the indexes of the chunks already received, in increasing order.
+     * </p>
+     */
+    private int[] receivedChunks;
+
+    /**
+     * <p>
+     * Creates a <code>ChunkedUploadStatus</code> instance.
+     * </p>
+     */
+    public ChunkedUploadStatus() {
+        // does nothing
+    }
+
+    /**
+     * <p>
+     * Gets the client assigned ID of the upload session.
+     * </p>
+     *
+     * @return the ID of the upload session
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * <p>
+     * Sets the client assigned ID of the upload session.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     */
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * <p>
+     * Gets the total length of the uploaded file.
+     * </p>
+     *
+     * @return the length in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * <p>
+     * Sets the total length of the uploaded file.
+     * </p>
+     *
+     * @param length the length in bytes
+     */
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    /**
+     * <p>
+     * Gets the size of the chunks.
+     * </p>
+     *
+     * @return the chunk size in bytes
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * <p>
+     * Sets the size of the chunks.
+     * </p>
+     *
+     * @param chunkSize the chunk size in bytes
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * <p>
+     * Gets the number of chunks of the uploaded file.
+     * </p>
+     *
+     * @return the number of chunks
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * <p>
+     * Sets the number of chunks of the uploaded file.
+     * </p>
+     *
+     * @param chunkCount the number of chunks
+     */
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    /**
+     * <p>
+     * Gets the indexes of the chunks already received.
+     * </p>
+     *
+     * @return the indexes of the received chunks, in increasing order
+     */
+    public int[] getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    /**
+     * <p>
+     * Sets the indexes of the chunks already received.
+     * </p>
+     *
+     * @param receivedChunks the indexes of the received chunks, in increasing order
+     */
+    public void setReceivedChunks(int[] receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.cronos.onlinereview.services.uploads.impl;
+
+import com.cronos.onlinereview.services.uploads.ChunkedUploadStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+
+/**
+ * <p>
+ * A chunked upload session of <code>DefaultUploadExternalServices</code>. The chunks are written at their position
+ * in a partial file pre-sized to the length of the upload, so they can be received in any order and concurrently.
+ * </p>
+ *
+ * <p>
+ * Thread safety: this class is thread safe. The positional writes of the file channel can run concurrently, the
+ * received chunks are guarded by the session.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+class ChunkedUploadSession {
+
+    /**
+     * <p>
+     * Represents the client assigned ID of the session.
+     * </p>
+     */
+    private final String sessionId;
+
+    /**
+     * <p>
+     * Represents the project's id.
+     * </p>
+     */
+    private final long projectId;
+
+    /**
+     * <p>
+     * Represents the user's id.
+     * </p>
+     */
+    private final long userId;
+
+    /**
+     * <p>
+     * Represents the file name of the upload.
+     * </p>
+     */
+    private final String filename;
+
+    /**
+     * <p>
+     * Represents the length of the upload in bytes.
+     * </p>
+     */
+    private final long length;
+
+    /**
+     * <p>
+     * Represents the size of the chunks in bytes.
+     * </p>
+     */
+    private final int chunkSize;
+
+    /**
+     * <p>
+     * Represents the number of chunks.
+     * </p>
+     */
+    private final int chunkCount;
+
+    /**
+     * <p>
+     * Represents the partial file the chunks are written to.
+     * </p>
+     */
+    private final File partFile;
+
+    /**
+     * <p>
+     * Represents the channel of the partial file.
+     * </p>
+     */
+    private final FileChannel channel;
+
+    /**
+     * <p>
+     * Represents the indexes of the received chunks.
+     * </p>
+     */
+    private final BitSet receivedChunks = new BitSet();
+
+    /**
+     * <p>
+     * Represents the time of the last access to the session.
+     * </p>
+     */
+    private volatile long lastAccessTime = System.currentTimeMillis();
+
+    /**
+     * <p>
+     * Creates a session, creating its partial file.
+     * </p>
+     *
+     * @param sessionId the client assigned ID of the session
+     * @param projectId the project's id
+     * @param userId    the user's id
+     * @param filename  the file name of the upload
+     * @param length    the length of the upload in bytes
+     * @param chunkSize the size of the chunks in bytes
+     * @param partFile  the partial file
+     *
+     * @throws IOException if the partial file can not be created
+     */
+    ChunkedUploadSession(String sessionId, long projectId, long userId, String filename, long length, int chunkSize,
+        File partFile) throws IOException {
+        this.sessionId = sessionId;
+        this.projectId = projectId;
+        this.userId = userId;
+        this.filename = filename;
+        this.length = length;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) ((length + chunkSize - 1) / chunkSize);
+        this.partFile = partFile;
+
+        RandomAccessFile file = new RandomAccessFile(partFile, "rw");
+        try {
+            file.setLength(length);
+        } catch (IOException e) {
+            file.close();
+            partFile.delete();
+            throw e;
+        }
+        this.channel = file.getChannel();
+    }
+
+    /**
+     * <p>
+     * Checks whether the session was begun with the given arguments.
+     * </p>
+     *
+     * @param otherProjectId the project's id
+     * @param otherUserId    the user's id
+     * @param otherFilename  the file name of the upload
+     * @param otherLength    the length of the upload in bytes
+     *
+     * @return true if the arguments are the ones of the session
+     */
+    boolean matches(long otherProjectId, long otherUserId, String otherFilename, long otherLength) {
+        return projectId == otherProjectId && userId == otherUserId && filename.equals(otherFilename)
+            && length == otherLength;
+    }
+
+    /**
+     * <p>
+     * Gets the expected length of a chunk.
+     * </p>
+     *
+     * @param chunkIndex the index of the chunk
+     *
+     * @return the length of the chunk, -1 if there is no such chunk
+     */
+    int getChunkLength(int chunkIndex) {
+        if (chunkIndex >= chunkCount) {
+            return -1;
+        }
+        return (int) Math.min(chunkSize, length - (long) chunkIndex * chunkSize);
+    }
+
+    /**
+     * <p>
+     * Writes a chunk at its position in the partial file.
+     * </p>
+     *
+     * @param chunkIndex the index of the chunk
+     * @param buffer     the content of the chunk, of the expected length
+     *
+     * @throws IOException if the chunk can not be written
+     */
+    void writeChunk(int chunkIndex, ByteBuffer buffer) throws IOException {
+        long position = (long) chunkIndex * chunkSize;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        synchronized (this) {
+            receivedChunks.set(chunkIndex);
+        }
+        touch();
+    }
+
+    /**
+     * <p>
+     * Checks whether every chunk is received.
+     * </p>
+     *
+     * @return true if the upload is complete
+     */
+    synchronized boolean isComplete() {
+        return receivedChunks.cardinality() == chunkCount;
+    }
+
+    /**
+     * <p>
+     * Gets the status of the session.
+     * </p>
+     *
+     * @return the status
+     */
+    synchronized ChunkedUploadStatus getStatus() {
+        ChunkedUploadStatus status = new ChunkedUploadStatus();
+        status.setSessionId(sessionId);
+        status.setLength(length);
+        status.setChunkSize(chunkSize);
+        status.setChunkCount(chunkCount);
+        int[] received = new int[receivedChunks.cardinality()];
+        for (int i = receivedChunks.nextSetBit(0), j = 0; i >= 0; i = receivedChunks.nextSetBit(i + 1), j++) {
+            received[j] = i;
+        }
+        status.setReceivedChunks(received);
+        return status;
+    }
+
+    /**
+     * <p>
+     * Records an access to the session, which postpones its expiry.
+     * </p>
+     */
+    void touch() {
+        lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * <p>
+     * Checks whether the session expired.
+     * </p>
+     *
+     * @param now     the current time
+     * @param timeout the inactivity period after which the sessions expire, in milliseconds
+     *
+     * @return true if the session expired
+     */
+    boolean isExpired(long now, long timeout) {
+        return now - lastAccessTime > timeout;
+    }
+
+    /**
+     * <p>
+     * Closes the partial file, forcing its content to the disk.
+     * </p>
+     *
+     * @throws IOException if the file can not be closed
+     */
+    void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * <p>
+     * Closes and deletes the partial file, ignoring the errors.
+     * </p>
+     */
+    void discard() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // ignores exception
+        }
+        partFile.delete();
+    }
+
+    /**
+     * <p>
+     * Gets the project's id.
+     * </p>
+     *
+     * @return the project's id
+     */
+    long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * <p>
+     * Gets the user's id.
+     * </p>
+     *
+     * @return the user's id
+     */
+    long getUserId() {
+        return userId;
+    }
+
+    /**
+     * <p>
+     * Gets the file name of the upload.
+     * </p>
+     *
+     * @return the file name
+     */
+    String getFilename() {
+        return filename;
+    }
+
+    /**
+     * <p>
+     * Gets the partial file.
+     * </p>
+     *
+     * @return the partial file
+     */
+    File getPartFile() {
+        return partFile;
+    }
+}
@@ -3,6 +3,8 @@
  */
 package com.cronos.onlinereview.services.uploads.impl;
 
+import com.cronos.onlinereview.services.uploads.ChunkedUploadExternalServices;
+import com.cronos.onlinereview.services.uploads.ChunkedUploadStatus;
 import com.cronos.onlinereview.services.uploads.ConfigurationException;
 import com.cronos.onlinereview.services.uploads.InvalidProjectException;
 import com.cronos.onlinereview.services.uploads.InvalidProjectPhaseException;
@@ -24,11 +26,23 @@ import com.topcoder.util.log.LogFactory;
 import javax.activation.DataHandler;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileFilter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.rmi.RemoteException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p>
@@ -53,6 +67,12 @@ import java.text.MessageFormat;
  *      &lt;Property name=&quot;fileStorageLocation&quot;&gt;
  *          &lt;Value&gt;test_files/upload&lt;/Value&gt;
  *      &lt;/Property&gt;
+ *      &lt;Property name=&quot;chunkSize&quot;&gt;
+ *          &lt;Value&gt;1048576&lt;/Value&gt;
+ *      &lt;/Property&gt;
+ *      &lt;Property name=&quot;uploadSessionTimeout&quot;&gt;
+ *          &lt;Value&gt;3600000&lt;/Value&gt;
+ *      &lt;/Property&gt;
  *  &lt;/Config&gt;
  * </pre>
  * </p>
@@ -68,15 +88,25 @@ import java.text.MessageFormat;
  *   </ol>
  * </p>
  * <p>
+ * Version 1.2 (Chunked Submission Upload) Change notes:
+ *   <ol>
+ *     <li>Implements {@link ChunkedUploadExternalServices}: the chunks are written with positional writes to a
+ *     partial file of the storage location, checked against their MD5 checksums, and the partial file becomes the
+ *     submission file on commit. The sessions inactive for longer than <code>uploadSessionTimeout</code> are
+ *     discarded.</li>
+ *     <li>Added the optional <code>chunkSize</code> and <code>uploadSessionTimeout</code> properties.</li>
+ *   </ol>
+ * </p>
+ * <p>
  * Thread safe: The thread safety is completely relied to the uploadServices implementation because it's impossible
- * to change the other variables
+ * to change the other variables. The chunked upload sessions are kept in a concurrent map and are thread safe.
  * </p>
  *
  * @author fabrizyo, saarixx, cyberjag, TCSDEVELOPER
- * @version 1.1.1
+ * @version 1.2
  * @since 1.0
  */
-public class DefaultUploadExternalServices implements UploadExternalServices {
+public class DefaultUploadExternalServices implements UploadExternalServices, ChunkedUploadExternalServices {
 
     /**
      * <p>
@@ -109,6 +139,51 @@ public class DefaultUploadExternalServices implements UploadExternalServices {
      */
     private static final int BUFFER_SIZE = 1024;
 
+    /**
+     * <p>
+     * Represents the default size of the chunks of the chunked uploads, in bytes.
+     * </p>
+     *
+     * @since 1.2
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * <p>
+     * Represents the default inactivity period after which the chunked upload sessions expire, in milliseconds.
+     * </p>
+     *
+     * @since 1.2
+     */
+    public static final long DEFAULT_UPLOAD_SESSION_TIMEOUT = 60 * 60 * 1000L;
+
+    /**
+     * <p>
+     * Represents the extension of the partial files of the chunked uploads.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private static final String PART_FILE_EXTENSION = ".part";
+
+    /**
+     * <p>
+     * Represents the minimum interval between two scans for the expired upload sessions, in milliseconds.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private static final long EXPIRY_SCAN_INTERVAL = 60 * 1000L;
+
+    /**
+     * <p>
+     * Represents the hexadecimal digits used to encode the checksums.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     /**
      * <p>
      * Represents the internal <code>UploadServices</code> to delegate the calls. In upload* methods the filename
@@ -134,6 +209,45 @@ public class DefaultUploadExternalServices implements UploadExternalServices {
      */
     private final String fileStorageLocation;
 
+    /**
+     * <p>
+     * Represents the size of the chunks of the chunked uploads, in bytes. It is defined in constructor and is
+     * positive.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private final int chunkSize;
+
+    /**
+     * <p>
+     * Represents the inactivity period after which the chunked upload sessions expire, in milliseconds. It is
+     * defined in constructor and is positive.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private final long uploadSessionTimeout;
+
+    /**
+     * <p>
+     * Represents the chunked upload sessions by their client assigned IDs.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private final ConcurrentMap<String, ChunkedUploadSession> uploadSessions =
+        new ConcurrentHashMap<String, ChunkedUploadSession>();
+
+    /**
+     * <p>
+     * Represents the time of the next scan for the expired upload sessions.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private final AtomicLong nextExpiryScanTime = new AtomicLong();
+
     /**
      * <p>
      * Creates <code>DefaultUploadExternalServices</code> using the configuration with default namespace.
@@ -171,6 +285,9 @@ public class DefaultUploadExternalServices implements UploadExternalServices {
         this.filenamePattern = Helper.readProperty(namespace, "filenamePattern", DEFAULT_FILENAME_PATTERN, LOG,
                 false);
         this.fileStorageLocation = Helper.readProperty(namespace, "fileStorageLocation", null, LOG, true);
+        this.chunkSize = (int) readPositiveLong(namespace, "chunkSize", DEFAULT_CHUNK_SIZE, Integer.MAX_VALUE);
+        this.uploadSessionTimeout = readPositiveLong(namespace, "uploadSessionTimeout",
+            DEFAULT_UPLOAD_SESSION_TIMEOUT, Long.MAX_VALUE);
     }
 
     /**
@@ -190,13 +307,44 @@ public class DefaultUploadExternalServices implements UploadExternalServices {
      */
     public DefaultUploadExternalServices(UploadServices uploadServices, String filenamePattern,
                                          String fileStorageLocation) {
+        this(uploadServices, filenamePattern, fileStorageLocation, DEFAULT_CHUNK_SIZE,
+            DEFAULT_UPLOAD_SESSION_TIMEOUT);
+    }
+
+    /**
+     * <p>
+     * Creates <code>DefaultUploadExternalServices</code> with the specified property.
+     * </p>
+     *
+     * @param uploadServices       the services to delegate all calls
+     * @param filenamePattern      the pattern to construct the filename for passing to uploadServices:
+     *                             may be <code>null</code>
+     *                             (means that is used the default value) or empty
+     * @param fileStorageLocation  the location to store the files is used
+     * @param chunkSize            the size of the chunks of the chunked uploads, in bytes
+     * @param uploadSessionTimeout the inactivity period after which the chunked upload sessions expire, in
+     *                             milliseconds
+     *
+     * @throws IllegalArgumentException if uploadServices or fileStorageLocation are <code>null</code>,
+     *                                  if fileStorageLocation is empty, if chunkSize or uploadSessionTimeout is not
+     *                                  positive
+     * @since 1.2
+     */
+    public DefaultUploadExternalServices(UploadServices uploadServices, String filenamePattern,
+                                         String fileStorageLocation, int chunkSize, long uploadSessionTimeout) {
         Helper.checkNull(uploadServices, "uploadServices", LOG);
         Helper.checkString(fileStorageLocation, "fileStorageLocation", LOG);
+        if (chunkSize <= 0 || uploadSessionTimeout <= 0) {
+            Helper.logFormat(LOG, Level.ERROR, "The chunkSize and uploadSessionTimeout should be positive.");
+            throw new IllegalArgumentException("The chunkSize and uploadSessionTimeout should be positive.");
+        }
 
         this.uploadServices = uploadServices;
         this.filenamePattern = (filenamePattern != null && filenamePattern.trim().length() != 0) ? filenamePattern
                 : DEFAULT_FILENAME_PATTERN;
         this.fileStorageLocation = fileStorageLocation;
+        this.chunkSize = chunkSize;
+        this.uploadSessionTimeout = uploadSessionTimeout;
     }
 
     /**
@@ -440,19 +588,302 @@ public class DefaultUploadExternalServices implements UploadExternalServices {
     }
 
     /**
-     * Creates a new file with a unique name and copies the stream from the <code>DataHandler</code> to the new
-     * file created.
+     * <p>
+     * Begins, or resumes, the chunked upload of a submission.
+     * </p>
+     * <p>
+     * If the session exists with the same arguments, its status is returned so that the client only sends the
+     * missing chunks.
+     * </p>
      *
-     * @param filename    the filename to use
-     * @param dataHandler the <code>DataHandler</code> to get the <code>InputStream</code>
+     * @param sessionId the client assigned ID of the upload session
+     * @param projectId the project's id
+     * @param userId    the user's id
+     * @param filename  the file name to use
+     * @param length    the length of the submission file in bytes
+     *
+     * @return the status of the upload session
+     *
+     * @throws UploadServicesException  if the session exists with different arguments
+     * @throws RemoteException          if the partial file can not be created
+     * @throws IllegalArgumentException if any id is &lt; 0, if length is not positive, if any argument is
+     *                                  <code>null</code> or trim to empty
+     * @since 1.2
+     */
+    public ChunkedUploadStatus beginSubmissionUpload(String sessionId, long projectId, long userId, String filename,
+        long length) throws RemoteException, UploadServicesException {
+        Helper.logFormat(LOG, Level.DEBUG,
+                "Entered DefaultUploadExternalServices#beginSubmissionUpload(String, long, long, String, long)");
+        Helper.checkString(sessionId, "sessionId", LOG);
+        Helper.checkId(projectId, "projectId", LOG);
+        Helper.checkId(userId, "userId", LOG);
+        Helper.checkString(filename, "filename", LOG);
+        if (length <= 0) {
+            Helper.logFormat(LOG, Level.ERROR, "Parameter argument: length should be positive.");
+            throw new IllegalArgumentException("Parameter argument: length should be positive.");
+        }
+        try {
+            expireUploadSessions();
+
+            ChunkedUploadSession session = uploadSessions.get(sessionId);
+            if (session == null) {
+                File partFile = generateFile("upload" + PART_FILE_EXTENSION);
+                try {
+                    session = new ChunkedUploadSession(sessionId, projectId, userId, filename, length, chunkSize,
+                        partFile);
+                } catch (IOException e) {
+                    Helper.logFormat(LOG, Level.ERROR, e, "Failed to create the partial file {0}",
+                        new Object[] {partFile.getAbsolutePath()});
+                    throw new RemoteException("Failed to create the partial file of the upload session", e);
+                }
+                ChunkedUploadSession existing = uploadSessions.putIfAbsent(sessionId, session);
+                if (existing != null) {
+                    // another request began the same session meanwhile
+                    session.discard();
+                    session = existing;
+                } else {
+                    Helper.logFormat(LOG, Level.INFO, "Upload session {0} begun for {1} bytes",
+                        new Object[] {sessionId, length});
+                }
+            }
+            if (!session.matches(projectId, userId, filename, length)) {
+                throw new UploadServicesException("The upload session " + sessionId
+                    + " exists for another upload.");
+            }
+            session.touch();
+            return session.getStatus();
+        } finally {
+            Helper.logFormat(LOG, Level.DEBUG,
+                    "Exited DefaultUploadExternalServices#beginSubmissionUpload(String, long, long, String, long)");
+        }
+    }
+
+    /**
+     * <p>
+     * Receives a chunk of a submission, checks its length and checksum and writes it at its position in the partial
+     * file. Sending a chunk again overwrites it.
+     * </p>
+     *
+     * @param sessionId  the ID of the upload session
+     * @param chunkIndex the index of the chunk, from 0
+     * @param checksum   the hexadecimal MD5 digest of the chunk
+     * @param chunk      the chunk data
+     *
+     * @return the status of the upload session
+     *
+     * @throws UploadServicesException  if the session does not exist or expired, if the chunk has not the expected
+     *                                  length, or if it does not match the checksum
+     * @throws RemoteException          if the chunk can not be read or written
+     * @throws IllegalArgumentException if chunkIndex is &lt; 0, if any argument is <code>null</code> or trim to empty
+     * @since 1.2
+     */
+    public ChunkedUploadStatus uploadSubmissionChunk(String sessionId, int chunkIndex, String checksum,
+        DataHandler chunk) throws RemoteException, UploadServicesException {
+        Helper.logFormat(LOG, Level.DEBUG,
+                "Entered DefaultUploadExternalServices#uploadSubmissionChunk(String, int, String, DataHandler)");
+        Helper.checkString(sessionId, "sessionId", LOG);
+        Helper.checkId(chunkIndex, "chunkIndex", LOG);
+        Helper.checkString(checksum, "checksum", LOG);
+        Helper.checkNull(chunk, "chunk", LOG);
+        InputStream inputStream = null;
+        try {
+            ChunkedUploadSession session = getUploadSession(sessionId);
+            int chunkLength = session.getChunkLength(chunkIndex);
+            if (chunkLength < 0) {
+                throw new UploadServicesException("The chunk " + chunkIndex + " is out of the upload session "
+                    + sessionId + ".");
+            }
+
+            // read exactly the expected length
+            ByteBuffer buffer = ByteBuffer.allocate(chunkLength);
+            inputStream = chunk.getDataSource().getInputStream();
+            ReadableByteChannel input = Channels.newChannel(inputStream);
+            while (buffer.hasRemaining() && input.read(buffer) >= 0) {
+                // keeps reading
+            }
+            if (buffer.hasRemaining() || inputStream.read() >= 0) {
+                throw new UploadServicesException("The chunk " + chunkIndex + " of the upload session " + sessionId
+                    + " should have " + chunkLength + " bytes.");
+            }
+            if (!checksum.equalsIgnoreCase(digest(buffer.array()))) {
+                throw new UploadServicesException("The chunk " + chunkIndex + " of the upload session " + sessionId
+                    + " does not match its checksum.");
+            }
+
+            buffer.flip();
+            session.writeChunk(chunkIndex, buffer);
+            return session.getStatus();
+        } catch (IOException e) {
+            Helper.logFormat(LOG, Level.ERROR, e, "Failed to write the chunk {0} of the upload session {1}",
+                new Object[] {chunkIndex, sessionId});
+            throw new RemoteException("Failed to write the chunk of the upload session", e);
+        } finally {
+            close(inputStream);
+            if (chunk.getName() != null) {
+                new File(chunk.getName()).delete();
+            }
+            Helper.logFormat(LOG, Level.DEBUG,
+                    "Exited DefaultUploadExternalServices#uploadSubmissionChunk(String, int, String, DataHandler)");
+        }
+    }
+
+    /**
+     * <p>
+     * Commits a chunked upload once every chunk is received: the partial file is renamed to a generated filename
+     * and the submission is created by uploadServices.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     *
+     * @return the id of the new submission
+     *
+     * @throws UploadServicesException  if the session does not exist or expired, if some chunks are missing, or if
+     *                                  any error occurs while creating the submission
+     * @throws RemoteException          if the partial file can not be closed or renamed
+     * @throws IllegalArgumentException if sessionId is <code>null</code> or trim to empty
+     * @since 1.2
+     */
+    public long commitSubmissionUpload(String sessionId) throws RemoteException, UploadServicesException {
+        Helper.logFormat(LOG, Level.DEBUG, "Entered DefaultUploadExternalServices#commitSubmissionUpload(String)");
+        Helper.checkString(sessionId, "sessionId", LOG);
+        try {
+            ChunkedUploadSession session = getUploadSession(sessionId);
+            if (!session.isComplete()) {
+                ChunkedUploadStatus status = session.getStatus();
+                throw new UploadServicesException("The upload session " + sessionId + " misses "
+                    + (status.getChunkCount() - status.getReceivedChunks().length) + " chunks.");
+            }
+            if (!uploadSessions.remove(sessionId, session)) {
+                throw new UploadServicesException("The upload session " + sessionId + " is already committed.");
+            }
+
+            File newFile = generateFile(session.getFilename());
+            try {
+                session.close();
+            } catch (IOException e) {
+                session.discard();
+                Helper.logFormat(LOG, Level.ERROR, e, "Failed to close the partial file of the upload session {0}",
+                    new Object[] {sessionId});
+                throw new RemoteException("Failed to close the partial file of the upload session", e);
+            }
+            if (!session.getPartFile().renameTo(newFile)) {
+                session.discard();
+                Helper.logFormat(LOG, Level.ERROR, "Failed to rename the partial file of the upload session {0}",
+                    new Object[] {sessionId});
+                throw new RemoteException("Failed to rename the partial file of the upload session");
+            }
+            Helper.logFormat(LOG, Level.INFO, "Submission file created {0}",
+                new Object[] {newFile.getAbsolutePath()});
+            try {
+                return uploadServices.uploadSubmission(session.getProjectId(), session.getUserId(),
+                    newFile.getName());
+            } catch (UploadServicesException e) {
+                // if there is an exception during this processing then the file previous written must be deleted
+                newFile.delete();
+                throw e;
+            }
+        } finally {
+            Helper.logFormat(LOG, Level.DEBUG,
+                    "Exited DefaultUploadExternalServices#commitSubmissionUpload(String)");
+        }
+    }
+
+    /**
+     * <p>
+     * Cancels a chunked upload, deleting its partial file. Does nothing if the session does not exist.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     *
+     * @throws IllegalArgumentException if sessionId is <code>null</code> or trim to empty
+     * @since 1.2
+     */
+    public void cancelSubmissionUpload(String sessionId) {
+        Helper.logFormat(LOG, Level.DEBUG, "Entered DefaultUploadExternalServices#cancelSubmissionUpload(String)");
+        Helper.checkString(sessionId, "sessionId", LOG);
+        ChunkedUploadSession session = uploadSessions.remove(sessionId);
+        if (session != null) {
+            session.discard();
+            Helper.logFormat(LOG, Level.INFO, "Upload session {0} cancelled", new Object[] {sessionId});
+        }
+        Helper.logFormat(LOG, Level.DEBUG, "Exited DefaultUploadExternalServices#cancelSubmissionUpload(String)");
+    }
+
+    /**
+     * <p>
+     * Gets an upload session which did not expire.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     *
+     * @return the upload session
+     *
+     * @throws UploadServicesException if the session does not exist or expired
+     * @since 1.2
+     */
+    private ChunkedUploadSession getUploadSession(String sessionId) throws UploadServicesException {
+        expireUploadSessions();
+        ChunkedUploadSession session = uploadSessions.get(sessionId);
+        if (session == null) {
+            throw new UploadServicesException("The upload session " + sessionId + " does not exist or expired.");
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * <p>
+     * Discards the expired upload sessions, and deletes the partial files left by the previous runs. The scan runs
+     * at most once per <code>EXPIRY_SCAN_INTERVAL</code>.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private void expireUploadSessions() {
+        final long now = System.currentTimeMillis();
+        long scanTime = nextExpiryScanTime.get();
+        if (now < scanTime || !nextExpiryScanTime.compareAndSet(scanTime, now + EXPIRY_SCAN_INTERVAL)) {
+            return;
+        }
+
+        final Set<File> partFiles = new HashSet<File>();
+        for (Iterator<ChunkedUploadSession> it = uploadSessions.values().iterator(); it.hasNext();) {
+            ChunkedUploadSession session = it.next();
+            if (session.isExpired(now, uploadSessionTimeout)) {
+                it.remove();
+                session.discard();
+                Helper.logFormat(LOG, Level.INFO, "Upload session of {0} expired",
+                    new Object[] {session.getFilename()});
+            } else {
+                partFiles.add(session.getPartFile().getAbsoluteFile());
+            }
+        }
+
+        File[] orphans = new File(fileStorageLocation).listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.getName().endsWith(PART_FILE_EXTENSION) && !partFiles.contains(file.getAbsoluteFile())
+                    && now - file.lastModified() > uploadSessionTimeout;
+            }
+        });
+        if (orphans != null) {
+            for (File orphan : orphans) {
+                orphan.delete();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Generates a file of the storage location which does not exist yet.
+     * </p>
+     *
+     * @param filename the filename to use
      *
      * @return the new file
      *
-     * @throws RemoteException if an internal exception occurs
-     * @since 1.0
+     * @since 1.2
      */
-    private File createNewFile(String filename, DataHandler dataHandler) throws RemoteException {
-        // generate the filename to storage the file
+    private File generateFile(String filename) {
         String filenameGenerated;
         File newFile;
         do {
@@ -461,6 +892,80 @@ public class DefaultUploadExternalServices implements UploadExternalServices {
             filenameGenerated = fileStorageLocation + File.separator + filenameGenerated;
             newFile = new File(filenameGenerated);
         } while (newFile.exists());
+        return newFile;
+    }
+
+    /**
+     * <p>
+     * Computes the hexadecimal MD5 digest of a chunk.
+     * </p>
+     *
+     * @param content the content of the chunk
+     *
+     * @return the hexadecimal digest
+     *
+     * @since 1.2
+     */
+    private static String digest(byte[] content) {
+        try {
+            StringBuilder result = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("MD5").digest(content)) {
+                result.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported.");
+        }
+    }
+
+    /**
+     * <p>
+     * Reads an optional positive numeric property.
+     * </p>
+     *
+     * @param namespace the namespace to load configuration
+     * @param key       the name of the property
+     * @param defValue  the default value
+     * @param maxValue  the maximum value
+     *
+     * @return the property value
+     *
+     * @throws ConfigurationException if the property is not a positive number up to the maximum value
+     * @since 1.2
+     */
+    private static long readPositiveLong(String namespace, String key, long defValue, long maxValue)
+        throws ConfigurationException {
+        String value = Helper.readProperty(namespace, key, null, LOG, false);
+        if (value == null) {
+            return defValue;
+        }
+        try {
+            long result = Long.parseLong(value.trim());
+            if (result > 0 && result <= maxValue) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        Helper.logFormat(LOG, Level.FATAL, "The property {0} should be a positive number", new Object[] {key});
+        throw new ConfigurationException("The '" + key + "' property should be a positive number.");
+    }
+
+    /**
+     * Creates a new file with a unique name and copies the stream from the <code>DataHandler</code> to the new
+     * file created.
+     *
+     * @param filename    the filename to use
+     * @param dataHandler the <code>DataHandler</code> to get the <code>InputStream</code>
+     *
+     * @return the new file
+     *
+     * @throws RemoteException if an internal exception occurs
+     * @since 1.0
+     */
+    private File createNewFile(String filename, DataHandler dataHandler) throws RemoteException {
+        // generate the filename to storage the file
+        File newFile = generateFile(filename);
 
         // write the content of submission into file
         InputStream inputStream = null;
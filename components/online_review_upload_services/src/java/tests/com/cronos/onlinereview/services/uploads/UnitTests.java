@@ -9,6 +9,7 @@ import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
 import com.cronos.onlinereview.services.uploads.impl.DefaultManagersProviderTest;
+import com.cronos.onlinereview.services.uploads.impl.DefaultUploadExternalServicesChunkedUploadTest;
 import com.cronos.onlinereview.services.uploads.impl.DefaultUploadExternalServicesTest;
 import com.cronos.onlinereview.services.uploads.impl.DefaultUploadServicesTest;
 import com.cronos.onlinereview.services.uploads.impl.HelperTest;
@@ -40,6 +41,7 @@ public class UnitTests extends TestCase {
 
         suite.addTest(DefaultManagersProviderTest.suite());
         suite.addTest(DefaultUploadExternalServicesTest.suite());
+        suite.addTest(DefaultUploadExternalServicesChunkedUploadTest.suite());
         suite.addTest(DefaultUploadServicesTest.suite());
         suite.addTest(HelperTest.suite());
         suite.addTest(Demo.suite());
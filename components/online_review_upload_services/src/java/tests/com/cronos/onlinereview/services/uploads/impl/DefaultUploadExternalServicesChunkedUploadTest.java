@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.cronos.onlinereview.services.uploads.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import com.cronos.onlinereview.services.uploads.ChunkedUploadStatus;
+import com.cronos.onlinereview.services.uploads.UploadServices;
+import com.cronos.onlinereview.services.uploads.UploadServicesException;
+
+/**
+ * <p>
+ * Tests the chunked upload of <code>{@link DefaultUploadExternalServices}</code> class.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class DefaultUploadExternalServicesChunkedUploadTest extends TestCase {
+    /**
+     * <p>
+     * Represents the storage location used in tests.
+     * </p>
+     */
+    private File directory;
+
+    /**
+     * <p>
+     * Represents the content uploaded in tests, of three chunks.
+     * </p>
+     */
+    private byte[] content;
+
+    /**
+     * <p>
+     * Represents the name of the submission file created by the stub upload services.
+     * </p>
+     */
+    private String submissionFilename;
+
+    /**
+     * <p>
+     * Represents the <code>DefaultUploadExternalServices</code> to test.
+     * </p>
+     */
+    private DefaultUploadExternalServices services;
+
+    /**
+     * <p>
+     * Integrates all tests in this class.
+     * </p>
+     *
+     * @return Test suite of all tests of <code>DefaultUploadExternalServicesChunkedUploadTest</code>.
+     */
+    public static Test suite() {
+        return new TestSuite(DefaultUploadExternalServicesChunkedUploadTest.class);
+    }
+
+    /**
+     * <p>
+     * Sets up the test environment.
+     * </p>
+     *
+     * @throws Exception
+     *             throws exception if any.
+     */
+    protected void setUp() throws Exception {
+        directory = new File("test_files" + File.separator + "chunks");
+        directory.mkdirs();
+        content = new byte[250];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        UploadServices uploadServices = (UploadServices) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class[] {UploadServices.class}, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    submissionFilename = (String) args[2];
+                    return 5L;
+                }
+            });
+        services = new DefaultUploadExternalServices(uploadServices, null, directory.getPath(), 100, 60000);
+    }
+
+    /**
+     * <p>
+     * Tears down the test environment.
+     * </p>
+     *
+     * @throws Exception
+     *             throws exception if any.
+     */
+    protected void tearDown() throws Exception {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * <p>
+     * Accuracy test of the chunked upload. The chunks are sent out of order, the upload is resumed, and the
+     * committed file has the uploaded content.
+     * </p>
+     *
+     * @throws Exception
+     *             if any error occurs
+     */
+    public void testChunkedUpload_accuracy() throws Exception {
+        ChunkedUploadStatus status = services.beginSubmissionUpload("s1", 1, 2, "sub.zip", content.length);
+        assertEquals("Wrong chunk size", 100, status.getChunkSize());
+        assertEquals("Wrong chunk count", 3, status.getChunkCount());
+        assertEquals("No chunk should be received", 0, status.getReceivedChunks().length);
+
+        uploadChunk("s1", 2);
+        uploadChunk("s1", 0);
+
+        // resume the upload
+        status = services.beginSubmissionUpload("s1", 1, 2, "sub.zip", content.length);
+        assertTrue("Wrong received chunks", Arrays.equals(new int[] {0, 2}, status.getReceivedChunks()));
+        uploadChunk("s1", 1);
+
+        assertEquals("Wrong submission id", 5L, services.commitSubmissionUpload("s1"));
+        File submission = new File(directory, submissionFilename);
+        assertTrue("Wrong submission file name", submissionFilename.endsWith("_sub.zip"));
+        assertTrue("Wrong submission content", Arrays.equals(content, read(submission)));
+        assertEquals("The partial file should be renamed", 1, directory.list().length);
+    }
+
+    /**
+     * <p>
+     * Failure test of the chunked upload. A chunk not matching its checksum is rejected.
+     * </p>
+     *
+     * <p>
+     * Expects <code>UploadServicesException</code>.
+     * </p>
+     *
+     * @throws Exception
+     *             if any error occurs
+     */
+    public void testUploadSubmissionChunk_failure_checksum() throws Exception {
+        services.beginSubmissionUpload("s1", 1, 2, "sub.zip", content.length);
+        try {
+            services.uploadSubmissionChunk("s1", 0, checksum(new byte[100]), createChunk(0));
+            fail("Expect UploadServicesException.");
+        } catch (UploadServicesException e) {
+            // expect
+        }
+    }
+
+    /**
+     * <p>
+     * Failure test of the chunked upload. A session missing chunks can not be committed.
+     * </p>
+     *
+     * <p>
+     * Expects <code>UploadServicesException</code>.
+     * </p>
+     *
+     * @throws Exception
+     *             if any error occurs
+     */
+    public void testCommitSubmissionUpload_failure_incomplete() throws Exception {
+        services.beginSubmissionUpload("s1", 1, 2, "sub.zip", content.length);
+        uploadChunk("s1", 0);
+        try {
+            services.commitSubmissionUpload("s1");
+            fail("Expect UploadServicesException.");
+        } catch (UploadServicesException e) {
+            // expect
+        }
+    }
+
+    /**
+     * <p>
+     * Failure test of the chunked upload. A cancelled session does not exist anymore, and its partial file is
+     * deleted.
+     * </p>
+     *
+     * <p>
+     * Expects <code>UploadServicesException</code>.
+     * </p>
+     *
+     * @throws Exception
+     *             if any error occurs
+     */
+    public void testCancelSubmissionUpload() throws Exception {
+        services.beginSubmissionUpload("s1", 1, 2, "sub.zip", content.length);
+        services.cancelSubmissionUpload("s1");
+        assertEquals("The partial file should be deleted", 0, directory.list().length);
+        try {
+            uploadChunk("s1", 0);
+            fail("Expect UploadServicesException.");
+        } catch (UploadServicesException e) {
+            // expect
+        }
+    }
+
+    /**
+     * <p>
+     * Uploads a chunk of the content.
+     * </p>
+     *
+     * @param sessionId the ID of the upload session
+     * @param chunkIndex the index of the chunk
+     *
+     * @throws Exception if any error occurs
+     */
+    private void uploadChunk(String sessionId, int chunkIndex) throws Exception {
+        services.uploadSubmissionChunk(sessionId, chunkIndex, checksum(getChunk(chunkIndex)),
+            createChunk(chunkIndex));
+    }
+
+    /**
+     * <p>
+     * Gets a chunk of the content.
+     * </p>
+     *
+     * @param chunkIndex the index of the chunk
+     *
+     * @return the chunk
+     */
+    private byte[] getChunk(int chunkIndex) {
+        int from = chunkIndex * 100;
+        byte[] chunk = new byte[Math.min(100, content.length - from)];
+        System.arraycopy(content, from, chunk, 0, chunk.length);
+        return chunk;
+    }
+
+    /**
+     * <p>
+     * Creates the data handler of a chunk of the content.
+     * </p>
+     *
+     * @param chunkIndex the index of the chunk
+     *
+     * @return the data handler
+     */
+    private DataHandler createChunk(int chunkIndex) {
+        final byte[] chunk = getChunk(chunkIndex);
+        return new DataHandler(new DataSource() {
+            public String getContentType() {
+                return "application/octet-stream";
+            }
+
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(chunk);
+            }
+
+            public String getName() {
+                return null;
+            }
+
+            public OutputStream getOutputStream() throws IOException {
+                throw new IOException("read only");
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * Computes the hexadecimal MD5 digest of some bytes.
+     * </p>
+     *
+     * @param bytes the bytes
+     *
+     * @return the hexadecimal digest
+     *
+     * @throws Exception if any error occurs
+     */
+    private static String checksum(byte[] bytes) throws Exception {
+        StringBuilder result = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("MD5").digest(bytes)) {
+            result.append(String.format("%02X", b & 0xFF));
+        }
+        return result.toString();
+    }
+
+    /**
+     * <p>
+     * Reads the content of a file.
+     * </p>
+     *
+     * @param file the file
+     *
+     * @return the content
+     *
+     * @throws IOException if any error occurs
+     */
+    private static byte[] read(File file) throws IOException {
+        byte[] result = new byte[(int) file.length()];
+        InputStream input = new FileInputStream(file);
+        try {
+            int offset = 0;
+            int count;
+            while (offset < result.length && (count = input.read(result, offset, result.length - offset)) > 0) {
+                offset += count;
+            }
+        } finally {
+            input.close();
+        }
+        return result;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007 - 2011 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2007 - 2013 TopCoder Inc., All Rights Reserved.
  */
 
 package com.topcoder.management.phase.db;
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.topcoder.date.workdays.DefaultWorkdaysFactory;
 import com.topcoder.date.workdays.DefaultWorkdays;
@@ -114,9 +115,21 @@ import com.topcoder.util.idgenerator.IDGenerator;
  *     statement 'updatePhaseCriteria(conn, phases[i], operator, lookUps);' </li>
  * </ul>
  * </p>
+ *
+ * <p>
+ * Version 1.3 Change notes:
+ * <ul>
+ * <li>{@link #createPhases(Phase[], String)} and {@link #updatePhases(Phase[], String)} group the inserts, updates
+ * and deletes of each table and execute them as JDBC batches, with the statements prepared once per operation
+ * (see {@link StatementBatch}). The phase criteria of the updated phases are read by one query.</li>
+ * <li>The project phase audit records are inserted in a batch, each one is still checked to be inserted.</li>
+ * <li>The phases whose update count is not reported by the driver ({@link Statement#SUCCESS_NO_INFO}) are
+ * looked up to know whether they exist or should be created.</li>
+ * </ul>
+ * </p>
  * 
- * @author AleaActaEst, kr00tki, GreatKevin
- * @version 1.2
+ * @author AleaActaEst, kr00tki, GreatKevin, TCSDEVELOPER
+ * @version 1.3
  */
 public abstract class AbstractInformixPhasePersistence extends
         AbstractDbPhasePersistence {
@@ -158,12 +171,14 @@ public abstract class AbstractInformixPhasePersistence extends
     private static final String DELETE_PROJECT_PHASE = "DELETE FROM project_phase WHERE project_phase_id IN ";
 
     /**
-     * Select the complete phase criteria for a phases.
+     * Select the complete phase criteria for the given phases.
+     *
+     * @since 1.3
      */
-    private static final String SELECT_PHASE_CRITERIA_FOR_PHASE = "SELECT phase_criteria.phase_criteria_type_id, "
+    private static final String SELECT_PHASE_CRITERIA_FOR_PHASES = "SELECT phase_criteria.project_phase_id, "
             + "name, parameter FROM phase_criteria JOIN phase_criteria_type_lu "
             + "ON phase_criteria_type_lu.phase_criteria_type_id = phase_criteria.phase_criteria_type_id "
-            + "WHERE project_phase_id = ?";
+            + "WHERE project_phase_id IN ";
 
     /**
      * Update the phase criteria.
@@ -172,10 +187,12 @@ public abstract class AbstractInformixPhasePersistence extends
             + "modify_user = ?, modify_date = ? WHERE project_phase_id = ? AND phase_criteria_type_id = ?";
 
     /**
-     * Delete the criteria for phase.
+     * Delete a criteria for phase.
+     *
+     * @since 1.3
      */
     private static final String DELETE_PHASE_CRITERIA = "DELETE FROM phase_criteria "
-            + "WHERE project_phase_id = ? AND phase_criteria_type_id IN ";
+            + "WHERE project_phase_id = ? AND phase_criteria_type_id = ?";
 
     /**
      * Deletes the concrete dependecies for a phase.
@@ -705,7 +722,8 @@ public abstract class AbstractInformixPhasePersistence extends
         // create the context
         Map context = createContextMap(conn);
 
-        PreparedStatement pstmt = null;
+        // the batches of the update, its statements are prepared once for all the phases
+        StatementBatch batch = new StatementBatch(conn);
         // it will contain the new phases that should be created
         List toCreate = new ArrayList();
 
@@ -717,61 +735,88 @@ public abstract class AbstractInformixPhasePersistence extends
             // get the phases criteria lookups
             Map lookUps = getCriteriaTypes(conn);
             // create the statement
-            pstmt = conn.prepareStatement(UPDATE_PHASE);
+            PreparedStatement pstmt = batch.prepare(UPDATE_PHASE);
 
             // set audit values
             pstmt.setString(10, operator);
             Timestamp updateTime = new Timestamp(System.currentTimeMillis());
             pstmt.setTimestamp(11, updateTime);
 
-            // iterate over all phases
+            // add the existing phases to the update batch
+            List toUpdate = new ArrayList();
             for (int i = 0; i < phases.length; i++) {
-                // check if is a new phase - if so add it to list
-                if (isNewPhase(phases[i])) {
-                    toCreate.add(phases[i]);
-                } else {
+                if (!isNewPhase(phases[i])) {
                     // set the update values
                     pstmt.setLong(1, phases[i].getProject().getId());
                     pstmt.setLong(2, phases[i].getPhaseType().getId());
                     pstmt.setLong(3, phases[i].getPhaseStatus().getId());
                     insertValueOrNull(pstmt, 4, phases[i].getFixedStartDate());
-                    Timestamp scheduledStartTime = new Timestamp(phases[i].getScheduledStartDate().getTime());
-                    pstmt.setTimestamp(5, scheduledStartTime);
-                    Timestamp scheduledEndTime = new Timestamp(phases[i].getScheduledEndDate().getTime());
-                    pstmt.setTimestamp(6, scheduledEndTime);
-
+                    pstmt.setTimestamp(5, new Timestamp(phases[i].getScheduledStartDate().getTime()));
+                    pstmt.setTimestamp(6, new Timestamp(phases[i].getScheduledEndDate().getTime()));
                     insertValueOrNull(pstmt, 7, phases[i].getActualStartDate());
                     insertValueOrNull(pstmt, 8, phases[i].getActualEndDate());
                     pstmt.setLong(9, phases[i].getLength());
                     pstmt.setLong(12, phases[i].getId());
+                    batch.addRow(UPDATE_PHASE);
+                    toUpdate.add(phases[i]);
+                }
+            }
+            int[] counts = batch.execute(UPDATE_PHASE);
 
-                    // if phase not exists add it to the new list
-                    if (pstmt.executeUpdate() == 0) {
+            // the driver may not report the update counts, the existence of these phases is checked
+            List unknown = new ArrayList();
+            for (int j = 0; j < counts.length; j++) {
+                if (counts[j] == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(toUpdate.get(j));
+                }
+            }
+            Set existing = getExistingPhaseIds(conn, unknown);
+
+            // the new phases and the phases not in the database are created, in their order
+            List updated = new ArrayList();
+            for (int i = 0, j = 0; i < phases.length; i++) {
+                if (j < toUpdate.size() && toUpdate.get(j) == phases[i]) {
+                    int count = counts[j++];
+                    if (count == 0 || (count == Statement.SUCCESS_NO_INFO
+                        && !existing.contains(new Long(phases[i].getId())))) {
                         toCreate.add(phases[i]);
                     } else {
-						// TODO, for cockpit we dont update criteria and dependencies, so not need to update
-			            // problem is we remove dependencies for cycle issue for web services, and criteria 
-						// dont seem returned in get phase, so update here will delete all data
-                        updatePhaseCriteria(conn, phases[i], operator, lookUps);
-                        //updateDependencies(conn, phases[i], operator);
-
-                        Phase oldPhase = oldPhasesMap.get(phases[i].getId());
-                        Timestamp auditScheduledStartTime =
-                        	oldPhase.getScheduledStartDate().equals(scheduledStartTime) ? null : scheduledStartTime;
-                        Timestamp auditScheduledEndTime =
-                        	oldPhase.getScheduledEndDate().equals(scheduledEndTime) ? null : scheduledEndTime;
-                        
-                        // only audit if one of the scheduled times changed
-                        if (auditScheduledStartTime != null || auditScheduledEndTime != null) {
-                        	auditProjectPhase(conn, phases[i], AUDIT_UPDATE_TYPE, auditScheduledStartTime,
-                        			auditScheduledEndTime, Long.parseLong(operator), updateTime);
-                        } 
+                        updated.add(phases[i]);
                     }
+                } else {
+                    toCreate.add(phases[i]);
                 }
             }
 
+            if (updated.size() > 0) {
+                // TODO, for cockpit we dont update criteria and dependencies, so not need to update
+                // problem is we remove dependencies for cycle issue for web services, and criteria
+                // dont seem returned in get phase, so update here will delete all data
+                updatePhaseCriteria(batch, updated, operator, lookUps, updateTime);
+                //updateDependencies(batch, phase, operator);
+
+                long auditUser = Long.parseLong(operator);
+                for (Iterator it = updated.iterator(); it.hasNext();) {
+                    Phase phase = (Phase) it.next();
+                    Timestamp scheduledStartTime = new Timestamp(phase.getScheduledStartDate().getTime());
+                    Timestamp scheduledEndTime = new Timestamp(phase.getScheduledEndDate().getTime());
+                    Phase oldPhase = oldPhasesMap.get(phase.getId());
+                    Timestamp auditScheduledStartTime =
+                        oldPhase.getScheduledStartDate().equals(scheduledStartTime) ? null : scheduledStartTime;
+                    Timestamp auditScheduledEndTime =
+                        oldPhase.getScheduledEndDate().equals(scheduledEndTime) ? null : scheduledEndTime;
+
+                    // only audit if one of the scheduled times changed
+                    if (auditScheduledStartTime != null || auditScheduledEndTime != null) {
+                        addProjectPhaseAudit(batch, phase, AUDIT_UPDATE_TYPE, auditScheduledStartTime,
+                            auditScheduledEndTime, auditUser, updateTime);
+                    }
+                }
+                executeProjectPhaseAudits(batch);
+            }
+
             // create the new phases
-            createPhasesImpl(conn, (Phase[]) toCreate
+            createPhasesImpl(batch, (Phase[]) toCreate
                     .toArray(new Phase[toCreate.size()]), operator, lookUps);
 
             // everything is OK, commit the transaction.
@@ -786,7 +831,7 @@ public abstract class AbstractInformixPhasePersistence extends
             throw new PhasePersistenceException(
                     "Error occurs while updating phases.", ex);
         }finally {
-            close(pstmt);
+            batch.close();
             disposeConnection(conn);
         }
     }
@@ -1125,6 +1170,37 @@ public abstract class AbstractInformixPhasePersistence extends
         }
     }
 
+    /**
+     * Gets the ids of the given phases that exist in the database.
+     * @param conn the database connection.
+     * @param phases the phases to look up.
+     * @return the ids of the existing phases, as Long.
+     * @throws SQLException if any database error occurs.
+     */
+    private static Set getExistingPhaseIds(Connection conn, List phases) throws SQLException {
+        Set ids = new HashSet();
+        if (phases.isEmpty()) {
+            return ids;
+        }
+
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement(SELECT_PROJECT_PHASE_ID + createQuestionMarks(phases.size()));
+            for (int i = 0; i < phases.size(); i++) {
+                pstmt.setLong(i + 1, ((Phase) phases.get(i)).getId());
+            }
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                ids.add(new Long(rs.getLong("project_phase_id")));
+            }
+            return ids;
+        } finally {
+            close(rs);
+            close(pstmt);
+        }
+    }
+
     /**
      * Creates the string in the pattern (?,+) where count is the number of
      * question marks. It is used th build prepared statements with IN
@@ -1369,103 +1445,131 @@ public abstract class AbstractInformixPhasePersistence extends
     private void createPhasesImpl(Connection conn, Phase[] phases,
             String operator, Map lookUp) throws SQLException,
             PhasePersistenceException {
+        StatementBatch batch = new StatementBatch(conn);
+        try {
+            createPhasesImpl(batch, phases, operator, lookUp);
+        } finally {
+            batch.close();
+        }
+    }
+
+    /**
+     * Creates the given array of the Phases in the persistence, using the batches
+     * of the operation. The phases, their audit records, criteria and dependencies
+     * are each inserted by one JDBC batch, in this order because of the foreign
+     * keys.
+     * @param batch the batches of the operation.
+     * @param phases the phases array to be created.
+     * @param operator the creation audit operator.
+     * @param lookUp the lookup map for the criteria name - id.
+     * @throws SQLException if any database error occurs.
+     * @throws PhasePersistenceException if other error occurs.
+     * @since 1.3
+     */
+    private void createPhasesImpl(StatementBatch batch, Phase[] phases,
+            String operator, Map lookUp) throws SQLException,
+            PhasePersistenceException {
+        if (phases.length == 0) {
+            return;
+        }
+
         // the list of phases dependencies
         List dependencies = new ArrayList();
-        PreparedStatement pstmt = null;
 
-        try {
+        // create insert statement
+        PreparedStatement pstmt = batch.prepare(INSERT_PHASE);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long auditUser = Long.parseLong(operator);
 
-            // create insert statement
-            pstmt = conn.prepareStatement(INSERT_PHASE);
-            Timestamp now = new Timestamp(System.currentTimeMillis());
+        // set the date and operator - this values are constant for all
+        // phases
+        pstmt.setString(11, operator);
+        pstmt.setTimestamp(12, now);
+        pstmt.setString(13, operator);
+        pstmt.setTimestamp(14, now);
 
-            // set the date and operator - this values are constant for all
-            // phases
-            pstmt.setString(11, operator);
-            pstmt.setTimestamp(12, now);
-            pstmt.setString(13, operator);
-            pstmt.setTimestamp(14, now);
+        // iterate over the phases array
+        for (int i = 0; i < phases.length; i++) {
+            // generate the new id for phase
+            phases[i].setId(nextId());
+            // add all phase dependencies to the list
+            dependencies.addAll(Arrays.asList(phases[i]
+                    .getAllDependencies()));
+
+            // set the phase data to statement
+            pstmt.setLong(1, phases[i].getId());
+            pstmt.setLong(2, phases[i].getProject().getId());
+            pstmt.setLong(3, phases[i].getPhaseType().getId());
+            pstmt.setLong(4, phases[i].getPhaseStatus().getId());
+            insertValueOrNull(pstmt, 5, phases[i].getFixedStartDate());
+            Timestamp scheduledStartTime = new Timestamp(phases[i].getScheduledStartDate().getTime());
+            pstmt.setTimestamp(6, scheduledStartTime);
+            Timestamp scheduledEndTime = new Timestamp(phases[i].getScheduledEndDate().getTime());
+            pstmt.setTimestamp(7, scheduledEndTime);
+            insertValueOrNull(pstmt, 8, phases[i].getActualStartDate());
+            insertValueOrNull(pstmt, 9, phases[i].getActualEndDate());
+            pstmt.setLong(10, phases[i].getLength());
+
+            // add the phase to the insert batch
+            batch.addRow(INSERT_PHASE);
+
+            addProjectPhaseAudit(batch, phases[i], AUDIT_CREATE_TYPE, scheduledStartTime, scheduledEndTime,
+                auditUser, now);
+
+            // add the criteria for phase
+            addPhaseCriteria(batch, phases[i], filterAttributes(phases[i]
+                    .getAttributes()), operator, lookUp, now);
+        }
 
-            // iterate over the phases array
-            for (int i = 0; i < phases.length; i++) {
-                // generate the new id for phase
-                phases[i].setId(nextId());
-                // add all phase dependencies to the list
-                dependencies.addAll(Arrays.asList(phases[i]
-                        .getAllDependencies()));
-
-                // set the phase data to statement
-                pstmt.setLong(1, phases[i].getId());
-                pstmt.setLong(2, phases[i].getProject().getId());
-                pstmt.setLong(3, phases[i].getPhaseType().getId());
-                pstmt.setLong(4, phases[i].getPhaseStatus().getId());
-                insertValueOrNull(pstmt, 5, phases[i].getFixedStartDate());
-                Timestamp scheduledStartTime = new Timestamp(phases[i].getScheduledStartDate().getTime());
-                pstmt.setTimestamp(6, scheduledStartTime);
-                Timestamp scheduledEndTime = new Timestamp(phases[i].getScheduledEndDate().getTime());
-                pstmt.setTimestamp(7, scheduledEndTime);
-                insertValueOrNull(pstmt, 8, phases[i].getActualStartDate());
-                insertValueOrNull(pstmt, 9, phases[i].getActualEndDate());
-                pstmt.setLong(10, phases[i].getLength());
-
-                // insert the phase
-                pstmt.executeUpdate();
-                
-                auditProjectPhase(conn, phases[i], AUDIT_CREATE_TYPE, scheduledStartTime, scheduledEndTime,
-                		Long.parseLong(operator), now);
-                
-                // create the criteria for phase
-                createPhaseCriteria(conn, phases[i], filterAttributes(phases[i]
-                        .getAttributes()), operator, lookUp);
-            }
+        // insert the phases, then the rows referencing them
+        batch.execute(INSERT_PHASE);
+        executeProjectPhaseAudits(batch);
+        batch.execute(INSERT_PHASE_CRITERIA);
 
-            // create the dependencies for phases
-            createDependency(conn, dependencies, operator);
-        } finally {
-            close(pstmt);
-        }
+        // create the dependencies for phases
+        createDependency(batch, dependencies, operator);
     }
 
     /**
-     * Creates the given list of dependencies in the database. All the phases
-     * must already be persisted.
-     * @param conn the database connection to be used.
+     * Creates the given list of dependencies in the database, by one JDBC
+     * batch. All the phases must already be persisted.
+     * @param batch the batches of the operation.
      * @param dependencies the phases dependencies to.
      * @param operator the creation operator for audit proposes.
      * @throws SQLException if any database error happens.
      */
-    private void createDependency(Connection conn, Collection dependencies,
+    private void createDependency(StatementBatch batch, Collection dependencies,
             String operator) throws SQLException {
-        PreparedStatement pstmt = null;
+        if (dependencies.isEmpty()) {
+            return;
+        }
 
-        try {
-            // create the statement
-            pstmt = conn.prepareStatement(INSERT_PHASE_DEPENDENCY);
-            Timestamp time = new Timestamp(System.currentTimeMillis());
-            // set the operator and timestamps
-            pstmt.setString(6, operator);
-            pstmt.setTimestamp(7, time);
-            pstmt.setString(8, operator);
-            pstmt.setTimestamp(9, time);
-
-            // iterate over the list of dependencies
-            for (Iterator iter = dependencies.iterator(); iter.hasNext();) {
-                Dependency dependency = (Dependency) iter.next();
-
-                // set the dependencies values.
-                pstmt.setLong(1, dependency.getDependency().getId());
-                pstmt.setLong(2, dependency.getDependent().getId());
-                pstmt.setBoolean(3, dependency.isDependencyStart());
-                pstmt.setBoolean(4, dependency.isDependentStart());
-                pstmt.setLong(5, dependency.getLagTime());
-
-                // create the dependency
-                pstmt.executeUpdate();
-            }
-        } finally {
-            close(pstmt);
+        // create the statement
+        PreparedStatement pstmt = batch.prepare(INSERT_PHASE_DEPENDENCY);
+        Timestamp time = new Timestamp(System.currentTimeMillis());
+        // set the operator and timestamps
+        pstmt.setString(6, operator);
+        pstmt.setTimestamp(7, time);
+        pstmt.setString(8, operator);
+        pstmt.setTimestamp(9, time);
+
+        // iterate over the list of dependencies
+        for (Iterator iter = dependencies.iterator(); iter.hasNext();) {
+            Dependency dependency = (Dependency) iter.next();
+
+            // set the dependencies values.
+            pstmt.setLong(1, dependency.getDependency().getId());
+            pstmt.setLong(2, dependency.getDependent().getId());
+            pstmt.setBoolean(3, dependency.isDependencyStart());
+            pstmt.setBoolean(4, dependency.isDependentStart());
+            pstmt.setLong(5, dependency.getLagTime());
+
+            // add the dependency to the batch
+            batch.addRow(INSERT_PHASE_DEPENDENCY);
         }
 
+        // create the dependencies
+        batch.execute(INSERT_PHASE_DEPENDENCY);
     }
 
     /**
@@ -1503,57 +1607,46 @@ public abstract class AbstractInformixPhasePersistence extends
     }
 
     /**
-     * Creates the phase criteria in the database. It uses helper lookup map to
-     * reduce database call for all the criteria types.
-     * @param conn the database connection to use.
+     * Adds the phase criteria to the insert batch. It uses helper lookup map to
+     * reduce database call for all the criteria types. The caller executes the
+     * batch once the phase is persisted.
+     * @param batch the batches of the operation.
      * @param phase the phase to which the criteria belongs.
      * @param attribs the phases criteria and parameters. The key is the name of
      *            criteria, the vale is the parameter.
      * @param operator the operator for audit proposes.
      * @param lookUp the lookup values for the criteria types.
+     * @param time the creation time.
      * @throws SQLException thrown if any database error occurs.
      */
-    private void createPhaseCriteria(Connection conn, Phase phase, Map attribs,
-            String operator, Map lookUp) throws SQLException {
+    private static void addPhaseCriteria(StatementBatch batch, Phase phase, Map attribs,
+            String operator, Map lookUp, Timestamp time) throws SQLException {
 
         // no work to do, return
         if (attribs.size() == 0) {
             return;
         }
 
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
+        // get the query
+        PreparedStatement pstmt = batch.prepare(INSERT_PHASE_CRITERIA);
 
-        try {
-            // create the query
-            pstmt = conn.prepareStatement(INSERT_PHASE_CRITERIA);
-            Timestamp time = new Timestamp(System.currentTimeMillis());
-
-            // set the value that do not change
-            pstmt.setLong(1, phase.getId());
-            pstmt.setString(4, operator);
-            pstmt.setTimestamp(5, time);
-            pstmt.setString(6, operator);
-            pstmt.setTimestamp(7, time);
-
-            // iterate over all attributes and persist only those who are the
-            // criteria
-            for (Iterator it = attribs.entrySet().iterator(); it.hasNext();) {
-                Map.Entry entry = (Map.Entry) it.next();
-                Long id = (Long) lookUp.get(entry.getKey());
-                // if such criteria exists - add it
-                if (id != null) {
-                    pstmt.setLong(2, id.longValue());
-                    pstmt.setString(3, (String) entry.getValue());
-                    pstmt.executeUpdate();
-                }
+        // iterate over all attributes and persist only those who are the
+        // criteria
+        for (Iterator it = attribs.entrySet().iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry) it.next();
+            Long id = (Long) lookUp.get(entry.getKey());
+            // if such criteria exists - add it
+            if (id != null) {
+                pstmt.setLong(1, phase.getId());
+                pstmt.setLong(2, id.longValue());
+                pstmt.setString(3, (String) entry.getValue());
+                pstmt.setString(4, operator);
+                pstmt.setTimestamp(5, time);
+                pstmt.setString(6, operator);
+                pstmt.setTimestamp(7, time);
+                batch.addRow(INSERT_PHASE_CRITERIA);
             }
-
-        } finally {
-            close(pstmt);
-            close(rs);
         }
-
     }
 
     /**
@@ -1669,52 +1762,63 @@ public abstract class AbstractInformixPhasePersistence extends
     }
 
     /**
-     * Updates the phase criteria for the given phase. It will create new ones,
-     * modify existing and delete the old.
-     * @param conn the database connection to be used.
-     * @param phase the phase to update.
+     * Updates the phase criteria for the given phases. It will create new ones,
+     * modify existing and delete the old. The criteria of all the phases are
+     * read by one query, and the changes are added to the batches of the
+     * operation, which are executed once per table.
+     * @param batch the batches of the operation.
+     * @param phases the phases to update.
      * @param operator the modification operator for audit proposes.
      * @param lookUp the lookup value for the criteria type ids.
+     * @param now the modification time.
      * @throws SQLException if any database error occurs.
      */
-    private void updatePhaseCriteria(Connection conn, Phase phase,
-            String operator, Map lookUp) throws SQLException {
+    private void updatePhaseCriteria(StatementBatch batch, List phases,
+            String operator, Map lookUp, Timestamp now) throws SQLException {
 
         PreparedStatement selectStatement = null;
-        PreparedStatement updateStatement = null;
-        PreparedStatement deleteStatement = null;
         ResultSet rs = null;
 
-        // get all the properties that only string key - they are potential
-        // criteria
-        Map newCriteria = filterAttributes(phase.getAttributes());
-        // the map for the old criteria
-        Map oldCriteria = new HashMap();
+        // the map for the old criteria: key: phase id, value: map of criteria
+        Map oldCriteriaByPhase = new HashMap();
 
         try {
-            // current update time
-            Timestamp now = new Timestamp(System.currentTimeMillis());
-
-            // get all criteria for phase from the persistence
-            selectStatement = conn
-                    .prepareStatement(SELECT_PHASE_CRITERIA_FOR_PHASE);
-            selectStatement.setLong(1, phase.getId());
+            // get all criteria for the phases from the persistence
+            selectStatement = batch.getConnection()
+                    .prepareStatement(SELECT_PHASE_CRITERIA_FOR_PHASES
+                            + createQuestionMarks(phases.size()));
+            for (int i = 0; i < phases.size(); i++) {
+                selectStatement.setLong(i + 1, ((Phase) phases.get(i)).getId());
+            }
 
             rs = selectStatement.executeQuery();
 
             // put the old criteria to map
             while (rs.next()) {
-                String name = rs.getString("name");
-                String value = rs.getString("parameter");
-
-                oldCriteria.put(name, value);
+                Long phaseId = new Long(rs.getLong("project_phase_id"));
+                Map oldCriteria = (Map) oldCriteriaByPhase.get(phaseId);
+                if (oldCriteria == null) {
+                    oldCriteria = new HashMap();
+                    oldCriteriaByPhase.put(phaseId, oldCriteria);
+                }
+                oldCriteria.put(rs.getString("name"), rs.getString("parameter"));
             }
+        } finally {
+            close(rs);
+            close(selectStatement);
+        }
 
-            // create the update statement for all criteria
-            updateStatement = conn.prepareStatement(UPDATE_PHASE_CRITERIA);
-            updateStatement.setString(2, operator);
-            updateStatement.setTimestamp(3, now);
-            updateStatement.setLong(4, phase.getId());
+        PreparedStatement updateStatement = batch.prepare(UPDATE_PHASE_CRITERIA);
+        PreparedStatement deleteStatement = batch.prepare(DELETE_PHASE_CRITERIA);
+        for (Iterator phaseIt = phases.iterator(); phaseIt.hasNext();) {
+            Phase phase = (Phase) phaseIt.next();
+            // get all the properties that only string key - they are potential
+            // criteria
+            Map newCriteria = filterAttributes(phase.getAttributes());
+            Map oldCriteria = (Map) oldCriteriaByPhase.get(new Long(phase.getId()));
+            if (oldCriteria == null) {
+                oldCriteria = new HashMap();
+            }
 
             // iterate over the new attributes taken from the updated phase
             for (Iterator it = newCriteria.entrySet().iterator(); it.hasNext();) {
@@ -1725,9 +1829,12 @@ public abstract class AbstractInformixPhasePersistence extends
                 if ((oldValue != null) && !oldValue.equals(entry.getValue())) {
                     // update if the values are different - update the criteria
                     updateStatement.setString(1, (String) entry.getValue());
+                    updateStatement.setString(2, operator);
+                    updateStatement.setTimestamp(3, now);
+                    updateStatement.setLong(4, phase.getId());
                     updateStatement.setLong(5, ((Long) lookUp.get(entry
                                 .getKey())).longValue());
-                    updateStatement.executeUpdate();
+                    batch.addRow(UPDATE_PHASE_CRITERIA);
                 }
                 if (oldValue != null) {
                     // remove the criteria from list
@@ -1736,46 +1843,32 @@ public abstract class AbstractInformixPhasePersistence extends
             }
 
             // if left any new values - create them
-            if (newCriteria.size() > 0) {
-                createPhaseCriteria(conn, phase, newCriteria, operator, lookUp);
-            }
+            addPhaseCriteria(batch, phase, newCriteria, operator, lookUp, now);
 
             // if any value left in old criteria - they need to be removed.
-            if (oldCriteria.size() > 0) {
-                deleteStatement = conn.prepareStatement(DELETE_PHASE_CRITERIA
-                        + createQuestionMarks(oldCriteria.size()));
+            for (Iterator it = oldCriteria.keySet().iterator(); it.hasNext();) {
+                String name = (String) it.next();
                 deleteStatement.setLong(1, phase.getId());
-
-                int i = 1;
-                for (Iterator it = oldCriteria.keySet().iterator(); it
-                        .hasNext();) {
-                    String name = (String) it.next();
-                    deleteStatement.setLong(++i, ((Long) lookUp.get(name))
-                            .longValue());
-                }
-
-                deleteStatement.executeUpdate();
+                deleteStatement.setLong(2, ((Long) lookUp.get(name)).longValue());
+                batch.addRow(DELETE_PHASE_CRITERIA);
             }
-
-        } finally {
-            close(rs);
-            close(selectStatement);
-            close(deleteStatement);
-            close(updateStatement);
         }
 
+        batch.execute(UPDATE_PHASE_CRITERIA);
+        batch.execute(INSERT_PHASE_CRITERIA);
+        batch.execute(DELETE_PHASE_CRITERIA);
     }
 
     /**
      * This method will update the phase dependencies in the persistence.
      * Because the table has new audit columns, we cannot just remove
      * dependencies and create the again.
-     * @param conn the database connection.
+     * @param batch the batches of the operation.
      * @param phase the phase with dependencies to update.
      * @param operator the update operator for audit proposes.
      * @throws SQLException if any database error occurs.
      */
-    private void updateDependencies(Connection conn, Phase phase,
+    private void updateDependencies(StatementBatch batch, Phase phase,
             String operator) throws SQLException {
         // put all the dependencies to the map: key: dependency id, value:
         // Dependency object.
@@ -1794,7 +1887,7 @@ public abstract class AbstractInformixPhasePersistence extends
         List depsToUpdate = new ArrayList();
         try {
             // select dependencies for the phase
-            selectStatement = conn.prepareStatement(SELECT_DEPENDENCY);
+            selectStatement = batch.getConnection().prepareStatement(SELECT_DEPENDENCY);
             selectStatement.setLong(1, phase.getId());
 
             rs = selectStatement.executeQuery();
@@ -1832,17 +1925,17 @@ public abstract class AbstractInformixPhasePersistence extends
             // them
             if (dependencies.size() > 0) {
                 // create new dependency
-                createDependency(conn, dependencies.values(), operator);
+                createDependency(batch, dependencies.values(), operator);
             }
 
             // if there is something to remove
             if (depsToRemove.size() > 0) {
-                deleteDependencies(conn, depsToRemove, phase.getId());
+                deleteDependencies(batch.getConnection(), depsToRemove, phase.getId());
             }
 
             // if there is something to update
             if (depsToUpdate.size() > 0) {
-                updateDependencies(conn, depsToUpdate, operator);
+                updateDependencies(batch, depsToUpdate, operator);
             }
 
         } finally {
@@ -1879,39 +1972,35 @@ public abstract class AbstractInformixPhasePersistence extends
     }
 
     /**
-     * Updates the dependencies in the database.
-     * @param conn the database connection to use.
+     * Updates the dependencies in the database, by one JDBC batch.
+     * @param batch the batches of the operation.
      * @param deps the dependencies list.
      * @param operator the update operator for audit proposes.
      * @throws SQLException if any database error occurs.
      */
-    private static void updateDependencies(Connection conn, List deps,
+    private static void updateDependencies(StatementBatch batch, List deps,
             String operator) throws SQLException {
-        PreparedStatement pstmt = null;
+        // get the statement
+        PreparedStatement pstmt = batch.prepare(UPDATE_PHASE_DEPENDENCY);
 
-        try {
-            // create the statement
-            pstmt = conn.prepareStatement(UPDATE_PHASE_DEPENDENCY);
+        pstmt.setString(4, operator);
+        pstmt.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
 
-            pstmt.setString(4, operator);
-            pstmt.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+        // for each dependency - add it to the batch
+        for (Iterator it = deps.iterator(); it.hasNext();) {
+            Dependency dep = (Dependency) it.next();
 
-            // for each dependency - update it in the database
-            for (Iterator it = deps.iterator(); it.hasNext();) {
-                Dependency dep = (Dependency) it.next();
+            pstmt.setBoolean(1, dep.isDependencyStart());
+            pstmt.setBoolean(2, dep.isDependentStart());
+            pstmt.setLong(3, dep.getLagTime());
+            pstmt.setLong(6, dep.getDependency().getId());
+            pstmt.setLong(7, dep.getDependent().getId());
 
-                pstmt.setBoolean(1, dep.isDependencyStart());
-                pstmt.setBoolean(2, dep.isDependentStart());
-                pstmt.setLong(3, dep.getLagTime());
-                pstmt.setLong(6, dep.getDependency().getId());
-                pstmt.setLong(7, dep.getDependent().getId());
-
-                pstmt.executeUpdate();
-            }
-
-        } finally {
-            close(pstmt);
+            batch.addRow(UPDATE_PHASE_DEPENDENCY);
         }
+
+        // update the dependencies
+        batch.execute(UPDATE_PHASE_DEPENDENCY);
     }
 
     /**
@@ -1937,10 +2026,11 @@ public abstract class AbstractInformixPhasePersistence extends
         }
     }
 
-     /**
-     * This method will a project phase's scheduled start and end time when they are inserted, deleted, or edited.
+    /**
+     * Adds the audit of a project phase's scheduled start and end time, when it is inserted or edited, to the
+     * audit batch. The caller executes the batch by {@link #executeProjectPhaseAudits(StatementBatch)}.
      *
-     * @param connection the connection to database
+     * @param batch the batches of the operation
      * @param phase the phase being audited
      * @param scheduledStartTime the new scheduled start time for the phase
      * @param scheduledEndTime the new scheduled end time for the phase
@@ -1948,16 +2038,15 @@ public abstract class AbstractInformixPhasePersistence extends
      * @param auditUser the user initiating the change
      * @param auditTime the timestamp for the audit event
      *
-     * @throws PhasePersistenceException if validation error occurs or any error occurs in the underlying layer
+     * @throws PhasePersistenceException if any error occurs in the underlying layer
      *
-     * @since 1.0.2
+     * @since 1.3
      */
-    private void auditProjectPhase(Connection connection, Phase phase, int auditType, Timestamp scheduledStartTime,
-    		Timestamp scheduledEndTime, Long auditUser, Timestamp auditTime) throws PhasePersistenceException {
-
-        PreparedStatement statement = null;
+    private static void addProjectPhaseAudit(StatementBatch batch, Phase phase, int auditType,
+        Timestamp scheduledStartTime, Timestamp scheduledEndTime, long auditUser, Timestamp auditTime)
+        throws PhasePersistenceException {
         try {
-            statement = connection.prepareStatement(PROJECT_PHASE_AUDIT_INSERT_SQL);
+            PreparedStatement statement = batch.prepare(PROJECT_PHASE_AUDIT_INSERT_SQL);
 
             int index = 1;
             statement.setLong(index++, phase.getId());
@@ -1966,14 +2055,32 @@ public abstract class AbstractInformixPhasePersistence extends
             statement.setInt(index++, auditType);
             statement.setTimestamp(index++, auditTime);
             statement.setLong(index++, auditUser);
+            batch.addRow(PROJECT_PHASE_AUDIT_INSERT_SQL);
+        } catch (SQLException e) {
+            throw new PhasePersistenceException("Unable to insert project_info_audit record.", e);
+        }
+    }
 
-            if (statement.executeUpdate() != 1) {
-                throw new PhasePersistenceException("Audit information was not successfully saved.");
+    /**
+     * Inserts the project phase audit records added to the audit batch.
+     *
+     * @param batch the batches of the operation
+     *
+     * @throws PhasePersistenceException if an audit record is not inserted, or any error occurs in the underlying
+     *             layer
+     *
+     * @since 1.3
+     */
+    private static void executeProjectPhaseAudits(StatementBatch batch) throws PhasePersistenceException {
+        try {
+            int[] counts = batch.execute(PROJECT_PHASE_AUDIT_INSERT_SQL);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 1 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                    throw new PhasePersistenceException("Audit information was not successfully saved.");
+                }
             }
         } catch (SQLException e) {
             throw new PhasePersistenceException("Unable to insert project_info_audit record.", e);
-        } finally {
-            close(statement);
         }
     }
 
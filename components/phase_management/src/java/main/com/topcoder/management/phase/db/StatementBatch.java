@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+
+package com.topcoder.management.phase.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * The JDBC batches of a persistence operation. It prepares each SQL statement once per operation, so the statements
+ * are reused by all the rows of the operation, and it groups the rows added to a statement to execute them in one
+ * round trip. The caller executes the batches in the order required by the foreign keys of the tables.
+ * </p>
+ * <p>
+ * <b>Thread Safety:</b> This class is not thread safe, it is used by a single persistence operation.
+ * </p>
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+class StatementBatch {
+
+    /**
+     * The connection of the operation.
+     */
+    private final Connection connection;
+
+    /**
+     * The prepared statements by SQL.
+     */
+    private final Map<String, PreparedStatement> statements = new HashMap<String, PreparedStatement>();
+
+    /**
+     * The SQL of the statements with rows added since their last execution.
+     */
+    private final Set<String> pending = new HashSet<String>();
+
+    /**
+     * Creates the batches of an operation.
+     * @param connection the connection of the operation.
+     */
+    StatementBatch(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Gets the connection of the operation.
+     * @return the connection.
+     */
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the statement of a SQL, preparing it on first use. The parameters which are the same for all the rows
+     * can be set once on the returned statement.
+     * @param sql the SQL.
+     * @return the prepared statement.
+     * @throws SQLException if the statement can not be prepared.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Adds the current parameters of a prepared statement as a row of its batch.
+     * @param sql the SQL of the statement.
+     * @throws SQLException if the row can not be added.
+     */
+    void addRow(String sql) throws SQLException {
+        prepare(sql).addBatch();
+        pending.add(sql);
+    }
+
+    /**
+     * Executes the rows added to a statement. Does nothing if there is no such row.
+     * @param sql the SQL of the statement.
+     * @return the update counts of the rows, in the order they were added.
+     * @throws SQLException if the batch fails.
+     */
+    int[] execute(String sql) throws SQLException {
+        if (!pending.remove(sql)) {
+            return new int[0];
+        }
+        return statements.get(sql).executeBatch();
+    }
+
+    /**
+     * Closes the prepared statements, ignoring the errors.
+     */
+    void close() {
+        for (Iterator<PreparedStatement> it = statements.values().iterator(); it.hasNext();) {
+            try {
+                it.next().close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+        statements.clear();
+        pending.clear();
+    }
+}
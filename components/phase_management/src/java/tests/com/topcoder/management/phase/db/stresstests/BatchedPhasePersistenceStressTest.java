@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.management.phase.db.stresstests;
+
+import com.topcoder.date.workdays.DefaultWorkdays;
+
+import com.topcoder.db.connectionfactory.DBConnectionFactory;
+import com.topcoder.db.connectionfactory.DBConnectionFactoryImpl;
+
+import com.topcoder.management.phase.PhasePersistenceException;
+
+import com.topcoder.project.phases.Dependency;
+import com.topcoder.project.phases.Phase;
+import com.topcoder.project.phases.PhaseStatus;
+import com.topcoder.project.phases.PhaseType;
+import com.topcoder.project.phases.Project;
+
+import com.topcoder.util.config.ConfigManager;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import java.util.Date;
+
+
+/**
+ * <p>
+ * Stress test for the JDBC batches of <code>createPhases(Phase[], String)</code> and
+ * <code>updatePhases(Phase[], String)</code>. The connections are wrapped to count the statements executed on the
+ * database. The batched operations are compared with the per-row path, which creates and updates the phases one by
+ * one: they must execute fewer statements, in less time.
+ * </p>
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class BatchedPhasePersistenceStressTest extends TestCase {
+    /**
+     * Represents namespace used to load configurations for db connection
+     * factory.
+     */
+    private static final String DB_NAMESPACE = "com.topcoder.db.connectionfactory.DBConnectionFactoryImpl";
+
+    /**
+     * Represents namespace used to load configurations for this component.
+     */
+    private static final String NAMESPACE = "com.topcoder.management.phase.db.InformixPhasePersistence.stress";
+
+    /**
+     * Represents the number of phases created and updated.
+     */
+    private static final int PHASE_COUNT = 200;
+
+    /**
+     * Represents the <code>DBConnectionFactory</code> used to connect
+     * database.
+     */
+    private DBConnectionFactory factory = null;
+
+    /**
+     * Represents the persistence counting the executed statements.
+     */
+    private CountingInformixPhasePersistence persistence = null;
+
+    /**
+     * Setup the test environment.
+     * @throws Exception
+     *             to JUnit for any problem.
+     */
+    protected void setUp() throws Exception {
+        ConfigManager manager = ConfigManager.getInstance();
+
+        if (manager.existsNamespace(DB_NAMESPACE)) {
+            manager.removeNamespace(DB_NAMESPACE);
+        }
+
+        if (manager.existsNamespace(NAMESPACE)) {
+            manager.removeNamespace(NAMESPACE);
+        }
+
+        manager.add(new File("test_files/stress/db_conf.xml").getCanonicalPath());
+        manager.add(new File("test_files/stress/SampleConfig.xml").getCanonicalPath());
+
+        factory = new DBConnectionFactoryImpl(DB_NAMESPACE);
+
+        execute(new String[] {
+            "delete from project_phase_audit",
+            "delete from project_phase",
+            "delete from phase_type_lu where phase_type_id = 54321",
+            "delete from phase_status_lu where phase_status_id = 54321",
+            "delete from project where project_id = 54321",
+            "insert into project values (54321)",
+            "insert into phase_status_lu values (54321, 'stress', 'stress', 'stress', current, 'stress', current)",
+            "insert into phase_type_lu values (54321, 'stress', 'stress', 'stress', current, 'stress', current)"
+        });
+
+        persistence = new CountingInformixPhasePersistence(NAMESPACE);
+    }
+
+    /**
+     * Clean up the test environment.
+     * @throws Exception
+     *             to JUnit for any problem.
+     */
+    protected void tearDown() throws Exception {
+        execute(new String[] {
+            "delete from project_phase_audit",
+            "delete from project_phase",
+            "delete from phase_type_lu where phase_type_id = 54321",
+            "delete from phase_status_lu where phase_status_id = 54321",
+            "delete from project where project_id = 54321"
+        });
+
+        ConfigManager manager = ConfigManager.getInstance();
+
+        if (manager.existsNamespace(DB_NAMESPACE)) {
+            manager.removeNamespace(DB_NAMESPACE);
+        }
+
+        if (manager.existsNamespace(NAMESPACE)) {
+            manager.removeNamespace(NAMESPACE);
+        }
+
+        factory = null;
+
+        persistence = null;
+    }
+
+    /**
+     * Stress test for the batches of <code>createPhases(Phase[], String)</code> and
+     * <code>updatePhases(Phase[], String)</code>. The per-row path executes at least two statements per phase (the
+     * phase and its audit record), the batches a number of statements independent of the number of phases.
+     * @throws Exception to JUnit for any problem.
+     */
+    public void testCreateAndUpdatePhases() throws Exception {
+        Phase[] perRowPhases = createPhases();
+
+        persistence.resetCount();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            persistence.createPhases(new Phase[] {perRowPhases[i]}, "1");
+        }
+        long perRowCreateTime = System.currentTimeMillis() - start;
+        int perRowCreateCount = persistence.getCount();
+
+        postponePhases(perRowPhases);
+        persistence.resetCount();
+        start = System.currentTimeMillis();
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            persistence.updatePhases(new Phase[] {perRowPhases[i]}, "1");
+        }
+        long perRowUpdateTime = System.currentTimeMillis() - start;
+        int perRowUpdateCount = persistence.getCount();
+
+        Phase[] phases = createPhases();
+
+        persistence.resetCount();
+        start = System.currentTimeMillis();
+        persistence.createPhases(phases, "1");
+        long createTime = System.currentTimeMillis() - start;
+        int createCount = persistence.getCount();
+
+        postponePhases(phases);
+        persistence.resetCount();
+        start = System.currentTimeMillis();
+        persistence.updatePhases(phases, "1");
+        long updateTime = System.currentTimeMillis() - start;
+        int updateCount = persistence.getCount();
+
+        assertTrue("The per-row path should execute a statement per phase.", perRowCreateCount >= 2 * PHASE_COUNT);
+        assertTrue("The per-row path should execute a statement per phase.", perRowUpdateCount >= 2 * PHASE_COUNT);
+        assertTrue("The created phases should be batched.", createCount * 10 < perRowCreateCount);
+        assertTrue("The updated phases should be batched.", updateCount * 10 < perRowUpdateCount);
+        assertTrue("The batched creation should be faster.", createTime < perRowCreateTime);
+        assertTrue("The batched update should be faster.", updateTime < perRowUpdateTime);
+
+        Phase[] updated = persistence.getPhases(new long[] {phases[0].getId(), phases[PHASE_COUNT - 1].getId()});
+        assertEquals("Fail to update the phases.", phases[0].getScheduledEndDate().getTime() / 1000,
+            updated[0].getScheduledEndDate().getTime() / 1000);
+        assertEquals("Fail to update the phases.", phases[PHASE_COUNT - 1].getScheduledEndDate().getTime() / 1000,
+            updated[1].getScheduledEndDate().getTime() / 1000);
+    }
+
+    /**
+     * Creates the new phases of the stress project, each one depending on the previous one.
+     * @return the phases.
+     */
+    private static Phase[] createPhases() {
+        Project project = new Project(new Date(), new DefaultWorkdays());
+        project.setId(54321);
+
+        Phase[] phases = new Phase[PHASE_COUNT];
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phases[i] = new Phase(project, i + 100);
+            phases[i].setPhaseStatus(new PhaseStatus(54321, "stress"));
+            phases[i].setPhaseType(new PhaseType(54321, "stress"));
+            phases[i].setScheduledStartDate(new Date());
+            phases[i].setScheduledEndDate(new Date());
+            if (i > 0) {
+                phases[i].addDependency(new Dependency(phases[i - 1], phases[i],
+                    false, true, 0));
+            }
+        }
+        return phases;
+    }
+
+    /**
+     * Postpones the scheduled end of the phases by one hour, so they are updated and audited.
+     * @param phases the phases.
+     */
+    private static void postponePhases(Phase[] phases) {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i].setScheduledEndDate(new Date(phases[i].getScheduledEndDate().getTime() + 3600000));
+        }
+    }
+
+    /**
+     * Executes SQL statements.
+     * @param sqls the statements.
+     * @throws Exception to JUnit for any problem.
+     */
+    private void execute(String[] sqls) throws Exception {
+        Connection conn = factory.createConnection();
+        try {
+            Statement stmt = conn.createStatement();
+            try {
+                for (int i = 0; i < sqls.length; i++) {
+                    stmt.execute(sqls[i]);
+                }
+            } finally {
+                stmt.close();
+            }
+        } finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * The persistence counting the statements executed on its connections.
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class CountingInformixPhasePersistence extends MockInformixPhasePersistence {
+        /**
+         * The number of executed statements.
+         */
+        private int count;
+
+        /**
+         * Creates the persistence.
+         * @param namespace config namespace
+         * @throws Exception to JUnit for any problem.
+         */
+        CountingInformixPhasePersistence(String namespace) throws Exception {
+            super(namespace);
+        }
+
+        /**
+         * Gets a connection whose statements are counted.
+         * @return the connection.
+         * @throws PhasePersistenceException if the connection can not be created.
+         */
+        protected Connection getConnection() throws PhasePersistenceException {
+            return (Connection) wrap(super.getConnection(), Connection.class);
+        }
+
+        /**
+         * Wraps a JDBC object to count the executions of its statements.
+         * @param target the JDBC object.
+         * @param type the JDBC interface.
+         * @return the wrapper.
+         */
+        private Object wrap(final Object target, final Class type) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {type},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().startsWith("execute")) {
+                            count++;
+                        }
+                        try {
+                            Object result = method.invoke(target, args);
+                            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                                return wrap(result, method.getReturnType());
+                            }
+                            return result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+        }
+
+        /**
+         * Resets the number of executed statements.
+         */
+        void resetCount() {
+            count = 0;
+        }
+
+        /**
+         * Gets the number of executed statements.
+         * @return the number of executed statements.
+         */
+        int getCount() {
+            return count;
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class StressTests extends TestCase {
         suite.addTestSuite(InformixPhasePersistenceStressTest.class);
         suite.addTestSuite(AbstractInformixPhasePersistenceStressTest.class);
         suite.addTestSuite(UnmanagedTransactionInformixPhasePersistenceStressTest.class);
+        suite.addTestSuite(BatchedPhasePersistenceStressTest.class);
 
         return suite;
     }
@@ -3,6 +3,7 @@
  */
 package com.topcoder.management.project;
 
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 
@@ -106,12 +107,27 @@ import com.topcoder.search.builder.filter.Filter;
  * </p>
  *
  * <p>
+ * Version 1.6 change notes:
+ * <ul>
+ *     <li>Added method {@link #getSimpleProjectContestDataPage(SimpleProjectContestDataCriteria)}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.7 change notes:
+ * <ul>
+ *     <li>Added methods {@link #checkContestPermissions(long[], long, long[])} and {@link #checkProjectPermissions(long[], long)}
+ *     to check the permissions on many contests or projects at once</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
  * Thread safety: The implementations of this interface do not have to be thread
  * safe.
  * </p>
  *
- * @author tuenm, iamajia, pulky, murphydog, bugbuka, GreatKevin
- * @version 1.5
+ * @author tuenm, iamajia, pulky, murphydog, bugbuka, GreatKevin, TCSDEVELOPER
+ * @version 1.7
  */
 public interface ProjectManager {
     /**
@@ -648,6 +664,21 @@ public interface ProjectManager {
     
     public List<SimpleProjectContestData> getSimpleProjectContestData(long pid) throws PersistenceException;
     public List<SimpleProjectContestData> getSimpleProjectContestDataByUser(String user) throws PersistenceException;
+
+    /**
+     * <p>
+     * Gets a page of the contests for myproject widget, sorted by direct project id and contest id. The filters,
+     * the sort and the page boundaries are applied by the database, so only the rows of the page are read.
+     * </p>
+     *
+     * @param criteria the criteria of the page.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws IllegalArgumentException if criteria is null or its page size is not positive.
+     * @throws PersistenceException if error during retrieval from database.
+     * @since 1.6
+     */
+    public List<SimpleProjectContestData> getSimpleProjectContestDataPage(SimpleProjectContestDataCriteria criteria)
+        throws PersistenceException;
     
     /**
      * <p>
@@ -940,6 +971,34 @@ public interface ProjectManager {
      */
     public boolean checkProjectPermission(long tcprojectId, boolean readonly, long userId) throws PersistenceException;
 
+    /**
+     * Checks the permissions of a user on contests at once, granted on the contests or on their direct projects.
+     *
+     * @param contestIds the contest ids
+     * @param userId user id
+     * @param tcDirectProjectIds receives the tc direct project id of each contest, 0 if it has none
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws PersistenceException if any error occurs
+     * @since 1.7
+     */
+    public BitSet checkContestPermissions(long[] contestIds, long userId, long[] tcDirectProjectIds)
+        throws PersistenceException;
+
+    /**
+     * Checks the permissions of a user on direct projects at once.
+     *
+     * @param tcprojectIds the tc direct project ids
+     * @param userId user id
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcprojectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws PersistenceException if any error occurs
+     * @since 1.7
+     */
+    public BitSet checkProjectPermissions(long[] tcprojectIds, long userId) throws PersistenceException;
+
 
     /**
      * <p>
@@ -17,6 +17,7 @@ import com.topcoder.util.sql.databaseabstraction.CustomResultSet;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -122,6 +123,21 @@ import java.util.Map;
  *     <li>Added method {@link #getAllProjectPlatforms()}</li>
  * </ul>
  * </p>
+ *
+ * <p>
+ * Version 1.6 change notes:
+ * <ul>
+ *     <li>Added method {@link #getSimpleProjectContestDataPage(SimpleProjectContestDataCriteria)}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.7 change notes:
+ * <ul>
+ *     <li>Added methods {@link #checkContestPermissions(long[], long, long[])} and {@link #checkProjectPermissions(long[], long)}
+ *     to check the permissions on many contests or projects at once</li>
+ * </ul>
+ * </p>
  * 
  * <p>
  * Thread Safety: The implementation is not thread safe in that two threads
@@ -129,8 +145,8 @@ import java.util.Map;
  * other's work.
  * </p>
  *
- * @author tuenm, iamajia, pulky, murphydog, bugbuka, GreatKevin
- * @version 1.5
+ * @author tuenm, iamajia, pulky, murphydog, bugbuka, GreatKevin, TCSDEVELOPER
+ * @version 1.7
  */
 public class ProjectManagerImpl implements ProjectManager {
     /**
@@ -1205,6 +1221,22 @@ public class ProjectManagerImpl implements ProjectManager {
 			String user) throws PersistenceException {
 		return persistence.getSimpleProjectContestDataByUser(user);
 	}
+
+    /**
+     * <p>
+     * Gets a page of the contests for myproject widget, sorted by direct project id and contest id.
+     * </p>
+     *
+     * @param criteria the criteria of the page.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws IllegalArgumentException if criteria is null or its page size is not positive.
+     * @throws PersistenceException if error during retrieval from database.
+     * @since 1.6
+     */
+    public List<SimpleProjectContestData> getSimpleProjectContestDataPage(SimpleProjectContestDataCriteria criteria)
+        throws PersistenceException {
+        return persistence.getSimpleProjectContestDataPage(criteria);
+    }
 	
 	/**
      * <p>
@@ -1318,6 +1350,38 @@ public class ProjectManagerImpl implements ProjectManager {
         return persistence.checkProjectPermission(tcprojectId, readonly, userId);
     }
 
+    /**
+     * Checks the permissions of a user on contests at once, granted on the contests or on their direct projects.
+     *
+     * @param contestIds the contest ids
+     * @param userId user id
+     * @param tcDirectProjectIds receives the tc direct project id of each contest, 0 if it has none
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws PersistenceException if any error occurs
+     * @since 1.7
+     */
+    public BitSet checkContestPermissions(long[] contestIds, long userId, long[] tcDirectProjectIds)
+        throws PersistenceException {
+        return persistence.checkContestPermissions(contestIds, userId, tcDirectProjectIds);
+    }
+
+    /**
+     * Checks the permissions of a user on direct projects at once.
+     *
+     * @param tcprojectIds the tc direct project ids
+     * @param userId user id
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcprojectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws PersistenceException if any error occurs
+     * @since 1.7
+     */
+    public BitSet checkProjectPermissions(long[] tcprojectIds, long userId) throws PersistenceException {
+        return persistence.checkProjectPermissions(tcprojectIds, userId);
+    }
+
 
     /**
      * <p>
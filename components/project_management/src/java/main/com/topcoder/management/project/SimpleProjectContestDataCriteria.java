@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.management.project;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>
+ * Represents the criteria of a page of the contests for myproject widget. The contests are sorted by direct project
+ * id and contest id, and a page starts after the (direct project id, contest id) key of the last contest of the
+ * previous page, so the database only reads the rows of the requested page, whatever its position. The contest
+ * name and start date filters are applied by the query too, so no page has to be filtered after it is read.
+ * </p>
+ *
+ * <p>
+ * Thread Safety: This entity is not thread safe since it is mutable.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class SimpleProjectContestDataCriteria implements Serializable {
+
+    /**
+     * Generated serial version id.
+     */
+    private static final long serialVersionUID = 4628036519234816257L;
+
+    /**
+     * Represents the id of the user whose contests are returned, null to return all the contests.
+     */
+    private Long userId;
+
+    /**
+     * Represents the direct project id the contests are restricted to, null for all the direct projects.
+     */
+    private Long tcDirectProjectId;
+
+    /**
+     * Represents the project status ids the contests are restricted to, empty for all the statuses.
+     */
+    private List<Long> projectStatusIds = new ArrayList<Long>();
+
+    /**
+     * Represents the text the contest names should contain, ignoring the case, null for all the names. The contests
+     * without name are always returned.
+     */
+    private String contestName;
+
+    /**
+     * Represents the inclusive lower bound of the contest start dates, null for no lower bound. The contests without
+     * start date are always returned.
+     */
+    private Date startDateFrom;
+
+    /**
+     * Represents the exclusive upper bound of the contest start dates, null for no upper bound. The contests without
+     * start date are always returned.
+     */
+    private Date startDateTo;
+
+    /**
+     * Represents the direct project id of the last contest of the previous page, 0 for the first page.
+     */
+    private long afterProjectId;
+
+    /**
+     * Represents the id of the last contest of the previous page, 0 for the first page.
+     */
+    private long afterContestId;
+
+    /**
+     * Represents the maximum number of contests of the page.
+     */
+    private int pageSize = 50;
+
+    /**
+     * Creates the criteria of the first page.
+     */
+    public SimpleProjectContestDataCriteria() {
+    }
+
+    /**
+     * Moves the criteria to the page following the given contest.
+     *
+     * @param last the last contest of the current page.
+     */
+    public void setAfter(SimpleProjectContestData last) {
+        this.afterProjectId = last.getProjectId();
+        this.afterContestId = last.getContestId();
+    }
+
+    /**
+     * Gets the id of the user whose contests are returned.
+     *
+     * @return the user id, null for all the contests.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the id of the user whose contests are returned.
+     *
+     * @param userId the user id, null for all the contests.
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the direct project id the contests are restricted to.
+     *
+     * @return the direct project id, null for all the direct projects.
+     */
+    public Long getTcDirectProjectId() {
+        return tcDirectProjectId;
+    }
+
+    /**
+     * Sets the direct project id the contests are restricted to.
+     *
+     * @param tcDirectProjectId the direct project id, null for all the direct projects.
+     */
+    public void setTcDirectProjectId(Long tcDirectProjectId) {
+        this.tcDirectProjectId = tcDirectProjectId;
+    }
+
+    /**
+     * Gets the project status ids the contests are restricted to.
+     *
+     * @return the project status ids, empty for all the statuses.
+     */
+    public List<Long> getProjectStatusIds() {
+        return projectStatusIds;
+    }
+
+    /**
+     * Sets the project status ids the contests are restricted to.
+     *
+     * @param projectStatusIds the project status ids, null or empty for all the statuses.
+     */
+    public void setProjectStatusIds(List<Long> projectStatusIds) {
+        this.projectStatusIds = projectStatusIds == null ? new ArrayList<Long>() : projectStatusIds;
+    }
+
+    /**
+     * Gets the text the contest names should contain, ignoring the case.
+     *
+     * @return the text, null for all the names.
+     */
+    public String getContestName() {
+        return contestName;
+    }
+
+    /**
+     * Sets the text the contest names should contain, ignoring the case.
+     *
+     * @param contestName the text, null or empty for all the names.
+     */
+    public void setContestName(String contestName) {
+        this.contestName = contestName == null || contestName.length() == 0 ? null : contestName;
+    }
+
+    /**
+     * Gets the inclusive lower bound of the contest start dates.
+     *
+     * @return the lower bound, null for no lower bound.
+     */
+    public Date getStartDateFrom() {
+        return startDateFrom;
+    }
+
+    /**
+     * Sets the inclusive lower bound of the contest start dates.
+     *
+     * @param startDateFrom the lower bound, null for no lower bound.
+     */
+    public void setStartDateFrom(Date startDateFrom) {
+        this.startDateFrom = startDateFrom;
+    }
+
+    /**
+     * Gets the exclusive upper bound of the contest start dates.
+     *
+     * @return the upper bound, null for no upper bound.
+     */
+    public Date getStartDateTo() {
+        return startDateTo;
+    }
+
+    /**
+     * Sets the exclusive upper bound of the contest start dates.
+     *
+     * @param startDateTo the upper bound, null for no upper bound.
+     */
+    public void setStartDateTo(Date startDateTo) {
+        this.startDateTo = startDateTo;
+    }
+
+    /**
+     * Gets the direct project id of the last contest of the previous page.
+     *
+     * @return the direct project id, 0 for the first page.
+     */
+    public long getAfterProjectId() {
+        return afterProjectId;
+    }
+
+    /**
+     * Sets the direct project id of the last contest of the previous page.
+     *
+     * @param afterProjectId the direct project id, 0 for the first page.
+     */
+    public void setAfterProjectId(long afterProjectId) {
+        this.afterProjectId = afterProjectId;
+    }
+
+    /**
+     * Gets the id of the last contest of the previous page.
+     *
+     * @return the contest id, 0 for the first page.
+     */
+    public long getAfterContestId() {
+        return afterContestId;
+    }
+
+    /**
+     * Sets the id of the last contest of the previous page.
+     *
+     * @param afterContestId the contest id, 0 for the first page.
+     */
+    public void setAfterContestId(long afterContestId) {
+        this.afterContestId = afterContestId;
+    }
+
+    /**
+     * Gets the maximum number of contests of the page.
+     *
+     * @return the page size.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the maximum number of contests of the page.
+     *
+     * @param pageSize the page size.
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Gets the string identifying the criteria, used as cache key.
+     *
+     * @return the string of the criteria.
+     */
+    public String toString() {
+        return "user=" + userId + ",directProject=" + tcDirectProjectId + ",statuses=" + projectStatusIds
+            + ",from=" + (startDateFrom == null ? null : startDateFrom.getTime())
+            + ",to=" + (startDateTo == null ? null : startDateTo.getTime())
+            + ",after=" + afterProjectId + "/" + afterContestId + ",size=" + pageSize
+            // the name is free text, so it is the last part to keep the strings of different criteria different
+            + ",name=" + (contestName == null ? "" : contestName);
+    }
+}
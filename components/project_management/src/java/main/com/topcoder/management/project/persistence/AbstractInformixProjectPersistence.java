@@ -13,16 +13,25 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import com.topcoder.db.connectionfactory.DBConnectionFactory;
 import com.topcoder.db.connectionfactory.DBConnectionFactoryImpl;
@@ -52,6 +61,7 @@ import com.topcoder.management.project.SaleStatus;
 import com.topcoder.management.project.SaleType;
 import com.topcoder.management.project.SimplePipelineData;
 import com.topcoder.management.project.SimpleProjectContestData;
+import com.topcoder.management.project.SimpleProjectContestDataCriteria;
 import com.topcoder.management.project.SimpleProjectPermissionData;
 import com.topcoder.management.project.SoftwareCapacityData;
 import com.topcoder.management.project.persistence.Helper.DataType;
@@ -378,12 +388,43 @@ import com.topcoder.util.sql.databaseabstraction.NullColumnValueException;
  * </p>
  *
  * <p>
+ * Version 1.8.2 change notes:
+ * <ul>
+ *     <li>Updated method {@link #getProjects(long[], java.sql.Connection)} to query the projects and their
+ *     file types, prizes, specifications and copilot data by id chunks of fixed sizes, so the prepared statements
+ *     are reused, instead of running several queries per project. The child data of large id lists is loaded in
+ *     parallel on separate connections when {@link #isParallelLoadSupported()} allows it.</li>
+ *     <li>Added method {@link #isParallelLoadSupported()}.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.8.3 change notes:
+ * <ul>
+ *     <li>Added method {@link #getSimpleProjectContestDataPage(SimpleProjectContestDataCriteria)} to get a page of
+ *     the contests sorted by direct project id and contest id, with keyset paging done by the database.</li>
+ *     <li>Moved the query and the row mapping of {@link #getSimpleProjectContestData()} and
+ *     {@link #getSimpleProjectContestDataByUser(String)} to private methods shared with the paged query.</li>
+ *     <li>The contest name and start date filters of the page criteria are applied by the paged query.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.8.4 change notes:
+ * <ul>
+ *     <li>Added methods {@link #checkContestPermissions(long[], long, long[])} and {@link #checkProjectPermissions(long[], long)}
+ *     to check the permissions of a user on many contests or projects with one chunked prepared query.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
  * Thread Safety: This class is thread safe because it is immutable.
  * </p>
  *
  *
- * @author tuenm, urtks, bendlund, fuyun, flytoj2ee, tangzx, GreatKevin, frozenfx, freegod, bugbuka, Veve, GreatKevin
- * @version 1.8.1
+ * @author tuenm, urtks, bendlund, fuyun, flytoj2ee, tangzx, GreatKevin, frozenfx, freegod, bugbuka, Veve, GreatKevin,
+ * TCSDEVELOPER
+ * @version 1.8.4
  * @since 1.0
  */
 public abstract class AbstractInformixProjectPersistence implements ProjectPersistence {
@@ -1386,6 +1427,20 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
             Helper.LONG_TYPE, Helper.LONG_TYPE,Helper.LONG_TYPE,
             Helper.LONG_TYPE, Helper.LONG_TYPE, Helper.LONG_TYPE, Helper.STRING_TYPE, Helper.DOUBLE_TYPE};
 
+    /**
+     * Represents the contest name column of the contests queries, used by the name filter of the paged query.
+     * @since 1.8.3
+     */
+    private static final String PAGE_CONTEST_NAME = "(select value from project_info where project_id = p.project_id"
+        + " and project_info_type_id =6)";
+
+    /**
+     * Represents the start date column of the contests queries, used by the date filters of the paged query.
+     * @since 1.8.3
+     */
+    private static final String PAGE_START_DATE = "(select min(nvl(actual_start_time, scheduled_start_time)) from"
+        + " project_phase ph where ph.project_id=p.project_id and ph.phase_type_id = 1)";
+
     /**
      * Represents the sql statement to query all design components data for a user id.
      * @since 1.2.1
@@ -2444,6 +2499,163 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
     private static final String UPDATE_CHECKPOINT_FEEDBACK_SQL = "UPDATE comp_milestone_feedback "
             + "SET feedback = ? WHERE project_id = ";    
 
+    /**
+     * Represents the numbers of ids bound by the chunked queries of the projects. A fixed set of sizes keeps the
+     * number of distinct statements small, so the database can reuse their plans.
+     *
+     * @since 1.8.2
+     */
+    private static final int[] PROJECT_ID_CHUNK_ARITIES = {1, 10, 100};
+
+    /**
+     * Represents the sql statement to query the highest permissions of a user on contests, granted on the contests
+     * themselves and on their direct projects, with the direct projects of the contests. The contest ids are appended.
+     *
+     * @since 1.8.4
+     */
+    private static final String QUERY_CONTEST_PERMISSIONS_SQL = "SELECT p.project_id, p.tc_direct_project_id, "
+            + "(SELECT MAX(permission_type_id) FROM user_permission_grant "
+            + "WHERE resource_id = p.project_id AND is_studio = 0 AND user_id = ?), "
+            + "(SELECT MAX(permission_type_id) FROM user_permission_grant "
+            + "WHERE resource_id = p.tc_direct_project_id AND user_id = ?) "
+            + "FROM project p WHERE p.project_id IN";
+
+    /**
+     * Represents the column types for the result set which is returned by executing the sql statement to query the
+     * permissions of a user on contests.
+     *
+     * @since 1.8.4
+     */
+    private static final DataType[] QUERY_CONTEST_PERMISSIONS_COLUMN_TYPES = new DataType[] {
+        Helper.LONG_TYPE, Helper.LONG_TYPE, Helper.LONG_TYPE, Helper.LONG_TYPE};
+
+    /**
+     * Represents the sql statement to query the permissions of a user on direct projects. The project ids are
+     * appended.
+     *
+     * @since 1.8.4
+     */
+    private static final String QUERY_PROJECT_PERMISSIONS_SQL = "SELECT resource_id, permission_type_id "
+            + "FROM user_permission_grant WHERE user_id = ? AND resource_id IN";
+
+    /**
+     * Represents the column types for the result set which is returned by executing the sql statement to query the
+     * permissions of a user on direct projects.
+     *
+     * @since 1.8.4
+     */
+    private static final DataType[] QUERY_PROJECT_PERMISSIONS_COLUMN_TYPES = new DataType[] {
+        Helper.LONG_TYPE, Helper.LONG_TYPE};
+
+    /**
+     * Represents the minimum number of projects for which the child data is loaded in parallel.
+     *
+     * @since 1.8.2
+     */
+    private static final int PARALLEL_PROJECT_LOAD_THRESHOLD = 10;
+
+    /**
+     * Represents the executor running the parallel loads of the child data of the projects.
+     *
+     * @since 1.8.2
+     */
+    private static final ExecutorService PROJECT_LOAD_EXECUTOR = createProjectLoadExecutor();
+
+    /**
+     * Represents the sql statement to query the file types of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_FILE_TYPES_FOR_PROJECTS_SQL = "SELECT xref.project_id, "
+        + "type.file_type_id, type.description, type.sort, type.image_file, type.extension, type.bundled_file "
+        + "FROM file_type_lu AS type JOIN project_file_type_xref AS xref "
+        + "ON type.file_type_id=xref.file_type_id WHERE xref.project_id IN";
+
+    /**
+     * Represents the sql statement to query the prizes of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_PRIZES_FOR_PROJECTS_SQL = "SELECT prize.project_id, "
+        + "prize.prize_id, prize.place, prize.prize_amount, prize.number_of_submissions, "
+        + "prize_type.prize_type_id, prize_type.prize_type_desc FROM prize AS prize "
+        + "JOIN prize_type_lu AS prize_type ON prize.prize_type_id=prize_type.prize_type_id "
+        + "WHERE prize.project_id IN";
+
+    /**
+     * Represents the sql statement to query the studio specifications of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_STUDIO_SPECS_FOR_PROJECTS_SQL = "SELECT project.project_id, "
+        + "spec.project_studio_spec_id, spec.goals, spec.target_audience, "
+        + "spec.branding_guidelines, spec.disliked_design_websites, spec.other_instructions, "
+        + "spec.winning_criteria, spec.submitters_locked_between_rounds, "
+        + "spec.round_one_introduction, spec.round_two_introduction, spec.colors, "
+        + "spec.fonts, spec.layout_and_size, spec.contest_introduction, spec.contest_description, "
+        + "spec.general_feedback, contest_description_text "
+        + "FROM project_studio_specification AS spec JOIN project AS project "
+        + "ON project.project_studio_spec_id=spec.project_studio_spec_id WHERE project.project_id IN";
+
+    /**
+     * Represents the sql statement to query the marathon match specifications of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_MM_SPECS_FOR_PROJECTS_SQL = "SELECT project.project_id, "
+        + "spec.project_mm_spec_id, spec.match_details, spec.match_rules, spec.problem_id, prob.name "
+        + "FROM project_mm_specification AS spec JOIN project AS project "
+        + "ON project.project_mm_spec_id=spec.project_mm_spec_id "
+        + "LEFT OUTER JOIN informixoltp:problem prob ON spec.problem_id = prob.problem_id "
+        + "WHERE project.project_id IN";
+
+    /**
+     * Represents the sql statement to query the latest project specs of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_PROJECT_SPECS_FOR_PROJECTS_SQL = "SELECT ps1.project_id, "
+        + " ps1.project_spec_id, "
+        + " ps1.version, "
+        + " ps1.detailed_requirements, "
+        + " ps1.submission_deliverables, "
+        + " ps1.environment_setup_instruction,  "
+        + " ps1.final_submission_guidelines, "
+        + " ps1.create_user, "
+        + " ps1.create_date, "
+        + " ps1.modify_user, "
+        + " ps1.modify_date, "
+        + " ps1.private_description, "
+        + " ps1.detailed_requirements_text, "
+        + " ps1.final_submission_guidelines_text, "
+        + " ps1.private_description_text "
+        + " FROM project_spec as ps1 "
+        + " WHERE ps1.version = (SELECT max(ps2.version) FROM project_spec as ps2 "
+        + " WHERE ps2.project_id = ps1.project_id) "
+        + " AND ps1.project_id IN";
+
+    /**
+     * Represents the sql statement to query the copilot types of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_PROJECT_COPILOT_TYPES_FOR_PROJECTS_SQL = "SELECT t.project_id, "
+            + "lu.project_copilot_type_id, lu.name, lu.project_copilot_type_desc "
+            + "FROM project_copilot_type_lu lu, project_copilot_type t "
+            + "WHERE lu.project_copilot_type_id = t.project_copilot_type_id AND t.project_id IN";
+
+    /**
+     * Represents the sql statement to query the copilot contest extra infos of a set of project ids.
+     *
+     * @since 1.8.2
+     */
+    private static final String QUERY_COPILOT_CONTEST_EXTRA_INFOS_FOR_PROJECTS_SQL = "SELECT "
+            + "i.copilot_posting_contest_id, "
+            + "t.copilot_contest_extra_info_type_id, t.name, t.copilot_contest_extra_info_type_desc, i.value "
+            + "FROM copilot_contest_extra_info_type t, copilot_contest_extra_info i "
+            + "WHERE t.copilot_contest_extra_info_type_id = i.copilot_contest_extra_info_type_id "
+            + "AND i.copilot_posting_contest_id IN";
+
     /**
      * <p>
      * The factory instance used to create connection to the database. It is
@@ -3524,17 +3736,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
 
             // enumerate each row
             for (int i = 0; i < rows.length; ++i) {
-                Object[] row = rows[i];
-
-                FileType fileType = new FileType();
-                fileType.setId((Long) row[0]);
-                fileType.setDescription((String) row[1]);
-                fileType.setSort(((Long) row[2]).intValue());
-                fileType.setImageFile((Boolean) row[3]);
-                fileType.setExtension((String) row[4]);
-                fileType.setBundledFile((Boolean) row[5]);
-
-                fileTypes[i] = fileType;
+                fileTypes[i] = createFileType(rows[i]);
             }
 
             closeConnection(conn);
@@ -3694,21 +3896,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
             Prize[] prizes = new Prize[rows.length];
             // enumerate each row
             for (int i = 0; i < rows.length; ++i) {
-                Object[] row = rows[i];
-
-                Prize prize = new Prize();
-                prize.setId((Long) row[0]);
-                // set the projectId here.
-                prize.setProjectId(projectId);
-                prize.setPlace(((Long) row[1]).intValue());
-                prize.setPrizeAmount((Double) row[2]);
-                prize.setNumberOfSubmissions(((Long) row[3]).intValue());
-                PrizeType prizeType = new PrizeType();
-                prizeType.setId((Long) row[4]);
-                prizeType.setDescription((String) row[5]);
-                prize.setPrizeType(prizeType);
-
-                prizes[i] = prize;
+                prizes[i] = createPrize(rows[i], projectId);
             }
 
             closeConnection(conn);
@@ -4911,29 +5099,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
                 return null;
             }
 
-            ProjectStudioSpecification studioSpec = new ProjectStudioSpecification();
-
-            // sets the properties for the studio specification
-            studioSpec.setId((Long) rows[0][0]);
-            studioSpec.setGoals((String) rows[0][1]);
-            studioSpec.setTargetAudience((String) rows[0][2]);
-            studioSpec.setBrandingGuidelines((String) rows[0][3]);
-            studioSpec.setDislikedDesignWebSites((String) rows[0][4]);
-            studioSpec.setOtherInstructions((String) rows[0][5]);
-            studioSpec.setWinningCriteria((String) rows[0][6]);
-            studioSpec.setSubmittersLockedBetweenRounds((Boolean) rows[0][7]);
-            studioSpec.setRoundOneIntroduction((String) rows[0][8]);
-            studioSpec.setRoundTwoIntroduction((String) rows[0][9]);
-            studioSpec.setColors((String) rows[0][10]);
-            studioSpec.setFonts((String) rows[0][11]);
-            studioSpec.setLayoutAndSize((String) rows[0][12]);
-            studioSpec.setContestIntroduction((String) rows[0][13]);
-            studioSpec.setContestDescription((String) rows[0][14]);
-            studioSpec.setGeneralFeedback((String) rows[0][15]);
-
-            if(rows[0][16] != null && ((String) rows[0][16]).trim().length() > 0 ) {
-                studioSpec.setContestDescription((String) rows[0][16]);
-            }
+            ProjectStudioSpecification studioSpec = createStudioSpecification(rows[0]);
             closeConnection(conn);
             return studioSpec;
         } catch (PersistenceException e) {
@@ -4984,14 +5150,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
                 return null;
             }
 
-            ProjectMMSpecification mmSpec = new ProjectMMSpecification();
-
-            // sets the properties for the mm specification
-            mmSpec.setId((Long) rows[0][0]);
-            mmSpec.setMatchDetails((String) rows[0][1]);
-            mmSpec.setMatchRules((String) rows[0][2]);
-            mmSpec.setProblemId((Long) rows[0][3]);
-            mmSpec.setProblemName((String) rows[0][4]);
+            ProjectMMSpecification mmSpec = createMMSpecification(rows[0]);
 
             closeConnection(conn);
             return mmSpec;
@@ -5736,6 +5895,13 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
      * Retrieves an array of project instance from the persistence given their
      * ids. The project instances are retrieved with their properties.
      * </p>
+     * <p>
+     * Updated in version 1.8.2: the projects and their child data are queried by id chunks of the fixed sizes
+     * {@link #PROJECT_ID_CHUNK_ARITIES}, so the same prepared statements serve any number of ids, and the rows are
+     * assembled into the projects through an id-project map. When there are at least
+     * {@link #PARALLEL_PROJECT_LOAD_THRESHOLD} projects and {@link #isParallelLoadSupported()} returns true, the
+     * child data queries run in parallel, each on its own connection.
+     * </p>
      * @param ids The ids of the projects to be retrieved.
      * @param conn the database connection
      * @return An array of project instances.
@@ -5746,153 +5912,539 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
     private Project[] getProjects(long ids[], Connection conn)
         throws PersistenceException, ParseException {
 
-        // build the id list string
-        StringBuffer idListBuffer = new StringBuffer();
-        idListBuffer.append('(');
+        // remove the duplicate ids, they would be bound several times
+        Set<Long> idSet = new LinkedHashSet<Long>();
         for (int i = 0; i < ids.length; ++i) {
-            if (i != 0) {
-                idListBuffer.append(',');
-            }
-            idListBuffer.append(ids[i]);
-        }
-        idListBuffer.append(')');
-        // get the id list string
-        String idList = idListBuffer.toString();
+            idSet.add(ids[i]);
+        }
+        long[] distinctIds = new long[idSet.size()];
+        int index = 0;
+        for (Long id : idSet) {
+            distinctIds[index++] = id;
+        }
+
+        // start the loads of the child data first, so they run while the projects are queried
+        boolean parallel = distinctIds.length >= PARALLEL_PROJECT_LOAD_THRESHOLD && isParallelLoadSupported();
+        ProjectSubLoad fileTypesLoad = new ProjectSubLoad(QUERY_FILE_TYPES_FOR_PROJECTS_SQL, distinctIds,
+            withProjectId(QUERY_FILE_TYPES_COLUMN_TYPES), parallel);
+        ProjectSubLoad prizesLoad = new ProjectSubLoad(QUERY_PRIZES_FOR_PROJECTS_SQL, distinctIds,
+            withProjectId(QUERY_PRIZES_COLUMN_TYPES), parallel);
+        ProjectSubLoad studioSpecsLoad = new ProjectSubLoad(QUERY_STUDIO_SPECS_FOR_PROJECTS_SQL, distinctIds,
+            withProjectId(QUERY_STUDIO_SPEC_COLUMN_TYPES), parallel);
+        ProjectSubLoad mmSpecsLoad = new ProjectSubLoad(QUERY_MM_SPECS_FOR_PROJECTS_SQL, distinctIds,
+            withProjectId(QUERY_MM_SPEC_COLUMN_TYPES), parallel);
+        ProjectSubLoad projectSpecsLoad = new ProjectSubLoad(QUERY_PROJECT_SPECS_FOR_PROJECTS_SQL, distinctIds,
+            withProjectId(QUERY_PROJECT_SPEC_COLUMN_TYPES), parallel);
+        ProjectSubLoad copilotTypesLoad = new ProjectSubLoad(QUERY_PROJECT_COPILOT_TYPES_FOR_PROJECTS_SQL,
+            distinctIds, withProjectId(QUERY_PROJECT_COPILOT_TYPES_COLUMN_TYPES), parallel);
+        ProjectSubLoad extraInfosLoad = new ProjectSubLoad(QUERY_COPILOT_CONTEST_EXTRA_INFOS_FOR_PROJECTS_SQL,
+            distinctIds, withProjectId(QUERY_COPILOT_CONTEST_EXTRA_INFOS_COLUMN_TYPES), parallel);
+
+        Map<Long, Project> projectMap = new LinkedHashMap<Long, Project>();
+        try {
+            // find projects in the table.
+            List<Object[]> rows = Helper.doChunkedQuery(conn, QUERY_PROJECTS_SQL, distinctIds,
+                PROJECT_ID_CHUNK_ARITIES, QUERY_PROJECTS_COLUMN_TYPES);
 
-        // find projects in the table.
-        Object[][] rows = Helper
-            .doQuery(conn, QUERY_PROJECTS_SQL + idList, new Object[]{}, QUERY_PROJECTS_COLUMN_TYPES);
+            for (Object[] row : rows) {
+                // create the ProjectStatus object
+                ProjectStatus status = new ProjectStatus(((Long) row[1]).longValue(), (String) row[2]);
 
-        // create the Project array.
-        Project[] projects = new Project[rows.length];
+                // create the ProjectType object
+                ProjectType type = new ProjectType(((Long) row[5]).longValue(), (String) row[6]);
 
-        for (int i = 0; i < rows.length; ++i) {
-            Object[] row = rows[i];
+                // create the ProjectCategory object
+                ProjectCategory category = new ProjectCategory(((Long) row[3]).longValue(), (String) row[4], type);
+                category.setDescription((String) row[11]);
 
-            // create the ProjectStatus object
-            ProjectStatus status = new ProjectStatus(((Long) row[1]).longValue(), (String) row[2]);
+                long projectId = (Long) row[0];
+                // create a new instance of Project class
+                Project project = new Project(projectId, category, status);
 
-            // create the ProjectType object
-            ProjectType type = new ProjectType(((Long) row[5]).longValue(), (String) row[6]);
+                // assign the audit information
+                project.setCreationUser((String) row[7]);
+                project.setCreationTimestamp((Date) row[8]);
+                project.setModificationUser((String) row[9]);
+                project.setModificationTimestamp((Date) row[10]);
 
-            // create the ProjectCategory object
-            ProjectCategory category = new ProjectCategory(((Long) row[3]).longValue(), (String) row[4], type);
-            category.setDescription((String) row[11]);
+                // set the tc direct project id
+                project.setTcDirectProjectId(row[12] == null ? 0 : ((Long) row[12]).intValue());
 
-            long projectId = (Long) row[0];
-            // create a new instance of Project class
-            projects[i] = new Project(projectId, category, status);
+                //creator
+                project.setCreator((String) row[13]);
 
-            // assign the audit information
-            projects[i].setCreationUser((String) row[7]);
-            projects[i].setCreationTimestamp((Date) row[8]);
-            projects[i].setModificationUser((String) row[9]);
-            projects[i].setModificationTimestamp((Date) row[10]);
+                project.setProjectFileTypes(new ArrayList<FileType>());
+                project.setPrizes(new ArrayList<Prize>());
+                if (category.getId() == ProjectCategory.COPILOT_POSTING.getId()) {
+                    project.setProjectCopilotTypes(new ArrayList<ProjectCopilotType>());
+                    project.setCopilotContestExtraInfos(new ArrayList<CopilotContestExtraInfo>());
+                }
+
+                projectMap.put(projectId, project);
+            }
+
+            // find project properties in the table.
+            rows = Helper.doChunkedQuery(conn, QUERY_PROJECT_PROPERTIES_SQL, distinctIds, PROJECT_ID_CHUNK_ARITIES,
+                QUERY_PROJECT_PROPERTIES_COLUMN_TYPES);
+            for (Object[] row : rows) {
+                // set the property to project
+                projectMap.get(row[0]).setProperty((String) row[1], (String) row[2]);
+            }
+
+            // find the project platforms in the database
+            rows = Helper.doChunkedQuery(conn, QUERY_PROJECT_PLATFORMS_SQL, distinctIds, PROJECT_ID_CHUNK_ARITIES,
+                QUERY_PROJECT_PLATFORMS_COLUMN_TYPES);
+            for (Object[] row : rows) {
+                // get the corresponding Project object
+                Project project = projectMap.get(row[0]);
 
-            // set the tc direct project id
-            projects[i].setTcDirectProjectId(row[12] == null ? 0 : ((Long) row[12]).intValue());
+                if (project.getPlatforms() == null) {
+                    project.setPlatforms(new ArrayList<ProjectPlatform>());
+                }
 
-            //creator
-            projects[i].setCreator((String) row[13]);
+                project.getPlatforms().add(new ProjectPlatform((Long) row[1], (String) row[2]));
+            }
 
             // set the file types
-            projects[i].setProjectFileTypes(Arrays.asList(getProjectFileTypes(projectId)));
+            for (Object[] row : fileTypesLoad.getRows(conn)) {
+                projectMap.get(row[0]).getProjectFileTypes().add(createFileType(dropProjectId(row)));
+            }
 
             // set the prizes
-            projects[i].setPrizes(Arrays.asList(getProjectPrizes(projectId)));
+            for (Object[] row : prizesLoad.getRows(conn)) {
+                projectMap.get(row[0]).getPrizes().add(createPrize(dropProjectId(row), (Long) row[0]));
+            }
 
             // set the studio specification
-            projects[i].setProjectStudioSpecification(getProjectStudioSpecification(projectId));
+            for (Object[] row : studioSpecsLoad.getRows(conn)) {
+                projectMap.get(row[0]).setProjectStudioSpecification(createStudioSpecification(dropProjectId(row)));
+            }
 
-            
             // set the marathon match specification
-            projects[i].setProjectMMSpecification(getProjectMMSpecification(projectId));
-            
+            for (Object[] row : mmSpecsLoad.getRows(conn)) {
+                projectMap.get(row[0]).setProjectMMSpecification(createMMSpecification(dropProjectId(row)));
+            }
+
             //
             // Added for Cockpit Launch Contest - Update for Spec Creation v1.0
             //
-            ProjectSpec[] specs = getProjectSpecs(projects[i].getId(), conn);
-            if (specs != null && specs.length > 0) {
-                projects[i].setProjectSpec(specs[0]);
+            for (Object[] row : projectSpecsLoad.getRows(conn)) {
+                Project project = projectMap.get(row[0]);
+                if (project.getProjectSpec() == null) {
+                    project.setProjectSpec(createProjectSpec(dropProjectId(row), (Long) row[0]));
+                }
             }
 
-            if (projects[i].getProjectCategory().getId() == ProjectCategory.COPILOT_POSTING.getId()) {
-                projects[i].setProjectCopilotTypes(getProjectCopilotTypes(projects[i].getId()));
-                projects[i].setCopilotContestExtraInfos(getCopilotContestExtraInfos(projects[i].getId()));
+            for (Object[] row : copilotTypesLoad.getRows(conn)) {
+                Project project = projectMap.get(row[0]);
+                if (project.getProjectCopilotTypes() != null) {
+                    project.getProjectCopilotTypes().add(createProjectCopilotType(dropProjectId(row)));
+                }
             }
-        }
 
-        // get the Id-Project map
-        Map projectMap = makeIdProjectMap(projects);
+            for (Object[] row : extraInfosLoad.getRows(conn)) {
+                Project project = projectMap.get(row[0]);
+                if (project.getCopilotContestExtraInfos() != null) {
+                    project.getCopilotContestExtraInfos().add(createCopilotContestExtraInfo(dropProjectId(row)));
+                }
+            }
+        } finally {
+            // the loads not waited for because of an error are cancelled
+            fileTypesLoad.cancel();
+            prizesLoad.cancel();
+            studioSpecsLoad.cancel();
+            mmSpecsLoad.cancel();
+            projectSpecsLoad.cancel();
+            copilotTypesLoad.cancel();
+            extraInfosLoad.cancel();
+        }
 
-        // find project properties in the table.
-        rows = Helper.doQuery(conn, QUERY_PROJECT_PROPERTIES_SQL + idList, new Object[]{},
-            QUERY_PROJECT_PROPERTIES_COLUMN_TYPES);
+        return projectMap.values().toArray(new Project[projectMap.size()]);
+    }
 
-        // enumerate each row
-        for (int i = 0; i < rows.length; ++i) {
-            Object[] row = rows[i];
+    /**
+     * <p>
+     * Tells whether the child data of the projects can be loaded in parallel on separate connections, see
+     * {@link #getProjects(long[], java.sql.Connection)}. The separate connections do not see the uncommitted changes
+     * of the transaction of the calling connection, so the parallel load is only safe when the connections of this
+     * persistence do not take part in a shared transaction.
+     * </p>
+     * <p>
+     * This implementation returns false.
+     * </p>
+     *
+     * @return true if the child data can be loaded in parallel.
+     * @since 1.8.2
+     */
+    protected boolean isParallelLoadSupported() {
+        return false;
+    }
 
-            // get the corresponding Project object
-            Project project = (Project) projectMap.get(row[0]);
+    /**
+     * <p>
+     * Creates the executor of the parallel loads of the child data of the projects. Its threads are daemon threads
+     * so they do not prevent the JVM from exiting.
+     * </p>
+     *
+     * @return the executor.
+     * @since 1.8.2
+     */
+    private static ExecutorService createProjectLoadExecutor() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "project-load");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
 
-            // set the property to project
-            project.setProperty((String) row[1], (String) row[2]);
-        }
+    /**
+     * <p>
+     * Gets the column types of a query which selects the project id before the given columns.
+     * </p>
+     *
+     * @param columnTypes the types of the other columns.
+     * @return the column types.
+     * @since 1.8.2
+     */
+    private static DataType[] withProjectId(DataType[] columnTypes) {
+        DataType[] result = new DataType[columnTypes.length + 1];
+        result[0] = Helper.LONG_TYPE;
+        System.arraycopy(columnTypes, 0, result, 1, columnTypes.length);
+        return result;
+    }
 
-        // find the project platforms in the database
-        rows = Helper.doQuery(conn, QUERY_PROJECT_PLATFORMS_SQL + idList, new Object[]{},
-                QUERY_PROJECT_PLATFORMS_COLUMN_TYPES);
+    /**
+     * <p>
+     * Removes the project id from a row of a query which selects the project id before the other columns.
+     * </p>
+     *
+     * @param row the row.
+     * @return the other columns.
+     * @since 1.8.2
+     */
+    private static Object[] dropProjectId(Object[] row) {
+        Object[] result = new Object[row.length - 1];
+        System.arraycopy(row, 1, result, 0, result.length);
+        return result;
+    }
 
-        for(int i = 0; i < rows.length; ++i) {
-            Object[] row = rows[i];
+    /**
+     * <p>
+     * Creates a file type from a row of the file types query.
+     * </p>
+     *
+     * @param row the row.
+     * @return the file type.
+     * @since 1.8.2
+     */
+    private static FileType createFileType(Object[] row) {
+        FileType fileType = new FileType();
+        fileType.setId((Long) row[0]);
+        fileType.setDescription((String) row[1]);
+        fileType.setSort(((Long) row[2]).intValue());
+        fileType.setImageFile((Boolean) row[3]);
+        fileType.setExtension((String) row[4]);
+        fileType.setBundledFile((Boolean) row[5]);
+        return fileType;
+    }
 
-            // get the corresponding Project object
-            Project project = (Project) projectMap.get(row[0]);
+    /**
+     * <p>
+     * Creates a prize from a row of the prizes query.
+     * </p>
+     *
+     * @param row the row.
+     * @param projectId the id of the project of the prize.
+     * @return the prize.
+     * @since 1.8.2
+     */
+    private static Prize createPrize(Object[] row, long projectId) {
+        Prize prize = new Prize();
+        prize.setId((Long) row[0]);
+        // set the projectId here.
+        prize.setProjectId(projectId);
+        prize.setPlace(((Long) row[1]).intValue());
+        prize.setPrizeAmount((Double) row[2]);
+        prize.setNumberOfSubmissions(((Long) row[3]).intValue());
+        PrizeType prizeType = new PrizeType();
+        prizeType.setId((Long) row[4]);
+        prizeType.setDescription((String) row[5]);
+        prize.setPrizeType(prizeType);
+        return prize;
+    }
 
-            if(project.getPlatforms() == null) {
-                List<ProjectPlatform> platforms = new ArrayList<ProjectPlatform>();
-                project.setPlatforms(platforms);
-            }
+    /**
+     * <p>
+     * Creates a studio specification from a row of the studio specification query.
+     * </p>
+     *
+     * @param row the row.
+     * @return the studio specification.
+     * @since 1.8.2
+     */
+    private static ProjectStudioSpecification createStudioSpecification(Object[] row) {
+        ProjectStudioSpecification studioSpec = new ProjectStudioSpecification();
+
+        // sets the properties for the studio specification
+        studioSpec.setId((Long) row[0]);
+        studioSpec.setGoals((String) row[1]);
+        studioSpec.setTargetAudience((String) row[2]);
+        studioSpec.setBrandingGuidelines((String) row[3]);
+        studioSpec.setDislikedDesignWebSites((String) row[4]);
+        studioSpec.setOtherInstructions((String) row[5]);
+        studioSpec.setWinningCriteria((String) row[6]);
+        studioSpec.setSubmittersLockedBetweenRounds((Boolean) row[7]);
+        studioSpec.setRoundOneIntroduction((String) row[8]);
+        studioSpec.setRoundTwoIntroduction((String) row[9]);
+        studioSpec.setColors((String) row[10]);
+        studioSpec.setFonts((String) row[11]);
+        studioSpec.setLayoutAndSize((String) row[12]);
+        studioSpec.setContestIntroduction((String) row[13]);
+        studioSpec.setContestDescription((String) row[14]);
+        studioSpec.setGeneralFeedback((String) row[15]);
+
+        if (row[16] != null && ((String) row[16]).trim().length() > 0) {
+            studioSpec.setContestDescription((String) row[16]);
+        }
+        return studioSpec;
+    }
 
-            project.getPlatforms().add(new ProjectPlatform((Long) row[1], (String) row[2]));
-        }
+    /**
+     * <p>
+     * Creates a marathon match specification from a row of the mm specification query.
+     * </p>
+     *
+     * @param row the row.
+     * @return the marathon match specification.
+     * @since 1.8.2
+     */
+    private static ProjectMMSpecification createMMSpecification(Object[] row) {
+        ProjectMMSpecification mmSpec = new ProjectMMSpecification();
 
-        return projects;
+        // sets the properties for the mm specification
+        mmSpec.setId((Long) row[0]);
+        mmSpec.setMatchDetails((String) row[1]);
+        mmSpec.setMatchRules((String) row[2]);
+        mmSpec.setProblemId((Long) row[3]);
+        mmSpec.setProblemName((String) row[4]);
+        return mmSpec;
     }
+
     /**
      * <p>
-     * Retrieves an array of project instance from the persistence whose create date is within current - days.
+     * Creates a project spec from a row of the project spec query.
      * </p>
      *
-     * @param days
-     *            last 'days'
-     * @param conn
-     *            the database connection
-     * @return An array of project instances.
-     * @throws PersistenceException
-     *             if error occurred while accessing the database.
+     * @param row the row.
+     * @param projectId the id of the project of the spec.
+     * @return the project spec.
+     * @since 1.8.2
      */
-    private Project[] getProjectsByCreateDate(int days, Connection conn) throws PersistenceException {
-
-        // find projects in the table.
-        Object[][] rows = Helper.doQuery(conn, QUERY_PROJECTS_BY_CREATE_DATE_SQL + days, new Object[]{},
-            QUERY_PROJECTS_BY_CREATE_DATE_COLUMN_TYPES);
+    private static ProjectSpec createProjectSpec(Object[] row, Long projectId) {
+        ProjectSpec spec = new ProjectSpec();
 
-        // create the Project array.
-        Project[] projects = new Project[rows.length];
+        spec.setProjectSpecId((Long) row[0]);
+        spec.setProjectId(projectId);
+        spec.setVersion((Long) row[1]);
+        spec.setDetailedRequirements((String) row[2]);
+        spec.setSubmissionDeliverables((String) row[3]);
+        spec.setEnvironmentSetupInstructions((String) row[4]);
+        spec.setFinalSubmissionGuidelines((String) row[5]);
+        spec.setCreationUser((String) row[6]);
+        spec.setCreationTimestamp((Date) row[7]);
+        spec.setModificationUser((String) row[8]);
+        spec.setModificationTimestamp((Date) row[9]);
+        spec.setPrivateDescription((String) row[10]);
 
-        for (int i = 0; i < rows.length; ++i) {
-            Object[] row = rows[i];
+        // use the corresponding xxx_texts column if there are data present.
+        if (row[11] != null && ((String) row[11]).trim().length() > 0) {
+            spec.setDetailedRequirements((String) row[11]);
+        }
 
-            // create the ProjectStatus object
-            ProjectStatus status = new ProjectStatus(((Long) row[1]).longValue(), (String) row[2]);
+        if (row[12] != null && ((String) row[12]).trim().length() > 0) {
+            spec.setFinalSubmissionGuidelines((String) row[12]);
+        }
 
-            // create the ProjectType object
-            ProjectType type = new ProjectType(((Long) row[5]).longValue(), (String) row[6]);
+        if (row[13] != null && ((String) row[13]).trim().length() > 0) {
+            spec.setPrivateDescription((String) row[13]);
+        }
+        return spec;
+    }
 
-            // create the ProjectCategory object
-            ProjectCategory category = new ProjectCategory(((Long) row[3]).longValue(), (String) row[4], type);
+    /**
+     * <p>
+     * Creates a project copilot type from a row of the project copilot types query.
+     * </p>
+     *
+     * @param row the row.
+     * @return the project copilot type.
+     * @since 1.8.2
+     */
+    private static ProjectCopilotType createProjectCopilotType(Object[] row) {
+        return new ProjectCopilotType((Long) row[0], (String) row[1], (String) row[2]);
+    }
+
+    /**
+     * <p>
+     * Creates a copilot contest extra info from a row of the copilot contest extra infos query.
+     * </p>
+     *
+     * @param row the row.
+     * @return the copilot contest extra info.
+     * @since 1.8.2
+     */
+    private static CopilotContestExtraInfo createCopilotContestExtraInfo(Object[] row) {
+        CopilotContestExtraInfoType type = new CopilotContestExtraInfoType((Long) row[0], (String) row[1],
+                (String) row[2]);
+        CopilotContestExtraInfo extraInfo = new CopilotContestExtraInfo();
+        extraInfo.setType(type);
+        extraInfo.setValue((String) row[3]);
+        return extraInfo;
+    }
+
+    /**
+     * <p>
+     * A chunked query of the child data of a set of projects. In parallel mode the query runs on the executor on its
+     * own connection as soon as it is created, otherwise it runs on the calling connection when its rows are
+     * requested.
+     * </p>
+     * <p>
+     * Thread Safety: This class is used by a single call of {@link #getProjects(long[], java.sql.Connection)}; the
+     * parallel query only touches its own connection.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.8.2
+     * @since 1.8.2
+     */
+    private class ProjectSubLoad {
+        /**
+         * The query without the id list.
+         */
+        private final String queryPrefix;
+
+        /**
+         * The project ids.
+         */
+        private final long[] ids;
+
+        /**
+         * The column types of the query.
+         */
+        private final DataType[] columnTypes;
+
+        /**
+         * The result of the parallel query, null if the query is not parallel.
+         */
+        private final Future<List<Object[]>> future;
+
+        /**
+         * Creates the load, starting the query in parallel mode.
+         *
+         * @param queryPrefix the query without the id list.
+         * @param ids the project ids.
+         * @param columnTypes the column types of the query.
+         * @param parallel true to run the query on the executor.
+         */
+        ProjectSubLoad(String queryPrefix, long[] ids, DataType[] columnTypes, boolean parallel) {
+            this.queryPrefix = queryPrefix;
+            this.ids = ids;
+            this.columnTypes = columnTypes;
+            this.future = parallel ? PROJECT_LOAD_EXECUTOR.submit(new Callable<List<Object[]>>() {
+                public List<Object[]> call() throws PersistenceException {
+                    Connection connection = openConnection();
+                    try {
+                        List<Object[]> rows = query(connection);
+                        closeConnection(connection);
+                        return rows;
+                    } catch (PersistenceException e) {
+                        closeConnectionOnError(connection);
+                        throw e;
+                    }
+                }
+            }) : null;
+        }
+
+        /**
+         * Gets the rows of the query, waiting for the parallel query.
+         *
+         * @param conn the calling connection, used if the query is not parallel.
+         * @return the rows.
+         * @throws PersistenceException if the query fails or the wait is interrupted.
+         */
+        List<Object[]> getRows(Connection conn) throws PersistenceException {
+            if (future == null) {
+                return query(conn);
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PersistenceException("Interrupted while loading the projects.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof PersistenceException) {
+                    throw (PersistenceException) e.getCause();
+                }
+                throw new PersistenceException("Fails to load the projects.", e.getCause());
+            }
+        }
+
+        /**
+         * Cancels the parallel query if it is not started yet.
+         */
+        void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        /**
+         * Runs the query.
+         *
+         * @param connection the connection.
+         * @return the rows.
+         * @throws PersistenceException if the query fails.
+         */
+        private List<Object[]> query(Connection connection) throws PersistenceException {
+            return Helper.doChunkedQuery(connection, queryPrefix, ids, PROJECT_ID_CHUNK_ARITIES, columnTypes);
+        }
+    }
+
+    /**
+     * <p>
+     * Retrieves an array of project instance from the persistence whose create date is within current - days.
+     * </p>
+     *
+     * @param days
+     *            last 'days'
+     * @param conn
+     *            the database connection
+     * @return An array of project instances.
+     * @throws PersistenceException
+     *             if error occurred while accessing the database.
+     */
+    private Project[] getProjectsByCreateDate(int days, Connection conn) throws PersistenceException {
+
+        // find projects in the table.
+        Object[][] rows = Helper.doQuery(conn, QUERY_PROJECTS_BY_CREATE_DATE_SQL + days, new Object[]{},
+            QUERY_PROJECTS_BY_CREATE_DATE_COLUMN_TYPES);
+
+        // create the Project array.
+        Project[] projects = new Project[rows.length];
+
+        for (int i = 0; i < rows.length; ++i) {
+            Object[] row = rows[i];
+
+            // create the ProjectStatus object
+            ProjectStatus status = new ProjectStatus(((Long) row[1]).longValue(), (String) row[2]);
+
+            // create the ProjectType object
+            ProjectType type = new ProjectType(((Long) row[5]).longValue(), (String) row[6]);
+
+            // create the ProjectCategory object
+            ProjectCategory category = new ProjectCategory(((Long) row[3]).longValue(), (String) row[4], type);
             category.setDescription((String) row[11]);
             // create a new instance of ProjectType class
             projects[i] = new Project(((Long) row[0]).longValue(), category, status);
@@ -7129,36 +7681,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
         
         ProjectSpec[] specs = new ProjectSpec[rows.length];
         for (int i = 0; i < rows.length; i++) {
-            ProjectSpec spec = new ProjectSpec();
-         
-            spec.setProjectSpecId((Long) rows[i][0]);
-            spec.setProjectId(projectId);
-            spec.setVersion((Long) rows[i][1]);
-            spec.setDetailedRequirements((String) rows[i][2]);
-            spec.setSubmissionDeliverables((String) rows[i][3]);
-            spec.setEnvironmentSetupInstructions((String) rows[i][4]);
-            spec.setFinalSubmissionGuidelines((String) rows[i][5]);
-            spec.setCreationUser((String) rows[i][6]);
-            spec.setCreationTimestamp((Date) rows[i][7]);
-            spec.setModificationUser((String) rows[i][8]);
-            spec.setModificationTimestamp((Date) rows[i][9]);
-            spec.setPrivateDescription((String) rows[i][10]);
-
-
-            // use the corresponding xxx_texts column if there are data present.
-            if(rows[i][11] != null && ((String) rows[i][11]).trim().length() > 0) {
-                spec.setDetailedRequirements((String) rows[i][11]);
-            }
-
-            if(rows[i][12] != null && ((String) rows[i][12]).trim().length() > 0) {
-                spec.setFinalSubmissionGuidelines((String) rows[i][12]);
-            }
-
-            if(rows[i][13] != null && ((String) rows[i][13]).trim().length() > 0) {
-                spec.setPrivateDescription((String) rows[i][13]);
-            }
-
-            specs[i] = spec;
+            specs[i] = createProjectSpec(rows[i], projectId);
         }
         
         return specs;
@@ -7198,126 +7721,11 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
 					this.QUERY_ALL_SIMPLE_PROJECT_CONTEST_COLUMN_TYPES);
 	        getLogger().log(Level.INFO, new LogMessage(null,null,"Found "+rows.length + " records"));
 
-			SimpleProjectContestData[] ret = new SimpleProjectContestData[rows.length];
-			 SimpleDateFormat myFmt=new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
-
-			 List<SimpleProjectContestData> result = new ArrayList<SimpleProjectContestData>();
-
-			for(int i=0;i<rows.length;i++)
-			{
-				ret[i]=new SimpleProjectContestData();
-				ret[i].setContestId((Long)rows[i][0]);
-				// if have phase, use phase as stutus, otherwise use project status
-				/* [BUGR-2038]: See comments at the class level. Status is either 'Scheduled'
-				  or 'Draft' or from the DB as done previously.*/
-
-				// try to use phase if not null
-				if (rows[i][1] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
-				{
-					ret[i].setSname(((String)rows[i][1]).trim());
-				}
-				// else for active, use 'newstatus'
-				else if (rows[i][15] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
-				{
-					ret[i].setSname(((String)rows[i][15]).trim());
-				}
-				// use status
-				else
-				{
-					ret[i].setSname(((String)rows[i][6]).trim());
-				}
-				
-				ret[i].setCname((String)rows[i][2]);
-				if (rows[i][3] != null)
-				{
-					ret[i].setStartDate(myFmt.parse(rows[i][3].toString()));
-				}
-				if (rows[i][4] != null)
-				{
-					ret[i].setEndDate(myFmt.parse(rows[i][4].toString()));
-				}
-				
-				ret[i].setType((String)rows[i][5]);
-				ret[i].setNum_reg(new Integer(((Long)rows[i][7]).intValue()));
-				ret[i].setNum_sub(new Integer(((Long)rows[i][8]).intValue()));
-				ret[i].setNum_for(new Integer(((Long)rows[i][9]).intValue()));
-				ret[i].setProjectId((Long)rows[i][10]);
-				ret[i].setPname((String)rows[i][11]);
-				ret[i].setDescription((String)rows[i][12]);
-				ret[i].setCreateUser((String)rows[i][13]);
-				if (rows[i][14] != null)
-				{
-					ret[i].setForumId(new Integer(((Long)rows[i][14]).intValue()));
-				}
-				
-				if (rows[i][16] != null) {
-				    ret[i].setCperm((String) rows[i][16]);
-				}
-				
-				if (rows[i][17] != null) {
-                    		    ret[i].setPperm((String) rows[i][17]);
-                		}
-
-                if (rows[i][18] != null) {
-                    ret[i].setSubmissionEndDate(myFmt.parse(rows[i][18].toString()));
-                }
-                //it is the srprojectId
-                if (rows[i][19] != null) {
-                    ret[i].setSpecReviewProjectId((Long)rows[i][19]);
-                    //show spec review status only if the original project has not been started, so it is draft or scheduled
-                    if (ret[i].getSname().equalsIgnoreCase("Scheduled") || ret[i].getSname().equalsIgnoreCase("Draft")) {
-                      //it is number of reviewer assign to spec review project
-                        int reviewerAssignToSepcReviewProject = ((Long)rows[i][20]).intValue();
-                        //no reviwer assigned yet
-                        if (reviewerAssignToSepcReviewProject == 0) {
-                            ret[i].setSpecReviewStatus("Assigning Reviewer");
-                        } else {
-                            //21, checking whether in 'reviewing' status
-                            if (rows[i][21] != null) {
-                                ret[i].setSpecReviewStatus("Reviewing");
-                            } else {
-                              //check next value
-                                int requiredItems = ((Long)rows[i][22]).intValue();
-                                //no required items now
-                                if (requiredItems == 0) {
-                                    ret[i].setSpecReviewStatus("Spec Review Passed");
-                                } else {
-                                    // if not in final review, or in FF but no review item
-                                    if (rows[i][25] == null) {
-                                        ret[i].setSpecReviewStatus("Spec Review Failed");
-                                    }
-                                    else {
-                                        int notFixedItems = ((Long)rows[i][23]).intValue();
-                                        if (notFixedItems == 0) {
-                                            ret[i].setSpecReviewStatus("Spec Review Passed");
-                                        } else {
-                                            int notFixedFinalItems = ((Long)rows[i][24]).intValue();
-                                            if (notFixedFinalItems > 0) {
-                                                ret[i].setSpecReviewStatus("Spec Review Passed");
-                                            } else {
-                                                ret[i].setSpecReviewStatus("Spec Review Failed");
-                                            }
-                                        }
-                                    }
-                                }
-                            }                            
-                        }
-                    }
-                }
-
-                // set contest fee/ price sum
-                ret[i].setContestFee((Double)rows[i][26]);
-
-				if (ret[i].getCperm() != null || ret[i].getPperm() != null)
-				{
-					result.add(ret[i]);
-				}
-
-			}
+			List<SimpleProjectContestData> result = createSimpleProjectContestData(rows);
 			closeConnection(conn);
 	        getLogger().log(Level.INFO, new LogMessage(null,null,"Exit getSimpleProjectContestData method."));
 
-			return Arrays.asList(ret);
+			return result;
 		} catch (PersistenceException e) {
 			getLogger().log(
 					Level.ERROR,
@@ -7562,44 +7970,470 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
 			conn = openConnection();
 
 
-			String qstr = 
-			" select p.project_id as contest_id, "
-			+		" (select ptl.name from phase_type_lu ptl where phase_type_id = (select min(phase_type_id) from project_phase ph " 
-			+ " where ph.phase_status_id = 2 and ph.project_id=p.project_id)) as current_phase, "
-			+ "(select value from project_info where project_id = p.project_id and project_info_type_id =6) as contest_name, "
-			+ "(select min(nvl(actual_start_time, scheduled_start_time)) from project_phase ph where ph.project_id=p.project_id and ph.phase_type_id = 1) as start_date, "
-			+ " (select max(nvl(actual_end_time, scheduled_end_time)) from project_phase ph where ph.project_id=p.project_id) as end_date, "
-			+ "  pcl.name as contest_type, psl.name as status, "
-			+ " (select count(resource_id) from resource r where r.project_id = p.project_id and resource_role_id = 1) as num_reg, "
-			+ " (select count (distinct resource_id) from upload u where u.project_id = p.project_id and upload_status_id = 1 and upload_type_id = 1) as num_sub, "
-			// fixed forum post
-            		+ " (select count(messageid) from jivecategory c, jiveforum f, jivemessage m, project_info pi "
-            		+ "        where pi.project_info_type_id =4 and c.categoryid = pi.value and c.categoryid = f.categoryid and m.forumid = f.forumid "
-            		+ "             and pi.project_id =  p.project_id) as num_for, "
-			+ " tc_direct_project_id as project_id, tcd.name, tcd.description, tcd.user_id, "
-			+ "  (select value from project_info where project_id = p.project_id and project_info_type_id =4) as forum_id, "
-			+ "  (select case when(count(*)>=1) then 'Scheduled' when(count(*)=0) then 'Draft' end "
-			+ "   from contest_sale c where p.project_id = c.contest_id and upper(psl.name)='ACTIVE' ) as newstatus, "
+			String qstr = getSimpleProjectContestDataByUserQuery(createdUser);
 
+			// get the project objects
+			// find projects in the table.
+			Object[][] rows = Helper.doQuery(conn,
+					qstr, new Object[] {},
+					this.QUERY_ALL_SIMPLE_PROJECT_CONTEST_COLUMN_TYPES);
+	        getLogger().log(Level.INFO, new LogMessage(null,null,"Found "+rows.length + " records"));
 
-			+ " (select name from permission_type where permission_type_id= NVL( (select max( permission_type_id)  "
-			+ " from user_permission_grant as upg  where resource_id=p.project_id and is_studio=0 and user_id = " + createdUser
-			+ " ),0)) as cperm, "
+			List<SimpleProjectContestData> result = createSimpleProjectContestDataByUser(rows);
 
-            + " (select name from permission_type where permission_type_id= NVL( (select max( permission_type_id)  "
-            + " from user_permission_grant as upg  where resource_id=tcd.project_id and user_id = " + createdUser
-            + " ),0)) as pperm, "
+			closeConnection(conn);
+	        getLogger().log(Level.INFO, new LogMessage(null,null,"Exit getSimpleProjectContestDataByUser method."));
 
-            /* Added in cockpit R 10 */
-            + " (select scheduled_end_time from project_phase ph "
-            + " where ph.phase_type_id = 2 and ph.project_id=p.project_id) as submission_end_date,"
-            /* R 10 end*/
+			return result;
+		} catch (PersistenceException e) {
+			getLogger().log(
+					Level.ERROR,
+					new LogMessage(null, null,
+							"Fails to retrieving all tc direct projects ", e));
+			if (conn != null) {
+				closeConnectionOnError(conn);
+			}
+			throw e;
+		} catch (ParseException e) {
+			getLogger().log(
+					Level.ERROR,
+					new LogMessage(null, null,
+							"Fails to retrieving all tc direct projects ", e));
+			if (conn != null) {
+				closeConnectionOnError(conn);
+			}
+			throw new PersistenceException("Fails to retrieve all tc direct projects", e);
+		}
 
-            /* updated by Cockpit Spec Review - Stage 2  - start */
-            /* sepc review project id*/
-            + "(select source_project_id from linked_project_xref where dest_project_id = p.project_id and link_type_id = 3) as srprojectId,"
-            /* sepc review user */
-            + "(select count(*) from resource r, linked_project_xref linkp where linkp.dest_project_Id = p.project_id"
+	}
+
+    /**
+     * <p>
+     * Gets a page of the contests for myproject widget, sorted by direct project id and contest id. The filters,
+     * the sort and the page boundaries are added to the queries of {@link #getSimpleProjectContestData()} and
+     * {@link #getSimpleProjectContestDataByUser(String)}, so only the rows of the page are read.
+     * </p>
+     *
+     * @param criteria the criteria of the page.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws IllegalArgumentException if criteria is null or its page size is not positive.
+     * @throws PersistenceException if error during retrieval from database.
+     * @since 1.8.3
+     */
+    public List<SimpleProjectContestData> getSimpleProjectContestDataPage(SimpleProjectContestDataCriteria criteria)
+        throws PersistenceException {
+        Helper.assertObjectNotNull(criteria, "criteria");
+        if (criteria.getPageSize() <= 0) {
+            throw new IllegalArgumentException("The page size should be positive.");
+        }
+
+        getLogger().log(Level.INFO, new LogMessage(null, null, "Enter getSimpleProjectContestDataPage method."));
+
+        StringBuffer query = new StringBuffer();
+        List<Object> args = new ArrayList<Object>();
+        if (criteria.getUserId() == null) {
+            query.append(QUERY_ALL_SIMPLE_PROJECT_CONTEST);
+        } else {
+            String user = String.valueOf(criteria.getUserId());
+            query.append(getSimpleProjectContestDataByUserQuery(user));
+            // only the contests with a contest or project permission, as getSimpleProjectContestDataByUser filters
+            query.append(" and ((select name from permission_type where permission_type_id = NVL((select max("
+                + "permission_type_id) from user_permission_grant as upg where resource_id=p.project_id and "
+                + "is_studio=0 and user_id = ").append(user).append("),0)) is not null");
+            query.append(" or (select name from permission_type where permission_type_id = NVL((select max("
+                + "permission_type_id) from user_permission_grant as upg where resource_id=tcd.project_id and "
+                + "user_id = ").append(user).append("),0)) is not null) ");
+        }
+        if (criteria.getTcDirectProjectId() != null) {
+            query.append(" and p.tc_direct_project_id = ? ");
+            args.add(criteria.getTcDirectProjectId());
+        }
+        if (!criteria.getProjectStatusIds().isEmpty()) {
+            query.append(" and p.project_status_id in (");
+            for (int i = 0; i < criteria.getProjectStatusIds().size(); i++) {
+                query.append(i == 0 ? "?" : ",?");
+                args.add(criteria.getProjectStatusIds().get(i));
+            }
+            query.append(") ");
+        }
+        if (criteria.getContestName() != null) {
+            query.append(" and (" + PAGE_CONTEST_NAME + " is null or lower(" + PAGE_CONTEST_NAME
+                + ") like ? escape '!') ");
+            args.add("%" + criteria.getContestName().toLowerCase().replace("!", "!!").replace("%", "!%")
+                .replace("_", "!_") + "%");
+        }
+        if (criteria.getStartDateFrom() != null) {
+            query.append(" and (" + PAGE_START_DATE + " is null or " + PAGE_START_DATE + " >= ?) ");
+            args.add(new Timestamp(criteria.getStartDateFrom().getTime()));
+        }
+        if (criteria.getStartDateTo() != null) {
+            query.append(" and (" + PAGE_START_DATE + " is null or " + PAGE_START_DATE + " < ?) ");
+            args.add(new Timestamp(criteria.getStartDateTo().getTime()));
+        }
+        if (criteria.getAfterProjectId() > 0 || criteria.getAfterContestId() > 0) {
+            query.append(" and (p.tc_direct_project_id > ? or (p.tc_direct_project_id = ? and p.project_id > ?)) ");
+            args.add(criteria.getAfterProjectId());
+            args.add(criteria.getAfterProjectId());
+            args.add(criteria.getAfterContestId());
+        }
+        query.append(" order by p.tc_direct_project_id, p.project_id");
+
+        // both queries start with "select", the page size is added after it
+        String qstr = "select first " + criteria.getPageSize()
+            + query.toString().trim().substring("select".length());
+
+        Connection conn = null;
+        try {
+            // create the connection
+            conn = openConnection();
+
+            Object[][] rows = Helper.doQuery(conn, qstr, args.toArray(),
+                QUERY_ALL_SIMPLE_PROJECT_CONTEST_COLUMN_TYPES);
+            getLogger().log(Level.INFO, new LogMessage(null, null, "Found " + rows.length + " records"));
+
+            List<SimpleProjectContestData> result = criteria.getUserId() == null
+                ? createSimpleProjectContestData(rows) : createSimpleProjectContestDataByUser(rows);
+
+            closeConnection(conn);
+            getLogger().log(Level.INFO, new LogMessage(null, null, "Exit getSimpleProjectContestDataPage method."));
+
+            return result;
+        } catch (PersistenceException e) {
+            getLogger().log(Level.ERROR, new LogMessage(null, null, "Fails to retrieving the contests page "
+                + criteria, e));
+            if (conn != null) {
+                closeConnectionOnError(conn);
+            }
+            throw e;
+        } catch (ParseException e) {
+            getLogger().log(Level.ERROR, new LogMessage(null, null, "Fails to retrieving the contests page "
+                + criteria, e));
+            if (conn != null) {
+                closeConnectionOnError(conn);
+            }
+            throw new PersistenceException("Fails to retrieve the contests page", e);
+        }
+    }
+
+    /**
+     * <p>
+     * Creates the contests of the rows of {@link #QUERY_ALL_SIMPLE_PROJECT_CONTEST}.
+     * </p>
+     *
+     * @param rows the rows.
+     * @return the contests.
+     * @throws ParseException if a date of the rows can not be parsed.
+     * @since 1.8.3
+     */
+    private static List<SimpleProjectContestData> createSimpleProjectContestData(Object[][] rows)
+        throws ParseException {
+			SimpleProjectContestData[] ret = new SimpleProjectContestData[rows.length];
+			 SimpleDateFormat myFmt=new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+			 List<SimpleProjectContestData> result = new ArrayList<SimpleProjectContestData>();
+
+			for(int i=0;i<rows.length;i++)
+			{
+				ret[i]=new SimpleProjectContestData();
+				ret[i].setContestId((Long)rows[i][0]);
+				// if have phase, use phase as stutus, otherwise use project status
+				/* [BUGR-2038]: See comments at the class level. Status is either 'Scheduled'
+				  or 'Draft' or from the DB as done previously.*/
+
+				// try to use phase if not null
+				if (rows[i][1] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
+				{
+					ret[i].setSname(((String)rows[i][1]).trim());
+				}
+				// else for active, use 'newstatus'
+				else if (rows[i][15] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
+				{
+					ret[i].setSname(((String)rows[i][15]).trim());
+				}
+				// use status
+				else
+				{
+					ret[i].setSname(((String)rows[i][6]).trim());
+				}
+				
+				ret[i].setCname((String)rows[i][2]);
+				if (rows[i][3] != null)
+				{
+					ret[i].setStartDate(myFmt.parse(rows[i][3].toString()));
+				}
+				if (rows[i][4] != null)
+				{
+					ret[i].setEndDate(myFmt.parse(rows[i][4].toString()));
+				}
+				
+				ret[i].setType((String)rows[i][5]);
+				ret[i].setNum_reg(new Integer(((Long)rows[i][7]).intValue()));
+				ret[i].setNum_sub(new Integer(((Long)rows[i][8]).intValue()));
+				ret[i].setNum_for(new Integer(((Long)rows[i][9]).intValue()));
+				ret[i].setProjectId((Long)rows[i][10]);
+				ret[i].setPname((String)rows[i][11]);
+				ret[i].setDescription((String)rows[i][12]);
+				ret[i].setCreateUser((String)rows[i][13]);
+				if (rows[i][14] != null)
+				{
+					ret[i].setForumId(new Integer(((Long)rows[i][14]).intValue()));
+				}
+				
+				if (rows[i][16] != null) {
+				    ret[i].setCperm((String) rows[i][16]);
+				}
+				
+				if (rows[i][17] != null) {
+                    		    ret[i].setPperm((String) rows[i][17]);
+                		}
+
+                if (rows[i][18] != null) {
+                    ret[i].setSubmissionEndDate(myFmt.parse(rows[i][18].toString()));
+                }
+                //it is the srprojectId
+                if (rows[i][19] != null) {
+                    ret[i].setSpecReviewProjectId((Long)rows[i][19]);
+                    //show spec review status only if the original project has not been started, so it is draft or scheduled
+                    if (ret[i].getSname().equalsIgnoreCase("Scheduled") || ret[i].getSname().equalsIgnoreCase("Draft")) {
+                      //it is number of reviewer assign to spec review project
+                        int reviewerAssignToSepcReviewProject = ((Long)rows[i][20]).intValue();
+                        //no reviwer assigned yet
+                        if (reviewerAssignToSepcReviewProject == 0) {
+                            ret[i].setSpecReviewStatus("Assigning Reviewer");
+                        } else {
+                            //21, checking whether in 'reviewing' status
+                            if (rows[i][21] != null) {
+                                ret[i].setSpecReviewStatus("Reviewing");
+                            } else {
+                              //check next value
+                                int requiredItems = ((Long)rows[i][22]).intValue();
+                                //no required items now
+                                if (requiredItems == 0) {
+                                    ret[i].setSpecReviewStatus("Spec Review Passed");
+                                } else {
+                                    // if not in final review, or in FF but no review item
+                                    if (rows[i][25] == null) {
+                                        ret[i].setSpecReviewStatus("Spec Review Failed");
+                                    }
+                                    else {
+                                        int notFixedItems = ((Long)rows[i][23]).intValue();
+                                        if (notFixedItems == 0) {
+                                            ret[i].setSpecReviewStatus("Spec Review Passed");
+                                        } else {
+                                            int notFixedFinalItems = ((Long)rows[i][24]).intValue();
+                                            if (notFixedFinalItems > 0) {
+                                                ret[i].setSpecReviewStatus("Spec Review Passed");
+                                            } else {
+                                                ret[i].setSpecReviewStatus("Spec Review Failed");
+                                            }
+                                        }
+                                    }
+                                }
+                            }                            
+                        }
+                    }
+                }
+
+                // set contest fee/ price sum
+                ret[i].setContestFee((Double)rows[i][26]);
+
+				if (ret[i].getCperm() != null || ret[i].getPperm() != null)
+				{
+					result.add(ret[i]);
+				}
+
+			}
+
+        return Arrays.asList(ret);
+    }
+
+    /**
+     * <p>
+     * Creates the contests of the rows of the query of {@link #getSimpleProjectContestDataByUser(String)}, keeping
+     * the contests the user has a contest or project permission on.
+     * </p>
+     *
+     * @param rows the rows.
+     * @return the contests.
+     * @throws ParseException if a date of the rows can not be parsed.
+     * @since 1.8.3
+     */
+    private static List<SimpleProjectContestData> createSimpleProjectContestDataByUser(Object[][] rows)
+        throws ParseException {
+			SimpleProjectContestData[] ret = new SimpleProjectContestData[rows.length];
+			 SimpleDateFormat myFmt=new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+			 List<SimpleProjectContestData> result = new ArrayList<SimpleProjectContestData>();
+
+			for(int i=0;i<rows.length;i++)
+			{
+				ret[i]=new SimpleProjectContestData();
+				ret[i].setContestId((Long)rows[i][0]);
+				/* [BUGR-2038]: See comments at the class level. Status is either 'Scheduled'
+				  or 'Draft' or from the DB as done previously.*/
+
+				// try to use phase if not null
+				if (rows[i][1] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
+				{
+					ret[i].setSname(((String)rows[i][1]).trim());
+				}
+				// else for active, use 'newstatus'
+				else if (rows[i][15] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
+				{
+					ret[i].setSname(((String)rows[i][15]).trim());
+				}
+				// use status
+				else
+				{
+					ret[i].setSname(((String)rows[i][6]).trim());
+				}
+				
+				ret[i].setCname((String)rows[i][2]);
+				if (rows[i][3] != null)
+				{
+					ret[i].setStartDate(myFmt.parse(rows[i][3].toString()));
+				}
+				if (rows[i][4] != null)
+				{
+					ret[i].setEndDate(myFmt.parse(rows[i][4].toString()));
+				}
+				
+				ret[i].setType((String)rows[i][5]);
+				ret[i].setNum_reg(new Integer(((Long)rows[i][7]).intValue()));
+				ret[i].setNum_sub(new Integer(((Long)rows[i][8]).intValue()));
+				ret[i].setNum_for(new Integer(((Long)rows[i][9]).intValue()));
+				ret[i].setProjectId((Long)rows[i][10]);
+				ret[i].setPname((String)rows[i][11]);
+				ret[i].setDescription((String)rows[i][12]);
+				ret[i].setCreateUser((String)rows[i][13]);
+				if (rows[i][14] != null)
+				{
+					ret[i].setForumId(new Integer(((Long)rows[i][14]).intValue()));
+				}
+				
+				if (rows[i][16] != null) {
+				    ret[i].setCperm((String) rows[i][16]);
+				}
+				
+				if (rows[i][17] != null) {
+                    		   ret[i].setPperm((String) rows[i][17]);
+                		}
+
+
+                // set contest fee/ price sum
+                ret[i].setContestFee((Double)rows[i][26]);
+
+                if (ret[i].getCperm() != null || ret[i].getPperm() != null)
+                {
+                    result.add(ret[i]);
+                }
+
+                if (rows[i][18] != null) {
+                    ret[i].setSubmissionEndDate(myFmt.parse(rows[i][18].toString()));
+                }
+
+                //it is the srprojectId
+                if (rows[i][19] != null) {
+                    ret[i].setSpecReviewProjectId((Long)rows[i][19]);
+                } else {
+                    //there is no sepc review project, so don't need to set the spec review status
+                    continue;
+                }
+                
+               //show spec review status only if the original project has not been started, so it is draft or scheduled
+                if (!ret[i].getSname().equalsIgnoreCase("Scheduled") && !ret[i].getSname().equalsIgnoreCase("Draft")) {
+                    continue;
+                }
+
+                //it is number of reviewer assign to spec review project
+                int reviewerAssignToSepcReviewProject = ((Long)rows[i][20]).intValue();
+                //no reviwer assigned yet
+                if (reviewerAssignToSepcReviewProject == 0) {
+                    ret[i].setSpecReviewStatus("Assigning Reviewer");
+                } else {
+                    if (rows[i][21] != null) {
+                        ret[i].setSpecReviewStatus("Reviewing");
+                        continue;
+                    }
+                    //check next value
+                    int requiredItems = ((Long)rows[i][22]).intValue();
+                    //no required items now
+                    if (requiredItems == 0) {
+                        ret[i].setSpecReviewStatus("Spec Review Passed");
+                    } else {
+                        // if not in final review, or in FF but no review item
+                        if (rows[i][25] == null) {
+                            ret[i].setSpecReviewStatus("Spec Review Failed");
+                        }
+                        else {
+                            int notFixedItems = ((Long)rows[i][23]).intValue();
+                            if (notFixedItems == 0) {
+                                ret[i].setSpecReviewStatus("Spec Review Passed");
+                            } else {
+                                int notFixedFinalItems = ((Long)rows[i][24]).intValue();
+                                if (notFixedFinalItems > 0) {
+                                    ret[i].setSpecReviewStatus("Spec Review Passed");
+                                } else {
+                                    ret[i].setSpecReviewStatus("Spec Review Failed");
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the query of the contests of a user, see {@link #getSimpleProjectContestDataByUser(String)}.
+     * </p>
+     *
+     * @param createdUser the id of the user.
+     * @return the query.
+     * @since 1.8.3
+     */
+    private static String getSimpleProjectContestDataByUserQuery(String createdUser) {
+			String qstr = 
+			" select p.project_id as contest_id, "
+			+		" (select ptl.name from phase_type_lu ptl where phase_type_id = (select min(phase_type_id) from project_phase ph " 
+			+ " where ph.phase_status_id = 2 and ph.project_id=p.project_id)) as current_phase, "
+			+ "(select value from project_info where project_id = p.project_id and project_info_type_id =6) as contest_name, "
+			+ "(select min(nvl(actual_start_time, scheduled_start_time)) from project_phase ph where ph.project_id=p.project_id and ph.phase_type_id = 1) as start_date, "
+			+ " (select max(nvl(actual_end_time, scheduled_end_time)) from project_phase ph where ph.project_id=p.project_id) as end_date, "
+			+ "  pcl.name as contest_type, psl.name as status, "
+			+ " (select count(resource_id) from resource r where r.project_id = p.project_id and resource_role_id = 1) as num_reg, "
+			+ " (select count (distinct resource_id) from upload u where u.project_id = p.project_id and upload_status_id = 1 and upload_type_id = 1) as num_sub, "
+			// fixed forum post
+            		+ " (select count(messageid) from jivecategory c, jiveforum f, jivemessage m, project_info pi "
+            		+ "        where pi.project_info_type_id =4 and c.categoryid = pi.value and c.categoryid = f.categoryid and m.forumid = f.forumid "
+            		+ "             and pi.project_id =  p.project_id) as num_for, "
+			+ " tc_direct_project_id as project_id, tcd.name, tcd.description, tcd.user_id, "
+			+ "  (select value from project_info where project_id = p.project_id and project_info_type_id =4) as forum_id, "
+			+ "  (select case when(count(*)>=1) then 'Scheduled' when(count(*)=0) then 'Draft' end "
+			+ "   from contest_sale c where p.project_id = c.contest_id and upper(psl.name)='ACTIVE' ) as newstatus, "
+
+
+			+ " (select name from permission_type where permission_type_id= NVL( (select max( permission_type_id)  "
+			+ " from user_permission_grant as upg  where resource_id=p.project_id and is_studio=0 and user_id = " + createdUser
+			+ " ),0)) as cperm, "
+
+            + " (select name from permission_type where permission_type_id= NVL( (select max( permission_type_id)  "
+            + " from user_permission_grant as upg  where resource_id=tcd.project_id and user_id = " + createdUser
+            + " ),0)) as pperm, "
+
+            /* Added in cockpit R 10 */
+            + " (select scheduled_end_time from project_phase ph "
+            + " where ph.phase_type_id = 2 and ph.project_id=p.project_id) as submission_end_date,"
+            /* R 10 end*/
+
+            /* updated by Cockpit Spec Review - Stage 2  - start */
+            /* sepc review project id*/
+            + "(select source_project_id from linked_project_xref where dest_project_id = p.project_id and link_type_id = 3) as srprojectId,"
+            /* sepc review user */
+            + "(select count(*) from resource r, linked_project_xref linkp where linkp.dest_project_Id = p.project_id"
             + " and linkp.link_type_id = 3 and r.project_id = linkp.source_project_id and r.resource_role_id = 4) as srr,"
             /* reviewing status check */
             + "(select min(ph.phase_type_id) from project_phase ph, linked_project_xref linkp "
@@ -7755,160 +8589,8 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
             // dont show spec review project
             + " and p.project_category_id != 27 ";
 
-			// get the project objects
-			// find projects in the table.
-			Object[][] rows = Helper.doQuery(conn,
-					qstr, new Object[] {},
-					this.QUERY_ALL_SIMPLE_PROJECT_CONTEST_COLUMN_TYPES);
-	        getLogger().log(Level.INFO, new LogMessage(null,null,"Found "+rows.length + " records"));
-
-			SimpleProjectContestData[] ret = new SimpleProjectContestData[rows.length];
-			 SimpleDateFormat myFmt=new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
-
-			 List<SimpleProjectContestData> result = new ArrayList<SimpleProjectContestData>();
-
-			for(int i=0;i<rows.length;i++)
-			{
-				ret[i]=new SimpleProjectContestData();
-				ret[i].setContestId((Long)rows[i][0]);
-				/* [BUGR-2038]: See comments at the class level. Status is either 'Scheduled'
-				  or 'Draft' or from the DB as done previously.*/
-
-				// try to use phase if not null
-				if (rows[i][1] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
-				{
-					ret[i].setSname(((String)rows[i][1]).trim());
-				}
-				// else for active, use 'newstatus'
-				else if (rows[i][15] != null && ((String)rows[i][6]).equalsIgnoreCase(ProjectStatus.ACTIVE.getName()))
-				{
-					ret[i].setSname(((String)rows[i][15]).trim());
-				}
-				// use status
-				else
-				{
-					ret[i].setSname(((String)rows[i][6]).trim());
-				}
-				
-				ret[i].setCname((String)rows[i][2]);
-				if (rows[i][3] != null)
-				{
-					ret[i].setStartDate(myFmt.parse(rows[i][3].toString()));
-				}
-				if (rows[i][4] != null)
-				{
-					ret[i].setEndDate(myFmt.parse(rows[i][4].toString()));
-				}
-				
-				ret[i].setType((String)rows[i][5]);
-				ret[i].setNum_reg(new Integer(((Long)rows[i][7]).intValue()));
-				ret[i].setNum_sub(new Integer(((Long)rows[i][8]).intValue()));
-				ret[i].setNum_for(new Integer(((Long)rows[i][9]).intValue()));
-				ret[i].setProjectId((Long)rows[i][10]);
-				ret[i].setPname((String)rows[i][11]);
-				ret[i].setDescription((String)rows[i][12]);
-				ret[i].setCreateUser((String)rows[i][13]);
-				if (rows[i][14] != null)
-				{
-					ret[i].setForumId(new Integer(((Long)rows[i][14]).intValue()));
-				}
-				
-				if (rows[i][16] != null) {
-				    ret[i].setCperm((String) rows[i][16]);
-				}
-				
-				if (rows[i][17] != null) {
-                    		   ret[i].setPperm((String) rows[i][17]);
-                		}
-
-
-                // set contest fee/ price sum
-                ret[i].setContestFee((Double)rows[i][26]);
-
-                if (ret[i].getCperm() != null || ret[i].getPperm() != null)
-                {
-                    result.add(ret[i]);
-                }
-
-                if (rows[i][18] != null) {
-                    ret[i].setSubmissionEndDate(myFmt.parse(rows[i][18].toString()));
-                }
-
-                //it is the srprojectId
-                if (rows[i][19] != null) {
-                    ret[i].setSpecReviewProjectId((Long)rows[i][19]);
-                } else {
-                    //there is no sepc review project, so don't need to set the spec review status
-                    continue;
-                }
-                
-               //show spec review status only if the original project has not been started, so it is draft or scheduled
-                if (!ret[i].getSname().equalsIgnoreCase("Scheduled") && !ret[i].getSname().equalsIgnoreCase("Draft")) {
-                    continue;
-                }
-
-                //it is number of reviewer assign to spec review project
-                int reviewerAssignToSepcReviewProject = ((Long)rows[i][20]).intValue();
-                //no reviwer assigned yet
-                if (reviewerAssignToSepcReviewProject == 0) {
-                    ret[i].setSpecReviewStatus("Assigning Reviewer");
-                } else {
-                    if (rows[i][21] != null) {
-                        ret[i].setSpecReviewStatus("Reviewing");
-                        continue;
-                    }
-                    //check next value
-                    int requiredItems = ((Long)rows[i][22]).intValue();
-                    //no required items now
-                    if (requiredItems == 0) {
-                        ret[i].setSpecReviewStatus("Spec Review Passed");
-                    } else {
-                        // if not in final review, or in FF but no review item
-                        if (rows[i][25] == null) {
-                            ret[i].setSpecReviewStatus("Spec Review Failed");
-                        }
-                        else {
-                            int notFixedItems = ((Long)rows[i][23]).intValue();
-                            if (notFixedItems == 0) {
-                                ret[i].setSpecReviewStatus("Spec Review Passed");
-                            } else {
-                                int notFixedFinalItems = ((Long)rows[i][24]).intValue();
-                                if (notFixedFinalItems > 0) {
-                                    ret[i].setSpecReviewStatus("Spec Review Passed");
-                                } else {
-                                    ret[i].setSpecReviewStatus("Spec Review Failed");
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-			closeConnection(conn);
-	        getLogger().log(Level.INFO, new LogMessage(null,null,"Exit getSimpleProjectContestDataByUser method."));
-
-			return result;
-		} catch (PersistenceException e) {
-			getLogger().log(
-					Level.ERROR,
-					new LogMessage(null, null,
-							"Fails to retrieving all tc direct projects ", e));
-			if (conn != null) {
-				closeConnectionOnError(conn);
-			}
-			throw e;
-		} catch (ParseException e) {
-			getLogger().log(
-					Level.ERROR,
-					new LogMessage(null, null,
-							"Fails to retrieving all tc direct projects ", e));
-			if (conn != null) {
-				closeConnectionOnError(conn);
-			}
-			throw new PersistenceException("Fails to retrieve all tc direct projects", e);
-		}
-
-	}
+        return qstr;
+    }
 	
 	/**
      * <p>
@@ -9232,6 +9914,184 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
 
     }
 
+    /**
+     * <p>
+     * Checks the permissions of a user on contests, granted on the contests or on their direct projects, as
+     * {@link #checkContestPermission(long, boolean, long)} does for one contest. The contests are queried by one
+     * chunked prepared query, which also gets the direct projects of the contests so the callers need not query
+     * them one by one.
+     * </p>
+     *
+     * @param contestIds the contest ids.
+     * @param userId the user id.
+     * @param tcDirectProjectIds receives the tc direct project id of each contest, as
+     *            {@link #getTcDirectProject(long)} gets it: 0 if the contest has none. It has the length of
+     *            <code>contestIds</code>.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws IllegalArgumentException if contestIds or tcDirectProjectIds is null, or their lengths differ.
+     * @throws PersistenceException if any error occurs while querying the permissions.
+     * @since 1.8.4
+     */
+    public BitSet checkContestPermissions(long[] contestIds, long userId, long[] tcDirectProjectIds)
+        throws PersistenceException {
+        Helper.assertObjectNotNull(contestIds, "contestIds");
+        Helper.assertObjectNotNull(tcDirectProjectIds, "tcDirectProjectIds");
+        if (tcDirectProjectIds.length != contestIds.length) {
+            throw new IllegalArgumentException("tcDirectProjectIds should have the length of contestIds.");
+        }
+
+        BitSet ret = new BitSet(contestIds.length * 2);
+        if (contestIds.length == 0) {
+            return ret;
+        }
+
+        Connection conn = null;
+        try {
+            conn = openConnection();
+
+            List<Object[]> rows = Helper.doChunkedQuery(conn, QUERY_CONTEST_PERMISSIONS_SQL,
+                new Object[] {userId, userId}, distinct(contestIds), PROJECT_ID_CHUNK_ARITIES,
+                QUERY_CONTEST_PERMISSIONS_COLUMN_TYPES);
+            closeConnection(conn);
+            conn = null;
+
+            Map<Long, Integer> granted = new HashMap<Long, Integer>();
+            Map<Long, Long> directProjects = new HashMap<Long, Long>();
+            for (Object[] row : rows) {
+                if (row[1] != null) {
+                    directProjects.put((Long) row[0], (Long) row[1]);
+                }
+                long contestPermission = row[2] == null ? 0 : ((Long) row[2]).longValue();
+                long projectPermission = row[3] == null ? 0 : ((Long) row[3]).longValue();
+                int bits = 0;
+                if (contestPermission >= CONTEST_READ_PERMISSION_ID || projectPermission >= PROJECT_READ_PERMISSION_ID) {
+                    bits |= 1;
+                }
+                if (contestPermission >= CONTEST_WRITE_PERMISSION_ID
+                    || projectPermission >= PROJECT_WRITE_PERMISSION_ID) {
+                    bits |= 2;
+                }
+                granted.put((Long) row[0], bits);
+            }
+            setPermissionBits(ret, contestIds, granted);
+            for (int i = 0; i < contestIds.length; i++) {
+                Long tcDirectProjectId = directProjects.get(contestIds[i]);
+                tcDirectProjectIds[i] = tcDirectProjectId == null ? 0 : tcDirectProjectId;
+            }
+            return ret;
+        } catch (PersistenceException e) {
+            getLogger().log(Level.ERROR, new LogMessage(null, null,
+                "Fails to check the permissions of user " + userId + " on contests.", e));
+            if (conn != null) {
+                closeConnectionOnError(conn);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * <p>
+     * Checks the permissions of a user on direct projects, as {@link #checkProjectPermission(long, boolean, long)}
+     * does for one project. The projects are queried by one chunked prepared query.
+     * </p>
+     *
+     * @param tcprojectIds the tc direct project ids.
+     * @param userId the user id.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcprojectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws IllegalArgumentException if tcprojectIds is null.
+     * @throws PersistenceException if any error occurs while querying the permissions.
+     * @since 1.8.4
+     */
+    public BitSet checkProjectPermissions(long[] tcprojectIds, long userId) throws PersistenceException {
+        Helper.assertObjectNotNull(tcprojectIds, "tcprojectIds");
+
+        BitSet ret = new BitSet(tcprojectIds.length * 2);
+        if (tcprojectIds.length == 0) {
+            return ret;
+        }
+
+        Connection conn = null;
+        try {
+            conn = openConnection();
+
+            List<Object[]> rows = Helper.doChunkedQuery(conn, QUERY_PROJECT_PERMISSIONS_SQL, new Object[] {userId},
+                distinct(tcprojectIds), PROJECT_ID_CHUNK_ARITIES, QUERY_PROJECT_PERMISSIONS_COLUMN_TYPES);
+            closeConnection(conn);
+            conn = null;
+
+            Map<Long, Integer> granted = new HashMap<Long, Integer>();
+            for (Object[] row : rows) {
+                long permission = ((Long) row[1]).longValue();
+                Integer bits = granted.get(row[0]);
+                bits = bits == null ? 0 : bits;
+                if (permission >= PROJECT_READ_PERMISSION_ID) {
+                    bits |= 1;
+                }
+                if (permission >= PROJECT_WRITE_PERMISSION_ID) {
+                    bits |= 2;
+                }
+                granted.put((Long) row[0], bits);
+            }
+            setPermissionBits(ret, tcprojectIds, granted);
+            return ret;
+        } catch (PersistenceException e) {
+            getLogger().log(Level.ERROR, new LogMessage(null, null,
+                "Fails to check the permissions of user " + userId + " on projects.", e));
+            if (conn != null) {
+                closeConnectionOnError(conn);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * <p>
+     * Removes the duplicates of ids, keeping their order.
+     * </p>
+     *
+     * @param ids the ids.
+     * @return the distinct ids.
+     * @since 1.8.4
+     */
+    private static long[] distinct(long[] ids) {
+        Set<Long> set = new LinkedHashSet<Long>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        long[] ret = new long[set.size()];
+        int i = 0;
+        for (Long id : set) {
+            ret[i++] = id;
+        }
+        return ret;
+    }
+
+    /**
+     * <p>
+     * Sets the permission bits of the ids: bit <code>2 * i</code> for read and <code>2 * i + 1</code> for write.
+     * </p>
+     *
+     * @param bitSet the bits to set.
+     * @param ids the ids.
+     * @param granted the granted permissions by id, bit 0 for read and bit 1 for write.
+     * @since 1.8.4
+     */
+    private static void setPermissionBits(BitSet bitSet, long[] ids, Map<Long, Integer> granted) {
+        for (int i = 0; i < ids.length; i++) {
+            Integer bits = granted.get(ids[i]);
+            if (bits != null) {
+                if ((bits & 1) != 0) {
+                    bitSet.set(2 * i);
+                }
+                if ((bits & 2) != 0) {
+                    bitSet.set(2 * i + 1);
+                }
+            }
+        }
+    }
+
 
 
     /**
@@ -9917,8 +10777,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
             for (int i = 0; i < rows.length; ++i) {
                 Object[] row = rows[i];
 
-                ProjectCopilotType copilotType = new ProjectCopilotType((Long) row[0], (String) row[1], (String) row[2]);
-                copilotTypes.add(copilotType);
+                copilotTypes.add(createProjectCopilotType(row));
             }
 
             closeConnection(conn);
@@ -9971,12 +10830,7 @@ public abstract class AbstractInformixProjectPersistence implements ProjectPersi
             for (int i = 0; i < rows.length; ++i) {
                 Object[] row = rows[i];
 
-                CopilotContestExtraInfoType type = new CopilotContestExtraInfoType((Long) row[0], (String) row[1],
-                        (String) row[2]);
-                CopilotContestExtraInfo extraInfo = new CopilotContestExtraInfo();
-                extraInfo.setType(type);
-                extraInfo.setValue((String) row[3]);
-                extraInfos.add(extraInfo);
+                extraInfos.add(createCopilotContestExtraInfo(row));
             }
 
             closeConnection(conn);
@@ -9,7 +9,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import com.topcoder.db.connectionfactory.DBConnectionException;
 import com.topcoder.db.connectionfactory.DBConnectionFactory;
@@ -29,8 +32,18 @@ import com.topcoder.util.log.Log;
  * <code>createConnection(DBConnectionFactory, String)</code> to create the
  * <code>Connection</code> by the given connection factory and name.
  * </p>
- * @author urtks, fuyun
- * @version 1.1
+ * <p>
+ * <b>Version 1.2 change:</b> Add the method
+ * <code>doChunkedQuery(Connection, String, long[], int[], DataType[])</code> to
+ * query an id list by fixed-arity chunks.
+ * </p>
+ * <p>
+ * <b>Version 1.3 change:</b> Add the method
+ * <code>doChunkedQuery(Connection, String, Object[], long[], int[], DataType[])</code>
+ * to bind query arguments before the chunks of ids.
+ * </p>
+ * @author urtks, fuyun, TCSDEVELOPER
+ * @version 1.3
  * @since 1.0
  */
 class Helper {
@@ -442,6 +455,122 @@ class Helper {
         }
     }
 
+    /**
+     * This method performs the given query for each chunk of the given ids. The
+     * query ends with an IN operator, it is completed with a list of
+     * placeholders whose count is one of the given arities: the smallest
+     * arity holding the rest of the ids, or the largest one. The last id of a
+     * chunk is repeated to fill the placeholders, so the statement text only
+     * depends on the arity, and each statement is prepared once and reused by
+     * the chunks of its arity. <b>Note:</b> The given connection is not closed
+     * or committed in this method.
+     * @param connection the connection to perform the query on
+     * @param queryPrefix the query, ending with an IN operator
+     * @param ids the ids to query, not empty
+     * @param arities the placeholder counts of the IN list, ascending
+     * @param columnTypes the types as which to return the result set columns
+     * @return the rows of all the chunks, each one an <code>Object[]</code>
+     *         as returned by <code>doQuery</code>
+     * @throws IllegalArgumentException if the number of columns returned is
+     *             different from that of columnTypes
+     * @throws PersistenceException if any error happens
+     * @since 1.2
+     */
+    static List<Object[]> doChunkedQuery(Connection connection, String queryPrefix, long[] ids, int[] arities,
+        DataType[] columnTypes) throws PersistenceException {
+        return doChunkedQuery(connection, queryPrefix, new Object[0], ids, arities, columnTypes);
+    }
+
+    /**
+     * This method performs the given query for each chunk of the given ids,
+     * as <code>doChunkedQuery(Connection, String, long[], int[], DataType[])</code>
+     * does. The given query arguments are set to the placeholders preceding
+     * the IN list, they are the same for all the chunks. <b>Note:</b> The
+     * given connection is not closed or committed in this method.
+     * @param connection the connection to perform the query on
+     * @param queryPrefix the query, ending with an IN operator
+     * @param queryArgs the arguments of the placeholders preceding the IN list
+     * @param ids the ids to query, not empty
+     * @param arities the placeholder counts of the IN list, ascending
+     * @param columnTypes the types as which to return the result set columns
+     * @return the rows of all the chunks, each one an <code>Object[]</code>
+     *         as returned by <code>doQuery</code>
+     * @throws IllegalArgumentException if the number of columns returned is
+     *             different from that of columnTypes
+     * @throws PersistenceException if any error happens
+     * @since 1.3
+     */
+    static List<Object[]> doChunkedQuery(Connection connection, String queryPrefix, Object[] queryArgs, long[] ids,
+        int[] arities, DataType[] columnTypes) throws PersistenceException {
+        Map<Integer, PreparedStatement> statements = new HashMap<Integer, PreparedStatement>();
+        List<Object[]> ret = new ArrayList<Object[]>();
+        String queryString = queryPrefix;
+
+        try {
+            for (int start = 0; start < ids.length;) {
+                // choose the arity of the chunk
+                int arity = arities[arities.length - 1];
+                for (int i = 0; i < arities.length; i++) {
+                    if (arities[i] >= ids.length - start) {
+                        arity = arities[i];
+                        break;
+                    }
+                }
+
+                PreparedStatement preparedStatement = statements.get(arity);
+                if (preparedStatement == null) {
+                    StringBuffer query = new StringBuffer(queryPrefix).append(" (?");
+                    for (int i = 1; i < arity; i++) {
+                        query.append(",?");
+                    }
+                    queryString = query.append(')').toString();
+                    preparedStatement = connection.prepareStatement(queryString);
+                    for (int i = 0; i < queryArgs.length; i++) {
+                        preparedStatement.setObject(i + 1, queryArgs[i]);
+                    }
+                    statements.put(arity, preparedStatement);
+                }
+
+                // set the ids of the chunk, filled with its last id
+                int end = Math.min(start + arity, ids.length);
+                for (int i = 0; i < arity; i++) {
+                    preparedStatement.setLong(queryArgs.length + i + 1, ids[Math.min(start + i, end - 1)]);
+                }
+                start = end;
+
+                ResultSet resultSet = preparedStatement.executeQuery();
+                try {
+                    int columnCount = resultSet.getMetaData().getColumnCount();
+                    if (columnTypes.length != columnCount) {
+                        throw new IllegalArgumentException("The column types length ["
+                                + columnTypes.length
+                                + "] does not match the result set column count["
+                                + columnCount + "].");
+                    }
+
+                    while (resultSet.next()) {
+                        Object[] rowData = new Object[columnCount];
+                        for (int i = 0; i < rowData.length; i++) {
+                            rowData[i] = columnTypes[i].getValue(resultSet, i + 1);
+                        }
+                        ret.add(rowData);
+                    }
+                } finally {
+                    closeResultSet(resultSet);
+                }
+            }
+            return ret;
+        } catch (SQLException e) {
+            throw new PersistenceException(
+                    "Error occurs while executing query [" + queryString
+                            + "] for " + ids.length + " ids.", e);
+        } finally {
+            for (Iterator<PreparedStatement> it = statements.values().iterator(); it.hasNext();) {
+                closeStatement(it.next());
+            }
+        }
+    }
+
     /**
      * This method performs the given DML (query on the given connection using
      * the given query arguments. The update count returned from the query is
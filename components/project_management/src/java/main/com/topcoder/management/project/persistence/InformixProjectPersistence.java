@@ -38,8 +38,15 @@ import com.topcoder.util.log.LogManager;
  * Thread Safety: The implementation is not thread safe due to the base class is
  * not thread safe.
  * </p>
+ * <p>
+ * Version 1.2 change notes:
+ * <ul>
+ *     <li>Added method {@link #isParallelLoadSupported()} to load the child data of the projects in parallel when
+ *     the transactions are managed by this class.</li>
+ * </ul>
+ * </p>
  * @author bendlund, TCSDEVELOPER
- * @version 1.1
+ * @version 1.2
  * @since 1.0
  */
 public class InformixProjectPersistence extends
@@ -227,6 +234,20 @@ public class InformixProjectPersistence extends
 	public void setUserManualCommit(boolean useManualCommit) {
 		this.useManualCommit = useManualCommit;
 	}
+
+    /**
+     * <p>
+     * Tells whether the child data of the projects can be loaded in parallel on separate connections. It is true
+     * when this class manages the transactions itself, so each connection only sees committed data and has no
+     * shared transaction to miss.
+     * </p>
+     *
+     * @return true if the transactions are managed by this class.
+     * @since 1.2
+     */
+    protected boolean isParallelLoadSupported() {
+        return useManualCommit;
+    }
 	
 	
 }
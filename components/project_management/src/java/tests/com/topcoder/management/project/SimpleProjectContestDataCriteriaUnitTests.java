@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.management.project;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link SimpleProjectContestDataCriteria}.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class SimpleProjectContestDataCriteriaUnitTests extends TestCase {
+    /**
+     * Represents {@link SimpleProjectContestDataCriteria} instance for tests.
+     */
+    private SimpleProjectContestDataCriteria instance;
+
+    /**
+     * Sets up the test environment.
+     *
+     * @throws Exception
+     *             to JUnit
+     */
+    @Before
+    public void setUp() throws Exception {
+        instance = new SimpleProjectContestDataCriteria();
+    }
+
+    /**
+     * Tears down the test environment.
+     *
+     * @throws Exception
+     *             to JUnit
+     */
+    @After
+    public void tearDown() throws Exception {
+        instance = null;
+    }
+
+    /**
+     * Accuracy test for {@link SimpleProjectContestDataCriteria#SimpleProjectContestDataCriteria()}. The criteria
+     * should select the first page of all the contests.
+     */
+    @Test
+    public void test_ctor() {
+        assertTrue("Should be true", instance instanceof Serializable);
+        assertNull("'getUserId' should be correct.", instance.getUserId());
+        assertNull("'getTcDirectProjectId' should be correct.", instance.getTcDirectProjectId());
+        assertTrue("'getProjectStatusIds' should be correct.", instance.getProjectStatusIds().isEmpty());
+        assertNull("'getContestName' should be correct.", instance.getContestName());
+        assertNull("'getStartDateFrom' should be correct.", instance.getStartDateFrom());
+        assertNull("'getStartDateTo' should be correct.", instance.getStartDateTo());
+        assertEquals("'getAfterProjectId' should be correct.", 0, instance.getAfterProjectId());
+        assertEquals("'getAfterContestId' should be correct.", 0, instance.getAfterContestId());
+        assertEquals("'getPageSize' should be correct.", 50, instance.getPageSize());
+    }
+
+    /**
+     * Accuracy test for {@link SimpleProjectContestDataCriteria#setAfter(SimpleProjectContestData)}. The position
+     * should be the project and contest of the given contest.
+     */
+    @Test
+    public void test_setAfter() {
+        SimpleProjectContestData last = new SimpleProjectContestData();
+        last.setProjectId(12L);
+        last.setContestId(345L);
+
+        instance.setAfter(last);
+
+        assertEquals("'setAfter' should be correct.", 12, instance.getAfterProjectId());
+        assertEquals("'setAfter' should be correct.", 345, instance.getAfterContestId());
+    }
+
+    /**
+     * Accuracy test for {@link SimpleProjectContestDataCriteria#setContestName(String)}. The empty text should not
+     * filter the names.
+     */
+    @Test
+    public void test_setContestName() {
+        instance.setContestName("");
+        assertNull("'setContestName' should be correct.", instance.getContestName());
+
+        instance.setContestName("abc");
+        assertEquals("'setContestName' should be correct.", "abc", instance.getContestName());
+    }
+
+    /**
+     * Accuracy test for {@link SimpleProjectContestDataCriteria#toString()}. The criteria with different filters
+     * should have different strings.
+     */
+    @Test
+    public void test_toString_filters() {
+        SimpleProjectContestDataCriteria other = new SimpleProjectContestDataCriteria();
+        other.setContestName("null");
+        assertFalse("'toString' should be correct.", instance.toString().equals(other.toString()));
+
+        other = new SimpleProjectContestDataCriteria();
+        other.setStartDateFrom(new Date(1000));
+        assertFalse("'toString' should be correct.", instance.toString().equals(other.toString()));
+
+        instance.setStartDateTo(new Date(1000));
+        assertFalse("'toString' should be correct.", instance.toString().equals(other.toString()));
+    }
+
+    /**
+     * Accuracy test for {@link SimpleProjectContestDataCriteria#toString()}. The criteria with the same values
+     * should have the same string, and the criteria of different pages different strings.
+     */
+    @Test
+    public void test_toString() {
+        instance.setUserId(1L);
+        instance.setProjectStatusIds(Arrays.asList(new Long[] {1L, 2L}));
+        SimpleProjectContestDataCriteria other = new SimpleProjectContestDataCriteria();
+        other.setUserId(1L);
+        other.setProjectStatusIds(Arrays.asList(new Long[] {1L, 2L}));
+
+        assertEquals("'toString' should be correct.", instance.toString(), other.toString());
+
+        other.setAfterContestId(10);
+        assertFalse("'toString' should be correct.", instance.toString().equals(other.toString()));
+    }
+}
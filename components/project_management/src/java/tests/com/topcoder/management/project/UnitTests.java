@@ -41,6 +41,7 @@ public class UnitTests extends TestCase {
         suite.addTestSuite(PrizeTypeUnitTests.class);
         suite.addTestSuite(PrizeUnitTests.class);
         suite.addTestSuite(ProjectStudioSpecificationUnitTests.class);
+        suite.addTestSuite(SimpleProjectContestDataCriteriaUnitTests.class);
         suite.addTest(DemoTest.suite());
         return suite;
     }
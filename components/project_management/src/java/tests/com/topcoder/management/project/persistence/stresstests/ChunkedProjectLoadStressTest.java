@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.management.project.persistence.stresstests;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.topcoder.management.project.Project;
+import com.topcoder.management.project.persistence.InformixProjectPersistence;
+
+/**
+ * <p>
+ * Stress tests for the chunked and parallel loading of <code>getProjects(long[])</code> with thousands of ids.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class ChunkedProjectLoadStressTest extends TestCase {
+    /**
+     * Represents the number of projects created for the test.
+     */
+    private static final int PROJECT_COUNT = 2000;
+
+    /**
+     * Represents the InformixProjectPersistence instance used for testing.
+     */
+    private InformixProjectPersistence persistence = null;
+
+    /**
+     * Set up the test fixture.
+     *
+     * @throws Exception
+     *             any exception to JUnit.
+     */
+    protected void setUp() throws Exception {
+        StressHelper.unloadConfig();
+        StressTestHelper.addConfig();
+        StressTestHelper.clearAllTestRecords();
+        StressTestHelper.insertTestRecords();
+        persistence = new InformixProjectPersistence(StressTestHelper.NAMESPACE);
+        // the persistence manages its own transactions, so the child data is loaded in parallel
+        persistence.setUserManualCommit(true);
+    }
+
+    /**
+     * Tear down the test fixture.
+     *
+     * @throws Exception
+     *             any exception to JUnit.
+     */
+    protected void tearDown() throws Exception {
+        StressTestHelper.clearAllTestRecords();
+        StressTestHelper.clearConfig();
+    }
+
+    /**
+     * Stress Test on getProjects(long[]) with thousands of ids, some of them repeated.
+     *
+     * @throws Exception
+     *             any exception to JUnit.
+     */
+    public void testGetProjects_Thousands() throws Exception {
+        Map<Long, Project> created = new HashMap<Long, Project>();
+        long[] ids = new long[PROJECT_COUNT + PROJECT_COUNT / 10];
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            Project project = (i % 2 == 0) ? StressTestHelper.getSampleProject()
+                : StressTestHelper.getUpdatedProject();
+            persistence.createProject(project, "reviewer");
+            created.put(project.getId(), project);
+            ids[i] = project.getId();
+        }
+        // the repeated ids must not produce duplicate projects
+        for (int i = PROJECT_COUNT; i < ids.length; i++) {
+            ids[i] = ids[i - PROJECT_COUNT];
+        }
+
+        long startTime = System.currentTimeMillis();
+        Project[] projects = persistence.getProjects(ids);
+        long dure = System.currentTimeMillis() - startTime;
+        System.out.println("InformixProjectPersistence#getProjects(long[]) with " + ids.length + " ids, "
+                + "takes " + Long.toString(dure) + " ms.");
+
+        assertEquals("check the number of projects", PROJECT_COUNT, projects.length);
+        for (int i = 0; i < projects.length; i++) {
+            Project expected = created.remove(projects[i].getId());
+            assertNotNull("check project id", expected);
+            assertEquals("check project category id", expected.getProjectCategory().getId(),
+                projects[i].getProjectCategory().getId());
+            assertEquals("check project status id", expected.getProjectStatus().getId(),
+                projects[i].getProjectStatus().getId());
+            assertEquals("check project properties", expected.getAllProperties(), projects[i].getAllProperties());
+            assertNotNull("check project file types", projects[i].getProjectFileTypes());
+            assertNotNull("check project prizes", projects[i].getPrizes());
+        }
+
+        // the sequential load must return the same projects
+        persistence.setUserManualCommit(false);
+        startTime = System.currentTimeMillis();
+        Project[] sequential = persistence.getProjects(ids);
+        dure = System.currentTimeMillis() - startTime;
+        System.out.println("InformixProjectPersistence#getProjects(long[]) sequentially with " + ids.length
+                + " ids, takes " + Long.toString(dure) + " ms.");
+        assertEquals("check the number of projects", projects.length, sequential.length);
+        for (int i = 0; i < projects.length; i++) {
+            assertEquals("check project id", projects[i].getId(), sequential[i].getId());
+            assertEquals("check project properties", projects[i].getAllProperties(),
+                sequential[i].getAllProperties());
+        }
+    }
+}
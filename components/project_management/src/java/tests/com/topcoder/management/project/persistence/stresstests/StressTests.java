@@ -28,6 +28,7 @@ public class StressTests extends TestCase {
         final TestSuite suite = new TestSuite();
 
         suite.addTestSuite(PersistenceStressTest.class);
+        suite.addTestSuite(ChunkedProjectLoadStressTest.class);
 
         return suite;
     }
@@ -0,0 +1,488 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.asset.services.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * <p>
+ * This class builds ZIP archives of files, streaming them to the given output stream.
+ * </p>
+ *
+ * <p>
+ * The content which is already compressed (detected by the file extension, or by the signature of the common
+ * compressed formats) is stored without compression, which saves the CPU for no loss of size. The other content is
+ * deflated with the configured compression level.
+ * </p>
+ *
+ * <p>
+ * The files are read ahead by a shared pool of threads, within a window of the next <code>prefetchWindow</code>
+ * entries: the files up to <code>maxBufferedFileSize</code> bytes are read in memory, the larger ones only have the
+ * CRC computed when they are stored, and are transferred from their channel when they are written. So an archive
+ * holds at most <code>prefetchWindow * maxBufferedFileSize</code> bytes in memory. When all the threads are busy, the
+ * files are read by the thread building the archive.
+ * </p>
+ *
+ * <p>
+ * <strong>Thread safety:</strong> This class is mutable since it provides public setters for its properties. But it
+ * is thread safe when its properties are set right after construction and never changed after that.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class AssetArchiveBuilder {
+    /**
+     * The default extensions of the files which are already compressed.
+     */
+    private static final String[] DEFAULT_STORED_EXTENSIONS = {"zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz",
+        "7z", "rar", "png", "jpg", "jpeg", "gif", "webp", "psd", "mp3", "mp4", "m4a", "m4v", "mov", "avi", "wmv",
+        "flv", "swf", "ogg", "docx", "xlsx", "pptx", "odt", "ods", "odp"};
+
+    /**
+     * The signatures of the compressed formats: ZIP, GZIP, BZIP2, 7-Zip, RAR, PNG, JPEG and GIF.
+     */
+    private static final byte[][] COMPRESSED_SIGNATURES = {
+        {'P', 'K', 3, 4}, {(byte) 0x1F, (byte) 0x8B}, {'B', 'Z', 'h'}, {'7', 'z', (byte) 0xBC, (byte) 0xAF},
+        {'R', 'a', 'r', '!'}, {(byte) 0x89, 'P', 'N', 'G'}, {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF},
+        {'G', 'I', 'F', '8'}};
+
+    /**
+     * The number of bytes read to detect the signature.
+     */
+    private static final int SIGNATURE_LENGTH = 4;
+
+    /**
+     * The size of the buffers used to compute the CRC and of the output buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The number of the threads reading the files.
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * The extensions (lower case) of the files which are stored without compression. Has a setter.
+     */
+    private Set<String> storedExtensions = new HashSet<String>(Arrays.asList(DEFAULT_STORED_EXTENSIONS));
+
+    /**
+     * The compression level of the deflated files. Has a setter.
+     */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * The number of the entries read ahead of the written one. Has a setter.
+     */
+    private int prefetchWindow = 4;
+
+    /**
+     * The maximum size of the files read in memory. Has a setter.
+     */
+    private long maxBufferedFileSize = 4 * 1024 * 1024;
+
+    /**
+     * The pool of the threads reading the files, shared by all the archives. Created by the setter of the thread
+     * count.
+     */
+    private ExecutorService executor = createExecutor(4);
+
+    /**
+     * Creates an instance of AssetArchiveBuilder.
+     */
+    public AssetArchiveBuilder() {
+        // Empty
+    }
+
+    /**
+     * Writes the ZIP archive of the given files to the output stream. The output stream is closed when the archive
+     * is written. If a file can't be read or the archive can't be written, the archive is left unfinished (without
+     * its central directory, so it can't be mistaken for a complete archive) and the output stream is not closed.
+     *
+     * @param files
+     *            the files keyed by their unique name in the archive, in the order of the archive
+     * @param output
+     *            the output stream of the archive
+     *
+     * @throws IOException
+     *             if some error occurred while reading the files or writing the archive.
+     */
+    public void build(Map<String, File> files, OutputStream output) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        zip.setLevel(compressionLevel);
+        WritableByteChannel zipChannel = Channels.newChannel(zip);
+
+        List<Map.Entry<String, File>> entries = new ArrayList<Map.Entry<String, File>>(files.entrySet());
+        LinkedList<Future<PreparedEntry>> window = new LinkedList<Future<PreparedEntry>>();
+        int next = 0;
+        try {
+            while (next < entries.size() && window.size() < prefetchWindow) {
+                window.add(prepare(entries.get(next++)));
+            }
+            while (!window.isEmpty()) {
+                PreparedEntry entry = getPrepared(window.removeFirst());
+                if (next < entries.size()) {
+                    window.add(prepare(entries.get(next++)));
+                }
+                write(zip, zipChannel, entry);
+            }
+        } finally {
+            for (Future<PreparedEntry> pending : window) {
+                pending.cancel(true);
+            }
+        }
+        // Only a written archive is finished, the error can't be ignored
+        zip.close();
+    }
+
+    /**
+     * Sets the extensions of the files which are stored without compression.
+     *
+     * @param storedExtensions
+     *            the extensions of the files which are already compressed.
+     */
+    public void setStoredExtensions(List<String> storedExtensions) {
+        Set<String> extensions = new HashSet<String>();
+        for (String extension : storedExtensions) {
+            extensions.add(extension.toLowerCase());
+        }
+        this.storedExtensions = extensions;
+    }
+
+    /**
+     * Sets the compression level of the deflated files.
+     *
+     * @param compressionLevel
+     *            the compression level, from 0 to 9, or -1 for the default level.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Sets the number of the entries read ahead of the written one.
+     *
+     * @param prefetchWindow
+     *            the number of the entries read ahead, at least 1.
+     */
+    public void setPrefetchWindow(int prefetchWindow) {
+        this.prefetchWindow = Math.max(1, prefetchWindow);
+    }
+
+    /**
+     * Sets the maximum size of the files read in memory.
+     *
+     * @param maxBufferedFileSize
+     *            the maximum size of the files read in memory.
+     */
+    public void setMaxBufferedFileSize(long maxBufferedFileSize) {
+        this.maxBufferedFileSize = maxBufferedFileSize;
+    }
+
+    /**
+     * Sets the number of the threads reading the files, shared by all the archives.
+     *
+     * @param threadCount
+     *            the number of the threads, at least 1.
+     */
+    public void setThreadCount(int threadCount) {
+        ExecutorService old = executor;
+        executor = createExecutor(threadCount);
+        old.shutdown();
+    }
+
+    /**
+     * Stops the threads reading the files.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Creates the pool of the threads reading the files. The idle threads terminate after a minute, and the files
+     * are read by the caller when all the threads are busy.
+     *
+     * @param threadCount
+     *            the number of the threads.
+     *
+     * @return the pool of threads.
+     */
+    private static ExecutorService createExecutor(int threadCount) {
+        return new ThreadPoolExecutor(0, Math.max(1, threadCount), 1, TimeUnit.MINUTES,
+            new SynchronousQueue<Runnable>(),
+            new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "asset-archive-" + THREAD_NUMBER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Starts reading the file of an entry.
+     *
+     * @param entry
+     *            the name and file of the entry.
+     *
+     * @return the entry being read.
+     */
+    private Future<PreparedEntry> prepare(final Map.Entry<String, File> entry) {
+        return executor.submit(new Callable<PreparedEntry>() {
+            public PreparedEntry call() throws IOException {
+                return new PreparedEntry(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    /**
+     * Waits for an entry to be read.
+     *
+     * @param future
+     *            the entry being read.
+     *
+     * @return the read entry.
+     *
+     * @throws IOException
+     *             if the entry can not be read.
+     */
+    private static PreparedEntry getPrepared(Future<PreparedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (IOException) new IOException("Interrupted while reading the file.").initCause(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw (IOException) new IOException("Failed to read the file.").initCause(e.getCause());
+        }
+    }
+
+    /**
+     * Writes an entry to the archive.
+     *
+     * @param zip
+     *            the archive.
+     * @param zipChannel
+     *            the channel writing to the archive.
+     * @param entry
+     *            the entry.
+     *
+     * @throws IOException
+     *             if some error occurred while reading the file or writing the archive.
+     */
+    private static void write(ZipOutputStream zip, WritableByteChannel zipChannel, PreparedEntry entry)
+        throws IOException {
+        ZipEntry zipEntry = new ZipEntry(entry.name);
+        zipEntry.setTime(entry.file.lastModified());
+        if (entry.stored) {
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setSize(entry.size);
+            zipEntry.setCompressedSize(entry.size);
+            zipEntry.setCrc(entry.crc);
+        }
+        zip.putNextEntry(zipEntry);
+
+        if (entry.content != null) {
+            zip.write(entry.content);
+        } else {
+            FileInputStream input = new FileInputStream(entry.file);
+            try {
+                FileChannel channel = input.getChannel();
+                long position = 0;
+                long size = channel.size();
+                while (position < size) {
+                    long transferred = channel.transferTo(position, size - position, zipChannel);
+                    if (transferred <= 0) {
+                        // the file has been truncated, closing the stored entry fails
+                        break;
+                    }
+                    position += transferred;
+                }
+            } finally {
+                input.close();
+            }
+        }
+        zip.closeEntry();
+    }
+
+    /**
+     * <p>
+     * An entry read ahead of its writing.
+     * </p>
+     *
+     * <p>
+     * <strong>Thread safety:</strong> This class is immutable, it is safely published through its future.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private class PreparedEntry {
+        /**
+         * The name of the entry.
+         */
+        private final String name;
+
+        /**
+         * The file of the entry.
+         */
+        private final File file;
+
+        /**
+         * The size of the file.
+         */
+        private final long size;
+
+        /**
+         * Whether the entry is stored without compression.
+         */
+        private final boolean stored;
+
+        /**
+         * The CRC of the stored file.
+         */
+        private final long crc;
+
+        /**
+         * The content of the file, null if the file is larger than the maximum buffered size.
+         */
+        private final byte[] content;
+
+        /**
+         * Reads the file of an entry.
+         *
+         * @param name
+         *            the name of the entry.
+         * @param file
+         *            the file of the entry.
+         *
+         * @throws IOException
+         *             if the file can not be read.
+         */
+        PreparedEntry(String name, File file) throws IOException {
+            this.name = name;
+            this.file = file;
+
+            FileInputStream input = new FileInputStream(file);
+            try {
+                FileChannel channel = input.getChannel();
+                size = channel.size();
+                if (size <= maxBufferedFileSize) {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // read the whole file
+                    }
+                    content = buffer.array();
+                    stored = isCompressed(name, content);
+                    crc = stored ? crc(content) : 0;
+                } else {
+                    content = null;
+                    ByteBuffer signature = ByteBuffer.allocate(SIGNATURE_LENGTH);
+                    channel.read(signature, 0);
+                    stored = isCompressed(name, signature.array());
+                    crc = stored ? crc(channel) : 0;
+                }
+            } finally {
+                input.close();
+            }
+        }
+
+        /**
+         * Checks whether the content is already compressed.
+         *
+         * @param fileName
+         *            the name of the file.
+         * @param head
+         *            the first bytes of the content.
+         *
+         * @return true if the content is compressed.
+         */
+        private boolean isCompressed(String fileName, byte[] head) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot >= 0 && storedExtensions.contains(fileName.substring(dot + 1).toLowerCase())) {
+                return true;
+            }
+            for (byte[] signature : COMPRESSED_SIGNATURES) {
+                if (head.length >= signature.length) {
+                    boolean matches = true;
+                    for (int i = 0; i < signature.length && matches; i++) {
+                        matches = head[i] == signature[i];
+                    }
+                    if (matches) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Computes the CRC of the content.
+         *
+         * @param bytes
+         *            the content.
+         *
+         * @return the CRC.
+         */
+        private long crc(byte[] bytes) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(bytes);
+            return crc32.getValue();
+        }
+
+        /**
+         * Computes the CRC of the content of a channel.
+         *
+         * @param channel
+         *            the channel of the file.
+         *
+         * @return the CRC.
+         *
+         * @throws IOException
+         *             if the file can not be read.
+         */
+        private long crc(FileChannel channel) throws IOException {
+            CRC32 crc32 = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            channel.position(0);
+            while (channel.read(buffer) >= 0) {
+                crc32.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            return crc32.getValue();
+        }
+    }
+}
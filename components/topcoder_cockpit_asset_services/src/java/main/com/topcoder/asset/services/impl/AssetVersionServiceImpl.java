@@ -20,20 +20,18 @@ import javax.imageio.ImageIO;
 import javax.persistence.EntityManager;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * <p>
@@ -245,8 +243,20 @@ import java.util.zip.ZipOutputStream;
  * </ul>
  * </p>
  *
- * @author LOY, sparemax, GreatKevin, TCSASSEMBLER
- * @version 1.3
+ * <p>
+ * Version 1.4 (TopCoder Cockpit Asset Archive Streaming)
+ * <ul>
+ *     <li>Updated method {@link #batchGetAssetVersionContents(java.util.List, java.io.OutputStream)} to build the
+ *     archive with the {@link AssetArchiveBuilder}, which stores the already compressed files without compression
+ *     and reads the files ahead in parallel.</li>
+ *     <li>Updated method {@link #copyFile(Log, String, String, String, boolean)} to transfer the file with
+ *     {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.</li>
+ *     <li>Added {@link #archiveBuilder} and its setter.</li>
+ * </ul>
+ * </p>
+ *
+ * @author LOY, sparemax, GreatKevin, TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.4
  */
 public class AssetVersionServiceImpl extends BaseAssetService implements AssetVersionService {
     /**
@@ -267,11 +277,6 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
     private static final String JPQL_QUERY_FILE_PATH = "SELECT filePath FROM AssetVersion e"
         + " WHERE e.id IN (:assetVersionIds)";
 
-    /**
-     * The buffer size.
-     */
-    private static final int BUFFER_SIZE = 1024;
-
     /**
      * The base path for asset files and preview images. Is initialized with Spring setter dependency injection.
      * Cannot be null/empty after initialization, assuming that property is initialized via Spring setter-based
@@ -302,6 +307,14 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
      */
     private int previewImageHeight;
 
+    /**
+     * The builder of the asset version archives. Is initialized with Spring setter dependency injection, or with the
+     * default builder. Has a setter.
+     *
+     * @since 1.4
+     */
+    private AssetArchiveBuilder archiveBuilder = new AssetArchiveBuilder();
+
     /**
      * Creates an instance of AssetVersionServiceImpl.
      */
@@ -315,7 +328,7 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
      * @throws AssetConfigurationException
      *             if the class was not initialized properly (entityManager is null; basePath is null/empty;
      *             imageTypes is null, or contains null/empty element; previewImageWidth or previewImageHeight is not
-     *             positive)
+     *             positive; archiveBuilder is null)
      */
     @PostConstruct
     protected void checkInit() {
@@ -331,6 +344,8 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
 
         ValidationUtility.checkPositive(previewImageWidth, "previewImageWidth", AssetConfigurationException.class);
         ValidationUtility.checkPositive(previewImageHeight, "previewImageHeight", AssetConfigurationException.class);
+
+        ValidationUtility.checkNotNull(archiveBuilder, "archiveBuilder", AssetConfigurationException.class);
     }
 
     /**
@@ -829,70 +844,51 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
                     "Some asset version doesn't exist."));
             }
 
-            // The asset version files contents are archived as a ZIP file and written to the output stream:
-            // first, we create ZipOutputStream wrapping the given output stream
-            ZipOutputStream outputStream = new ZipOutputStream(output);
-
+            // Name the files uniquely in the archive:
+            Map<String, File> files = new LinkedHashMap<String, File>();
             Map<String, Integer> namesAdded = new HashMap<String, Integer>();
 
-            try {
-                for (String filePath : filePaths) {
-                    // create zip entry
-                    File zipFile = new File(filePath);
-
-                    String zipFileName = zipFile.getName();
+            for (String filePath : filePaths) {
+                // create zip entry
+                File zipFile = new File(filePath);
 
-                    // check if the duplicate name exists
-                    if(namesAdded.containsKey(zipFileName)) {
-                        String originalName = zipFileName;
+                String zipFileName = zipFile.getName();
 
-                        // rename zip file
-                        int duplicatedFileNameCount = namesAdded.get(originalName);
-                        duplicatedFileNameCount++;
-                        zipFileName = renameDuplicatedFileName(originalName, duplicatedFileNameCount);
+                // check if the duplicate name exists
+                if(namesAdded.containsKey(zipFileName)) {
+                    String originalName = zipFileName;
 
-                        while(namesAdded.containsKey(zipFileName)) {
-                            duplicatedFileNameCount++;
+                    // rename zip file
+                    int duplicatedFileNameCount = namesAdded.get(originalName);
+                    duplicatedFileNameCount++;
+                    zipFileName = renameDuplicatedFileName(originalName, duplicatedFileNameCount);
 
-                            if(duplicatedFileNameCount >= 10000) {
-                                // to avoid extreme case - would not happen in real case
-                                break;
-                            }
+                    while(namesAdded.containsKey(zipFileName)) {
+                        duplicatedFileNameCount++;
 
-                            zipFileName = renameDuplicatedFileName(originalName, duplicatedFileNameCount);
+                        if(duplicatedFileNameCount >= 10000) {
+                            // to avoid extreme case - would not happen in real case
+                            break;
                         }
 
-                        namesAdded.put(zipFileName, 1);
-                        namesAdded.put(originalName, duplicatedFileNameCount);
-
-
-                    } else {
-                        namesAdded.put(zipFileName, 1);
+                        zipFileName = renameDuplicatedFileName(originalName, duplicatedFileNameCount);
                     }
 
+                    namesAdded.put(zipFileName, 1);
+                    namesAdded.put(originalName, duplicatedFileNameCount);
 
-                    outputStream.putNextEntry(new ZipEntry(zipFileName));
-
-                    // Write entry content
-                    byte[] buf = new byte[BUFFER_SIZE];
-                    int num;
 
-                    InputStream inputStream = new BufferedInputStream(new FileInputStream(new File(filePath)));
-                    try {
-                        while ((num = inputStream.read(buf)) != -1) {
-                            outputStream.write(buf, 0, num);
-                        }
-                    } finally {
-                        // Close the input stream
-                        closeObj(log, signature, inputStream);
-                    }
+                } else {
+                    namesAdded.put(zipFileName, 1);
                 }
-            } finally {
-                // Close the output stream
-                // (The error can't be ignored)
-                outputStream.close();
+
+                files.put(zipFileName, zipFile);
             }
 
+            // The asset version files contents are archived as a ZIP file and written to the output stream
+            // (the builder closes the archive stream, or leaves the archive unfinished on failure)
+            archiveBuilder.build(files, output);
+
             // Log Exit
             LoggingWrapperUtility.logExit(log, signature, null);
         } catch (IllegalArgumentException e) {
@@ -937,6 +933,18 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
         this.imageTypes = imageTypes;
     }
 
+    /**
+     * Sets the builder of the asset version archives.
+     *
+     * @param archiveBuilder
+     *            the builder of the asset version archives.
+     *
+     * @since 1.4
+     */
+    public void setArchiveBuilder(AssetArchiveBuilder archiveBuilder) {
+        this.archiveBuilder = archiveBuilder;
+    }
+
     /**
      * Sets the width of preview image.
      *
@@ -1033,15 +1041,22 @@ public class AssetVersionServiceImpl extends BaseAssetService implements AssetVe
         }
 
         // Copy file:
-        InputStream inputStream = new FileInputStream(originalFilePath);
+        FileInputStream inputStream = new FileInputStream(originalFilePath);
         try {
-            OutputStream outputStream = new FileOutputStream(destinationFilePath);
+            FileOutputStream outputStream = new FileOutputStream(destinationFilePath);
             try {
-                byte[] buff = new byte[BUFFER_SIZE];
-                int num;
-
-                while ((num = inputStream.read(buff)) != -1) {
-                    outputStream.write(buff, 0, num);
+                FileChannel source = inputStream.getChannel();
+                FileChannel destination = outputStream.getChannel();
+                long size = source.size();
+                long position = 0;
+
+                while (position < size) {
+                    long transferred = source.transferTo(position, size - position, destination);
+                    if (transferred <= 0) {
+                        // the original file has been truncated
+                        break;
+                    }
+                    position += transferred;
                 }
             } finally {
                 // Close the output stream
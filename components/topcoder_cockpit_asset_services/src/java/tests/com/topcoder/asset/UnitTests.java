@@ -23,6 +23,7 @@ import com.topcoder.asset.exceptions.AssetExceptionUnitTests;
 import com.topcoder.asset.exceptions.EntityNotFoundExceptionUnitTests;
 import com.topcoder.asset.exceptions.PersistenceExceptionUnitTests;
 import com.topcoder.asset.exceptions.ServiceExceptionUnitTests;
+import com.topcoder.asset.services.impl.AssetArchiveBuilderUnitTests;
 import com.topcoder.asset.services.impl.AssetCategoryServiceImplUnitTests;
 import com.topcoder.asset.services.impl.AssetPermissionServiceImplUnitTests;
 import com.topcoder.asset.services.impl.AssetServiceImplUnitTests;
@@ -78,6 +79,7 @@ public class UnitTests extends TestCase {
         suite.addTest(HelperUnitTests.suite());
         suite.addTest(AssetServiceImplUnitTests.suite());
         suite.addTest(AssetVersionServiceImplUnitTests.suite());
+        suite.addTest(AssetArchiveBuilderUnitTests.suite());
         suite.addTest(BaseAssetServiceUnitTests.suite());
 
         // Exceptions
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.asset.services.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>
+ * Unit tests for {@link AssetArchiveBuilder} class.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class AssetArchiveBuilderUnitTests {
+    /**
+     * <p>
+     * Represents the directory of the archived files.
+     * </p>
+     */
+    private File directory;
+
+    /**
+     * <p>
+     * Represents the <code>AssetArchiveBuilder</code> instance used in tests.
+     * </p>
+     */
+    private AssetArchiveBuilder instance;
+
+    /**
+     * <p>
+     * Adapter for earlier versions of JUnit.
+     * </p>
+     *
+     * @return a test suite.
+     */
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(AssetArchiveBuilderUnitTests.class);
+    }
+
+    /**
+     * <p>
+     * Sets up the unit tests.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit.
+     */
+    @Before
+    public void setUp() throws Exception {
+        directory = new File("test_files" + File.separator + "archive");
+        directory.mkdirs();
+
+        instance = new AssetArchiveBuilder();
+        instance.setMaxBufferedFileSize(1000);
+    }
+
+    /**
+     * <p>
+     * Cleans up the unit tests.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit.
+     */
+    @After
+    public void tearDown() throws Exception {
+        instance.shutdown();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * <p>
+     * Accuracy test for the method <code>build(Map&lt;String, File&gt; files, OutputStream output)</code>.<br>
+     * The compressed files must be stored, the others deflated, and all the contents kept in order.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit.
+     */
+    @Test
+    public void test_build() throws Exception {
+        Random random = new Random(1);
+        byte[] image = new byte[500];
+        random.nextBytes(image);
+        byte[] text = new byte[2000];
+        Arrays.fill(text, (byte) 'a');
+        // a large file with the ZIP signature
+        byte[] archive = new byte[3000];
+        random.nextBytes(archive);
+        archive[0] = 'P';
+        archive[1] = 'K';
+        archive[2] = 3;
+        archive[3] = 4;
+
+        Map<String, File> files = new LinkedHashMap<String, File>();
+        files.put("image.png", createFile("image.png", image));
+        files.put("text.txt", createFile("text.txt", text));
+        files.put("archive.bin", createFile("archive.bin", archive));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        instance.build(files, output);
+
+        ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()));
+        checkEntry(zip, "image.png", ZipEntry.STORED, image);
+        checkEntry(zip, "text.txt", ZipEntry.DEFLATED, text);
+        checkEntry(zip, "archive.bin", ZipEntry.STORED, archive);
+        assertEquals("There should be no more entries.", null, zip.getNextEntry());
+    }
+
+    /**
+     * <p>
+     * Failure test for the method <code>build(Map&lt;String, File&gt; files, OutputStream output)</code> with a
+     * missing file.<br>
+     * <code>IOException</code> is expected.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit.
+     */
+    @Test(expected = IOException.class)
+    public void test_build_missingFile() throws Exception {
+        Map<String, File> files = new LinkedHashMap<String, File>();
+        files.put("missing.txt", new File(directory, "missing.txt"));
+
+        instance.build(files, new ByteArrayOutputStream());
+    }
+
+    /**
+     * <p>
+     * Failure test for the method <code>build(Map&lt;String, File&gt; files, OutputStream output)</code> with a
+     * missing file after a written one.<br>
+     * The archive must be left unfinished, without its end of central directory record, and the output stream must
+     * not be closed.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit.
+     */
+    @Test
+    public void test_build_missingFile_unfinished() throws Exception {
+        Map<String, File> files = new LinkedHashMap<String, File>();
+        files.put("text.txt", createFile("text.txt", new byte[2000]));
+        files.put("missing.txt", new File(directory, "missing.txt"));
+
+        final boolean[] closed = new boolean[1];
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        try {
+            instance.build(files, output);
+            fail("IOException is expected.");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertFalse("The output stream should not be closed.", closed[0]);
+        byte[] content = output.toByteArray();
+        for (int i = 0; i + 3 < content.length; i++) {
+            assertFalse("The archive should not be finished.", content[i] == 'P' && content[i + 1] == 'K'
+                && content[i + 2] == 5 && content[i + 3] == 6);
+        }
+    }
+
+    /**
+     * Creates a file in the test directory.
+     *
+     * @param name
+     *            the name of the file.
+     * @param content
+     *            the content of the file.
+     *
+     * @return the file.
+     *
+     * @throws IOException
+     *             if the file can not be written.
+     */
+    private File createFile(String name, byte[] content) throws IOException {
+        File file = new File(directory, name);
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
+    /**
+     * Checks the next entry of the archive.
+     *
+     * @param zip
+     *            the archive.
+     * @param name
+     *            the expected name.
+     * @param method
+     *            the expected compression method.
+     * @param content
+     *            the expected content.
+     *
+     * @throws IOException
+     *             if the archive can not be read.
+     */
+    private static void checkEntry(ZipInputStream zip, String name, int method, byte[] content) throws IOException {
+        ZipEntry entry = zip.getNextEntry();
+        assertEquals("'name' should be correct.", name, entry.getName());
+        assertEquals("'method' should be correct.", method, entry.getMethod());
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = zip.read(buffer)) > 0) {
+            actual.write(buffer, 0, count);
+        }
+        assertArrayEquals("'content' should be correct.", content, actual.toByteArray());
+    }
+}
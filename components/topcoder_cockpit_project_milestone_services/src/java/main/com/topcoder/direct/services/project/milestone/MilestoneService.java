@@ -39,11 +39,19 @@ import com.topcoder.direct.services.project.milestone.model.SortOrder;
  * </p>
  *
  * <p>
+ * Version 1.4 (Milestone Bulk Operations Performance) change notes:
+ * <ul>
+ *     <li>Add method {@link #getCalendarForProjects(java.util.List, java.util.List,
+ *     com.topcoder.direct.services.project.milestone.model.SortOrder)}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
  * <b>Thread Safety:</b> Implementations are expected to be effectively thread-safe.
  * </p>
  *
  * @author argolite, GreatKevin
- * @version 1.3
+ * @version 1.4
  */
 public interface MilestoneService {
     /**
@@ -236,4 +244,24 @@ public interface MilestoneService {
     public Map<MilestoneStatus, List<Milestone>> getAllForProjectsGroupedByStatus(List<Long> projectIds,
                                 Map<MilestoneStatus, SortOrder> filters, Date startDate, Date endDate)
             throws ProjectMilestoneManagementException;
+
+    /**
+     * Gets the calendar view of the milestones for the given list of projects, sorted in the given order. Only the
+     * fields rendered by the calendar views (name, description, dates, completion flag, project id and the first
+     * owner) are populated. The returned milestones are detached from any persistence context, so callers may
+     * freely modify them. If none found, returns an empty list.
+     *
+     * @param projectIds        the list of project ids.
+     * @param requestedStatuses the list of requested status.
+     * @param sortOrder         the sort order
+     * @return the list of milestones.
+     * @throws IllegalArgumentException
+     *             If projectIds is null/empty or has null elements, or requestedStatuses contains null or duplicate
+     *             elements
+     * @throws ProjectMilestoneManagementException
+     *          If there are any errors during the execution of this method
+     * @since 1.4
+     */
+    public List<Milestone> getCalendarForProjects(List<Long> projectIds, List<MilestoneStatus> requestedStatuses,
+                                                  SortOrder sortOrder) throws ProjectMilestoneManagementException;
 }
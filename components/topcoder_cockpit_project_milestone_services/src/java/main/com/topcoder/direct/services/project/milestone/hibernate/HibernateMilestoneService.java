@@ -10,6 +10,7 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +27,7 @@ import com.topcoder.commons.utils.ParameterCheckUtility;
 import com.topcoder.commons.utils.ValidationUtility;
 import com.topcoder.direct.services.project.milestone.model.Milestone;
 import com.topcoder.direct.services.project.milestone.model.MilestoneStatus;
+import com.topcoder.direct.services.project.milestone.model.ResponsiblePerson;
 import com.topcoder.direct.services.project.milestone.model.SortOrder;
 import com.topcoder.util.log.Level;
 import com.topcoder.util.log.Log;
@@ -212,8 +214,22 @@ import org.springframework.transaction.annotation.Transactional;
  * </ul>
  * </p>
  *
+ * <p>
+ * Version 1.6 (Milestone Bulk Operations Performance) change notes:
+ * <ul>
+ *     <li>Update {@link #add(java.util.List)} and {@link #update(java.util.List)} to flush and clear the session
+ *     every {@link #batchSize} milestones, so the statements are sent as JDBC batches (when
+ *     <code>hibernate.jdbc.batch_size</code> is configured) and the persistence context does not grow with the
+ *     list size.</li>
+ *     <li>Update {@link #update(java.util.List)} to load all the milestones with one query instead of re-loading
+ *     each milestone.</li>
+ *     <li>Add property {@link #batchSize} and its getter and setter.</li>
+ *     <li>Add method {@link #getCalendarForProjects(java.util.List, java.util.List, SortOrder)}.</li>
+ * </ul>
+ * </p>
+ *
  * @author argolite, GreatKevin
- * @version 1.5
+ * @version 1.6
  */
 public class HibernateMilestoneService implements InitializingBean, MilestoneService {
     /**
@@ -253,6 +269,24 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
 
     private static final String SQL_GET_ALL_FOR_PROJECTS = "getAllForProjects";
 
+    /**
+     * <p>
+     * Represent the name of the calendar projection query.
+     * </p>
+     *
+     * @since 1.6
+     */
+    private static final String SQL_GET_CALENDAR_FOR_PROJECTS = "getCalendarForProjects";
+
+    /**
+     * <p>
+     * Represent the default number of milestones flushed to the database at a time by the bulk operations.
+     * </p>
+     *
+     * @since 1.6
+     */
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
     /**
      * <p>
      * Represent the number: 12.
@@ -281,6 +315,17 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
      */
     private SessionFactory sessionFactory;
 
+    /**
+     * <p>
+     * The number of milestones flushed to the database at a time by {@link #add(List)} and
+     * {@link #update(List)}. It should match the <code>hibernate.jdbc.batch_size</code> setting of the session
+     * factory. Must be positive, initialized by Spring setter injection, defaults to 50.
+     * </p>
+     *
+     * @since 1.6
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     /**
      * Empty constructor.
      */
@@ -298,6 +343,8 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
         ValidationUtility.checkNotNull(logger, "logger", ProjectMilestoneManagementConfigurationException.class);
         ValidationUtility.checkNotNull(sessionFactory, "sessionFactory",
             ProjectMilestoneManagementConfigurationException.class);
+        ValidationUtility.checkPositive(batchSize, "batchSize",
+            ProjectMilestoneManagementConfigurationException.class);
     }
 
     /**
@@ -362,9 +409,15 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
             ParameterCheckUtility.checkNotNullNorEmpty(milestones, "milestones");
             ParameterCheckUtility.checkNotNullElements(milestones, "milestones");
 
-            // Save the entities
+            // Save the entities, flushing them in batches
+            Session session = getSession();
+            int count = 0;
             for (Milestone milestone : milestones) {
-                getSession().save(milestone);
+                session.save(milestone);
+                if (++count % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
 
             // Log exit
@@ -531,20 +584,24 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
             for (Milestone milestone : milestones) {
                 ids.add(milestone.getId());
             }
-            // Check entity existence
-            // checkEntityExist(ids);
+            // Check entity existence, all the milestones are loaded with one query
             final List<Milestone> milestonesToUpdate = get(ids);
 
-            if(milestonesToUpdate.size() != ids.size()) {
-                throw new EntityNotFoundException("Some entity is not found with ids[" + ids.toString() + "]");
+            Map<Long, Milestone> container = new HashMap<Long, Milestone>();
+            for (Milestone milestoneToUpdate : milestonesToUpdate) {
+                if (milestoneToUpdate == null) {
+                    throw new EntityNotFoundException("Some entity is not found with ids[" + ids.toString() + "]");
+                }
+                container.put(milestoneToUpdate.getId(), milestoneToUpdate);
             }
 
-            // Update the entities
+            // Update the entities, flushing them in batches
+            Session session = getSession();
+            int count = 0;
             for (Milestone milestone : milestones) {
-                for(Milestone milestoneToUpdate : milestonesToUpdate) {
-                    if(milestoneToUpdate.getId() == milestone.getId()) {
-                        update(updateMilestoneProperties(milestoneToUpdate, milestone));
-                    }
+                session.update(updateMilestoneProperties(container.get(milestone.getId()), milestone));
+                if (++count % batchSize == 0) {
+                    session.flush();
                 }
             }
 
@@ -866,6 +923,101 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
         }
     }
 
+    /**
+     * Gets the calendar view of the milestones for the given list of projects, sorted in the given order. Only the
+     * fields rendered by the calendar views are loaded, through a projection query, and the returned milestones are
+     * not associated with the session. If none found, returns an empty list.
+     *
+     * @param projectIds        the list of project ids.
+     * @param requestedStatuses the list of requested status.
+     * @param sortOrder         the sort order
+     * @return the list of milestones.
+     * @throws IllegalArgumentException
+     *             If projectIds is null/empty or has null elements, or requestedStatuses contains null or duplicate
+     *             elements
+     * @throws ProjectMilestoneManagementException
+     *          If there are any errors during the execution of this method
+     * @since 1.6
+     */
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public List<Milestone> getCalendarForProjects(List<Long> projectIds, List<MilestoneStatus> requestedStatuses,
+                                                  SortOrder sortOrder) throws ProjectMilestoneManagementException {
+        final String signature = CLASS_NAME + ".getCalendarForProjects(List<Long> projectIds,"
+                + " List<MilestoneStatus> requestedStatuses, SortOrder sortOrder)";
+        final Date entranceTimestamp = new Date();
+        // Log entrance
+        LoggingWrapperUtility.logEntrance(logger, signature, new String[]{"projectIds", "requestedStatuses",
+                "sortOrder"}, new Object[]{projectIds, requestedStatuses, sortOrder}, true, Level.DEBUG);
+
+        try {
+            // Check parameter
+            ParameterCheckUtility.checkNotNullNorEmpty(projectIds, "projectIds");
+            ParameterCheckUtility.checkNotNullElements(projectIds, "projectIds");
+            Set<MilestoneStatus> statuses = checkRequestedStatuses(requestedStatuses);
+
+            // Get the named query
+            Query query = getSession().getNamedQuery(SQL_GET_CALENDAR_FOR_PROJECTS);
+            // Set the parameters
+            query.setParameterList("projectIds", projectIds);
+            // Get the rows, the owner columns are null for the milestones without owner
+            List<Object[]> rows = query.list();
+
+            // Only the first owner (lowest owner id) of a milestone is rendered, the rows are ordered by milestone
+            // and owner id, so skip the rows of the other owners
+            Map<Long, Milestone> container = new LinkedHashMap<Long, Milestone>();
+            for (Object[] row : rows) {
+                if (!container.containsKey(row[0])) {
+                    container.put((Long) row[0], toCalendarMilestone(row));
+                }
+            }
+            List<Milestone> milestones = new ArrayList<Milestone>(container.values());
+
+            // Get ordered milestones
+            List<Milestone> res = getOrderedMileStone(requestedStatuses, sortOrder, statuses, milestones, -1, -1);
+
+            // Log exit
+            LoggingWrapperUtility.logExit(logger, signature, new Object[]{res}, entranceTimestamp);
+
+            return res;
+        } catch (IllegalArgumentException e) {
+            throw LoggingWrapperUtility.logException(logger, signature, e, true, Level.ERROR);
+        } catch (HibernateException e) {
+            throw LoggingWrapperUtility.logException(logger, signature, new ProjectMilestoneManagementException(
+                    "HibernateException occurs while accessing to db", e), true, Level.ERROR);
+        }
+    }
+
+    /**
+     * Creates a milestone from a row of the calendar projection query.
+     *
+     * @param row the row, in the column order of the <code>getCalendarForProjects</code> query
+     * @return the created milestone
+     * @since 1.6
+     */
+    private static Milestone toCalendarMilestone(Object[] row) {
+        Milestone milestone = new Milestone();
+        milestone.setId((Long) row[0]);
+        milestone.setName((String) row[1]);
+        milestone.setDescription((String) row[2]);
+        milestone.setDueDate((Date) row[3]);
+        milestone.setCompletionDate((Date) row[4]);
+        milestone.setCompleted(Boolean.TRUE.equals(row[5]));
+        milestone.setProjectId((Long) row[6]);
+
+        if (row[7] != null) {
+            ResponsiblePerson owner = new ResponsiblePerson();
+            owner.setId((Long) row[7]);
+            owner.setUserId((Long) row[8]);
+            owner.setName((String) row[9]);
+            List<ResponsiblePerson> owners = new ArrayList<ResponsiblePerson>(1);
+            owners.add(owner);
+            milestone.setOwners(owners);
+        }
+
+        return milestone;
+    }
+
     /**
      * Gets milestones of a list projects and groups them by the milestone status.
      *
@@ -1245,6 +1397,31 @@ public class HibernateMilestoneService implements InitializingBean, MilestoneSer
         this.sessionFactory = sessionFactory;
     }
 
+    /**
+     * <p>
+     * Getter method for batchSize, simply return the namesake instance variable.
+     * </p>
+     *
+     * @return the batchSize
+     * @since 1.6
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * <p>
+     * Setter method for batchSize, simply assign the value to the instance variable.
+     * </p>
+     *
+     * @param batchSize
+     *            the batchSize to set
+     * @since 1.6
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     /**
      * Gets the responsible person service.
      *
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.project.milestone.stresstests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.topcoder.direct.services.project.milestone.MilestoneService;
+import com.topcoder.direct.services.project.milestone.model.Milestone;
+import com.topcoder.direct.services.project.milestone.model.MilestoneStatus;
+import com.topcoder.direct.services.project.milestone.model.ResponsiblePerson;
+import com.topcoder.direct.services.project.milestone.model.SortOrder;
+
+/**
+ * <p>
+ * Benchmark for the bulk operations of HibernateMilestoneService class.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class HibernateMilestoneServiceBulkStressTest extends BaseStressTest {
+    /**
+     * <p>
+     * Represents the number of milestones in the benchmarked project plan.
+     * </p>
+     */
+    private static final int MILESTONE_COUNT = 500;
+
+    /**
+     * <p>
+     * Represents the number of times the calendar queries are run.
+     * </p>
+     */
+    private static final int QUERY_COUNT = 20;
+
+    /**
+     * <p>
+     * Represents the all milestone statuses.
+     * </p>
+     */
+    private static final List<MilestoneStatus> ALL_STATUSES = Arrays.asList(MilestoneStatus.values());
+
+    /**
+     * <p>
+     * Represents the milestoneService for testing.
+     * </p>
+     */
+    @Autowired
+    private MilestoneService instance;
+
+    /**
+     * <p>
+     * Represents the session factory, used to read the statement statistics.
+     * </p>
+     */
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    /**
+     * <p>
+     * Represents the id of the project used by the current test.
+     * </p>
+     */
+    private static long projectId;
+
+    /**
+     * Creates a test suite for unit tests in this test case.
+     *
+     * @return a Test suite for this test case.
+     */
+    public static junit.framework.Test suite() {
+        return new junit.framework.JUnit4TestAdapter(HibernateMilestoneServiceBulkStressTest.class);
+    }
+
+    /**
+     * <p>
+     * Prepares the environment, each test uses its own project.
+     * </p>
+     */
+    @Before
+    public void prepare() {
+        projectId++;
+        sessionFactory.getStatistics().clear();
+    }
+
+    /**
+     * <p>
+     * Benchmark for {@link MilestoneService#add(List)} and {@link MilestoneService#update(List)} with a large
+     * project plan.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit
+     */
+    @Test
+    public void test_add_update_List() throws Exception {
+        List<Milestone> milestones = createMilestones();
+
+        long start = System.currentTimeMillis();
+        instance.add(milestones);
+        printStatistics("milestoneService#add(List<Milestone>)", start);
+
+        for (Milestone milestone : milestones) {
+            Assert.assertTrue("fail to add", milestone.getId() > 0);
+            milestone.setName("update" + milestone.getId());
+        }
+        sessionFactory.getStatistics().clear();
+
+        start = System.currentTimeMillis();
+        instance.update(milestones);
+        printStatistics("milestoneService#update(List<Milestone>)", start);
+
+        Assert.assertEquals("fail to update", "update" + milestones.get(0).getId(),
+            instance.get(milestones.get(0).getId()).getName());
+    }
+
+    /**
+     * <p>
+     * Benchmark comparing {@link MilestoneService#getAllForProjects(List, List, SortOrder)} with
+     * {@link MilestoneService#getCalendarForProjects(List, List, SortOrder)}.
+     * </p>
+     *
+     * @throws Exception
+     *             to JUnit
+     */
+    @Test
+    public void test_getAllForProjects_getCalendarForProjects() throws Exception {
+        instance.add(createMilestones());
+        List<Long> projectIds = Arrays.asList(projectId);
+        sessionFactory.getStatistics().clear();
+
+        List<Milestone> entities = null;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            entities = instance.getAllForProjects(projectIds, ALL_STATUSES, SortOrder.ASCENDING);
+        }
+        printStatistics("milestoneService#getAllForProjects() x " + QUERY_COUNT, start);
+
+        List<Milestone> projections = null;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            projections = instance.getCalendarForProjects(projectIds, ALL_STATUSES, SortOrder.ASCENDING);
+        }
+        printStatistics("milestoneService#getCalendarForProjects() x " + QUERY_COUNT, start);
+
+        Assert.assertEquals("fail to get calendar", MILESTONE_COUNT, projections.size());
+        for (int i = 0; i < MILESTONE_COUNT; i++) {
+            Assert.assertEquals("fail to get calendar", entities.get(i).getId(), projections.get(i).getId());
+            Assert.assertEquals("fail to get calendar", entities.get(i).getStatus(),
+                projections.get(i).getStatus());
+            Assert.assertEquals("fail to get calendar", entities.get(i).getOwners().get(0).getUserId(),
+                projections.get(i).getOwners().get(0).getUserId());
+        }
+    }
+
+    /**
+     * <p>
+     * Creates the milestones of a project plan, each milestone has one owner.
+     * </p>
+     *
+     * @return the milestones
+     */
+    private static List<Milestone> createMilestones() {
+        List<Milestone> milestones = new ArrayList<Milestone>(MILESTONE_COUNT);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < MILESTONE_COUNT; i++) {
+            Milestone milestone = new Milestone();
+            milestone.setName("milestone" + i);
+            milestone.setDescription("description" + i);
+            milestone.setDueDate(new Date(now + (i - MILESTONE_COUNT / 2) * 3600000L));
+            milestone.setCompleted(i % 3 == 0);
+            if (milestone.isCompleted()) {
+                milestone.setCompletionDate(milestone.getDueDate());
+            }
+            milestone.setProjectId(projectId);
+
+            ResponsiblePerson owner = new ResponsiblePerson();
+            owner.setName("owner" + i);
+            owner.setUserId(i);
+            List<ResponsiblePerson> owners = new ArrayList<ResponsiblePerson>();
+            owners.add(owner);
+            milestone.setOwners(owners);
+
+            milestones.add(milestone);
+        }
+        return milestones;
+    }
+
+    /**
+     * <p>
+     * Prints test result, including the number of JDBC statements prepared.
+     * </p>
+     *
+     * @param name
+     *            the test name
+     * @param start
+     *            the start time
+     */
+    private void printStatistics(String name, long start) {
+        Statistics statistics = sessionFactory.getStatistics();
+        System.out.println("The benchmark [" + name + "] with " + MILESTONE_COUNT + " milestones took time: "
+            + (System.currentTimeMillis() - start) + " ms, prepared statements: "
+            + statistics.getPrepareStatementCount() + ", entities loaded: " + statistics.getEntityLoadCount());
+        statistics.clear();
+    }
+}
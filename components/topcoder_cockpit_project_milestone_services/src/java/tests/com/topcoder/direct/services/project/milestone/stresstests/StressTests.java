@@ -27,6 +27,7 @@ public class StressTests extends TestCase {
         final TestSuite suite = new TestSuite();
         suite.addTest(HibernateResponsiblePersonServiceStressTest.suite());
         suite.addTest(HibernateMilestoneServiceStressTest.suite());
+        suite.addTest(HibernateMilestoneServiceBulkStressTest.suite());
         return suite;
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.project.task;
+
+import java.nio.channels.WritableByteChannel;
+
+import com.topcoder.direct.services.project.task.model.TaskAttachmentContent;
+
+/**
+ * <p>
+ * This is the service contract for serving the content of task attachments. The callers first get the description
+ * of the content, which allows them to answer the conditional and range requests, then transfer the whole content or
+ * a byte range of it to a channel without copying it through the heap.
+ * </p>
+ * <p>
+ * <b>Thread-Safety:</b>Implementations should be thread-safe, but the use of the Spring IoC container to
+ * inject configurations will not be treated as a factor in thread-safety.
+ * </p>
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface TaskAttachmentContentService {
+
+    /**
+     * <p>
+     * Describes the stored content of a TaskAttachment.
+     * </p>
+     *
+     * @param userId the ID of user performing this action.
+     * @param attachmentId the task attachment ID.
+     * @return the description of the content. It will return null if the attachment is not found.
+     * @throws PermissionException if specified user doesn't exist or isn't permitted to perform the requested
+     *             action.
+     * @throws PersistenceException if any persistence related error occurs (including file I/O error, because
+     *             file system also plays a role of persistence).
+     * @throws TaskManagementException if any other error occurs.
+     */
+    public TaskAttachmentContent getTaskAttachmentContentInfo(long userId, long attachmentId)
+        throws TaskManagementException;
+
+    /**
+     * <p>
+     * Transfers a byte range of the content of a TaskAttachment to the given channel.
+     * </p>
+     * <p>
+     * This method will not close the passed in channel.
+     * </p>
+     *
+     * @param content the description of the content, as returned by
+     *            {@link #getTaskAttachmentContentInfo(long, long)}.
+     * @param offset the offset of the first transferred byte.
+     * @param length the number of transferred bytes.
+     * @param target the channel the bytes are transferred to.
+     * @return the number of transferred bytes.
+     * @throws IllegalArgumentException if content or target is null, or the range is not within the content.
+     * @throws PersistenceException if any I/O error occurs while reading the content or writing to the channel.
+     * @throws TaskManagementException if any other error occurs.
+     */
+    public long transferTaskAttachmentContent(TaskAttachmentContent content, long offset, long length,
+        WritableByteChannel target) throws TaskManagementException;
+}
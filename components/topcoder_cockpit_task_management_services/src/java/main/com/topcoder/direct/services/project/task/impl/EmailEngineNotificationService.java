@@ -62,6 +62,7 @@ import com.topcoder.util.log.Log;
  *     value=&quot;Task &amp;quot;%TASK_NAME%&amp;quot; status has been changed.&quot;/&gt;
  *     &lt;property name=&quot;taskStatusChangeEmailBodyTemplatePath&quot;
  *     value=&quot;test_files/status_body_template.txt&quot;/&gt;
+ *     &lt;property name=&quot;notificationQueue&quot; ref=&quot;notificationQueue&quot;/&gt;
  *   &lt;/bean&gt;
  * </pre>
  *
@@ -88,8 +89,17 @@ import com.topcoder.util.log.Log;
  * </ul>
  * </p>
  *
- * @author Mozgastik, TCSASSEMBLER
- * @version 1.1
+ * <p>
+ * Version 1.2 (Asynchronous Task Notifications)
+ * <ul>
+ *     <li>Generates the email of a notification once, instead of once per recipient.</li>
+ *     <li>Adds {@link #notificationQueue}: when it is configured, the emails are enqueued to it and the business
+ *     methods return without waiting for the SMTP server.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Mozgastik, TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.2
  */
 public class EmailEngineNotificationService extends BaseJPAService implements NotificationService {
 
@@ -213,6 +223,24 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
      */
     private String taskStatusChangeEmailBodyTemplatePath;
 
+    /**
+     * <p>
+     * Represents the queue the emails are delivered through.
+     * </p>
+     * <p>
+     * It is used by all public business methods, which return as soon as the emails are enqueued.
+     * </p>
+     * <p>
+     * It is mutable, has setter for injection.
+     * </p>
+     * <p>
+     * It can be any value. If null, the emails are sent synchronously.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private EmailNotificationQueue notificationQueue;
+
     /**
      * <p>
      * Creates the instance of EmailEngineNotificationService.
@@ -336,11 +364,12 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
         params.put("PROJECT_NAME", projectName);
 
         // send emails
-        if (task.getAssignees() != null) {
+        if (task.getAssignees() != null && !task.getAssignees().isEmpty()) {
+            String[] email = renderEmail(methodName, taskCreationEmailSubjectTemplateText,
+                taskCreationEmailBodyTemplatePath, params);
             for (UserDTO assignee : task.getAssignees()) {
                 try {
-                    sendEmail(methodName, taskCreationEmailSubjectTemplateText, taskCreationEmailBodyTemplatePath,
-                        emailSender, userService.getEmailAddress(assignee.getUserId()), params);
+                    sendEmail(methodName, email, userService.getEmailAddress(assignee.getUserId()));
                 } catch (UserServiceException e) {
                     throw ServiceHelper.logException(log, methodName,
                         new NotificationException("Failed to send the email to user:" + assignee.getUserId(), e));
@@ -434,6 +463,8 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
         params.put("PROJECT_NAME", projectName);
 
         // send emails
+        String[] email = renderEmail(methodName, taskStatusChangeEmailSubjectTemplateText,
+            taskStatusChangeEmailBodyTemplatePath, params);
         try {
             String createdByHandle = newTask.getCreatedBy();
             boolean createdBySent = false;
@@ -441,9 +472,7 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
                 // send to the assignees
                 for (UserDTO assignee : newTask.getAssignees()) {
                     // send to the assignee
-                    sendEmail(methodName,
-                        taskStatusChangeEmailSubjectTemplateText, taskStatusChangeEmailBodyTemplatePath,
-                            emailSender, userService.getEmailAddress(assignee.getUserId()), params);
+                    sendEmail(methodName, email, userService.getEmailAddress(assignee.getUserId()));
 
                     // if this is the same handle as the createdBy user, mark it
                     if (createdByHandle.equals(assignee.getHandle())) {
@@ -454,8 +483,7 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
 
             if (!createdBySent) {
                 // send to the creator if it is not sent
-                sendEmail(methodName, taskStatusChangeEmailSubjectTemplateText, taskStatusChangeEmailBodyTemplatePath,
-                    emailSender, userService.getEmailAddress(createdByHandle), params);
+                sendEmail(methodName, email, userService.getEmailAddress(createdByHandle));
             }
 
         } catch (UserServiceException e) {
@@ -590,20 +618,31 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
 
     /**
      * <p>
-     * Sends an email message generated from templates to the specified recipients. The email message is
-     * assumed to have HTML content.
+     * Sets the queue the emails are delivered through.
+     * </p>
+     * @param notificationQueue the queue the emails are delivered through, null to send the emails synchronously.
+     * @since 1.2
+     */
+    public void setNotificationQueue(EmailNotificationQueue notificationQueue) {
+        this.notificationQueue = notificationQueue;
+    }
+
+    /**
+     * <p>
+     * Generates the subject and the body of an email message from templates. The email message is assumed to have
+     * HTML content.
      * </p>
      * @param methodName the name of the method for logging.
      * @param subjectTemplateText the template text of the email message subject.
      * @param bodyTemplatePath the resource or file path of the email message body template.
-     * @param emailSender the email address of sender.
-     * @param recipient the email address of recipient.
      * @param params the template parameters (String, List and Map values are supported).
+     * @return the subject and the body of the email message.
      *
-     * @throws NotificationException if failed to send the email, for example, failed to parse the template.
+     * @throws NotificationException if failed to generate the email, for example, failed to parse the template.
+     * @since 1.2
      */
-    private void sendEmail(String methodName, String subjectTemplateText, String bodyTemplatePath,
-        String emailSender, String recipient, Map<String, Object> params) throws NotificationException {
+    private String[] renderEmail(String methodName, String subjectTemplateText, String bodyTemplatePath,
+        Map<String, Object> params) throws NotificationException {
 
         // create the document generator
         DocumentGenerator documentGenerator = new DocumentGenerator();
@@ -632,17 +671,7 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
             // generate email body from template
             String emailBody = documentGenerator.applyTemplate(fields);
 
-            // create email message
-            TCSEmailMessage message = new TCSEmailMessage();
-            // populate the message
-            message.setSubject(emailSubject);
-            message.setBody(emailBody);
-            message.setFromAddress(emailSender);
-            message.addToAddress(recipient, TCSEmailMessage.TO);
-            message.setContentType("text/html");
-
-            // send the message
-            EmailEngine.send(message);
+            return new String[] {emailSubject, emailBody};
         } catch (TemplateFormatException e) {
             // log and wrap
             throw ServiceHelper.logException(log, methodName, new NotificationException(
@@ -655,6 +684,38 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
             // log and wrap
             throw ServiceHelper.logException(log, methodName, new NotificationException(
                 "The data format of the template is invalid.", e));
+        }
+    }
+
+    /**
+     * <p>
+     * Sends a generated email message to the specified recipient. The message is enqueued to the notification
+     * queue if it is configured, sent synchronously otherwise.
+     * </p>
+     * @param methodName the name of the method for logging.
+     * @param email the subject and the body of the email message.
+     * @param recipient the email address of recipient.
+     *
+     * @throws NotificationException if failed to send or enqueue the email.
+     */
+    private void sendEmail(String methodName, String[] email, String recipient) throws NotificationException {
+        if (notificationQueue != null) {
+            notificationQueue.enqueue(emailSender, recipient, email[0], email[1]);
+            return;
+        }
+
+        try {
+            // create email message
+            TCSEmailMessage message = new TCSEmailMessage();
+            // populate the message
+            message.setSubject(email[0]);
+            message.setBody(email[1]);
+            message.setFromAddress(emailSender);
+            message.addToAddress(recipient, TCSEmailMessage.TO);
+            message.setContentType("text/html");
+
+            // send the message
+            EmailEngine.send(message);
         } catch (AddressException e) {
             // log and wrap
             throw ServiceHelper.logException(log, methodName, new NotificationException(
@@ -670,4 +731,3 @@ public class EmailEngineNotificationService extends BaseJPAService implements No
         }
     }
 }
-
@@ -0,0 +1,1000 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.project.task.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import com.topcoder.direct.services.project.task.NotificationException;
+import com.topcoder.message.email.AddressException;
+import com.topcoder.message.email.EmailEngine;
+import com.topcoder.message.email.SendingException;
+import com.topcoder.message.email.TCSEmailMessage;
+import com.topcoder.util.config.ConfigManagerException;
+import com.topcoder.util.log.Level;
+import com.topcoder.util.log.Log;
+
+/**
+ * <p>
+ * This is the local, file backed outbound queue of the email notifications. It lets
+ * {@link EmailEngineNotificationService} return as soon as a rendered email is spooled, while a pool of worker
+ * threads delivers the emails through the Email Engine.
+ * </p>
+ * <p>
+ * Each enqueued email is written to its own file of the spool directory before it is scheduled, and the file is
+ * only removed once the email is sent, so the emails pending when the application stops are delivered by the next
+ * {@link #start()}. The queue:
+ * <ul>
+ * <li>drops an email identical to another one (same sender, recipient, subject and body) enqueued within the
+ * de-duplication window;</li>
+ * <li>holds the emails of a recipient for the batch delay. When the maximum batch size is greater than 1 (it is 1 by
+ * default), the emails collected meanwhile which have the same sender and subject are sent as a single email, whose
+ * HTML body holds the contents of their bodies;</li>
+ * <li>retries the failed deliveries with an exponential backoff, in their own batch, and moves the emails still
+ * failing after the maximum number of attempts, or having an invalid address, to the <code>failed</code> sub
+ * directory of the spool directory.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Sample Configuration:
+ *
+ * <pre>
+ *  &lt;bean id=&quot;notificationQueue&quot;
+ *     class=&quot;com.topcoder.direct.services.project.task.impl.EmailNotificationQueue&quot;
+ *     init-method=&quot;start&quot; destroy-method=&quot;shutdown&quot;&gt;
+ *     &lt;property name=&quot;spoolDirectory&quot; value=&quot;test_files/notifications&quot;/&gt;
+ *     &lt;property name=&quot;threadCount&quot; value=&quot;2&quot;/&gt;
+ *     &lt;property name=&quot;batchDelay&quot; value=&quot;2000&quot;/&gt;
+ *     &lt;property name=&quot;deduplicationWindow&quot; value=&quot;60000&quot;/&gt;
+ *   &lt;/bean&gt;
+ * </pre>
+ *
+ * </p>
+ * <p>
+ * <b>Thread-Safety:</b> This class is mutable, but can be used thread safely under following conditions: setters
+ * should not be called after {@link #start()}. The queue state is guarded by an internal lock.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class EmailNotificationQueue {
+
+    /**
+     * <p>
+     * Represents the name of the class for logging.
+     * </p>
+     */
+    private static final String CLASS_NAME = EmailNotificationQueue.class.getName();
+
+    /**
+     * <p>
+     * Represents the extension of the spooled email files.
+     * </p>
+     */
+    private static final String SPOOL_EXTENSION = ".ntf";
+
+    /**
+     * <p>
+     * Represents the extension of the spooled email files being written.
+     * </p>
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * <p>
+     * Represents the name of the sub directory of the emails which can not be delivered.
+     * </p>
+     */
+    private static final String FAILED_DIRECTORY = "failed";
+
+    /**
+     * <p>
+     * Represents the hexadecimal digits used to encode the de-duplication keys.
+     * </p>
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * <p>
+     * Represents the pattern of the start tag of the body element of an HTML document.
+     * </p>
+     */
+    private static final Pattern BODY_START_TAG = Pattern.compile("<body[^>]*>", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * <p>
+     * Represents the pattern of the end tag of the body element of an HTML document.
+     * </p>
+     */
+    private static final Pattern BODY_END_TAG = Pattern.compile("</body\\s*>", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * <p>
+     * Represents the pattern of the end tag of the html element of an HTML document.
+     * </p>
+     */
+    private static final Pattern HTML_END_TAG = Pattern.compile("</html\\s*>", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * <p>
+     * Represents the logger for performing logging. If null, logging will not be performed.
+     * </p>
+     */
+    private Log log;
+
+    /**
+     * <p>
+     * Represents the directory the emails are spooled to. Must not be null or empty, it is created if missing.
+     * </p>
+     */
+    private String spoolDirectory;
+
+    /**
+     * <p>
+     * Represents the number of worker threads delivering the emails. Must be positive.
+     * </p>
+     */
+    private int threadCount = 2;
+
+    /**
+     * <p>
+     * Represents the time in milliseconds an email is held to be batched with the other emails of its recipient.
+     * Must not be negative.
+     * </p>
+     */
+    private long batchDelay = 2000;
+
+    /**
+     * <p>
+     * Represents the maximum number of emails of a recipient with the same sender and subject sent as a single email.
+     * Must be positive, 1 disables the batching.
+     * </p>
+     */
+    private int maxBatchSize = 1;
+
+    /**
+     * <p>
+     * Represents the time in milliseconds an email is remembered to drop its duplicates. Must not be negative, 0
+     * disables the de-duplication.
+     * </p>
+     */
+    private long deduplicationWindow = 60000;
+
+    /**
+     * <p>
+     * Represents the maximum number of delivery attempts of an email. Must be positive.
+     * </p>
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * <p>
+     * Represents the delay in milliseconds before the first retry, it doubles for each next retry. Must be positive.
+     * </p>
+     */
+    private long initialRetryDelay = 5000;
+
+    /**
+     * <p>
+     * Represents the maximum delay in milliseconds between two retries. Must not be less than the initial retry
+     * delay.
+     * </p>
+     */
+    private long maxRetryDelay = 300000;
+
+    /**
+     * <p>
+     * Represents the separator of the body contents of the batched emails. Must not be null.
+     * </p>
+     */
+    private String batchBodySeparator = "<hr/>";
+
+    /**
+     * <p>
+     * Represents the lock guarding the batches and the de-duplication keys.
+     * </p>
+     */
+    private final Object lock = new Object();
+
+    /**
+     * <p>
+     * Represents the pending batches by recipient address, which the new emails join. The batches of the retried
+     * emails are not registered.
+     * </p>
+     */
+    private final Map<String, Batch> batches = new HashMap<String, Batch>();
+
+    /**
+     * <p>
+     * Represents the enqueue times of the recent emails by de-duplication key, in enqueue order.
+     * </p>
+     */
+    private final Map<String, Long> recentKeys = new LinkedHashMap<String, Long>();
+
+    /**
+     * <p>
+     * Represents the source of the IDs of the emails, which also name their spool files.
+     * </p>
+     */
+    private long sequence;
+
+    /**
+     * <p>
+     * Represents the number of the pending emails.
+     * </p>
+     */
+    private int pendingCount;
+
+    /**
+     * <p>
+     * Represents the spool directory, set by {@link #start()}.
+     * </p>
+     */
+    private File directory;
+
+    /**
+     * <p>
+     * Represents the executor of the worker threads, set by {@link #start()}.
+     * </p>
+     */
+    private volatile ScheduledThreadPoolExecutor executor;
+
+    /**
+     * <p>
+     * Creates an instance of EmailNotificationQueue.
+     * </p>
+     */
+    public EmailNotificationQueue() {
+        // does nothing
+    }
+
+    /**
+     * <p>
+     * Checks the configuration, starts the worker threads and schedules the emails left in the spool directory.
+     * Does nothing if the queue is already started.
+     * </p>
+     *
+     * @throws com.topcoder.direct.services.project.task.TaskManagementConfigurationException if any configuration
+     *             is invalid, or the spool directory can not be created.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        ServiceHelper.checkState(spoolDirectory == null || spoolDirectory.trim().length() == 0,
+            "The spoolDirectory cannot be null or empty.");
+        ServiceHelper.checkState(threadCount <= 0, "The threadCount should be positive.");
+        ServiceHelper.checkState(batchDelay < 0, "The batchDelay cannot be negative.");
+        ServiceHelper.checkState(maxBatchSize <= 0, "The maxBatchSize should be positive.");
+        ServiceHelper.checkState(deduplicationWindow < 0, "The deduplicationWindow cannot be negative.");
+        ServiceHelper.checkState(maxAttempts <= 0, "The maxAttempts should be positive.");
+        ServiceHelper.checkState(initialRetryDelay <= 0, "The initialRetryDelay should be positive.");
+        ServiceHelper.checkState(maxRetryDelay < initialRetryDelay,
+            "The maxRetryDelay cannot be less than the initialRetryDelay.");
+        ServiceHelper.checkState(batchBodySeparator == null, "The batchBodySeparator cannot be null.");
+
+        directory = new File(spoolDirectory);
+        File failedDirectory = new File(directory, FAILED_DIRECTORY);
+        ServiceHelper.checkState(!failedDirectory.isDirectory() && !failedDirectory.mkdirs(),
+            "The spoolDirectory cannot be created.");
+
+        executor = new ScheduledThreadPoolExecutor(threadCount, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "email-notification-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // the pending emails stay spooled for the next start
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        sequence = System.currentTimeMillis() * 1000;
+        recover();
+    }
+
+    /**
+     * <p>
+     * Stops the worker threads, waiting for the emails being sent. The pending emails stay in the spool directory.
+     * </p>
+     */
+    public synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        synchronized (lock) {
+            batches.clear();
+            recentKeys.clear();
+            pendingCount = 0;
+        }
+    }
+
+    /**
+     * <p>
+     * Spools an email and schedules its delivery.
+     * </p>
+     *
+     * @param sender the address of the sender.
+     * @param recipient the address of the recipient.
+     * @param subject the subject of the email.
+     * @param body the HTML body of the email.
+     * @return true if the email is enqueued, false if it is a duplicate of a recent email.
+     * @throws NotificationException if the queue is not started, or the email can not be spooled.
+     */
+    public boolean enqueue(String sender, String recipient, String subject, String body)
+        throws NotificationException {
+        final String methodName = CLASS_NAME + "#enqueue(String sender, String recipient, String subject, String body)";
+
+        if (executor == null) {
+            throw ServiceHelper.logException(log, methodName, new NotificationException(
+                "The queue is not started, the email to " + recipient + " is not enqueued."));
+        }
+
+        Entry entry = new Entry();
+        entry.sender = sender;
+        entry.recipient = recipient;
+        entry.subject = subject;
+        entry.body = body;
+        entry.enqueueTime = System.currentTimeMillis();
+
+        synchronized (lock) {
+            if (!register(entry)) {
+                return false;
+            }
+            entry.id = ++sequence;
+        }
+
+        try {
+            write(entry);
+        } catch (IOException e) {
+            synchronized (lock) {
+                recentKeys.remove(entry.key);
+            }
+            throw ServiceHelper.logException(log, methodName, new NotificationException(
+                "Failed to spool the email to " + recipient + ".", e));
+        }
+
+        schedule(Arrays.asList(entry), batchDelay, false);
+        return true;
+    }
+
+    /**
+     * <p>
+     * Gets the number of the emails waiting to be delivered.
+     * </p>
+     *
+     * @return the number of the pending emails.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pendingCount;
+        }
+    }
+
+    /**
+     * <p>
+     * Sends an email through the Email Engine. Subclasses may send the emails differently, for example to a stub.
+     * </p>
+     *
+     * @param message the email to send.
+     * @throws ConfigManagerException if the Email Engine configuration is invalid.
+     * @throws SendingException if the email can not be sent.
+     */
+    protected void send(TCSEmailMessage message) throws ConfigManagerException, SendingException {
+        EmailEngine.send(message);
+    }
+
+    /**
+     * <p>
+     * Loads and schedules the emails left in the spool directory, moving the unreadable ones to the failed
+     * directory.
+     * </p>
+     */
+    private void recover() {
+        final String methodName = CLASS_NAME + "#recover()";
+
+        String[] names = directory.list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SPOOL_EXTENSION) || name.endsWith(TEMPORARY_EXTENSION);
+            }
+        });
+        // the names are zero padded IDs, so they sort in enqueue order
+        Arrays.sort(names);
+
+        Map<String, List<Entry>> recovered = new LinkedHashMap<String, List<Entry>>();
+        for (String name : names) {
+            File file = new File(directory, name);
+            if (name.endsWith(TEMPORARY_EXTENSION)) {
+                // the email was not spooled, the caller got an error
+                file.delete();
+                continue;
+            }
+            Entry entry;
+            try {
+                entry = read(file);
+            } catch (IOException e) {
+                ServiceHelper.logException(log, methodName, e);
+                moveToFailed(file);
+                continue;
+            }
+            synchronized (lock) {
+                register(entry);
+                sequence = Math.max(sequence, entry.id);
+            }
+            List<Entry> entries = recovered.get(entry.recipient);
+            if (entries == null) {
+                entries = new ArrayList<Entry>();
+                recovered.put(entry.recipient, entries);
+            }
+            entries.add(entry);
+        }
+
+        for (List<Entry> entries : recovered.values()) {
+            schedule(entries, 0, false);
+        }
+        if (log != null && !recovered.isEmpty()) {
+            log.log(Level.INFO, "Recovered the spooled emails of " + recovered.size() + " recipients.");
+        }
+    }
+
+    /**
+     * <p>
+     * Registers the de-duplication key of an email, forgetting the keys older than the de-duplication window. The
+     * caller holds the lock.
+     * </p>
+     *
+     * @param entry the email.
+     * @return false if an identical email was enqueued within the de-duplication window.
+     */
+    private boolean register(Entry entry) {
+        if (deduplicationWindow == 0) {
+            return true;
+        }
+        for (Iterator<Long> it = recentKeys.values().iterator(); it.hasNext();) {
+            if (it.next() + deduplicationWindow > entry.enqueueTime) {
+                break;
+            }
+            it.remove();
+        }
+        entry.key = getKey(entry);
+        if (recentKeys.containsKey(entry.key)) {
+            return false;
+        }
+        recentKeys.put(entry.key, entry.enqueueTime);
+        return true;
+    }
+
+    /**
+     * <p>
+     * Adds emails of a recipient to its pending batch, creating and scheduling the batch if the recipient has none.
+     * The emails join the pending batch otherwise, and are sent when it is. The retried emails are always scheduled
+     * in their own batch, which the other emails do not join, so that they keep their backoff.
+     * </p>
+     *
+     * @param entries the emails of the recipient.
+     * @param delay the delay of the batch in milliseconds, if it is created.
+     * @param retry whether the emails are retried.
+     */
+    private void schedule(List<Entry> entries, long delay, boolean retry) {
+        String recipient = entries.get(0).recipient;
+        synchronized (lock) {
+            pendingCount += entries.size();
+            Batch batch = retry ? null : batches.get(recipient);
+            if (batch != null) {
+                batch.entries.addAll(entries);
+                return;
+            }
+            batch = new Batch(recipient);
+            batch.entries.addAll(entries);
+            if (!retry) {
+                batches.put(recipient, batch);
+            }
+
+            ScheduledThreadPoolExecutor currentExecutor = executor;
+            if (currentExecutor != null) {
+                currentExecutor.schedule(batch, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Sends the emails of a batch, the emails with the same sender and subject as emails of at most the maximum
+     * batch size, and retries the failed ones.
+     * </p>
+     *
+     * @param batch the batch.
+     */
+    private void deliver(Batch batch) {
+        synchronized (lock) {
+            if (batches.get(batch.recipient) == batch) {
+                batches.remove(batch.recipient);
+            }
+            pendingCount -= batch.entries.size();
+        }
+
+        // group the emails by sender and subject, in enqueue order
+        Map<List<String>, List<Entry>> groups = new LinkedHashMap<List<String>, List<Entry>>();
+        for (Entry entry : batch.entries) {
+            List<String> group = Arrays.asList(entry.sender, entry.subject);
+            List<Entry> entries = groups.get(group);
+            if (entries == null) {
+                entries = new ArrayList<Entry>();
+                groups.put(group, entries);
+            }
+            entries.add(entry);
+        }
+        List<List<Entry>> messages = new ArrayList<List<Entry>>();
+        for (List<Entry> entries : groups.values()) {
+            for (int from = 0; from < entries.size(); from += maxBatchSize) {
+                messages.add(entries.subList(from, Math.min(from + maxBatchSize, entries.size())));
+            }
+        }
+
+        List<Entry> retried = new ArrayList<Entry>();
+        int attempts = 0;
+        for (List<Entry> entries : messages) {
+            if (send(entries)) {
+                for (Entry entry : entries) {
+                    new File(directory, getFileName(entry, SPOOL_EXTENSION)).delete();
+                }
+                continue;
+            }
+            for (Entry entry : entries) {
+                entry.attempts++;
+                if (entry.attempts >= maxAttempts) {
+                    moveToFailed(new File(directory, getFileName(entry, SPOOL_EXTENSION)));
+                    continue;
+                }
+                try {
+                    // keep the attempts across restarts
+                    write(entry);
+                } catch (IOException e) {
+                    ServiceHelper.logException(log, CLASS_NAME + "#deliver(Batch batch)", e);
+                }
+                retried.add(entry);
+                attempts = Math.max(attempts, entry.attempts);
+            }
+        }
+
+        if (!retried.isEmpty()) {
+            long delay = initialRetryDelay;
+            for (int i = 1; i < attempts && delay < maxRetryDelay; i++) {
+                delay *= 2;
+            }
+            schedule(retried, Math.min(delay, maxRetryDelay), true);
+        }
+    }
+
+    /**
+     * <p>
+     * Sends emails of a recipient with the same sender and subject as a single email. The contents of the bodies of
+     * the next emails are appended to the body of the first one.
+     * </p>
+     *
+     * @param entries the emails, not empty.
+     * @return true if the email is sent, or can never be sent because of an invalid address, false if it should be
+     *         retried.
+     */
+    private boolean send(List<Entry> entries) {
+        final String methodName = CLASS_NAME + "#send(List<Entry> entries)";
+
+        Entry first = entries.get(0);
+        String body = first.body;
+        if (entries.size() > 1) {
+            StringBuilder contents = new StringBuilder();
+            for (Entry entry : entries.subList(1, entries.size())) {
+                contents.append(batchBodySeparator).append(getBodyContent(entry.body));
+            }
+            int end = getBodyContentEnd(body);
+            body = body.substring(0, end) + contents + body.substring(end);
+        }
+
+        try {
+            TCSEmailMessage message = new TCSEmailMessage();
+            message.setSubject(first.subject);
+            message.setBody(body);
+            message.setFromAddress(first.sender);
+            message.addToAddress(first.recipient, TCSEmailMessage.TO);
+            message.setContentType("text/html");
+            send(message);
+            return true;
+        } catch (AddressException e) {
+            ServiceHelper.logException(log, methodName, new NotificationException(
+                "The email addresses are invalid, the email to " + first.recipient + " is dropped.", e));
+            for (Entry entry : entries) {
+                moveToFailed(new File(directory, getFileName(entry, SPOOL_EXTENSION)));
+            }
+            return true;
+        } catch (ConfigManagerException e) {
+            ServiceHelper.logException(log, methodName, new NotificationException(
+                "Failed to send the email, configuration problem exists.", e));
+        } catch (SendingException e) {
+            ServiceHelper.logException(log, methodName, new NotificationException(
+                "Errors occur while sending the email.", e));
+        } catch (RuntimeException e) {
+            ServiceHelper.logException(log, methodName, e);
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * Gets the content of the body element of an HTML document.
+     * </p>
+     *
+     * @param html the HTML document or fragment.
+     * @return the content of the body element, the whole HTML if it has no body element.
+     */
+    private static String getBodyContent(String html) {
+        Matcher matcher = BODY_START_TAG.matcher(html);
+        int start = matcher.find() ? matcher.end() : 0;
+        int end = getBodyContentEnd(html);
+        return start <= end ? html.substring(start, end) : "";
+    }
+
+    /**
+     * <p>
+     * Gets the end of the content of the body element of an HTML document.
+     * </p>
+     *
+     * @param html the HTML document or fragment.
+     * @return the index of the body end tag, of the html end tag if there is no body end tag, or else the length of
+     *         the HTML.
+     */
+    private static int getBodyContentEnd(String html) {
+        int end = lastIndexOf(BODY_END_TAG, html);
+        if (end < 0) {
+            end = lastIndexOf(HTML_END_TAG, html);
+        }
+        return end < 0 ? html.length() : end;
+    }
+
+    /**
+     * <p>
+     * Gets the index of the last match of a pattern in an HTML document.
+     * </p>
+     *
+     * @param pattern the pattern.
+     * @param html the HTML document or fragment.
+     * @return the index of the last match, -1 if the pattern does not match.
+     */
+    private static int lastIndexOf(Pattern pattern, String html) {
+        int index = -1;
+        Matcher matcher = pattern.matcher(html);
+        while (matcher.find()) {
+            index = matcher.start();
+        }
+        return index;
+    }
+
+    /**
+     * <p>
+     * Writes the spool file of an email, atomically replacing the previous one.
+     * </p>
+     *
+     * @param entry the email.
+     * @throws IOException if the file can not be written.
+     */
+    private void write(Entry entry) throws IOException {
+        File temporary = new File(directory, getFileName(entry, TEMPORARY_EXTENSION));
+        ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+        try {
+            output.writeObject(entry);
+        } finally {
+            output.close();
+        }
+        File file = new File(directory, getFileName(entry, SPOOL_EXTENSION));
+        if (!temporary.renameTo(file) && !(file.delete() && temporary.renameTo(file))) {
+            temporary.delete();
+            throw new IOException("Failed to rename " + temporary + " to " + file + ".");
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the spool file of an email.
+     * </p>
+     *
+     * @param file the spool file.
+     * @return the email.
+     * @throws IOException if the file can not be read.
+     */
+    private static Entry read(File file) throws IOException {
+        ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return (Entry) input.readObject();
+        } catch (ClassNotFoundException e) {
+            throw (IOException) new IOException("The spool file " + file + " is invalid.").initCause(e);
+        } catch (ClassCastException e) {
+            throw (IOException) new IOException("The spool file " + file + " is invalid.").initCause(e);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * <p>
+     * Moves a spool file to the failed directory.
+     * </p>
+     *
+     * @param file the spool file.
+     */
+    private void moveToFailed(File file) {
+        if (!file.renameTo(new File(new File(directory, FAILED_DIRECTORY), file.getName())) && log != null) {
+            log.log(Level.WARN, "Failed to move " + file + " to the failed directory.");
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the name of the spool file of an email.
+     * </p>
+     *
+     * @param entry the email.
+     * @param extension the extension of the file.
+     * @return the file name, the zero padded ID of the email followed by the extension.
+     */
+    private static String getFileName(Entry entry, String extension) {
+        return String.format("%020d", entry.id) + extension;
+    }
+
+    /**
+     * <p>
+     * Gets the de-duplication key of an email, the MD5 digest of its sender, recipient, subject and body.
+     * </p>
+     *
+     * @param entry the email.
+     * @return the key.
+     */
+    private static String getKey(Entry entry) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            for (String value : new String[] {entry.sender, entry.recipient, entry.subject, entry.body}) {
+                digest.update(String.valueOf(value).getBytes("UTF-8"));
+                digest.update((byte) 0);
+            }
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported.", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported.", e);
+        }
+    }
+
+    /**
+     * <p>
+     * Sets the logger for performing logging.
+     * </p>
+     *
+     * @param log the logger.
+     */
+    public void setLog(Log log) {
+        this.log = log;
+    }
+
+    /**
+     * <p>
+     * Sets the directory the emails are spooled to.
+     * </p>
+     *
+     * @param spoolDirectory the spool directory.
+     */
+    public void setSpoolDirectory(String spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    /**
+     * <p>
+     * Sets the number of worker threads delivering the emails.
+     * </p>
+     *
+     * @param threadCount the number of worker threads.
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * <p>
+     * Sets the time in milliseconds an email is held to be batched with the other emails of its recipient.
+     * </p>
+     *
+     * @param batchDelay the batch delay.
+     */
+    public void setBatchDelay(long batchDelay) {
+        this.batchDelay = batchDelay;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of emails of a recipient with the same sender and subject sent as a single email.
+     * </p>
+     *
+     * @param maxBatchSize the maximum batch size, 1 to disable the batching.
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * <p>
+     * Sets the time in milliseconds an email is remembered to drop its duplicates.
+     * </p>
+     *
+     * @param deduplicationWindow the de-duplication window, 0 to disable the de-duplication.
+     */
+    public void setDeduplicationWindow(long deduplicationWindow) {
+        this.deduplicationWindow = deduplicationWindow;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of delivery attempts of an email.
+     * </p>
+     *
+     * @param maxAttempts the maximum number of attempts.
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * <p>
+     * Sets the delay in milliseconds before the first retry.
+     * </p>
+     *
+     * @param initialRetryDelay the initial retry delay.
+     */
+    public void setInitialRetryDelay(long initialRetryDelay) {
+        this.initialRetryDelay = initialRetryDelay;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum delay in milliseconds between two retries.
+     * </p>
+     *
+     * @param maxRetryDelay the maximum retry delay.
+     */
+    public void setMaxRetryDelay(long maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    /**
+     * <p>
+     * Sets the separator of the body contents of the batched emails.
+     * </p>
+     *
+     * @param batchBodySeparator the body separator.
+     */
+    public void setBatchBodySeparator(String batchBodySeparator) {
+        this.batchBodySeparator = batchBodySeparator;
+    }
+
+    /**
+     * <p>
+     * The pending emails of a recipient, delivered when the batch runs.
+     * </p>
+     */
+    private class Batch implements Runnable {
+        /**
+         * The address of the recipient.
+         */
+        private final String recipient;
+
+        /**
+         * The pending emails, in enqueue order.
+         */
+        private final List<Entry> entries = new ArrayList<Entry>();
+
+        /**
+         * Creates a batch.
+         *
+         * @param recipient the address of the recipient.
+         */
+        Batch(String recipient) {
+            this.recipient = recipient;
+        }
+
+        /**
+         * Delivers the batch.
+         */
+        public void run() {
+            deliver(this);
+        }
+    }
+
+    /**
+     * <p>
+     * A spooled email.
+     * </p>
+     */
+    private static class Entry implements Serializable {
+        /**
+         * The serial version ID.
+         */
+        private static final long serialVersionUID = -4418906275193328461L;
+
+        /**
+         * The ID of the email, naming its spool file.
+         */
+        private long id;
+
+        /**
+         * The address of the sender.
+         */
+        private String sender;
+
+        /**
+         * The address of the recipient.
+         */
+        private String recipient;
+
+        /**
+         * The subject.
+         */
+        private String subject;
+
+        /**
+         * The HTML body.
+         */
+        private String body;
+
+        /**
+         * The time the email was enqueued.
+         */
+        private long enqueueTime;
+
+        /**
+         * The number of failed delivery attempts.
+         */
+        private int attempts;
+
+        /**
+         * The de-duplication key, not spooled.
+         */
+        private transient String key;
+    }
+}
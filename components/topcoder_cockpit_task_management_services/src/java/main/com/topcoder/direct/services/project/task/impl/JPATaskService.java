@@ -7,12 +7,14 @@ import com.topcoder.direct.services.project.task.EntityNotFoundException;
 import com.topcoder.direct.services.project.task.NotificationException;
 import com.topcoder.direct.services.project.task.PermissionException;
 import com.topcoder.direct.services.project.task.PersistenceException;
+import com.topcoder.direct.services.project.task.TaskAttachmentContentService;
 import com.topcoder.direct.services.project.task.TaskListService;
 import com.topcoder.direct.services.project.task.TaskManagementConfigurationException;
 import com.topcoder.direct.services.project.task.TaskManagementException;
 import com.topcoder.direct.services.project.task.TaskService;
 import com.topcoder.direct.services.project.task.model.Task;
 import com.topcoder.direct.services.project.task.model.TaskAttachment;
+import com.topcoder.direct.services.project.task.model.TaskAttachmentContent;
 import com.topcoder.direct.services.project.task.model.TaskList;
 import com.topcoder.direct.services.project.task.model.TaskPriority;
 import com.topcoder.direct.services.project.task.model.TaskStatus;
@@ -24,9 +26,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
@@ -92,17 +104,68 @@ import java.util.TreeMap;
  *  </ul>
  * </p>
  *
- * @author Mozgastik, GreatKevin
- * @version 1.2
+ * <p>
+ *  Version 1.3 (TC - Cockpit Tasks Management Attachment Streaming)
+ *  <ul>
+ *      <li>Implements {@link TaskAttachmentContentService} to transfer the attachment content, or a byte range of it,
+ *      with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, and to describe the content with an
+ *      entity tag derived from the file metadata.</li>
+ *      <li>Updates the method {@link #addTaskAttachment(long, TaskAttachment, InputStream)} to stream the content to
+ *      a temporary file with {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}, computing its MD5
+ *      digest on the fly, then to rename it, so the attachment file is never read while partially written.</li>
+ *      <li>Updates the method {@link #deleteTaskAttachment(long, long)} to delete the digest file as well.</li>
+ *  </ul>
+ * </p>
+ *
+ * @author Mozgastik, GreatKevin, TCSDEVELOPER
+ * @version 1.3
  */
-public class JPATaskService extends BaseJPAService implements TaskService {
+public class JPATaskService extends BaseJPAService implements TaskService, TaskAttachmentContentService {
+
+    /**
+     * <p>
+     * Represents the maximum number of bytes transferred from or to the attachment file by one channel call.
+     * </p>
+     *
+     * @since 1.3
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * <p>
+     * Represents the suffix of the file holding the MD5 digest of an attachment.
+     * </p>
+     *
+     * @since 1.3
+     */
+    private static final String DIGEST_FILE_SUFFIX = ".md5";
 
     /**
      * <p>
-     * Represents the I/O buffer size for reading the attachment.
+     * Represents the suffix of the file an attachment is written to before it is renamed.
      * </p>
+     *
+     * @since 1.3
      */
-    private static final int IO_BUFFER_SIZE = 4096;
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    /**
+     * <p>
+     * Represents the hex digits used to encode the digests.
+     * </p>
+     *
+     * @since 1.3
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * <p>
+     * Represents the number of hex digits of a MD5 digest.
+     * </p>
+     *
+     * @since 1.3
+     */
+    private static final int DIGEST_HEX_LENGTH = 32;
 
     /**
      * <p>
@@ -493,20 +556,35 @@ public class JPATaskService extends BaseJPAService implements TaskService {
 
         ServiceHelper.flush(log, methodName, getEntityManager());
 
-        // update the attachment file
-        OutputStream outputStream = null;
+        // stream the attachment to a temporary file, then rename it
+        File attachmentFile = new File(attachmentDirectory, attachment.getId() + "");
+        File temporaryFile = new File(attachmentDirectory, attachment.getId() + TEMPORARY_FILE_SUFFIX);
+        FileOutputStream outputStream = null;
         try {
-            File attachmentFile = new File(attachmentDirectory, attachment.getId() + "");
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            ReadableByteChannel source = Channels.newChannel(new DigestInputStream(inputStream, digest));
             // we must set the append false to make sure the attachment file is fully override
-            outputStream = new FileOutputStream(attachmentFile, false);
-            byte[] bytes = new byte[IO_BUFFER_SIZE];
+            outputStream = new FileOutputStream(temporaryFile, false);
+            FileChannel target = outputStream.getChannel();
+            long position = 0;
             while (true) {
-                int len = inputStream.read(bytes);
-                if (len < 0) {
+                // a blocking source transfers nothing only at its end
+                long transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE);
+                if (transferred <= 0) {
                     break;
                 }
-                outputStream.write(bytes, 0, len);
+                position += transferred;
             }
+            outputStream.close();
+            outputStream = null;
+
+            writeDigest(attachment.getId(), toHex(digest.digest()));
+            if ((attachmentFile.exists() && !attachmentFile.delete()) || !temporaryFile.renameTo(attachmentFile)) {
+                throw new IOException("Failed to rename " + temporaryFile + " to " + attachmentFile);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw ServiceHelper.logException(log, methodName,
+                new PersistenceException("The MD5 digest is not supported.", e));
         } catch (FileNotFoundException e) {
             throw ServiceHelper.logException(log, methodName,
                 new PersistenceException(
@@ -523,6 +601,9 @@ public class JPATaskService extends BaseJPAService implements TaskService {
                     // ignore
                 }
             }
+            if (temporaryFile.exists()) {
+                temporaryFile.delete();
+            }
         }
         // log and exit
         return ServiceHelper.logExit(log, methodName, attachment);
@@ -561,8 +642,9 @@ public class JPATaskService extends BaseJPAService implements TaskService {
             throw ServiceHelper.logException(log, methodName,
                 new PersistenceException("File not found:" + attachmentDirectory + File.separator + attachmentId));
         }
-        // delete the file
+        // delete the file and its digest
         file.delete();
+        new File(attachmentDirectory, attachmentId + DIGEST_FILE_SUFFIX).delete();
 
         // log the exit
         ServiceHelper.logExit(log, methodName);
@@ -608,6 +690,207 @@ public class JPATaskService extends BaseJPAService implements TaskService {
         }
     }
 
+    /**
+     * <p>
+     * Describes the stored content of a TaskAttachment.
+     * </p>
+     * <p>
+     * The entity tag is derived from the attachment ID, the length and the last modification date of the file, so it
+     * is known without reading the content.
+     * </p>
+     *
+     * @param userId the ID of user performing this action.
+     * @param attachmentId the task attachment ID.
+     * @return the description of the content. It will return null if the attachment is not found.
+     * @throws PermissionException if specified user doesn't exist or isn't permitted to perform the requested
+     *             action.
+     * @throws PersistenceException if any persistence related error occurs (including file I/O error, because
+     *             file system also plays a role of persistence).
+     * @throws TaskManagementException if any other error occurs.
+     * @since 1.3
+     */
+    public TaskAttachmentContent getTaskAttachmentContentInfo(long userId, long attachmentId)
+        throws TaskManagementException {
+        // prepare for logging
+        Log log = getLog();
+        final String methodName = CLASS_NAME + "#getTaskAttachmentContentInfo(long userId, long attachmentId)";
+        // log the entrance
+        ServiceHelper.logEntrance(log, methodName, new String[] {"userId", "attachmentId"},
+            new Object[] {userId, attachmentId});
+
+        TaskAttachment attachment = getEntityManager().find(TaskAttachment.class, attachmentId);
+        if (attachment == null) {
+            // return null and log it if the attachment is not found
+            return ServiceHelper.logExit(log, methodName, null);
+        }
+        // check the permission
+        getTask(userId, attachment.getTaskId());
+
+        File file = new File(attachmentDirectory, attachmentId + "");
+        // read the metadata once, the file may be replaced meanwhile
+        long lastModified = file.lastModified();
+        long length = file.length();
+        if (lastModified == 0L || !file.isFile()) {
+            throw ServiceHelper.logException(log, methodName,
+                new PersistenceException("File not found:" + attachmentDirectory + File.separator + attachmentId));
+        }
+
+        TaskAttachmentContent content = new TaskAttachmentContent();
+        content.setAttachment(attachment);
+        content.setLength(length);
+        content.setLastModified(new Date(lastModified));
+        content.setEntityTag(attachmentId + "-" + Long.toHexString(length) + "-" + Long.toHexString(lastModified));
+        content.setDigest(readDigest(attachmentId));
+        return ServiceHelper.logExit(log, methodName, content);
+    }
+
+    /**
+     * <p>
+     * Transfers a byte range of the content of a TaskAttachment to the given channel.
+     * </p>
+     * <p>
+     * The bytes are transferred with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets the
+     * operating system copy them when the target is a file or socket channel.
+     * </p>
+     * <p>
+     * This method will not close the passed in channel.
+     * </p>
+     *
+     * @param content the description of the content, as returned by
+     *            {@link #getTaskAttachmentContentInfo(long, long)}.
+     * @param offset the offset of the first transferred byte.
+     * @param length the number of transferred bytes.
+     * @param target the channel the bytes are transferred to.
+     * @return the number of transferred bytes.
+     * @throws IllegalArgumentException if content or target is null, or the range is not within the content.
+     * @throws PersistenceException if any I/O error occurs while reading the content or writing to the channel.
+     * @throws TaskManagementException if any other error occurs.
+     * @since 1.3
+     */
+    public long transferTaskAttachmentContent(TaskAttachmentContent content, long offset, long length,
+        WritableByteChannel target) throws TaskManagementException {
+        // prepare for logging
+        Log log = getLog();
+        final String methodName = CLASS_NAME + "#transferTaskAttachmentContent(TaskAttachmentContent content,"
+            + " long offset, long length, WritableByteChannel target)";
+        // log the entrance
+        ServiceHelper.logEntrance(log, methodName, new String[] {"content", "offset", "length", "target"},
+            new Object[] {content, offset, length, target});
+
+        // validate the parameters
+        ServiceHelper.checkNull(log, methodName, content, "content");
+        ServiceHelper.checkNull(log, methodName, content.getAttachment(), "attachment in content");
+        ServiceHelper.checkNull(log, methodName, target, "target");
+        if (offset < 0 || length < 0 || offset + length > content.getLength()) {
+            throw ServiceHelper.logException(log, methodName, new IllegalArgumentException("The range " + offset
+                + "+" + length + " is not within the content of length " + content.getLength()));
+        }
+
+        long attachmentId = content.getAttachment().getId();
+        FileInputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(new File(attachmentDirectory, attachmentId + ""));
+            FileChannel source = inputStream.getChannel();
+            long transferred = 0;
+            while (transferred < length) {
+                long count = source.transferTo(offset + transferred,
+                    Math.min(length - transferred, TRANSFER_CHUNK_SIZE), target);
+                if (count <= 0) {
+                    // the file has been truncated
+                    break;
+                }
+                transferred += count;
+            }
+            return ServiceHelper.logExit(log, methodName, transferred);
+        } catch (FileNotFoundException e) {
+            throw ServiceHelper.logException(log, methodName,
+                new PersistenceException("File not found:" + attachmentDirectory + File.separator + attachmentId, e));
+        } catch (IOException e) {
+            throw ServiceHelper.logException(log, methodName,
+                new PersistenceException("I/O error occurs while transferring the file:"
+                    + attachmentDirectory + File.separator + attachmentId, e));
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Writes the digest of an attachment to its digest file.
+     * </p>
+     *
+     * @param attachmentId the id of the attachment.
+     * @param digest the hex encoded digest.
+     * @throws IOException if failed to write the file.
+     * @since 1.3
+     */
+    private void writeDigest(long attachmentId, String digest) throws IOException {
+        File file = new File(attachmentDirectory, attachmentId + DIGEST_FILE_SUFFIX);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file, false), "US-ASCII");
+        try {
+            writer.write(digest);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the digest of an attachment from its digest file.
+     * </p>
+     *
+     * @param attachmentId the id of the attachment.
+     * @return the hex encoded digest, null if it is not stored.
+     * @since 1.3
+     */
+    private String readDigest(long attachmentId) {
+        File file = new File(attachmentDirectory, attachmentId + DIGEST_FILE_SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            Reader reader = new FileReader(file);
+            try {
+                char[] digest = new char[DIGEST_HEX_LENGTH];
+                int length = 0;
+                int count;
+                while (length < digest.length && (count = reader.read(digest, length, digest.length - length)) > 0) {
+                    length += count;
+                }
+                return length == digest.length ? new String(digest) : null;
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            // the digest is optional
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * Encodes the given bytes as lower case hex digits.
+     * </p>
+     *
+     * @param bytes the bytes to encode.
+     * @return the hex digits.
+     * @since 1.3
+     */
+    private static String toHex(byte[] bytes) {
+        char[] result = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            result[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            result[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(result);
+    }
+
     /**
      * <p>
      * Gets the file of the attachment, and delete the entity in database if necessary.
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.project.task.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * <p>
+ * This is the DTO describing the stored content of a task attachment: its length, last modification date, the entity
+ * tag derived from them, and the MD5 digest computed when the content was uploaded.
+ * </p>
+ *
+ * <p>
+ * <strong>Thread Safety: </strong> This class is not thread safe because it is mutable.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class TaskAttachmentContent implements Serializable {
+    /**
+     * The serial version ID.
+     */
+    private static final long serialVersionUID = 3846219785520736158L;
+
+    /**
+     * <p>
+     * Represents the task attachment.
+     * </p>
+     *
+     * <p>
+     * Can be any value. Has getter and setter.
+     * </p>
+     */
+    private TaskAttachment attachment;
+
+    /**
+     * <p>
+     * Represents the length of the content in bytes.
+     * </p>
+     *
+     * <p>
+     * Can be any value. Has getter and setter.
+     * </p>
+     */
+    private long length;
+
+    /**
+     * <p>
+     * Represents the last modification date of the content.
+     * </p>
+     *
+     * <p>
+     * Can be any value. Has getter and setter.
+     * </p>
+     */
+    private Date lastModified;
+
+    /**
+     * <p>
+     * Represents the entity tag of the content, which changes whenever the content changes.
+     * </p>
+     *
+     * <p>
+     * Can be any value. Has getter and setter.
+     * </p>
+     */
+    private String entityTag;
+
+    /**
+     * <p>
+     * Represents the hex encoded MD5 digest of the content, null if it was uploaded before the digests were stored.
+     * </p>
+     *
+     * <p>
+     * Can be any value. Has getter and setter.
+     * </p>
+     */
+    private String digest;
+
+    /**
+     * Creates an instance of TaskAttachmentContent.
+     */
+    public TaskAttachmentContent() {
+        // Empty
+    }
+
+    /**
+     * Gets the task attachment.
+     *
+     * @return the task attachment.
+     */
+    public TaskAttachment getAttachment() {
+        return attachment;
+    }
+
+    /**
+     * Sets the task attachment.
+     *
+     * @param attachment
+     *            the task attachment.
+     */
+    public void setAttachment(TaskAttachment attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Gets the length of the content in bytes.
+     *
+     * @return the length of the content.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Sets the length of the content in bytes.
+     *
+     * @param length
+     *            the length of the content.
+     */
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    /**
+     * Gets the last modification date of the content.
+     *
+     * @return the last modification date.
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the last modification date of the content.
+     *
+     * @param lastModified
+     *            the last modification date.
+     */
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Gets the entity tag of the content.
+     *
+     * @return the entity tag.
+     */
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * Sets the entity tag of the content.
+     *
+     * @param entityTag
+     *            the entity tag.
+     */
+    public void setEntityTag(String entityTag) {
+        this.entityTag = entityTag;
+    }
+
+    /**
+     * Gets the hex encoded MD5 digest of the content.
+     *
+     * @return the digest, null if it is not known.
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Sets the hex encoded MD5 digest of the content.
+     *
+     * @param digest
+     *            the digest.
+     */
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+}
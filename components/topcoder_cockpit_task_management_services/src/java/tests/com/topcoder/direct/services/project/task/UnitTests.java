@@ -5,6 +5,7 @@ package com.topcoder.direct.services.project.task;
 
 import com.topcoder.direct.services.project.task.impl.BaseJPAServiceTests;
 import com.topcoder.direct.services.project.task.impl.EmailEngineNotificationServiceTests;
+import com.topcoder.direct.services.project.task.impl.EmailNotificationQueueTests;
 import com.topcoder.direct.services.project.task.impl.JPATaskListServiceTests;
 import com.topcoder.direct.services.project.task.impl.JPATaskServiceTests;
 import com.topcoder.direct.services.project.task.impl.ServiceHelperTests;
@@ -35,6 +36,7 @@ public class UnitTests extends TestCase {
 
         suite.addTest(BaseJPAServiceTests.suite());
         suite.addTest(EmailEngineNotificationServiceTests.suite());
+        suite.addTest(EmailNotificationQueueTests.suite());
         suite.addTest(JPATaskListServiceTests.suite());
         suite.addTest(JPATaskServiceTests.suite());
         suite.addTest(ServiceHelperTests.suite());
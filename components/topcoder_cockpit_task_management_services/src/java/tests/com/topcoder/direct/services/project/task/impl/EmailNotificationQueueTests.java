@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.project.task.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.topcoder.direct.services.project.task.NotificationException;
+import com.topcoder.direct.services.project.task.TaskManagementConfigurationException;
+import com.topcoder.message.email.SendingException;
+import com.topcoder.message.email.TCSEmailMessage;
+
+/**
+ * <p>
+ * All unit tests class for <code>EmailNotificationQueue</code>. The emails are sent to an in-process stub instead
+ * of the SMTP server.
+ * </p>
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class EmailNotificationQueueTests {
+
+    /**
+     * <p>
+     * Represents the spool directory used in tests.
+     * </p>
+     */
+    private File directory;
+
+    /**
+     * <p>
+     * Represents the instance of EmailNotificationQueue for unit tests.
+     * </p>
+     */
+    private StubEmailNotificationQueue queue;
+
+    /**
+     * <p>
+     * Adapter for earlier versions of JUnit.
+     * </p>
+     *
+     * @return a test suite.
+     */
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(EmailNotificationQueueTests.class);
+    }
+
+    /**
+     * <p>
+     * Sets up the test environment.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Before
+    public void setUp() throws Exception {
+        directory = new File("test_files" + File.separator + "notifications");
+        queue = createQueue();
+    }
+
+    /**
+     * <p>
+     * Tears down the test environment.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @After
+    public void tearDown() throws Exception {
+        queue.shutdown();
+        delete(directory);
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#enqueue(String, String, String, String)}.
+     * </p>
+     * <p>
+     * The emails are sent one by one by default, and the duplicates are dropped.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testEnqueue() throws Exception {
+        queue.start();
+        assertTrue("The email should be enqueued.", queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1"));
+        assertTrue("The email should be enqueued.", queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b2"));
+        assertFalse("The duplicate should be dropped.", queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1"));
+        assertTrue("The email should be enqueued.", queue.enqueue("tc@tc.com", "b@tc.com", "s3", "b3"));
+        assertEquals("The emails should be pending.", 3, queue.getPendingCount());
+
+        waitForDelivery(3);
+        assertEquals("The emails should not be batched.", 3, queue.sent.size());
+        assertEquals("The subject should be correct.", "s1", find("a@tc.com").getSubject());
+        assertEquals("The subject should be correct.", "s3", find("b@tc.com").getSubject());
+        assertEquals("The spool directory should be empty.", 0, countSpooledFiles());
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#enqueue(String, String, String, String)}.
+     * </p>
+     * <p>
+     * When the batching is enabled, the emails of a recipient with the same subject enqueued within the batch delay
+     * are sent as a single HTML document keeping their subject, the others are sent alone.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testEnqueueBatch() throws Exception {
+        queue.setMaxBatchSize(20);
+        queue.start();
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "<html><body class=\"m\"><p>b1</p></body></html>");
+        queue.enqueue("tc@tc.com", "a@tc.com", "s2", "<html><body><p>b2</p></body></html>");
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "<HTML><BODY><p>b3</p></BODY></HTML>");
+
+        waitForDelivery(2);
+        assertEquals("The emails should be batched by subject.", 2, queue.sent.size());
+        for (TCSEmailMessage message : queue.sent) {
+            if ("s1".equals(message.getSubject())) {
+                assertEquals("The body should be correct.",
+                    "<html><body class=\"m\"><p>b1</p><hr/><p>b3</p></body></html>", message.getBody());
+            } else {
+                assertEquals("The subject should be correct.", "s2", message.getSubject());
+                assertEquals("The body should be correct.", "<html><body><p>b2</p></body></html>",
+                    message.getBody());
+            }
+        }
+        assertEquals("The spool directory should be empty.", 0, countSpooledFiles());
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#enqueue(String, String, String, String)}.
+     * </p>
+     * <p>
+     * The email enqueued while another one of the recipient waits for its retry is not delayed by the backoff, and
+     * the retried email is sent alone.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testEnqueueRetryOwnBatch() throws Exception {
+        queue.failures = 1;
+        queue.setMaxBatchSize(20);
+        queue.setInitialRetryDelay(1000);
+        queue.setMaxRetryDelay(1000);
+        queue.start();
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1");
+        for (int i = 0; i < 100 && queue.attempts < 1; i++) {
+            Thread.sleep(50);
+        }
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b2");
+
+        Thread.sleep(600);
+        assertEquals("The new email should be sent before the retry.", 1, queue.sent.size());
+        assertEquals("The body should be correct.", "b2", queue.sent.get(0).getBody());
+
+        waitForDelivery(2);
+        assertEquals("The retried email should be sent alone.", 2, queue.sent.size());
+        assertEquals("The body should be correct.", "b1", queue.sent.get(1).getBody());
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#enqueue(String, String, String, String)}.
+     * </p>
+     * <p>
+     * If the queue is not started, NotificationException is expected.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test(expected = NotificationException.class)
+    public void testEnqueueNotStarted() throws Exception {
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1");
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#enqueue(String, String, String, String)}.
+     * </p>
+     * <p>
+     * The failed deliveries are retried until the email is sent.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testEnqueueRetry() throws Exception {
+        queue.failures = 2;
+        queue.start();
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1");
+
+        waitForDelivery(1);
+        assertEquals("The email should be sent once.", 1, queue.sent.size());
+        assertEquals("The email should be attempted three times.", 3, queue.attempts);
+        assertEquals("The spool directory should be empty.", 0, countSpooledFiles());
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#enqueue(String, String, String, String)}.
+     * </p>
+     * <p>
+     * The email still failing after the maximum attempts is moved to the failed directory.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testEnqueueMaxAttempts() throws Exception {
+        queue.failures = Integer.MAX_VALUE;
+        queue.start();
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1");
+
+        for (int i = 0; i < 100 && queue.attempts < 3; i++) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(100);
+        assertEquals("The email should be attempted three times.", 3, queue.attempts);
+        assertEquals("The spool directory should be empty.", 0, countSpooledFiles());
+        assertEquals("The email should be moved to the failed directory.", 1,
+            new File(directory, "failed").list().length);
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#start()}.
+     * </p>
+     * <p>
+     * The emails spooled before a shutdown are sent after the next start.
+     * </p>
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testStartRecover() throws Exception {
+        queue.setBatchDelay(60000);
+        queue.start();
+        queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1");
+        queue.shutdown();
+        assertEquals("The email should not be sent.", 0, queue.sent.size());
+        assertEquals("The email should be spooled.", 1, countSpooledFiles());
+
+        queue = createQueue();
+        queue.start();
+        waitForDelivery(1);
+        assertEquals("The spooled email should be sent.", "s1", find("a@tc.com").getSubject());
+        assertFalse("The recovered email should be de-duplicated.",
+            queue.enqueue("tc@tc.com", "a@tc.com", "s1", "b1"));
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link EmailNotificationQueue#start()}.
+     * </p>
+     * <p>
+     * If the spoolDirectory is not configured, TaskManagementConfigurationException is expected.
+     * </p>
+     */
+    @Test(expected = TaskManagementConfigurationException.class)
+    public void testStartMissingSpoolDirectory() {
+        queue.setSpoolDirectory(null);
+        queue.start();
+    }
+
+    /**
+     * <p>
+     * Creates a queue sending to the stub, with short delays.
+     * </p>
+     * @return the queue.
+     */
+    private StubEmailNotificationQueue createQueue() {
+        StubEmailNotificationQueue result = new StubEmailNotificationQueue();
+        result.setSpoolDirectory(directory.getPath());
+        result.setBatchDelay(200);
+        result.setInitialRetryDelay(50);
+        result.setMaxRetryDelay(100);
+        result.setMaxAttempts(3);
+        return result;
+    }
+
+    /**
+     * <p>
+     * Waits for the stub to receive the given number of emails.
+     * </p>
+     * @param count the number of emails.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    private void waitForDelivery(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && (queue.sent.size() < count || countSpooledFiles() > 0); i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * <p>
+     * Finds the email received by the stub for a recipient.
+     * </p>
+     * @param recipient the recipient.
+     * @return the email, null if not found.
+     */
+    private TCSEmailMessage find(String recipient) {
+        synchronized (queue.sent) {
+            for (TCSEmailMessage message : queue.sent) {
+                if (message.getToAddress(TCSEmailMessage.TO)[0].toString().equals(recipient)) {
+                    return message;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>
+     * Counts the files of the spool directory.
+     * </p>
+     * @return the number of spooled files.
+     */
+    private int countSpooledFiles() {
+        int count = 0;
+        for (File file : directory.listFiles()) {
+            if (file.isFile()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * Deletes a file or a directory recursively.
+     * </p>
+     * @param file the file.
+     */
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * <p>
+     * The queue sending the emails to an in-process stub.
+     * </p>
+     */
+    private static class StubEmailNotificationQueue extends EmailNotificationQueue {
+        /**
+         * The emails received by the stub.
+         */
+        private final List<TCSEmailMessage> sent = new ArrayList<TCSEmailMessage>();
+
+        /**
+         * The number of the next attempts to fail.
+         */
+        private volatile int failures;
+
+        /**
+         * The number of attempts.
+         */
+        private volatile int attempts;
+
+        /**
+         * Receives an email.
+         *
+         * @param message the email.
+         * @throws SendingException if the attempt should fail.
+         */
+        @Override
+        protected void send(TCSEmailMessage message) throws SendingException {
+            attempts++;
+            if (failures > 0) {
+                failures--;
+                throw new SendingException("The SMTP server is down.");
+            }
+            synchronized (sent) {
+                sent.add(message);
+            }
+        }
+    }
+}
@@ -10,10 +10,12 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -36,12 +38,14 @@ import com.topcoder.direct.services.project.task.NotificationException;
 import com.topcoder.direct.services.project.task.NotificationService;
 import com.topcoder.direct.services.project.task.PermissionException;
 import com.topcoder.direct.services.project.task.PersistenceException;
+import com.topcoder.direct.services.project.task.TaskAttachmentContentService;
 import com.topcoder.direct.services.project.task.TaskListService;
 import com.topcoder.direct.services.project.task.TaskManagementConfigurationException;
 import com.topcoder.direct.services.project.task.TaskService;
 import com.topcoder.direct.services.project.task.model.ContestDTO;
 import com.topcoder.direct.services.project.task.model.Task;
 import com.topcoder.direct.services.project.task.model.TaskAttachment;
+import com.topcoder.direct.services.project.task.model.TaskAttachmentContent;
 import com.topcoder.direct.services.project.task.model.TaskList;
 import com.topcoder.direct.services.project.task.model.TaskPriority;
 import com.topcoder.direct.services.project.task.model.TaskStatus;
@@ -761,6 +765,104 @@ public class JPATaskServiceTests extends BaseUnitTests {
         taskService.getTaskAttachmentContent(user.getUserId(), attachment.getId());
     }
 
+    /**
+     * <p>
+     * Tests the method: {@link JPATaskService#addTaskAttachment(long, TaskAttachment, InputStream)} and
+     * {@link JPATaskService#getTaskAttachmentContentInfo(long, long)}.
+     * </p>
+     * Accuracy tests to check if the content is described with its length, entity tag and upload digest.
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testGetTaskAttachmentContentInfo() throws Exception {
+        // create the task
+        Task task = createTask(TaskStatus.IN_PROGRESS);
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setFileName("test_file");
+        attachment.setMimeType("text");
+        attachment.setTaskId(task.getId());
+        attachment = taskService.addTaskAttachment(user.getUserId(), attachment,
+            new ByteArrayInputStream("hello world".getBytes()));
+        File file = new File("test_files" + File.separator + "attachments" + File.separator + attachment.getId());
+        try {
+            TaskAttachmentContent content = ((TaskAttachmentContentService) taskService)
+                .getTaskAttachmentContentInfo(user.getUserId(), attachment.getId());
+            assertEquals("the length should be correct.", 11, content.getLength());
+            assertEquals("the digest should be the MD5 of the content.", "5eb63bbbe01eeed093cb22bb8f5acdc3",
+                content.getDigest());
+            assertNotNull("the entity tag should be set.", content.getEntityTag());
+            assertFalse("the temporary file should be renamed.",
+                new File(file.getPath() + ".tmp").exists());
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".md5").delete();
+        }
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link JPATaskService#getTaskAttachmentContentInfo(long, long)}.
+     * </p>
+     * Accuracy tests to check if the attachment can not be found, null should return.
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testGetTaskAttachmentContentInfoNotExist() throws Exception {
+        assertNull("null should return.",
+            ((TaskAttachmentContentService) taskService).getTaskAttachmentContentInfo(user.getUserId(), 100001));
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link JPATaskService#transferTaskAttachmentContent(TaskAttachmentContent, long, long,
+     * java.nio.channels.WritableByteChannel)}.
+     * </p>
+     * Accuracy tests to check if a byte range of the content is transferred.
+     * @throws Exception to JUnit.
+     */
+    @Test
+    public void testTransferTaskAttachmentContent() throws Exception {
+        // create the task
+        Task task = createTask(TaskStatus.IN_PROGRESS);
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setFileName("test_file");
+        attachment.setMimeType("text");
+        attachment.setTaskId(task.getId());
+        attachment = taskService.addTaskAttachment(user.getUserId(), attachment,
+            new ByteArrayInputStream("hello world".getBytes()));
+        File file = new File("test_files" + File.separator + "attachments" + File.separator + attachment.getId());
+        try {
+            TaskAttachmentContentService contentService = (TaskAttachmentContentService) taskService;
+            TaskAttachmentContent content = contentService.getTaskAttachmentContentInfo(user.getUserId(),
+                attachment.getId());
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            long transferred = contentService.transferTaskAttachmentContent(content, 6, 5, Channels.newChannel(os));
+            assertEquals("all the bytes should be transferred.", 5, transferred);
+            assertEquals("the range should be transferred.", "world", os.toString());
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".md5").delete();
+        }
+    }
+
+    /**
+     * <p>
+     * Tests the method: {@link JPATaskService#transferTaskAttachmentContent(TaskAttachmentContent, long, long,
+     * java.nio.channels.WritableByteChannel)}.
+     * </p>
+     * Failure tests to check if the range exceeds the content, IllegalArgumentException should be thrown.
+     * @throws Exception to JUnit.
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void testTransferTaskAttachmentContentInvalidRange() throws Exception {
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setId(1);
+        TaskAttachmentContent content = new TaskAttachmentContent();
+        content.setAttachment(attachment);
+        content.setLength(10);
+        beanFailure.transferTaskAttachmentContent(content, 5, 6, Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
     /**
      * <p>
      * Tests the method: {@link JPATaskService#groupTasksByPriority(List)}.
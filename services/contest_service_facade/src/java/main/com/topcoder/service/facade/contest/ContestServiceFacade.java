@@ -3,6 +3,7 @@
  */
 package com.topcoder.service.facade.contest;
 
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 
@@ -20,6 +21,7 @@ import com.topcoder.management.project.DesignComponents;
 import com.topcoder.management.project.FileType;
 import com.topcoder.management.project.PersistenceException;
 import com.topcoder.management.project.ProjectPlatform;
+import com.topcoder.management.project.SimpleProjectContestDataCriteria;
 import com.topcoder.management.resource.Resource;
 import com.topcoder.management.review.ReviewManagementException;
 import com.topcoder.management.review.data.Comment;
@@ -247,8 +249,32 @@ import com.topcoder.service.user.Registrant;
  * </ul>
  * </p>
  *
- * @author pulky, murphydog, waits, BeBetter, hohosky, isv, lmmortal, Veve, GreatKevin
- * @version 1.8.3
+ * <p>
+ * Version 1.8.4 (Batch Draft Contests Update Performance)
+ * <ul>
+ *     <li>Added {@link #batchUpdateDraftSoftwareContestsWithResult(TCSubject, long, List)} to update draft
+ *     contests each in its own transaction and report the result of each contest</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.8.5 change notes:
+ * <ul>
+ *     <li>Added {@link #getCommonProjectContestDataPage(TCSubject, SimpleProjectContestDataCriteria)} to get the
+ *     contests for my project widget page by page</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.8.6 change notes:
+ * <ul>
+ *     <li>Added {@link #getContestPermissions(TCSubject, long[])} and {@link #getProjectPermissions(TCSubject, long[])}
+ *     to check the permissions on many contests or projects at once</li>
+ * </ul>
+ * </p>
+ *
+ * @author pulky, murphydog, waits, BeBetter, hohosky, isv, lmmortal, Veve, GreatKevin, TCSDEVELOPER
+ * @version 1.8.6
  */
 public interface ContestServiceFacade {
 
@@ -269,6 +295,52 @@ public interface ContestServiceFacade {
      */
     public List<CommonProjectContestData> getCommonProjectContestData(TCSubject tcSubject)
         throws ContestServiceException;
+
+    /**
+     * <p>
+     * Gets a page of the contests for my project widget, sorted by project id and contest id. The next page is got
+     * by setting the last contest of the page as the position of the criteria.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param criteria the criteria of the page.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws ContestServiceException if any error occurs when getting the contests.
+     * @since 1.8.5
+     */
+    public List<CommonProjectContestData> getCommonProjectContestDataPage(TCSubject tcSubject,
+        SimpleProjectContestDataCriteria criteria) throws ContestServiceException;
+
+    /**
+     * <p>
+     * Gets the permissions of the current user on contests at once. The admins and TC staff have all the permissions,
+     * the other users have the permissions granted to them on the contests or on their direct projects or by their security groups.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param contestIds the contest ids.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws ContestServiceException if any error occurs when checking the permissions.
+     * @since 1.8.6
+     */
+    public BitSet getContestPermissions(TCSubject tcSubject, long[] contestIds) throws ContestServiceException;
+
+    /**
+     * <p>
+     * Gets the permissions of the current user on projects at once. The admins and TC staff have all the permissions,
+     * the other users have the permissions granted to them on the projects or by their security groups.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param tcDirectProjectIds the tc direct project ids.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcDirectProjectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws ContestServiceException if any error occurs when checking the permissions.
+     * @since 1.8.6
+     */
+    public BitSet getProjectPermissions(TCSubject tcSubject, long[] tcDirectProjectIds)
+        throws ContestServiceException;
     
     /**
      * Gets all project data with aggregated statistics data for each type of contest status.
@@ -1467,6 +1539,22 @@ public interface ContestServiceFacade {
     public List<SoftwareCompetition> batchUpdateDraftSoftwareContests(TCSubject tcSubject, long tcDirectProjectId,
                                                                       List<SoftwareCompetition> draftContests)
             throws ContestServiceException, PermissionServiceException;
+
+    /**
+     * Updates the passed in draft <code>SoftwareCompetition</code>s, each contest in its own transaction. The
+     * permissions and billing project data are validated and loaded once for the whole batch, then the contests are
+     * updated one by one. A failed contest does not fail the batch, its error is reported in its result instead.
+     * A <code>SoftwareCompetition</code> not in draft status won't be updated and is reported as failed.
+     *
+     * @param tcSubject         the tcSubject instance.
+     * @param tcDirectProjectId the id of the tc direct project.
+     * @param draftContests     a list of <code>SoftwareCompetition</code> to update.
+     * @return the update results, in the order of <code>draftContests</code>
+     * @throws ContestServiceException    if any error related to contest service facade.
+     * @since 1.8.4
+     */
+    public List<DraftContestUpdateResult> batchUpdateDraftSoftwareContestsWithResult(TCSubject tcSubject,
+            long tcDirectProjectId, List<SoftwareCompetition> draftContests) throws ContestServiceException;
     
     /**
      * Check if the array of billing project required CCA.
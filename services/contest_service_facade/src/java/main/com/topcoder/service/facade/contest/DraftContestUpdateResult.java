@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.service.facade.contest;
+
+import com.topcoder.service.project.SoftwareCompetition;
+
+import java.io.Serializable;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlType;
+
+
+/**
+ * This class contains the outcome of updating one draft contest in a batch. Its instances are created in reply to
+ * {@link ContestServiceFacade#batchUpdateDraftSoftwareContestsWithResult(com.topcoder.security.TCSubject, long,
+ * java.util.List)}, one per requested contest.
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is mutable and not thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ * @since 1.8.4
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "draftContestUpdateResult", propOrder =  {
+    "contestId", "softwareCompetition", "errorMessage"}
+)
+public class DraftContestUpdateResult implements Serializable {
+    /**
+     * Generated field.
+     */
+    private static final long serialVersionUID = -4618731095212479530L;
+
+    /**
+     * The id of the contest.
+     */
+    private long contestId;
+
+    /**
+     * The updated contest, null if the update failed.
+     */
+    private SoftwareCompetition softwareCompetition;
+
+    /**
+     * The error message, null if the update succeeded.
+     */
+    private String errorMessage;
+
+    /**
+     * Empty constructor.
+     */
+    public DraftContestUpdateResult() {
+    }
+
+    /**
+     * Returns whether the contest has been updated.
+     *
+     * @return true if the contest has been updated, false otherwise
+     */
+    public boolean isSuccessful() {
+        return errorMessage == null;
+    }
+
+    /**
+     * Returns the id of the contest.
+     *
+     * @return the id of the contest
+     */
+    public long getContestId() {
+        return contestId;
+    }
+
+    /**
+     * Sets the id of the contest.
+     *
+     * @param contestId
+     *            the id of the contest
+     */
+    public void setContestId(long contestId) {
+        this.contestId = contestId;
+    }
+
+    /**
+     * Returns the updated contest.
+     *
+     * @return the updated contest, null if the update failed
+     */
+    public SoftwareCompetition getSoftwareCompetition() {
+        return softwareCompetition;
+    }
+
+    /**
+     * Sets the updated contest.
+     *
+     * @param softwareCompetition
+     *            the updated contest
+     */
+    public void setSoftwareCompetition(SoftwareCompetition softwareCompetition) {
+        this.softwareCompetition = softwareCompetition;
+    }
+
+    /**
+     * Returns the error message.
+     *
+     * @return the error message, null if the update succeeded
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Sets the error message.
+     *
+     * @param errorMessage
+     *            the error message
+     */
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
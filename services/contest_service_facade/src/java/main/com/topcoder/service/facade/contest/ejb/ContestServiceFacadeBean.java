@@ -59,6 +59,7 @@ import com.topcoder.management.project.ProjectPlatform;
 import com.topcoder.management.project.ProjectPropertyType;
 import com.topcoder.management.project.ProjectStatus;
 import com.topcoder.management.project.ProjectType;
+import com.topcoder.management.project.SimpleProjectContestDataCriteria;
 import com.topcoder.management.resource.ResourceRole;
 import com.topcoder.management.review.ReviewManagementException;
 import com.topcoder.management.review.application.ReviewAuction;
@@ -104,6 +105,7 @@ import com.topcoder.service.facade.contest.CodeNameUtil;
 import com.topcoder.service.facade.contest.CommonProjectContestData;
 import com.topcoder.service.facade.contest.ContestServiceException;
 import com.topcoder.service.facade.contest.ContestServiceFacade;
+import com.topcoder.service.facade.contest.DraftContestUpdateResult;
 import com.topcoder.service.facade.contest.ProjectStatusData;
 import com.topcoder.service.facade.contest.ProjectSummaryData;
 import com.topcoder.service.facade.contest.SoftwareContestPaymentResult;
@@ -195,6 +197,7 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
@@ -847,9 +850,39 @@ import java.util.Set;
  * </ul>
  * </p>
  *
+ * <p>
+ * Version 3.3 (Batch Draft Contests Update Performance)
+ * <ul>
+ *     <li>Added {@link #batchUpdateDraftSoftwareContestsWithResult(TCSubject, long, List)} which validates the
+ *     permissions and loads the billing project data once per batch, then updates the contests one by one, each
+ *     in its own transaction.</li>
+ *     <li>Added {@link #updateDraftSoftwareContest(TCSubject, SoftwareCompetition, long, DraftContestBatchContext)}
+ *     to update one contest of the batch.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 3.4 change notes:
+ * <ul>
+ *     <li>Added {@link #getCommonProjectContestDataPage(TCSubject, SimpleProjectContestDataCriteria)} to get the
+ *     contests for my project widget page by page.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 3.5 change notes:
+ * <ul>
+ *     <li>Added {@link #getContestPermissions(TCSubject, long[])} and {@link #getProjectPermissions(TCSubject, long[])}
+ *     which check the permissions on many contests or projects with one query, and fall back to the security
+ *     groups once per direct project for the ones not granted.</li>
+ *     <li>{@link #batchUpdateDraftSoftwareContestsWithResult(TCSubject, long, List)} checks the permissions of the
+ *     whole batch at once and keeps the direct projects of the contests for the updates.</li>
+ * </ul>
+ * </p>
+ *
  * @author snow01, pulky, murphydog, waits, BeBetter, hohosky, isv, tangzx, GreatKevin, lmmortal, minhu, GreatKevin, tangzx
- * @author isv, GreatKevin, Veve
- * @version 3.2
+ * @author isv, GreatKevin, Veve, TCSDEVELOPER
+ * @version 3.5
  */
 @Stateless
 @TransactionManagement(TransactionManagementType.CONTAINER)
@@ -2826,6 +2859,143 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
         }
     }
 
+    /**
+     * <p>
+     * Gets the permissions of the current user on contests at once. The admins and TC staff have all the permissions,
+     * the other users have the permissions granted to them on the contests or on their direct projects or by their security groups.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param contestIds the contest ids.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws ContestServiceException if any error occurs when checking the permissions.
+     * @since 3.5
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public BitSet getContestPermissions(TCSubject tcSubject, long[] contestIds) throws ContestServiceException {
+        ExceptionUtils.checkNull(tcSubject, null, null, "The tcSubject parameter is null.");
+        ExceptionUtils.checkNull(contestIds, null, null, "The contestIds parameter is null.");
+
+        return getContestPermissions(tcSubject, contestIds, new long[contestIds.length]);
+    }
+
+    /**
+     * <p>
+     * Gets the permissions of the current user on contests at once, see
+     * {@link #getContestPermissions(TCSubject, long[])}. The direct projects of the contests come with their
+     * permissions, so the security groups are checked without querying them one by one.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param contestIds the contest ids.
+     * @param tcDirectProjectIds receives the direct project id of each contest, 0 if it has none. It's left
+     *            untouched for the admins and TC staff, whose permissions need no query.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws ContestServiceException if any error occurs when checking the permissions.
+     * @since 3.5
+     */
+    private BitSet getContestPermissions(TCSubject tcSubject, long[] contestIds, long[] tcDirectProjectIds)
+        throws ContestServiceException {
+        try {
+            if (isRole(tcSubject, ADMIN_ROLE) || isRole(tcSubject, TC_STAFF_ROLE)) {
+                BitSet ret = new BitSet(contestIds.length * 2);
+                ret.set(0, contestIds.length * 2);
+                return ret;
+            }
+
+            BitSet ret = projectServices.checkContestPermissions(contestIds, tcSubject.getUserId(),
+                tcDirectProjectIds);
+            Map<Long, Integer> groupPermissions = new HashMap<Long, Integer>();
+            for (int i = 0; i < contestIds.length; i++) {
+                if (!ret.get(2 * i + 1)) {
+                    addGroupPermissions(tcSubject, tcDirectProjectIds[i], ret, i, groupPermissions);
+                }
+            }
+            return ret;
+        } catch (ProjectServicesException e) {
+            logger.error("Operation failed in the projectServices.", e);
+            throw new ContestServiceException("Operation failed in the projectServices.", e);
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the permissions of the current user on projects at once. The admins and TC staff have all the permissions,
+     * the other users have the permissions granted to them on the projects or by their security groups.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param tcDirectProjectIds the tc direct project ids.
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcDirectProjectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it.
+     * @throws ContestServiceException if any error occurs when checking the permissions.
+     * @since 3.5
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public BitSet getProjectPermissions(TCSubject tcSubject, long[] tcDirectProjectIds)
+        throws ContestServiceException {
+        ExceptionUtils.checkNull(tcSubject, null, null, "The tcSubject parameter is null.");
+        ExceptionUtils.checkNull(tcDirectProjectIds, null, null, "The tcDirectProjectIds parameter is null.");
+
+        try {
+            if (isRole(tcSubject, ADMIN_ROLE) || isRole(tcSubject, TC_STAFF_ROLE)) {
+                BitSet ret = new BitSet(tcDirectProjectIds.length * 2);
+                ret.set(0, tcDirectProjectIds.length * 2);
+                return ret;
+            }
+
+            BitSet ret = projectServices.checkProjectPermissions(tcDirectProjectIds, tcSubject.getUserId());
+            Map<Long, Integer> groupPermissions = new HashMap<Long, Integer>();
+            for (int i = 0; i < tcDirectProjectIds.length; i++) {
+                if (!ret.get(2 * i + 1)) {
+                    addGroupPermissions(tcSubject, tcDirectProjectIds[i], ret, i, groupPermissions);
+                }
+            }
+            return ret;
+        } catch (ProjectServicesException e) {
+            logger.error("Operation failed in the projectServices.", e);
+            throw new ContestServiceException("Operation failed in the projectServices.", e);
+        }
+    }
+
+    /**
+     * Adds the permissions granted by the security groups on a project to the permission bits of an entry, see
+     * {@link #checkGroupPermissionForProject(TCSubject, long, boolean)}.
+     *
+     * @param tcSubject the current caller
+     * @param tcDirectProjectId the project id
+     * @param permissions the permission bits, bit <code>2 * index</code> for read and <code>2 * index + 1</code>
+     *            for write
+     * @param index the index of the entry
+     * @param groupPermissions the group permissions already checked by project id, bit 0 for read and bit 1 for
+     *            write
+     * @since 3.5
+     */
+    private void addGroupPermissions(TCSubject tcSubject, long tcDirectProjectId, BitSet permissions, int index,
+        Map<Long, Integer> groupPermissions) {
+        Integer bits = groupPermissions.get(tcDirectProjectId);
+        if (bits == null) {
+            bits = 0;
+            try {
+                checkGroupPermissionForProject(tcSubject, tcDirectProjectId, true);
+                bits |= 1;
+                checkGroupPermissionForProject(tcSubject, tcDirectProjectId, false);
+                bits |= 2;
+            } catch (PermissionServiceException e) {
+                // not granted
+            }
+            groupPermissions.put(tcDirectProjectId, bits);
+        }
+        if ((bits & 1) != 0) {
+            permissions.set(2 * index);
+        }
+        if ((bits & 2) != 0) {
+            permissions.set(2 * index + 1);
+        }
+    }
+
     /**
      * Checks the group permission for the given tc-direct-project-id for the current caller.
      *
@@ -4199,6 +4369,126 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
         }
     }
 
+    /**
+     * Updates the passed in draft <code>SoftwareCompetition</code>s, each contest in its own transaction. The
+     * permissions of the whole batch are checked at once and the billing project data are validated and loaded once
+     * for the whole batch, then the contests are
+     * updated one by one. A failed contest does not fail the batch, its error is reported in its result instead.
+     * A <code>SoftwareCompetition</code> not in draft status won't be updated and is reported as failed.
+     *
+     * @param tcSubject the tcSubject instance.
+     * @param tcDirectProjectId the id of the tc direct project.
+     * @param draftContests a list of <code>SoftwareCompetition</code> to update.
+     * @return the update results, in the order of <code>draftContests</code>
+     * @throws ContestServiceException if any error related to contest service facade.
+     * @since 3.3
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public List<DraftContestUpdateResult> batchUpdateDraftSoftwareContestsWithResult(TCSubject tcSubject,
+            long tcDirectProjectId, List<SoftwareCompetition> draftContests) throws ContestServiceException {
+
+        logger.debug("batchUpdateDraftSoftwareContestsWithResult with information : [tcSubject = "
+                + tcSubject.getUserId() + ", tcDirectProjectId =" + tcDirectProjectId + ", draftContests size: = "
+                + draftContests.size() + "]");
+
+        try {
+            DraftContestBatchContext context = new DraftContestBatchContext();
+            List<DraftContestUpdateResult> results = new ArrayList<DraftContestUpdateResult>();
+
+            long[] contestIds = new long[draftContests.size()];
+            for (int i = 0; i < contestIds.length; i++) {
+                SoftwareCompetition draftContest = draftContests.get(i);
+                contestIds[i] = draftContest.getProjectHeader().getId();
+                DraftContestUpdateResult result = new DraftContestUpdateResult();
+                result.setContestId(contestIds[i]);
+                results.add(result);
+
+                if (draftContest.getProjectHeader().getProjectStatus().getId() != CONTEST_DRAFT_STATUS_ID) {
+                    result.setErrorMessage("The contest is not a draft contest");
+                }
+            }
+
+            // check the write permissions of the whole batch at once, -1 marks the direct projects not queried
+            long[] tcDirectProjectIds = new long[contestIds.length];
+            Arrays.fill(tcDirectProjectIds, -1);
+            BitSet permissions = getContestPermissions(tcSubject, contestIds, tcDirectProjectIds);
+
+            // validate the contests and load the billing project data once for the batch
+            for (int i = 0; i < contestIds.length; i++) {
+                DraftContestUpdateResult result = results.get(i);
+                if (!result.isSuccessful()) {
+                    continue;
+                }
+                SoftwareCompetition draftContest = draftContests.get(i);
+                long contestId = contestIds[i];
+
+                if (!permissions.get(2 * i + 1)) {
+                    result.setErrorMessage("No write permission on project");
+                    continue;
+                }
+                context.addPermittedContest(contestId);
+                if (tcDirectProjectIds[i] >= 0) {
+                    context.setTcDirectProjectId(contestId, tcDirectProjectIds[i]);
+                }
+
+                try {
+                    long billingProjectId = getBillingProjectId(draftContest);
+                    if (billingProjectId > 0 && context.getBillingProjectCCA(billingProjectId) == null) {
+                        context.setBillingProjectCCA(billingProjectId, requireBillingProjectCCA(billingProjectId));
+                        context.setClientCodeName(billingProjectId,
+                                billingProjectDAO.getProjectById(billingProjectId).getClient().getCodeName());
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to validate the draft contest " + contestId
+                            + " in batchUpdateDraftSoftwareContestsWithResult", e);
+                    result.setErrorMessage(e.getMessage() == null ? e.toString() : e.getMessage());
+                }
+            }
+
+            // update the valid contests through the business interface, each in its own transaction
+            ContestServiceFacadeLocal self = sessionContext.getBusinessObject(ContestServiceFacadeLocal.class);
+
+            for (int i = 0; i < draftContests.size(); i++) {
+                DraftContestUpdateResult result = results.get(i);
+                if (!result.isSuccessful()) {
+                    continue;
+                }
+                try {
+                    result.setSoftwareCompetition(self.updateDraftSoftwareContest(tcSubject, draftContests.get(i),
+                            tcDirectProjectId, context));
+                } catch (Exception e) {
+                    logger.error("Failed to update the draft contest " + result.getContestId()
+                            + " in batchUpdateDraftSoftwareContestsWithResult", e);
+                    result.setErrorMessage(e.getMessage() == null ? e.toString() : e.getMessage());
+                }
+            }
+
+            return results;
+        } finally {
+            logger.debug("Exit batchUpdateDraftSoftwareContestsWithResult");
+        }
+    }
+
+    /**
+     * Updates one draft contest of a batch in a new transaction, reusing the data validated and loaded for the
+     * batch.
+     *
+     * @param tcSubject the tcSubject instance.
+     * @param contest the contest to update.
+     * @param tcDirectProjectId the id of the tc direct project.
+     * @param context the data shared by the contests of the batch.
+     * @return the updated contest.
+     * @throws ContestServiceException if any error related to contest service facade.
+     * @throws PermissionServiceException if any error related to permission service facade.
+     * @since 3.3
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public SoftwareCompetition updateDraftSoftwareContest(TCSubject tcSubject, SoftwareCompetition contest,
+            long tcDirectProjectId, DraftContestBatchContext context)
+            throws ContestServiceException, PermissionServiceException {
+        return updateSoftwareContest(tcSubject, contest, tcDirectProjectId, null, null, context);
+    }
+
     /**
      * <p>
      * Updates a <code>SoftwareCompetition</code> in the persistence.
@@ -4247,6 +4537,28 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
      */
     public SoftwareCompetition updateSoftwareContest(TCSubject tcSubject, SoftwareCompetition contest,
             long tcDirectProjectId, Date multiRoundEndDate, Date endDate) throws ContestServiceException, PermissionServiceException {
+        return updateSoftwareContest(tcSubject, contest, tcDirectProjectId, multiRoundEndDate, endDate, null);
+    }
+
+    /**
+     * <p>
+     * Updates a <code>SoftwareCompetition</code> in the persistence, reusing the permission and billing project
+     * data of the batch update context if it's provided.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param contest the <code>SoftwareCompetition</code> to update as a contest
+     * @param tcDirectProjectId the TC direct project id.
+     * @param multiRoundEndDate the end date for the multiround phase. No multiround if it's null.
+     * @param endDate the end date for submission phase. Can be null if to use default.
+     * @param context the data shared by the contests of a batch update, null if not in a batch update.
+     * @throws IllegalArgumentException if the input argument is invalid.
+     * @throws ContestServiceException if an error occurs when interacting with the service layer.
+     * @since 3.3
+     */
+    private SoftwareCompetition updateSoftwareContest(TCSubject tcSubject, SoftwareCompetition contest,
+            long tcDirectProjectId, Date multiRoundEndDate, Date endDate, DraftContestBatchContext context)
+            throws ContestServiceException, PermissionServiceException {
         logger.debug("updateSoftwareContest");
 
         try {
@@ -4319,11 +4631,13 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
                 }
 
                 // check the permissions
-                checkSoftwareContestPermission(tcSubject, contest.getProjectHeader().getId(), false);
+                if (context == null || !context.isPermittedContest(contest.getProjectHeader().getId())) {
+                    checkSoftwareContestPermission(tcSubject, contest.getProjectHeader().getId(), false);
+                }
                 //checkBillingProjectPermission(tcSubject, contest);
                 
                 //check billing cca
-                checkBillingProjectCCA(contest);
+                checkBillingProjectCCA(contest, context);
                 
                 Set<com.topcoder.project.phases.Phase> phaseset = contest.getProjectPhases().getPhases();
                 com.topcoder.project.phases.Phase[] phases =  phaseset.toArray(new com.topcoder.project.phases.Phase[phaseset.size()]);
@@ -4363,7 +4677,9 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
                     if (isDevContest && billingProjectId > 0)
                     {
 
-                        String codename = billingProjectDAO.getProjectById(billingProjectId).getClient().getCodeName();
+                        String codename = (context == null || context.getClientCodeName(billingProjectId) == null)
+                                ? billingProjectDAO.getProjectById(billingProjectId).getClient().getCodeName()
+                                : context.getClientCodeName(billingProjectId);
                         String compname = contest.getAssetDTO().getName();
                         if (codename != null && !codename.equals(""))
                         {
@@ -4413,7 +4729,11 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
 //				}
 
                 //preserve the information before update
-                boolean isTcDirectProjectChanged = (contest.getProjectHeader().getTcDirectProjectId() != this.projectServices.getTcDirectProject(contest.getId()));
+                Long oldTcDirectProjectId = context == null ? null : context.getTcDirectProjectId(contest.getId());
+                if (oldTcDirectProjectId == null) {
+                    oldTcDirectProjectId = this.projectServices.getTcDirectProject(contest.getId());
+                }
+                boolean isTcDirectProjectChanged = (contest.getProjectHeader().getTcDirectProjectId() != oldTcDirectProjectId);
 
                 //get old copilots before update
                 com.topcoder.management.resource.Resource[] oldCopilots = projectServices.searchResources(contest.getProjectHeader().getId(), ResourceRole.RESOURCE_ROLE_COPILOT_ID);
@@ -5238,29 +5558,7 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
 
         for (com.topcoder.management.project.SimpleProjectContestData data : projectServices.getSimpleProjectContestData(
                 pid)) {
-            CommonProjectContestData newData = new CommonProjectContestData();
-            newData.setCname(data.getCname());
-            newData.setContestId(data.getContestId());
-            newData.setProjectId(data.getProjectId());
-            newData.setPname(data.getPname());
-            newData.setDescription(data.getDescription());
-            newData.setEndDate(getXMLGregorianCalendar(data.getEndDate()));
-            newData.setForumId(data.getForumId());
-            newData.setNum_for(data.getNum_for());
-            newData.setNum_reg(data.getNum_reg());
-            newData.setNum_sub(data.getNum_sub());
-            newData.setProjectId(data.getProjectId());
-            newData.setSname(data.getSname());
-            newData.setStartDate(getXMLGregorianCalendar(data.getStartDate()));
-            newData.setType(data.getType());
-            newData.setCreateUser(data.getCreateUser());
-            newData.setPperm(data.getPperm());
-            newData.setCperm(data.getCperm());
-            newData.setSpecReviewStatus(data.getSpecReviewStatus());
-            newData.setSpecReviewProjectId(data.getSpecReviewProjectId());
-            newData.setSubmissionEndDate(getXMLGregorianCalendar(data.getSubmissionEndDate()));
-            newData.setContestFee(data.getContestFee());
-            ret.add(newData);
+            ret.add(toCommonProjectContestData(data));
         }
 
         // sort/group by project id
@@ -5302,29 +5600,7 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
 
         for (com.topcoder.management.project.SimpleProjectContestData data :
                 projectServices.getSimpleProjectContestData(tcSubject)) {
-            CommonProjectContestData newData = new CommonProjectContestData();
-            newData.setCname(data.getCname());
-            newData.setContestId(data.getContestId());
-            newData.setProjectId(data.getProjectId());
-            newData.setPname(data.getPname());
-            newData.setDescription(data.getDescription());
-            newData.setEndDate(getXMLGregorianCalendar(data.getEndDate()));
-            newData.setForumId(data.getForumId());
-            newData.setNum_for(data.getNum_for());
-            newData.setNum_reg(data.getNum_reg());
-            newData.setNum_sub(data.getNum_sub());
-            newData.setProjectId(data.getProjectId());
-            newData.setSname(data.getSname());
-            newData.setStartDate(getXMLGregorianCalendar(data.getStartDate()));
-            newData.setType(data.getType());
-            newData.setCreateUser(data.getCreateUser());
-            newData.setPperm(data.getPperm());
-            newData.setCperm(data.getCperm());
-            newData.setSpecReviewStatus(data.getSpecReviewStatus());
-            newData.setSpecReviewProjectId(data.getSpecReviewProjectId());
-            newData.setSubmissionEndDate(getXMLGregorianCalendar(data.getSubmissionEndDate()));
-            newData.setContestFee(data.getContestFee());
-            ret.add(newData);
+            ret.add(toCommonProjectContestData(data));
         }
 
         // sort/group by project id
@@ -5342,6 +5618,68 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
         return ret;
     }
 
+    /**
+     * <p>
+     * Gets a page of the contests for my project widget, sorted by project id and contest id. The next page is got
+     * by setting the last contest of the page as the position of the criteria.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param criteria the criteria of the page.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @since 3.4
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public List<CommonProjectContestData> getCommonProjectContestDataPage(TCSubject tcSubject,
+        SimpleProjectContestDataCriteria criteria) {
+        logger.debug("getCommonProjectContestDataPage(tcSubject = " + tcSubject.getUserId() + ", " + criteria + ")");
+
+        List<CommonProjectContestData> ret = new ArrayList<CommonProjectContestData>();
+        for (com.topcoder.management.project.SimpleProjectContestData data :
+                projectServices.getSimpleProjectContestDataPage(tcSubject, criteria)) {
+            ret.add(toCommonProjectContestData(data));
+        }
+
+        logger.debug("Exit getCommonProjectContestDataPage");
+        return ret;
+    }
+
+    /**
+     * <p>
+     * Converts the contest data of the project services to the contest data of my project widget.
+     * </p>
+     *
+     * @param data the contest data of the project services.
+     * @return the contest data of my project widget.
+     * @since 3.4
+     */
+    private CommonProjectContestData toCommonProjectContestData(
+        com.topcoder.management.project.SimpleProjectContestData data) {
+        CommonProjectContestData newData = new CommonProjectContestData();
+        newData.setCname(data.getCname());
+        newData.setContestId(data.getContestId());
+        newData.setProjectId(data.getProjectId());
+        newData.setPname(data.getPname());
+        newData.setDescription(data.getDescription());
+        newData.setEndDate(getXMLGregorianCalendar(data.getEndDate()));
+        newData.setForumId(data.getForumId());
+        newData.setNum_for(data.getNum_for());
+        newData.setNum_reg(data.getNum_reg());
+        newData.setNum_sub(data.getNum_sub());
+        newData.setProjectId(data.getProjectId());
+        newData.setSname(data.getSname());
+        newData.setStartDate(getXMLGregorianCalendar(data.getStartDate()));
+        newData.setType(data.getType());
+        newData.setCreateUser(data.getCreateUser());
+        newData.setPperm(data.getPperm());
+        newData.setCperm(data.getCperm());
+        newData.setSpecReviewStatus(data.getSpecReviewStatus());
+        newData.setSpecReviewProjectId(data.getSpecReviewProjectId());
+        newData.setSubmissionEndDate(getXMLGregorianCalendar(data.getSubmissionEndDate()));
+        newData.setContestFee(data.getContestFee());
+        return newData;
+    }
+
 
     /**
      * Gets all project data with aggregated statistics data for each type of contest status.
@@ -8816,6 +9154,21 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
      * @since 1.9.6
      */
     private void checkBillingProjectCCA(SoftwareCompetition contest) throws PersistenceException {
+        checkBillingProjectCCA(contest, null);
+    }
+
+    /**
+     * Check cca status of contest. If billing account must use cca while current property not, the change it. The
+     * CCA requirement of the billing account is read from the batch update context if it's cached there.
+     *
+     * @param contest the contest
+     * @param context the data shared by the contests of a batch update, null if not in a batch update.
+     * @throws PersistenceException
+     *
+     * @since 3.3
+     */
+    private void checkBillingProjectCCA(SoftwareCompetition contest, DraftContestBatchContext context)
+        throws PersistenceException {
 
         String projectCCA = contest.getProjectHeader().getProperty(ProjectPropertyType.CONFIDENTIALITY_TYPE_PROJECT_PROPERTY_KEY);
 
@@ -8826,7 +9179,11 @@ public class ContestServiceFacadeBean implements ContestServiceFacadeLocal, Cont
 
         if (projectCCA.toLowerCase().equals(CONFIDENTIALITY_PUBLIC)){
             String billingProject = contest.getProjectHeader().getProperty(ProjectPropertyType.BILLING_PROJECT_PROJECT_PROPERTY_KEY);
-            if (requireBillingProjectCCA(Long.valueOf(billingProject))){
+            Boolean requireCCA = context == null ? null : context.getBillingProjectCCA(Long.valueOf(billingProject));
+            if (requireCCA == null) {
+                requireCCA = requireBillingProjectCCA(Long.valueOf(billingProject));
+            }
+            if (requireCCA){
                 contest.getProjectHeader().setProperty(ProjectPropertyType.CONFIDENTIALITY_TYPE_PROJECT_PROPERTY_KEY, CONFIDENTIALITY_STANDARD);
             }
         }
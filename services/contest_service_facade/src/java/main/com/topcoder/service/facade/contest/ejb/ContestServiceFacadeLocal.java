@@ -3,7 +3,11 @@
  */
 package com.topcoder.service.facade.contest.ejb;
 
+import com.topcoder.security.TCSubject;
+import com.topcoder.service.facade.contest.ContestServiceException;
 import com.topcoder.service.facade.contest.ContestServiceFacade;
+import com.topcoder.service.permission.PermissionServiceException;
+import com.topcoder.service.project.SoftwareCompetition;
 
 import javax.ejb.Local;
 
@@ -16,13 +20,39 @@ import javax.ejb.Local;
  * </p>
  *
  * <p>
+ * Version 1.1 (Batch Draft Contests Update Performance) change notes:
+ * <ul>
+ *     <li>Added {@link #updateDraftSoftwareContest(TCSubject, SoftwareCompetition, long,
+ *     DraftContestBatchContext)}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
  * <b>Thread safety:</b> The implementations of this interface must operate in a
  * thread-safe manner to be used inside the <code>EJB</code> container.
  * </p>
  *
  * @author TCSDEVELOPER
- * @version 1.0
+ * @version 1.1
  */
 @Local
 public interface ContestServiceFacadeLocal extends ContestServiceFacade {
+
+    /**
+     * Updates one draft contest of a batch in a new transaction, reusing the data validated and loaded for the
+     * batch. It is only called by the batch update itself, through the local business interface so that the
+     * transaction attribute applies.
+     *
+     * @param tcSubject the tcSubject instance.
+     * @param contest the contest to update.
+     * @param tcDirectProjectId the id of the tc direct project.
+     * @param context the data shared by the contests of the batch.
+     * @return the updated contest.
+     * @throws ContestServiceException if any error related to contest service facade.
+     * @throws PermissionServiceException if any error related to permission service facade.
+     * @since 1.1
+     */
+    public SoftwareCompetition updateDraftSoftwareContest(TCSubject tcSubject, SoftwareCompetition contest,
+            long tcDirectProjectId, DraftContestBatchContext context)
+            throws ContestServiceException, PermissionServiceException;
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.service.facade.contest.ejb;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Holds the data shared by all the contests of one batch draft contest update, so that it is validated and loaded
+ * once per batch instead of once per contest: the contests the caller has already been granted write permission
+ * on with their direct projects, the CCA requirement and the client code name of each billing project.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is mutable and not thread safe, it's used by the single call updating one batch.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ * @since 1.8.4
+ */
+public class DraftContestBatchContext {
+    /**
+     * The ids of the contests whose write permission has been checked for the caller.
+     */
+    private final Set<Long> permittedContestIds = new HashSet<Long>();
+
+    /**
+     * The ids of the direct projects the contests belong to before the update, keyed by contest id.
+     */
+    private final Map<Long, Long> tcDirectProjectIds = new HashMap<Long, Long>();
+
+    /**
+     * The CCA requirement of the billing projects, keyed by billing project id.
+     */
+    private final Map<Long, Boolean> billingProjectsCCA = new HashMap<Long, Boolean>();
+
+    /**
+     * The client code names of the billing projects, keyed by billing project id. The empty string represents a
+     * client without code name.
+     */
+    private final Map<Long, String> clientCodeNames = new HashMap<Long, String>();
+
+    /**
+     * Empty constructor.
+     */
+    public DraftContestBatchContext() {
+    }
+
+    /**
+     * Records that the caller has write permission on the given contest.
+     *
+     * @param contestId the id of the contest
+     */
+    public void addPermittedContest(long contestId) {
+        permittedContestIds.add(contestId);
+    }
+
+    /**
+     * Checks whether the write permission of the given contest has been checked.
+     *
+     * @param contestId the id of the contest
+     * @return true if the caller has been granted write permission on the contest
+     */
+    public boolean isPermittedContest(long contestId) {
+        return permittedContestIds.contains(contestId);
+    }
+
+    /**
+     * Gets the cached id of the direct project the contest belongs to before the update.
+     *
+     * @param contestId the id of the contest
+     * @return the direct project id, 0 if the contest has none, null if not cached
+     */
+    public Long getTcDirectProjectId(long contestId) {
+        return tcDirectProjectIds.get(contestId);
+    }
+
+    /**
+     * Caches the id of the direct project the contest belongs to before the update.
+     *
+     * @param contestId the id of the contest
+     * @param tcDirectProjectId the direct project id, 0 if the contest has none
+     */
+    public void setTcDirectProjectId(long contestId, long tcDirectProjectId) {
+        tcDirectProjectIds.put(contestId, tcDirectProjectId);
+    }
+
+    /**
+     * Gets the cached CCA requirement of the billing project.
+     *
+     * @param billingProjectId the id of the billing project
+     * @return the CCA requirement, null if not cached
+     */
+    public Boolean getBillingProjectCCA(long billingProjectId) {
+        return billingProjectsCCA.get(billingProjectId);
+    }
+
+    /**
+     * Caches the CCA requirement of the billing project.
+     *
+     * @param billingProjectId the id of the billing project
+     * @param requireCCA whether the billing project requires CCA
+     */
+    public void setBillingProjectCCA(long billingProjectId, boolean requireCCA) {
+        billingProjectsCCA.put(billingProjectId, requireCCA);
+    }
+
+    /**
+     * Gets the cached client code name of the billing project.
+     *
+     * @param billingProjectId the id of the billing project
+     * @return the client code name, empty if the client has no code name, null if not cached
+     */
+    public String getClientCodeName(long billingProjectId) {
+        return clientCodeNames.get(billingProjectId);
+    }
+
+    /**
+     * Caches the client code name of the billing project.
+     *
+     * @param billingProjectId the id of the billing project
+     * @param codeName the client code name, null if the client has no code name
+     */
+    public void setClientCodeName(long billingProjectId, String codeName) {
+        clientCodeNames.put(billingProjectId, codeName == null ? "" : codeName);
+    }
+}
@@ -9,6 +9,7 @@ import com.topcoder.security.TCSubject;
 import com.topcoder.service.gameplan.GamePlanPersistenceException;
 import com.topcoder.service.gameplan.GamePlanServiceConfigurationException;
 import com.topcoder.service.util.gameplan.SoftwareProjectData;
+import com.topcoder.service.util.gameplan.StudioProjectData;
 import com.topcoder.service.util.gameplan.TCDirectProjectGamePlanData;
 import com.topcoder.util.log.Level;
 import com.topcoder.util.log.Log;
@@ -24,12 +25,15 @@ import javax.persistence.Query;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>This class is an EJB that implements <code>GamePlanService</code> business interface. This bean uses <b>Logging
@@ -129,8 +133,19 @@ import java.util.Set;
  * </ol>
  * </p>
  *
- * @author saarixx, FireIce, isv, lmmortal, GreatKevin, TCSASSEMBLER, freegod
- * @version 1.3
+ * <p>
+ * Version 1.4 change notes:
+ * <ol>
+ *     <li>Updated {@link #updateDependencyProjectIds(List)} to retrieve the dependencies of all the software projects
+ *     in chunks of {@link #DEPENDENCY_QUERY_CHUNK_SIZE} projects, instead of one query per project.</li>
+ *     <li>The game plan data of a TC Direct project is cached per user for <code>cacheTimeToLive</code>
+ *     milliseconds. A cached data is only used while the projects and the project links of the TC Direct project
+ *     are unchanged, see {@link #RETRIEVE_GAME_PLAN_FINGERPRINT_SQL}.</li>
+ * </ol>
+ * </p>
+ *
+ * @author saarixx, FireIce, isv, lmmortal, GreatKevin, TCSASSEMBLER, freegod, TCSDEVELOPER
+ * @version 1.4
  */
 @Stateless
 public class GamePlanServiceBean implements GamePlanServiceLocal, GamePlanServiceRemote {
@@ -185,14 +200,60 @@ public class GamePlanServiceBean implements GamePlanServiceLocal, GamePlanServic
 
 
     /**
-     * Represents the sql for retrieving IDs of dependency projects.
+     * Represents the sql for retrieving IDs of dependency projects of several projects. The IDs of the projects are
+     * appended, followed by a closing parenthesis.
+     *
+     * @since 1.4
      */
     private static final String RETRIEVE_DEPENDENCY_PROJECT_IDS_SQL = 
-            "SELECT  lp.dest_project_id, lp.link_type_id FROM linked_project_xref lp, project p " +
-			" WHERE lp.source_project_id = :projectId " + 
+            "SELECT  lp.source_project_id, lp.dest_project_id, lp.link_type_id FROM linked_project_xref lp, project p " +
+			" WHERE lp.source_project_id IN (%s) " + 
 			" AND lp.source_project_id = p.project_id AND lp.link_type_id in (1, 4, 5, 6) " +
 			" AND p.tc_direct_project_id = (SELECT tc_direct_project_id FROM project WHERE project_id = lp.dest_project_id) " +
 			" AND p.tc_direct_project_id IS NOT NULL and p.project_status_id != 3 ";
+
+    /**
+     * Represents the maximum number of projects whose dependencies are retrieved by one query.
+     *
+     * @since 1.4
+     */
+    private static final int DEPENDENCY_QUERY_CHUNK_SIZE = 500;
+
+    /**
+     * Represents the sql for retrieving the fingerprint of the projects and of the project links of a TC Direct
+     * project. The cached game plan data of the TC Direct project is used while it is unchanged.
+     *
+     * @since 1.4
+     */
+    private static final String RETRIEVE_GAME_PLAN_FINGERPRINT_SQL =
+            "SELECT COUNT(*), MAX(p.modify_date), SUM(p.project_status_id), "
+            + "(SELECT COUNT(*) FROM linked_project_xref lp, project sp "
+            + "    WHERE lp.source_project_id = sp.project_id AND sp.tc_direct_project_id = :directProjectId), "
+            + "(SELECT SUM(lp.dest_project_id * 8 + lp.link_type_id) FROM linked_project_xref lp, project sp "
+            + "    WHERE lp.source_project_id = sp.project_id AND sp.tc_direct_project_id = :directProjectId) "
+            + "FROM project p WHERE p.tc_direct_project_id = :directProjectId";
+
+    /**
+     * Represents the default time in milliseconds the game plan data is cached.
+     *
+     * @since 1.4
+     */
+    private static final long DEFAULT_CACHE_TIME_TO_LIVE = 60000;
+
+    /**
+     * Represents the number of cached game plan data above which the expired ones are removed.
+     *
+     * @since 1.4
+     */
+    private static final int CACHE_SWEEP_SIZE = 1000;
+
+    /**
+     * Represents the cached game plan data by user id and TC Direct project id. It is shared by the bean instances.
+     *
+     * @since 1.4
+     */
+    private static final ConcurrentHashMap<String, CachedGamePlanData> GAME_PLAN_CACHE =
+            new ConcurrentHashMap<String, CachedGamePlanData>();
                     
     /**
      * Represents the sql for retrieving tc direct project.
@@ -298,6 +359,17 @@ public class GamePlanServiceBean implements GamePlanServiceLocal, GamePlanServic
     @Resource(name = "logName")
     private String logName;
 
+    /**
+     * The time in milliseconds the game plan data is cached.
+     *
+     * Can be set with EJB container injection. {@link #DEFAULT_CACHE_TIME_TO_LIVE} is used when it is null, and the
+     * data is not cached when it is not positive.
+     *
+     * @since 1.4
+     */
+    @Resource(name = "cacheTimeToLive")
+    private Long cacheTimeToLive;
+
     /**
      * The logger instance to be used by this class.
      *
@@ -383,12 +455,9 @@ public class GamePlanServiceBean implements GamePlanServiceLocal, GamePlanServic
         Long userId = getUserId(tcSubject);
 
         try {
-            List<TCDirectProjectGamePlanData> result = retrieveGamePlanDataByUser(userId, directProjectId);
+            TCDirectProjectGamePlanData tcDirectProjectGamePlanData = retrieveCachedGamePlanData(userId,
+                    directProjectId);
 
-            TCDirectProjectGamePlanData tcDirectProjectGamePlanData = null;
-            if (result.size() != 0) {
-                tcDirectProjectGamePlanData = result.get(0);
-            }
             final long end = System.currentTimeMillis();
             logInfo(MessageFormat.format(
                     "Exit GamePlanServiceBean#retrieveGamePlanData(TCSubject, long) with {0},"
@@ -508,28 +577,125 @@ public class GamePlanServiceBean implements GamePlanServiceLocal, GamePlanServic
         }
     }
 
+    /**
+     * Retrieves the game plan data of the specified TC Direct project for the specified user from the cache, or
+     * from the persistence if it is not cached, expired or the projects or project links of the TC Direct project
+     * changed.
+     *
+     * @param userId the ID of the user associated with TC Direct projects.
+     * @param directProjectId the specific TC Direct Project id.
+     * @return the retrieved TC Direct project game plan data, null if there is no such TC Direct project for the
+     *         user. Its list of software projects can be modified by the caller.
+     * @throws IllegalStateException        if softwareEntityManager is null
+     * @throws GamePlanPersistenceException if some error occurred when accessing the persistence
+     * @since 1.4
+     */
+    private TCDirectProjectGamePlanData retrieveCachedGamePlanData(Long userId, long directProjectId)
+            throws GamePlanPersistenceException {
+        long timeToLive = cacheTimeToLive == null ? DEFAULT_CACHE_TIME_TO_LIVE : cacheTimeToLive;
+        if (timeToLive <= 0 || null == softwareEntityManager) {
+            List<TCDirectProjectGamePlanData> result = retrieveGamePlanDataByUser(userId, directProjectId);
+            return result.size() == 0 ? null : result.get(0);
+        }
+
+        String key = userId + "|" + directProjectId;
+        String fingerprint = retrieveGamePlanFingerprint(directProjectId);
+        long now = System.currentTimeMillis();
+
+        CachedGamePlanData cached = GAME_PLAN_CACHE.get(key);
+        if (cached == null || cached.expirationTime < now || !cached.fingerprint.equals(fingerprint)) {
+            List<TCDirectProjectGamePlanData> result = retrieveGamePlanDataByUser(userId, directProjectId);
+            cached = new CachedGamePlanData(result.size() == 0 ? null : result.get(0), fingerprint,
+                    now + timeToLive);
+            if (GAME_PLAN_CACHE.size() >= CACHE_SWEEP_SIZE) {
+                for (Iterator<CachedGamePlanData> it = GAME_PLAN_CACHE.values().iterator(); it.hasNext();) {
+                    if (it.next().expirationTime < now) {
+                        it.remove();
+                    }
+                }
+            }
+            GAME_PLAN_CACHE.put(key, cached);
+        }
+
+        if (cached.data == null) {
+            return null;
+        }
+        // copy the data so that the callers can sort the software projects
+        TCDirectProjectGamePlanData copy = new TCDirectProjectGamePlanData();
+        copy.setTcDirectProjectId(cached.data.getTcDirectProjectId());
+        copy.setTcDirectProjectName(cached.data.getTcDirectProjectName());
+        copy.setSoftwareProjects(new ArrayList<SoftwareProjectData>(cached.data.getSoftwareProjects()));
+        copy.setStudioProjects(new ArrayList<StudioProjectData>(cached.data.getStudioProjects()));
+        return copy;
+    }
+
+    /**
+     * Retrieves the fingerprint of the projects and project links of a TC Direct project.
+     *
+     * @param directProjectId the TC Direct Project id.
+     * @return the fingerprint.
+     * @throws GamePlanPersistenceException if some error occurred when accessing the persistence
+     * @since 1.4
+     */
+    private String retrieveGamePlanFingerprint(long directProjectId) throws GamePlanPersistenceException {
+        try {
+            Query query = softwareEntityManager.createNativeQuery(RETRIEVE_GAME_PLAN_FINGERPRINT_SQL);
+            query.setParameter("directProjectId", directProjectId);
+            return Arrays.toString((Object[]) query.getSingleResult());
+        } catch (PersistenceException e) {
+            throw new GamePlanPersistenceException("Error occurred when accessing the persistence", e);
+        }
+    }
+
     /**
      * Updates the IDs of dependency projects for the given list of <b>SoftwareProjectData</b>.
      *
+     * <p>Version 1.4 changes - the dependencies are retrieved in chunks of
+     * {@link #DEPENDENCY_QUERY_CHUNK_SIZE} projects.</p>
+     *
      * @param softwareProjects the list of SoftwareProjectData instance to update dependency project ids.
      * @throws PersistenceException If any problem to access the persistence.
      */
     private void updateDependencyProjectIds(List<SoftwareProjectData> softwareProjects) {
-        // Create query for retrieving dependency project IDs
-        Query dependencyQuery = softwareEntityManager.createNativeQuery(RETRIEVE_DEPENDENCY_PROJECT_IDS_SQL);
+        // the dependency rows (dest_project_id, link_type_id) by source project id
+        Map<Long, List<Object[]>> dependencies = new HashMap<Long, List<Object[]>>();
+
+        for (int start = 0; start < softwareProjects.size(); start += DEPENDENCY_QUERY_CHUNK_SIZE) {
+            int end = Math.min(start + DEPENDENCY_QUERY_CHUNK_SIZE, softwareProjects.size());
+            StringBuilder projectIds = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    projectIds.append(',');
+                }
+                projectIds.append(softwareProjects.get(i).getProjectId());
+            }
+
+            // Create query for retrieving dependency project IDs
+            Query dependencyQuery = softwareEntityManager.createNativeQuery(
+                    String.format(RETRIEVE_DEPENDENCY_PROJECT_IDS_SQL, projectIds));
+            List<Object[]> dependencyResults = dependencyQuery.getResultList();
+            for (Object[] row : dependencyResults) {
+                long sourceProjectId = (Integer) row[0];
+                List<Object[]> rows = dependencies.get(sourceProjectId);
+                if (rows == null) {
+                    rows = new ArrayList<Object[]>();
+                    dependencies.put(sourceProjectId, rows);
+                }
+                rows.add(row);
+            }
+        }
+
         for (SoftwareProjectData softwareProjectData : softwareProjects) {
-            // Set project ID to the query
-            dependencyQuery.setParameter("projectId", softwareProjectData.getProjectId());
-//            List<Integer> dependencyProjectIdsList = dependencyQuery.getResultList();
-            List<Object> dependencyResults = dependencyQuery.getResultList();
+            List<Object[]> rows = dependencies.get(softwareProjectData.getProjectId());
+            int count = rows == null ? 0 : rows.size();
 
             // extract the IDs of dependency projects
-            long[] dependencyProjectIds = new long[dependencyResults.size()];
-            long[] dependencyProjectTypeIds = new long[dependencyProjectIds.length];
-            for (int i = 0; i < dependencyProjectIds.length; i++) {
-                Object[] row = (Object[]) dependencyResults.get(i);
-                dependencyProjectIds[i] = (Integer) row[0];
-                dependencyProjectTypeIds[i] = (Integer) row[1];
+            long[] dependencyProjectIds = new long[count];
+            long[] dependencyProjectTypeIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                Object[] row = rows.get(i);
+                dependencyProjectIds[i] = (Integer) row[1];
+                dependencyProjectTypeIds[i] = (Integer) row[2];
             }
             softwareProjectData.setDependencyProjectIds(dependencyProjectIds);
             softwareProjectData.setDependencyProjectTypeIds(dependencyProjectTypeIds);
@@ -720,5 +886,43 @@ public class GamePlanServiceBean implements GamePlanServiceLocal, GamePlanServic
         } 
         return out.toString();   
   } 
-}
 
+    /**
+     * <p>The cached game plan data of a TC Direct project for a user.</p>
+     *
+     * <p><b>Thread Safety</b>: This class is immutable and thread safe. The cached data is not modified.</p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.4
+     * @since 1.4
+     */
+    private static final class CachedGamePlanData {
+        /**
+         * The game plan data, null if there is no such TC Direct project for the user.
+         */
+        private final TCDirectProjectGamePlanData data;
+
+        /**
+         * The fingerprint of the projects and project links of the TC Direct project when the data was retrieved.
+         */
+        private final String fingerprint;
+
+        /**
+         * The time the data expires.
+         */
+        private final long expirationTime;
+
+        /**
+         * Creates the cached data.
+         *
+         * @param data the game plan data.
+         * @param fingerprint the fingerprint of the TC Direct project.
+         * @param expirationTime the time the data expires.
+         */
+        private CachedGamePlanData(TCDirectProjectGamePlanData data, String fingerprint, long expirationTime) {
+            this.data = data;
+            this.fingerprint = fingerprint;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -29,8 +29,10 @@ import static org.junit.Assert.assertTrue;
 /**
  * <p>Unit test for <code>GamePlanServiceBean</code> class.</p>
  *
- * @author FireIce
- * @version 1.0
+ * <p>Version 1.1 change notes: added the test of the cached game plan data.</p>
+ *
+ * @author FireIce, TCSDEVELOPER
+ * @version 1.1
  */
 public class GamePlanServiceBeanTests {
 
@@ -527,6 +529,42 @@ public class GamePlanServiceBeanTests {
         assertNull("The return value is null.", result);
     }
 
+    /**
+     * <p>Tests the <code>retrieveGamePlanData(TCSubject, long)</code> method.</p>
+     *
+     * <p>Condition: Retrieve the game plan data of a TC Direct project twice for the same user.</p>
+     *
+     * <p>Expected: The second call returns the same data, in a list of software projects which can be modified
+     * without changing the data returned by the next calls.</p>
+     *
+     * @throws Exception pass any unexpected exception to JUnit.
+     */
+    @Test
+    public void testRetrieveGamePlanData2_cached() throws Exception {
+        setField(gamePlanServiceBean, "logName", "UnitTest");
+        // mimic the EJB initialization.
+        gamePlanServiceBean.initialize();
+
+        setField(gamePlanServiceBean, "softwareEntityManager", getSoftwareEntityManager());
+        setField(gamePlanServiceBean, "studioEntityManager", getStudioEntityManager());
+
+        TCSubject tcSubject = new TCSubject(1l);
+
+        TCDirectProjectGamePlanData first = gamePlanServiceBean.retrieveGamePlanData(tcSubject, 1L);
+        assertNotNull("The result should not be null.", first);
+        assertEquals("The list should contain one element.", 1, first.getSoftwareProjects().size());
+        first.getSoftwareProjects().clear();
+
+        TCDirectProjectGamePlanData second = gamePlanServiceBean.retrieveGamePlanData(tcSubject, 1L);
+        assertNotNull("The result should not be null.", second);
+        assertEquals("incorrect data", first.getTcDirectProjectId(), second.getTcDirectProjectId());
+        assertEquals("The list should contain one element.", 1, second.getSoftwareProjects().size());
+        SoftwareProjectData softwareProjectData = second.getSoftwareProjects().get(0);
+        assertEquals("incorrect data", 1, softwareProjectData.getProjectId());
+        // the project 2 linked to the project 1 belongs to another TC Direct project
+        assertEquals("incorrect data", 0, softwareProjectData.getDependencyProjectIds().length);
+    }
+
     /**
      * <p>Tests the <code>retrieveGamePlanData(TCSubject, long)</code> method.</p>
      *
@@ -10,6 +10,7 @@ import com.topcoder.management.project.Project;
 import com.topcoder.management.project.ProjectPlatform;
 import com.topcoder.management.project.SimplePipelineData;
 import com.topcoder.management.project.SimpleProjectContestData;
+import com.topcoder.management.project.SimpleProjectContestDataCriteria;
 import com.topcoder.management.project.SimpleProjectPermissionData;
 import com.topcoder.management.project.SoftwareCapacityData;
 import com.topcoder.management.resource.Resource;
@@ -22,6 +23,7 @@ import com.topcoder.project.phases.Phase;
 import com.topcoder.search.builder.filter.Filter;
 import com.topcoder.security.TCSubject;
 
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -211,6 +213,21 @@ import java.util.Set;
  *     <li>Added method {@link #getPhases(long)}</li>
  * </ul>
  * </p>
+ *
+ * <p>
+ * Version 1.9 change notes:
+ * <ul>
+ *     <li>Added method {@link #getSimpleProjectContestDataPage(TCSubject, SimpleProjectContestDataCriteria)}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.10 change notes:
+ * <ul>
+ *     <li>Added methods {@link #checkContestPermissions(long[], long, long[])} and {@link #checkProjectPermissions(long[], long)}
+ *     to check the permissions on many contests or projects at once</li>
+ * </ul>
+ * </p>
  * 
  * <p>
  * <strong>Thread Safety:</strong> Implementations must be thread-safe from the point of view of
@@ -219,8 +236,8 @@ import java.util.Set;
  *
  *
  * @author argolite, moonli, pulky
- * @author fabrizyo, znyyddf, murphydog, waits, hohosky, isv, GreatKevin
- * @version 1.8
+ * @author fabrizyo, znyyddf, murphydog, waits, hohosky, isv, GreatKevin, TCSDEVELOPER
+ * @version 1.10
  */
 public interface ProjectServices {
     /**
@@ -857,6 +874,22 @@ public interface ProjectServices {
 
     public List<SimpleProjectContestData> getSimpleProjectContestDataByUser(String user) throws ProjectServicesException;
 
+    /**
+     * <p>
+     * Gets a page of the contests for myproject widget, sorted by direct project id and contest id. Administrators
+     * get all the contests, the other users get the contests they have a permission on.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param criteria the criteria of the page, its user id is set from the current user.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws IllegalArgumentException if any argument is null or the page size is not positive.
+     * @throws ProjectServicesException if any error occurs
+     * @since 1.9
+     */
+    public List<SimpleProjectContestData> getSimpleProjectContestDataPage(TCSubject tcSubject,
+        SimpleProjectContestDataCriteria criteria) throws ProjectServicesException;
+
     /**
      * <p>
      * Gets the list of project their read/write/full permissions.
@@ -978,6 +1011,34 @@ public interface ProjectServices {
      */
     public boolean checkProjectPermission(long tcprojectId, boolean readonly, long userId) throws ProjectServicesException;
 
+    /**
+     * Checks the permissions of a user on contests at once, granted on the contests or on their direct projects.
+     *
+     * @param contestIds the contest ids
+     * @param userId user id
+     * @param tcDirectProjectIds receives the tc direct project id of each contest, 0 if it has none
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws ProjectServicesException if any error occurs
+     * @since 1.10
+     */
+    public BitSet checkContestPermissions(long[] contestIds, long userId, long[] tcDirectProjectIds)
+        throws ProjectServicesException;
+
+    /**
+     * Checks the permissions of a user on projects at once.
+     *
+     * @param tcprojectIds the tc direct project ids
+     * @param userId user id
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcprojectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws ProjectServicesException if any error occurs
+     * @since 1.10
+     */
+    public BitSet checkProjectPermissions(long[] tcprojectIds, long userId) throws ProjectServicesException;
+
 
      /**
      * <p>
@@ -4,6 +4,7 @@
 package com.topcoder.project.service.ejb;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -20,6 +21,7 @@ import com.topcoder.management.project.Project;
 import com.topcoder.management.project.ProjectPlatform;
 import com.topcoder.management.project.SimplePipelineData;
 import com.topcoder.management.project.SimpleProjectContestData;
+import com.topcoder.management.project.SimpleProjectContestDataCriteria;
 import com.topcoder.management.project.SimpleProjectPermissionData;
 import com.topcoder.management.project.SoftwareCapacityData;
 import com.topcoder.management.project.DesignComponents;
@@ -247,8 +249,22 @@ import com.topcoder.util.log.LogManager;
  * </ul>
  * </p>
  *
- * @author fabrizyo, znyyddf, pulky, murphydog, waits, hohosky, isv, GreatKevin
- * @version 1.8
+ * <p>
+ * Version 1.9 change notes:
+ * <ul>
+ *     <li>Added method {@link #getSimpleProjectContestDataPage(TCSubject, SimpleProjectContestDataCriteria)}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.10 change notes:
+ * <ul>
+ *     <li>Added methods {@link #checkContestPermissions(long[], long, long[])} and {@link #checkProjectPermissions(long[], long)}</li>
+ * </ul>
+ * </p>
+ *
+ * @author fabrizyo, znyyddf, pulky, murphydog, waits, hohosky, isv, GreatKevin, TCSDEVELOPER
+ * @version 1.10
  * @since 1.0
  */
 @Stateless
@@ -1313,6 +1329,39 @@ public class ProjectServicesBean implements ProjectServicesLocal, ProjectService
 
     }
 
+    /**
+     * <p>
+     * Gets a page of the contests for myproject widget, sorted by direct project id and contest id. The page is
+     * limited to the contests the current user has permission on, unless the user is an admin.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param criteria the criteria of the page, its user id is set from the current user.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws IllegalArgumentException if any argument is null.
+     * @throws ProjectServicesException if any error occurs
+     * @since 1.9
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public List<SimpleProjectContestData> getSimpleProjectContestDataPage(TCSubject tcSubject,
+        SimpleProjectContestDataCriteria criteria) throws ProjectServicesException {
+        String method = "ProjectServicesBean#getSimpleProjectContestDataPage(TCSubject, criteria) method.";
+
+        Util.log(logger, Level.INFO, "Enters " + method);
+
+        try {
+            Util.checkObjNotNull(tcSubject, "tcSubject", logger);
+            Util.checkObjNotNull(criteria, "criteria", logger);
+
+            return getProjectServices().getSimpleProjectContestDataPage(tcSubject, criteria);
+        } catch (ProjectServicesException e) {
+            Util.log(logger, Level.ERROR, "ProjectServicesException occurred in " + method);
+            throw e;
+        } finally {
+            Util.log(logger, Level.INFO, "Exits " + method);
+        }
+    }
+
     @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public List<SimpleProjectContestData> getSimpleProjectContestData(long pid)
             throws ProjectServicesException {
@@ -1578,6 +1627,40 @@ public class ProjectServicesBean implements ProjectServicesLocal, ProjectService
         }
     }
 
+    /**
+     * Checks the permissions of a user on contests at once, granted on the contests or on their direct projects.
+     *
+     * @param contestIds the contest ids
+     * @param userId user id
+     * @param tcDirectProjectIds receives the tc direct project id of each contest, 0 if it has none
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws ProjectServicesException if any error occurs
+     * @since 1.10
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public BitSet checkContestPermissions(long[] contestIds, long userId, long[] tcDirectProjectIds)
+        throws ProjectServicesException {
+        return getProjectServices().checkContestPermissions(contestIds, userId, tcDirectProjectIds);
+    }
+
+    /**
+     * Checks the permissions of a user on projects at once.
+     *
+     * @param tcprojectIds the tc direct project ids
+     * @param userId user id
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcprojectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws ProjectServicesException if any error occurs
+     * @since 1.10
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public BitSet checkProjectPermissions(long[] tcprojectIds, long userId) throws ProjectServicesException {
+        return getProjectServices().checkProjectPermissions(tcprojectIds, userId);
+    }
+
     /**
      * <p>
      * get project ids by tc direct id
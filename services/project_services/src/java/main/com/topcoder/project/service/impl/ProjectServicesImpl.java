@@ -41,6 +41,7 @@ import com.topcoder.search.builder.SearchBuilderException;
 import com.topcoder.search.builder.filter.AndFilter;
 import com.topcoder.search.builder.filter.EqualToFilter;
 import com.topcoder.search.builder.filter.Filter;
+import com.topcoder.security.RolePrincipal;
 import com.topcoder.security.TCSubject;
 import com.topcoder.util.config.ConfigManager;
 import com.topcoder.util.config.UnknownNamespaceException;
@@ -423,13 +424,32 @@ import java.util.*;
  * </p>
  *
  * <p>
+ * Version 2.3 change notes:
+ * <ul>
+ *     <li>Added {@link #getSimpleProjectContestDataPage(TCSubject, SimpleProjectContestDataCriteria)} to get a
+ *     page of the contests for myproject widget.</li>
+ *     <li>The contest pages and the pipeline data are kept in a short-lived per-user cache, shared by the
+ *     sub-requests of a page. Its time to live is configured by the optional <b>userResultCacheTimeToLive</b>
+ *     property in milliseconds, 0 disables it.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 2.4 change notes:
+ * <ul>
+ *     <li>Added {@link #checkContestPermissions(long[], long, long[])} and {@link #checkProjectPermissions(long[], long)}
+ *     to check the permissions on many contests or projects at once.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
  * <strong>Thread Safety:</strong> This class is immutable but operates on non thread safe objects,
  * thus making it potentially non thread safe.
  * </p>
  *
  * @author argolite, moonli, pulky
- * @author fabrizyo, znyyddf, murphydog, waits, hohosky, isv, lmmortal, GreatKevin
- * @version 2.2
+ * @author fabrizyo, znyyddf, murphydog, waits, hohosky, isv, lmmortal, GreatKevin, TCSDEVELOPER
+ * @version 2.4
  * @since 1.0
  */
 public class ProjectServicesImpl implements ProjectServices {
@@ -498,6 +518,24 @@ public class ProjectServicesImpl implements ProjectServices {
      */
     private static final String LOGGER_NAME = "loggerName";
 
+    /**
+     * <p>
+     * Represents the name of the administrator role, whose users get all the contests.
+     * </p>
+     *
+     * @since 2.3
+     */
+    private static final String ADMIN_ROLE = "Cockpit Administrator";
+
+    /**
+     * <p>
+     * Represents the <b>userResultCacheTimeToLive</b> property key.
+     * </p>
+     *
+     * @since 2.3
+     */
+    private static final String USER_RESULT_CACHE_TIME_TO_LIVE = "userResultCacheTimeToLive";
+
     /**
      * <p>
      * Represents the <b>activeProjectStatusId</b> property key.
@@ -935,6 +973,15 @@ public class ProjectServicesImpl implements ProjectServices {
      */
     private final PhaseTemplate template;
 
+    /**
+     * <p>
+     * Represents the per-user cache of the contest pages and the pipeline data, shared by the instances.
+     * </p>
+     *
+     * @since 2.3
+     */
+    private final UserResultCache userResultCache = UserResultCache.getInstance();
+
 
     /**
      * <p>
@@ -1014,6 +1061,12 @@ public class ProjectServicesImpl implements ProjectServices {
             }
             this.activeProjectStatusId = theActiveProjectStatusId;
 
+            // gets the optional time to live of the per-user result cache
+            String cacheTimeToLive = cm.getString(namespace, USER_RESULT_CACHE_TIME_TO_LIVE);
+            if (cacheTimeToLive != null) {
+                userResultCache.setTimeToLive(Long.parseLong(cacheTimeToLive.trim()));
+            }
+
             log(Level.DEBUG, "Looking for activeCategoryIds");
             int categoryEntryNumber = 0;
             while (true) {
@@ -3044,6 +3097,72 @@ public class ProjectServicesImpl implements ProjectServices {
         return ret;
     }
 
+    /**
+     * <p>
+     * Gets a page of the contests for myproject widget, sorted by direct project id and contest id. Administrators
+     * get all the contests, the other users get the contests they have a permission on. The pages are kept in the
+     * per-user result cache.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @param criteria the criteria of the page, its user id is set from the current user.
+     * @return the contests of the page, fewer than the page size only for the last page.
+     * @throws IllegalArgumentException if any argument is null or the page size is not positive.
+     * @throws ProjectServicesException if any error occurs
+     * @since 2.3
+     */
+    public List<SimpleProjectContestData> getSimpleProjectContestDataPage(TCSubject tcSubject,
+        SimpleProjectContestDataCriteria criteria) throws ProjectServicesException {
+        Util.checkObjNotNull(tcSubject, "tcSubject", logger);
+        Util.checkObjNotNull(criteria, "criteria", logger);
+        log(Level.INFO, "Enters ProjectServicesImpl#getSimpleProjectContestDataPage method.");
+
+        boolean admin = isAdmin(tcSubject);
+        criteria.setUserId(admin ? null : tcSubject.getUserId());
+        long cacheUserId = admin ? -1 : tcSubject.getUserId();
+        String cacheKey = "contests|" + criteria;
+        List<SimpleProjectContestData> ret = userResultCache.get(cacheUserId, cacheKey);
+        if (ret == null) {
+            try {
+                logDebug("Starts calling ProjectManager#getSimpleProjectContestDataPage method.");
+
+                ret = projectManager.getSimpleProjectContestDataPage(criteria);
+                userResultCache.put(cacheUserId, cacheKey, ret);
+
+                logDebug("Finished calling ProjectManager#getSimpleProjectContestDataPage method.");
+            } catch (PersistenceException ex) {
+                log(Level.ERROR,
+                    "ProjectServicesException occurred in ProjectServicesImpl#getSimpleProjectContestDataPage method.");
+                throw new ProjectServicesException("PersistenceException occurred when operating ProjectManager.",
+                    ex);
+            }
+        }
+
+        log(Level.INFO, "Exits ProjectServicesImpl#getSimpleProjectContestDataPage method.");
+        return ret;
+    }
+
+    /**
+     * <p>
+     * Checks whether the user has the administrator role.
+     * </p>
+     *
+     * @param tcSubject TCSubject instance contains the login security info for the current user
+     * @return true if the user has the administrator role, false otherwise.
+     * @since 2.3
+     */
+    private static boolean isAdmin(TCSubject tcSubject) {
+        Set<RolePrincipal> roles = tcSubject.getPrincipals();
+        if (roles != null) {
+            for (RolePrincipal role : roles) {
+                if (ADMIN_ROLE.equalsIgnoreCase(role.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * <p>
      * Gets the list of project their read/write/full permissions.
@@ -3106,18 +3225,7 @@ public class ProjectServicesImpl implements ProjectServices {
             boolean overdueContests) throws ProjectServicesException {
         log(Level.INFO, "Enters ProjectServicesImpl#getSimplePipelineData method.");
 
-        List<SimplePipelineData> ret = null;
-        try {
-            logDebug("Starts calling ProjectManager#getSimplePipelineData method.");
-
-            ret = projectManager.getSimplePipelineData(-1, startDate, endDate, overdueContests);
-
-            logDebug("Finished calling ProjectManager#getSimplePipelineData method.");
-
-        } catch (PersistenceException ex) {
-            log(Level.ERROR, "ProjectServicesException occurred in ProjectServicesImpl#getSimplePipelineData method.");
-            throw new ProjectServicesException("PersistenceException occurred when operating ProjectManager.", ex);
-        }
+        List<SimplePipelineData> ret = getCachedSimplePipelineData(-1, startDate, endDate, overdueContests);
 
         log(Level.INFO, "Exits ProjectServicesImpl#getSimplePipelineData method.");
         return ret;
@@ -3143,11 +3251,39 @@ public class ProjectServicesImpl implements ProjectServices {
             boolean overdueContests) throws ProjectServicesException {
         log(Level.INFO, "Enters ProjectServicesImpl#getSimplePipelineData method.");
 
-        List<SimplePipelineData> ret = null;
+        List<SimplePipelineData> ret = getCachedSimplePipelineData(userId, startDate, endDate, overdueContests);
+
+        log(Level.INFO, "Exits ProjectServicesImpl#getSimplePipelineData method.");
+        return ret;
+    }
+
+    /**
+     * <p>
+     * Gets the simple pipeline data from the per-user result cache, or from the project manager if it is not
+     * cached.
+     * </p>
+     *
+     * @param userId the user id, -1 for all the users.
+     * @param startDate the start of date range within which pipeline data for contests need to be fetched.
+     * @param endDate the end of date range within which pipeline data for contests need to be fetched.
+     * @param overdueContests whether to include overdue contests or not.
+     * @return the list of simple pipeline data.
+     * @throws ProjectServicesException if error during retrieval from database.
+     * @since 2.3
+     */
+    private List<SimplePipelineData> getCachedSimplePipelineData(long userId, Date startDate, Date endDate,
+        boolean overdueContests) throws ProjectServicesException {
+        String cacheKey = "pipeline|" + (startDate == null ? null : startDate.getTime()) + "|"
+            + (endDate == null ? null : endDate.getTime()) + "|" + overdueContests;
+        List<SimplePipelineData> ret = userResultCache.get(userId, cacheKey);
+        if (ret != null) {
+            return ret;
+        }
         try {
             logDebug("Starts calling ProjectManager#getSimplePipelineData method.");
 
             ret = projectManager.getSimplePipelineData(userId, startDate, endDate, overdueContests);
+            userResultCache.put(userId, cacheKey, ret);
 
             logDebug("Finished calling ProjectManager#getSimplePipelineData method.");
 
@@ -3155,8 +3291,6 @@ public class ProjectServicesImpl implements ProjectServices {
             log(Level.ERROR, "ProjectServicesException occurred in ProjectServicesImpl#getSimplePipelineData method.");
             throw new ProjectServicesException("PersistenceException occurred when operating ProjectManager.", ex);
         }
-
-        log(Level.INFO, "Exits ProjectServicesImpl#getSimplePipelineData method.");
         return ret;
     }
 
@@ -3299,6 +3433,58 @@ public class ProjectServicesImpl implements ProjectServices {
         }
     }
 
+    /**
+     * Checks the permissions of a user on contests at once, granted on the contests or on their direct projects.
+     *
+     * @param contestIds the contest ids
+     * @param userId user id
+     * @param tcDirectProjectIds receives the tc direct project id of each contest, 0 if it has none
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the contest
+     *         <code>contestIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws ProjectServicesException if any error occurs
+     * @since 2.4
+     */
+    public BitSet checkContestPermissions(long[] contestIds, long userId, long[] tcDirectProjectIds)
+        throws ProjectServicesException {
+        String method = "checkContestPermissions(" + contestIds.length + " ids, " + userId + ")";
+
+        Util.log(logger, Level.INFO, "Enters " + method);
+        try {
+            return projectManager.checkContestPermissions(contestIds, userId, tcDirectProjectIds);
+        } catch (PersistenceException e) {
+            Util.log(logger, Level.ERROR, "ProjectServicesException occurred in " + method);
+            throw new ProjectServicesException("PersistenceException occurred when operating ProjectManager.", e);
+        } finally {
+            Util.log(logger, Level.INFO, "Exits " + method);
+        }
+    }
+
+    /**
+     * Checks the permissions of a user on projects at once.
+     *
+     * @param tcprojectIds the tc direct project ids
+     * @param userId user id
+     *
+     * @return the granted permissions: bit <code>2 * i</code> is set if the user can read the project
+     *         <code>tcprojectIds[i]</code>, bit <code>2 * i + 1</code> if the user can write it
+     * @throws ProjectServicesException if any error occurs
+     * @since 2.4
+     */
+    public BitSet checkProjectPermissions(long[] tcprojectIds, long userId) throws ProjectServicesException {
+        String method = "checkProjectPermissions(" + tcprojectIds.length + " ids, " + userId + ")";
+
+        Util.log(logger, Level.INFO, "Enters " + method);
+        try {
+            return projectManager.checkProjectPermissions(tcprojectIds, userId);
+        } catch (PersistenceException e) {
+            Util.log(logger, Level.ERROR, "ProjectServicesException occurred in " + method);
+            throw new ProjectServicesException("PersistenceException occurred when operating ProjectManager.", e);
+        } finally {
+            Util.log(logger, Level.INFO, "Exits " + method);
+        }
+    }
+
 
      /**
      * <p>
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.project.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A short-lived cache of the list results of the project services, keyed by user. A page of the cockpit issues
+ * several sub-requests which read the same contest and pipeline data of the user; the cache lets them share one
+ * query. The entries expire after the time to live, and the least recently used entries are evicted beyond the
+ * maximum number of entries.
+ * </p>
+ *
+ * <p>
+ * <strong>Thread Safety:</strong> This class is thread safe, the entries are guarded by the cache. The cached lists
+ * are copied on both put and get, but their elements are shared, so the callers must not modify them.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+class UserResultCache {
+
+    /**
+     * <p>
+     * The cache shared by the project services instances.
+     * </p>
+     */
+    private static final UserResultCache INSTANCE = new UserResultCache(30000, 2000);
+
+    /**
+     * <p>
+     * The entries, by user id and key, in access order.
+     * </p>
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * <p>
+     * The time to live of the entries in milliseconds, 0 to disable the cache.
+     * </p>
+     */
+    private volatile long timeToLive;
+
+    /**
+     * <p>
+     * Creates the cache.
+     * </p>
+     *
+     * @param timeToLive the time to live of the entries in milliseconds, 0 to disable the cache.
+     * @param maxEntries the maximum number of entries.
+     */
+    UserResultCache(long timeToLive, final int maxEntries) {
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2270569637163941842L;
+
+            protected boolean removeEldestEntry(Map.Entry<String, UserResultCache.Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * <p>
+     * Gets the cache shared by the project services instances.
+     * </p>
+     *
+     * @return the cache.
+     */
+    static UserResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Gets a cached result.
+     * </p>
+     *
+     * @param <T> the type of the elements of the result.
+     * @param userId the id of the user.
+     * @param key the key of the result for the user.
+     * @return a copy of the result, null if it is not cached or expired.
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(long userId, String key) {
+        String entryKey = userId + "|" + key;
+        synchronized (entries) {
+            Entry entry = entries.get(entryKey);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= entry.expirationTime) {
+                entries.remove(entryKey);
+                return null;
+            }
+            return new ArrayList<T>((List<T>) entry.value);
+        }
+    }
+
+    /**
+     * <p>
+     * Caches a result. Does nothing if the cache is disabled.
+     * </p>
+     *
+     * @param userId the id of the user.
+     * @param key the key of the result for the user.
+     * @param value the result.
+     */
+    void put(long userId, String key, List<?> value) {
+        long ttl = timeToLive;
+        if (ttl <= 0 || value == null) {
+            return;
+        }
+        Entry entry = new Entry(new ArrayList<Object>(value), System.currentTimeMillis() + ttl);
+        synchronized (entries) {
+            entries.put(userId + "|" + key, entry);
+        }
+    }
+
+    /**
+     * <p>
+     * Sets the time to live of the entries.
+     * </p>
+     *
+     * @param timeToLive the time to live in milliseconds, 0 to disable the cache.
+     */
+    void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        if (timeToLive <= 0) {
+            synchronized (entries) {
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * A cached result.
+     * </p>
+     *
+     * <p>
+     * <strong>Thread Safety:</strong> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class Entry {
+        /**
+         * The result.
+         */
+        private final List<?> value;
+
+        /**
+         * The expiration time in milliseconds.
+         */
+        private final long expirationTime;
+
+        /**
+         * Creates the entry.
+         *
+         * @param value the result.
+         * @param expirationTime the expiration time in milliseconds.
+         */
+        Entry(List<?> value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.configs;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.topcoder.direct.services.view.util.challenge.CostCalculationService;
+import com.topcoder.shared.util.logging.Logger;
+
+/**
+ * <p>
+ * Builds the challenge fee configuration and the copilot fees of {@link ConfigUtils} at startup, computing the review
+ * costs of the contest categories concurrently, and publishes them as immutable snapshots. They are rebuilt in the
+ * background when the configuration files contestFees.xml or copilotFees.xml are modified, and every
+ * <code>rebuildInterval</code> milliseconds to pick up the changes of the default payments in the database. The
+ * previous snapshots are served while a rebuild runs, and kept if it fails.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe once configured: the rebuilds run on a single thread.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class ChallengeFeeConfigurationProvider {
+
+    /**
+     * <p>The configuration files the fees are loaded from.</p>
+     */
+    private static final String[] FEE_FILES = {"/contestFees.xml", "/copilotFees.xml"};
+
+    /**
+     * <p>A <code>Logger</code> to be used for logging the rebuilds.</p>
+     */
+    private static final Logger logger = Logger.getLogger(ChallengeFeeConfigurationProvider.class);
+
+    /**
+     * <p>The cost calculation service computing the review costs.</p>
+     */
+    private CostCalculationService costCalculationService;
+
+    /**
+     * <p>The number of threads computing the review costs.</p>
+     */
+    private int threadCount = 4;
+
+    /**
+     * <p>The interval in milliseconds between the checks of the configuration files.</p>
+     */
+    private long checkInterval = 60000;
+
+    /**
+     * <p>The interval in milliseconds between the rebuilds for the changes of the default payments.</p>
+     */
+    private long rebuildInterval = 30 * 60 * 1000;
+
+    /**
+     * <p>The executor computing the review costs.</p>
+     */
+    private ExecutorService executor;
+
+    /**
+     * <p>The scheduler of the checks and rebuilds.</p>
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * <p>The last modification times of the configuration files at the last build.</p>
+     */
+    private long[] lastModified;
+
+    /**
+     * <p>The time of the last build.</p>
+     */
+    private long lastBuild;
+
+    /**
+     * <p>Creates the provider.</p>
+     */
+    public ChallengeFeeConfigurationProvider() {
+    }
+
+    /**
+     * <p>Builds and publishes the fees, and schedules the background rebuilds.</p>
+     *
+     * @throws IllegalStateException if the provider is not configured correctly.
+     */
+    public synchronized void start() {
+        if (costCalculationService == null) {
+            throw new IllegalStateException("The costCalculationService is not set.");
+        }
+        if (threadCount <= 0 || checkInterval <= 0 || rebuildInterval <= 0) {
+            throw new IllegalStateException("The threadCount, checkInterval and rebuildInterval should be positive.");
+        }
+        executor = Executors.newFixedThreadPool(threadCount, new DaemonThreadFactory("challenge-fee-builder"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("challenge-fee-scheduler"));
+
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // the configuration is built by its first caller, and retried by the background rebuilds
+            logger.error("Failed to build the challenge fee configuration", e);
+            lastModified = new long[FEE_FILES.length];
+        }
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    rebuildIfChanged();
+                } catch (Exception e) {
+                    logger.error("Failed to rebuild the challenge fee configuration", e);
+                }
+            }
+        }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <p>Stops the background rebuilds.</p>
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * <p>Rebuilds the fees if the configuration files are modified or the rebuild interval elapsed.</p>
+     *
+     * @throws Exception if the fees can not be built.
+     */
+    private void rebuildIfChanged() throws Exception {
+        long[] modified = getLastModified();
+        boolean changed = false;
+        for (int i = 0; i < modified.length; i++) {
+            changed |= modified[i] != lastModified[i];
+        }
+        if (changed) {
+            logger.info("The fee configuration files are modified, rebuilding the challenge fee configuration");
+        }
+        if (changed || System.currentTimeMillis() - lastBuild >= rebuildInterval) {
+            rebuild();
+        }
+    }
+
+    /**
+     * <p>Builds and publishes the fees.</p>
+     *
+     * @throws Exception if the fees can not be built.
+     */
+    private void rebuild() throws Exception {
+        long[] modified = getLastModified();
+        long start = System.currentTimeMillis();
+
+        // the default payments are read again by the cost calculation service
+        costCalculationService.invalidateCache();
+        ConfigUtils.ChallengeFeeConfiguration configuration =
+            ConfigUtils.buildChallengeFeeConfiguration(costCalculationService, executor);
+        Map<String, CopilotFee> copilotFees = ConfigUtils.loadCopilotFees();
+        ConfigUtils.publishFees(configuration, copilotFees);
+
+        lastModified = modified;
+        lastBuild = start;
+        logger.info("The challenge fee configuration is built in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * <p>Gets the last modification times of the configuration files. The files which are not in a directory,
+     * e.g. in a jar, are only rebuilt every rebuild interval.</p>
+     *
+     * @return the last modification times, 0 for the files which are not in a directory.
+     */
+    private static long[] getLastModified() {
+        long[] modified = new long[FEE_FILES.length];
+        for (int i = 0; i < FEE_FILES.length; i++) {
+            URL url = ConfigUtils.class.getResource(FEE_FILES[i]);
+            if (url != null && "file".equals(url.getProtocol())) {
+                try {
+                    modified[i] = new File(url.toURI()).lastModified();
+                } catch (URISyntaxException e) {
+                    // not a file path, rebuilt every rebuild interval
+                }
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * <p>Sets the cost calculation service computing the review costs.</p>
+     *
+     * @param costCalculationService the cost calculation service.
+     */
+    public void setCostCalculationService(CostCalculationService costCalculationService) {
+        this.costCalculationService = costCalculationService;
+    }
+
+    /**
+     * <p>Sets the number of threads computing the review costs.</p>
+     *
+     * @param threadCount the number of threads.
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * <p>Sets the interval in milliseconds between the checks of the configuration files.</p>
+     *
+     * @param checkInterval the interval in milliseconds.
+     */
+    public void setCheckInterval(long checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * <p>Sets the interval in milliseconds between the rebuilds for the changes of the default payments.</p>
+     *
+     * @param rebuildInterval the interval in milliseconds.
+     */
+    public void setRebuildInterval(long rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    /**
+     * <p>
+     * Creates the daemon threads of the provider.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        /**
+         * <p>The name of the threads.</p>
+         */
+        private final String name;
+
+        /**
+         * <p>Creates the factory.</p>
+         *
+         * @param name the name of the threads.
+         */
+        DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        /**
+         * <p>Creates a daemon thread.</p>
+         *
+         * @param r the runnable of the thread.
+         * @return the thread.
+         */
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
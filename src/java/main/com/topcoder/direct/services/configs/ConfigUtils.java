@@ -9,9 +9,15 @@ import com.topcoder.management.payment.calculator.impl.DefaultProjectPaymentCalc
 import com.topcoder.project.phases.PhaseType;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBContext;
 
@@ -52,8 +58,26 @@ import javax.xml.bind.JAXBContext;
  * - Update {@link #init()} to get copilot fee value from DefaultProjectPaymentCalculator
  * </p>
  *
- * @author BeBetter, Veve, jiajizhou86, Veve
- * @version 1.5
+ * <p>
+ * Version 1.6 change notes:
+ * - The review costs of the billing levels of a software contest type are quoted at once by
+ * {@link CostCalculationService#getPhasesPayments(long, ReviewType, List)}
+ * </p>
+ *
+ * <p>
+ * Version 1.7 change notes:
+ * - The challenge fee configuration is built from a newly loaded contestFees.xml and published as an immutable
+ * snapshot, by {@link ChallengeFeeConfigurationProvider} at startup and when the fees change, or once by the first
+ * caller if it is not published yet
+ * - The copilot fees are replaced as a whole when they change
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the fee configurations are published through volatile fields.
+ * </p>
+ *
+ * @author BeBetter, Veve, jiajizhou86, Veve, TCSDEVELOPER
+ * @version 1.7
  */
 public final class ConfigUtils {
     /**
@@ -70,30 +94,6 @@ public final class ConfigUtils {
      */
     private static List<StudioSubtypeOverview> studioOverviews;
 
-    /**
-     * <p>
-     * Contest fees.
-     * </p>
-     */
-    private static ContestFees contestFees;
-
-    /**
-     * <p>
-     * Studio subtype contest fees.
-     * </p>
-     */
-    private static List<StudioSubtypeContestFee> studioSubtypeContestFees;
-
-
-    /**
-     * <p>
-     * Algorithm subtype contest fees
-     * </p>
-     *
-     * @since 1.3
-     */
-    private static List<AlgorithmSubtypeContestFee> algorithmSubtypeContestFees;
-
     /**
      * <p>
      * File types.
@@ -101,13 +101,6 @@ public final class ConfigUtils {
      */
     private static FileTypes fileTypes;
 
-    /**
-     * <p>
-     * Software contest fees.
-     * </p>
-     */
-    private static Map<String, ContestFee> softwareContestFees;
-
     /**
      * <p>
      * Copilot fees.
@@ -115,7 +108,7 @@ public final class ConfigUtils {
      *
      * @since 1.1
      */
-    private static Map<String, CopilotFee> copilotFees;
+    private static volatile Map<String, CopilotFee> copilotFees;
 
     /**
      * <p>
@@ -141,7 +134,7 @@ public final class ConfigUtils {
      * - design
      * - data
      */
-    private static ChallengeFeeConfiguration challengeFeeConfiguration;
+    private static volatile ChallengeFeeConfiguration challengeFeeConfiguration;
 
 
     static {
@@ -185,50 +178,15 @@ public final class ConfigUtils {
             throw new RuntimeException("no studio overview is defined in overview.xml");
         }
 
-        JAXBContext contestFeesJaxbContext = JAXBContext.newInstance(ContestFees.class);
-        contestFees = (ContestFees) contestFeesJaxbContext.createUnmarshaller().unmarshal(
-                ConfigUtils.class.getResourceAsStream("/contestFees.xml"));
-
-        softwareContestFees = new HashMap<String, ContestFee>();
-
-        for (ContestFee contestFee : contestFees.getContestFees()) {
-            if (contestFee.isStudioFee()) {
-                studioSubtypeContestFees = contestFee.getStudioSubtypeContestFees();
-            } else if (contestFee.isAlgorithmFee()) {
-                algorithmSubtypeContestFees = contestFee.getAlgorithmSubtypeContestFees();
-            } else {
-                softwareContestFees.put(contestFee.getContestTypeId() + "", contestFee);
-            }
-        }
-
-        if (studioSubtypeContestFees == null || studioSubtypeContestFees.size() == 0) {
-            throw new RuntimeException("no studio subtype contest fee is defined in contestFees.xml");
-        }
+        // validate the contest fees early, the challenge fee configuration is built from them later
+        loadContestFees();
 
         JAXBContext fileTypesJaxbContext = JAXBContext.newInstance(FileTypes.class);
         fileTypes = (FileTypes) fileTypesJaxbContext.createUnmarshaller().unmarshal(
                 ConfigUtils.class.getResourceAsStream("/fileTypes.xml"));
 
         // load the copilot fees from the configuration copilotFees.xml
-        DefaultProjectPaymentCalculator calculator = new DefaultProjectPaymentCalculator();
-
-        JAXBContext copilotFeesJaxbContext = JAXBContext.newInstance(CopilotFees.class);
-        CopilotFees parsedFees = (CopilotFees) copilotFeesJaxbContext.createUnmarshaller().unmarshal(
-                ConfigUtils.class.getResourceAsStream("/copilotFees.xml"));
-        copilotFees = new HashMap<String, CopilotFee>();
-
-        // put copilot fee into the map
-        for(CopilotFee copilotFee : parsedFees.getCopilotFees()) {
-            copilotFees.put(String.valueOf(copilotFee.getContestTypeId()), copilotFee);
-
-            // gets the copilot fee from default project payment calculator to overrides if exists
-
-            BigDecimal copilotPayment = calculator.getDefaultPayment(copilotFee.getContestTypeId(),
-                    DefaultProjectPaymentCalculator.COPILOT_RESOURCE_ROLE_ID, BigDecimal.ZERO, 1);
-            if(copilotPayment != null) {
-                copilotFee.setCopilotFee(copilotPayment.doubleValue());
-            }
-        }
+        copilotFees = loadCopilotFees();
 
         // load Jira issue tracking configuration
         JAXBContext issueTrackingJaxbContext = JAXBContext.newInstance(IssueTrackingConfig.class);
@@ -282,20 +240,137 @@ public final class ConfigUtils {
     }
 
 
+    /**
+     * <p>
+     * Gets the challenge fee configuration. It is published by {@link ChallengeFeeConfigurationProvider} at startup
+     * and replaced when the fees change; it is built in the calling thread if it is not published yet.
+     * </p>
+     *
+     * <p>version 1.7 changes - the configuration is an immutable snapshot built at most once concurrently.</p>
+     *
+     * @return the challenge fee configuration.
+     */
     public static ChallengeFeeConfiguration getChallengeFeeConfiguration() {
-        if (challengeFeeConfiguration == null) {
-            setupChallengeFeeConfiguration();
+        ChallengeFeeConfiguration configuration = challengeFeeConfiguration;
+        if (configuration == null) {
+            synchronized (ConfigUtils.class) {
+                configuration = challengeFeeConfiguration;
+                if (configuration == null) {
+                    try {
+                        configuration = buildChallengeFeeConfiguration(CostCalculationService.getInstance(), null);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error when setting up challenge fee configuration", e);
+                    }
+                    challengeFeeConfiguration = configuration;
+                }
+            }
         }
-        return challengeFeeConfiguration;
+        return configuration;
     }
 
-    private static void setupChallengeFeeConfiguration() {
+    /**
+     * <p>
+     * Publishes the challenge fee configuration and the copilot fees.
+     * </p>
+     *
+     * @param configuration the challenge fee configuration.
+     * @param fees the copilot fees by contest type id.
+     * @since 1.7
+     */
+    static void publishFees(ChallengeFeeConfiguration configuration, Map<String, CopilotFee> fees) {
+        challengeFeeConfiguration = configuration;
+        copilotFees = fees;
+    }
 
-        try {
-            CostCalculationService service = CostCalculationService.getInstance();
+    /**
+     * <p>
+     * Loads the contest fees from the configuration file contestFees.xml. A new instance is loaded on each call.
+     * </p>
+     *
+     * @return the contest fees.
+     * @throws Exception if the configuration file can not be loaded or defines no studio subtype contest fee.
+     * @since 1.7
+     */
+    static ContestFees loadContestFees() throws Exception {
+        JAXBContext contestFeesJaxbContext = JAXBContext.newInstance(ContestFees.class);
+        ContestFees contestFees = (ContestFees) contestFeesJaxbContext.createUnmarshaller().unmarshal(
+                ConfigUtils.class.getResourceAsStream("/contestFees.xml"));
+
+        for (ContestFee contestFee : contestFees.getContestFees()) {
+            if (contestFee.isStudioFee() && contestFee.getStudioSubtypeContestFees().size() > 0) {
+                return contestFees;
+            }
+        }
+        throw new RuntimeException("no studio subtype contest fee is defined in contestFees.xml");
+    }
+
+    /**
+     * <p>
+     * Loads the copilot fees from the configuration file copilotFees.xml, overridden by the default payments of
+     * the copilots if they exist. A new map is loaded on each call.
+     * </p>
+     *
+     * @return the unmodifiable copilot fees by contest type id.
+     * @throws Exception if the copilot fees can not be loaded.
+     * @since 1.7
+     */
+    static Map<String, CopilotFee> loadCopilotFees() throws Exception {
+        DefaultProjectPaymentCalculator calculator = new DefaultProjectPaymentCalculator();
+
+        JAXBContext copilotFeesJaxbContext = JAXBContext.newInstance(CopilotFees.class);
+        CopilotFees parsedFees = (CopilotFees) copilotFeesJaxbContext.createUnmarshaller().unmarshal(
+                ConfigUtils.class.getResourceAsStream("/copilotFees.xml"));
+        Map<String, CopilotFee> fees = new HashMap<String, CopilotFee>();
+
+        // put copilot fee into the map
+        for(CopilotFee copilotFee : parsedFees.getCopilotFees()) {
+            fees.put(String.valueOf(copilotFee.getContestTypeId()), copilotFee);
+
+            // gets the copilot fee from default project payment calculator to overrides if exists
 
-            if (challengeFeeConfiguration == null) {
-                for (StudioSubtypeContestFee studioSubtypeContestFee : studioSubtypeContestFees) {
+            BigDecimal copilotPayment = calculator.getDefaultPayment(copilotFee.getContestTypeId(),
+                    DefaultProjectPaymentCalculator.COPILOT_RESOURCE_ROLE_ID, BigDecimal.ZERO, 1);
+            if(copilotPayment != null) {
+                copilotFee.setCopilotFee(copilotPayment.doubleValue());
+            }
+        }
+
+        return Collections.unmodifiableMap(fees);
+    }
+
+    /**
+     * <p>
+     * Builds the challenge fee configuration from a newly loaded contests fees, computing the review costs of the
+     * studio subtypes and of the software contest types concurrently when an executor is given.
+     * </p>
+     *
+     * @param service the cost calculation service.
+     * @param executor the executor computing the review costs, null to compute them in the calling thread.
+     * @return the challenge fee configuration, whose collections are unmodifiable.
+     * @throws Exception if any error occurs.
+     * @since 1.7
+     */
+    static ChallengeFeeConfiguration buildChallengeFeeConfiguration(final CostCalculationService service,
+            ExecutorService executor) throws Exception {
+        List<StudioSubtypeContestFee> studioSubtypeContestFees = null;
+        List<AlgorithmSubtypeContestFee> algorithmSubtypeContestFees = null;
+        Map<String, ContestFee> softwareContestFees = new HashMap<String, ContestFee>();
+
+        for (ContestFee contestFee : loadContestFees().getContestFees()) {
+            if (contestFee.isStudioFee()) {
+                studioSubtypeContestFees = contestFee.getStudioSubtypeContestFees();
+            } else if (contestFee.isAlgorithmFee()) {
+                algorithmSubtypeContestFees = contestFee.getAlgorithmSubtypeContestFees();
+            } else {
+                softwareContestFees.put(contestFee.getContestTypeId() + "", contestFee);
+            }
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+
+        for (final StudioSubtypeContestFee studioSubtypeContestFee : studioSubtypeContestFees) {
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
                     double totalReviewCost = 0;
                     Map<String, BigDecimal> phasesPayment = service.getPhasesPayment(0, studioSubtypeContestFee.getId(),
                             ReviewType.COMMUNITY, new BigDecimal(studioSubtypeContestFee.getFirstPlaceCost()));
@@ -312,17 +387,26 @@ public final class ConfigUtils {
                             (phasesPayment.get(PhaseType.SPECIFICATION_REVIEW_PHASE.getName()) ==
                                     null) ? 0 : phasesPayment.get(
                                     PhaseType.SPECIFICATION_REVIEW_PHASE.getName()).doubleValue());
+                    return null;
                 }
+            });
+        }
 
-
-                for (ContestFee softwareEntry : softwareContestFees.values()) {
-
+        for (final ContestFee softwareEntry : softwareContestFees.values()) {
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
                     List<ContestCostBillingLevel> contestCostBillingLevels = softwareEntry.getContestCost().getContestCostBillingLevels();
 
+                    List<BigDecimal> prizes = new ArrayList<BigDecimal>();
                     for (ContestCostBillingLevel contestCostBillingLevel : contestCostBillingLevels) {
-                        Map<String, BigDecimal> phasesPayment = service.getPhasesPayment(0,
-                                softwareEntry.getContestTypeId(),
-                                ReviewType.COMMUNITY, new BigDecimal(contestCostBillingLevel.getFirstPlaceCost()));
+                        prizes.add(new BigDecimal(contestCostBillingLevel.getFirstPlaceCost()));
+                    }
+                    List<Map<String, BigDecimal>> levelsPayment = service.getPhasesPayments(
+                            softwareEntry.getContestTypeId(), ReviewType.COMMUNITY, prizes);
+
+                    for (int i = 0; i < contestCostBillingLevels.size(); i++) {
+                        ContestCostBillingLevel contestCostBillingLevel = contestCostBillingLevels.get(i);
+                        Map<String, BigDecimal> phasesPayment = levelsPayment.get(i);
                         double totalReviewCost = 0;
                         for (Map.Entry<String, BigDecimal> entry : phasesPayment.entrySet()) {
                             if (!(entry.getKey().equalsIgnoreCase(CostCalculationService.TOTAL_RESULT_KEY) ||
@@ -332,16 +416,34 @@ public final class ConfigUtils {
                         }
                         contestCostBillingLevel.setReviewBoardCost(totalReviewCost);
                     }
+                    return null;
                 }
+            });
+        }
 
-                challengeFeeConfiguration = new ChallengeFeeConfiguration();
-                challengeFeeConfiguration.setDevelopment(softwareContestFees);
-                challengeFeeConfiguration.setDesign(studioSubtypeContestFees);
-                challengeFeeConfiguration.setData(algorithmSubtypeContestFees);
+        if (executor == null) {
+            for (Callable<Void> task : tasks) {
+                task.call();
+            }
+        } else {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw e;
+                }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Error when setting up challenge fee configuration", e);
         }
+
+        ChallengeFeeConfiguration configuration = new ChallengeFeeConfiguration();
+        configuration.setDevelopment(Collections.unmodifiableMap(softwareContestFees));
+        configuration.setDesign(Collections.unmodifiableList(studioSubtypeContestFees));
+        configuration.setData(algorithmSubtypeContestFees == null ? null
+                : Collections.unmodifiableList(algorithmSubtypeContestFees));
+        return configuration;
     }
 
     /**
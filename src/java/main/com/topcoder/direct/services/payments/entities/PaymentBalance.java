@@ -3,18 +3,26 @@
  */
 package com.topcoder.direct.services.payments.entities;
 
+import java.util.Date;
+
 /**
  * <p>
  * This entity is a container for payment balance information.
  * </p>
+ *
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>Added the dates the provider balances were retrieved, the balances may be served from a cache.</li>
+ * </ul>
+ * </p>
  * 
  * <p>
  * <strong>Thread Safety: </strong> This class is mutable and not thread safe.
  * </p>
  * 
- * @author TCSASSEMBLER
- * @version 1.0 (Module Assembly - TopCoder Direct Member Payments Dashboard
- *          Backend Assembly)
+ * @author TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.1
  * @since 1.0
  */
 public class PaymentBalance {
@@ -39,6 +47,27 @@ public class PaymentBalance {
      */
     private double notSetBalance;
 
+    /**
+     * Represents the date the PayPal balance was retrieved, null if it was never retrieved.
+     *
+     * @since 1.1
+     */
+    private Date paypalBalanceDate;
+
+    /**
+     * Represents the date the Payoneer balance was retrieved, null if it was never retrieved.
+     *
+     * @since 1.1
+     */
+    private Date payoneerBalanceDate;
+
+    /**
+     * Represents the date the western union balance was retrieved, null if it was never retrieved.
+     *
+     * @since 1.1
+     */
+    private Date westernUnionBalanceDate;
+
     /**
      * The default empty ctor.
      */
@@ -132,4 +161,79 @@ public class PaymentBalance {
     public void setNotSetBalance(double notSetBalance) {
         this.notSetBalance = notSetBalance;
     }
+
+    /**
+     * <p>
+     * Getter of paypalBalanceDate field.
+     * </p>
+     *
+     * @return the paypalBalanceDate
+     * @since 1.1
+     */
+    public Date getPaypalBalanceDate() {
+        return paypalBalanceDate;
+    }
+
+    /**
+     * <p>
+     * Setter of paypalBalanceDate field.
+     * </p>
+     *
+     * @param paypalBalanceDate
+     *            the paypalBalanceDate to set
+     * @since 1.1
+     */
+    public void setPaypalBalanceDate(Date paypalBalanceDate) {
+        this.paypalBalanceDate = paypalBalanceDate;
+    }
+
+    /**
+     * <p>
+     * Getter of payoneerBalanceDate field.
+     * </p>
+     *
+     * @return the payoneerBalanceDate
+     * @since 1.1
+     */
+    public Date getPayoneerBalanceDate() {
+        return payoneerBalanceDate;
+    }
+
+    /**
+     * <p>
+     * Setter of payoneerBalanceDate field.
+     * </p>
+     *
+     * @param payoneerBalanceDate
+     *            the payoneerBalanceDate to set
+     * @since 1.1
+     */
+    public void setPayoneerBalanceDate(Date payoneerBalanceDate) {
+        this.payoneerBalanceDate = payoneerBalanceDate;
+    }
+
+    /**
+     * <p>
+     * Getter of westernUnionBalanceDate field.
+     * </p>
+     *
+     * @return the westernUnionBalanceDate
+     * @since 1.1
+     */
+    public Date getWesternUnionBalanceDate() {
+        return westernUnionBalanceDate;
+    }
+
+    /**
+     * <p>
+     * Setter of westernUnionBalanceDate field.
+     * </p>
+     *
+     * @param westernUnionBalanceDate
+     *            the westernUnionBalanceDate to set
+     * @since 1.1
+     */
+    public void setWesternUnionBalanceDate(Date westernUnionBalanceDate) {
+        this.westernUnionBalanceDate = westernUnionBalanceDate;
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.payments.impl;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * The last known good balance of a payment provider, with the time it was retrieved. The balance is refreshed on an
+ * executor, and at most one refresh of a provider runs at a time: the callers asking for a refresh while one runs
+ * share its result.
+ * </p>
+ *
+ * <p>
+ * <strong>Thread Safety: </strong> This class is thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+class CachedProviderBalance {
+
+    /**
+     * The name of the provider.
+     */
+    private final String provider;
+
+    /**
+     * Retrieves the balance from the provider.
+     */
+    private final Callable<Double> loader;
+
+    /**
+     * The executor running the refreshes.
+     */
+    private final Executor executor;
+
+    /**
+     * The last known good balance, null if it was never retrieved.
+     */
+    private volatile Snapshot lastKnownGood;
+
+    /**
+     * The running refresh, null if there is none.
+     */
+    private final AtomicReference<Future<Snapshot>> refresh = new AtomicReference<Future<Snapshot>>();
+
+    /**
+     * Creates the balance of a provider.
+     *
+     * @param provider the name of the provider.
+     * @param loader retrieves the balance from the provider.
+     * @param executor the executor running the refreshes.
+     */
+    CachedProviderBalance(String provider, Callable<Double> loader, Executor executor) {
+        this.provider = provider;
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the name of the provider.
+     *
+     * @return the name of the provider.
+     */
+    String getProvider() {
+        return provider;
+    }
+
+    /**
+     * Gets the last known good balance.
+     *
+     * @return the balance, null if it was never retrieved.
+     */
+    Snapshot getLastKnownGood() {
+        return lastKnownGood;
+    }
+
+    /**
+     * Starts a refresh of the balance, unless one is running.
+     *
+     * @return the running refresh.
+     */
+    Future<Snapshot> refresh() {
+        while (true) {
+            Future<Snapshot> running = refresh.get();
+            if (running != null) {
+                return running;
+            }
+            FutureTask<Snapshot> task = new FutureTask<Snapshot>(new Callable<Snapshot>() {
+                public Snapshot call() throws Exception {
+                    Snapshot snapshot = new Snapshot(loader.call(), System.currentTimeMillis());
+                    lastKnownGood = snapshot;
+                    return snapshot;
+                }
+            }) {
+                protected void done() {
+                    refresh.compareAndSet(this, null);
+                }
+            };
+            if (refresh.compareAndSet(null, task)) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.run();
+                }
+                return task;
+            }
+        }
+    }
+
+    /**
+     * Waits for a refresh of the balance.
+     *
+     * @param running the refresh.
+     * @param timeout the maximum time to wait in milliseconds.
+     * @return the refreshed balance.
+     * @throws TimeoutException if the refresh is not done in time, it goes on in the background.
+     * @throws ExecutionException if the refresh fails.
+     * @throws InterruptedException if the current thread is interrupted.
+     */
+    static Snapshot await(Future<Snapshot> running, long timeout)
+        throws TimeoutException, ExecutionException, InterruptedException {
+        return running.get(Math.max(timeout, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <p>
+     * A balance and the time it was retrieved.
+     * </p>
+     *
+     * <p>
+     * <strong>Thread Safety: </strong> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    static final class Snapshot {
+        /**
+         * The balance amount.
+         */
+        private final double amount;
+
+        /**
+         * The time the balance was retrieved, in milliseconds.
+         */
+        private final long time;
+
+        /**
+         * Creates the balance.
+         *
+         * @param amount the balance amount.
+         * @param time the time the balance was retrieved, in milliseconds.
+         */
+        Snapshot(double amount, long time) {
+            this.amount = amount;
+            this.time = time;
+        }
+
+        /**
+         * Gets the balance amount.
+         *
+         * @return the balance amount.
+         */
+        double getAmount() {
+            return amount;
+        }
+
+        /**
+         * Gets the time the balance was retrieved.
+         *
+         * @return the time in milliseconds.
+         */
+        long getTime() {
+            return time;
+        }
+
+        /**
+         * Gets the date the balance was retrieved.
+         *
+         * @return the date.
+         */
+        Date getDate() {
+            return new Date(time);
+        }
+    }
+}
@@ -24,9 +24,16 @@ import com.topcoder.direct.services.payments.ServiceException;
  * <p>
  * This class retrieves paypal balance amount.
  * </p>
+ *
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>Added the connect and read timeouts of the PayPal requests.</li>
+ * </ul>
+ * </p>
  * 
- * @author TCSASSEMBLER
- * @version 1.0 (Module Assembly - TopCoder Direct Member Payments Dashboard Backend Assembly)
+ * @author TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.1
  * @since 1.0
  */
 public class PayPalServiceImpl extends BaseService implements PayPalService {
@@ -61,6 +68,20 @@ public class PayPalServiceImpl extends BaseService implements PayPalService {
 	 */
 	private static final String CHARSET = "UTF-8";
 
+	/**
+	 * Stands for the timeout in milliseconds to connect to the PayPal service.
+	 * 
+	 * @since 1.1
+	 */
+	private int connectTimeout = 10000;
+
+	/**
+	 * Stands for the timeout in milliseconds to read the PayPal service response.
+	 * 
+	 * @since 1.1
+	 */
+	private int readTimeout = 10000;
+
     @PostConstruct
     protected void checkConfiguration() throws ConfigurationException {
         if (null == baseUrl) {
@@ -115,6 +136,8 @@ public class PayPalServiceImpl extends BaseService implements PayPalService {
 		try {
 			connection = (HttpURLConnection) 
 					(new URL(baseUrl)).openConnection();
+			connection.setConnectTimeout(connectTimeout);
+			connection.setReadTimeout(readTimeout);
 			String requestBody="METHOD=GetBalance" +
 	                "&VERSION=94.0" +
 	                "&PWD=" + URLEncoder.encode(password, CHARSET) +
@@ -282,5 +305,27 @@ public class PayPalServiceImpl extends BaseService implements PayPalService {
 	public void setSignature(String signature) {
 		this.signature = signature;
 	}
+
+	/**
+	 * <p>
+	 * Setter of connectTimeout field.
+	 * </p>
+	 * @param connectTimeout the timeout in milliseconds to connect to the PayPal service
+	 * @since 1.1
+	 */
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * <p>
+	 * Setter of readTimeout field.
+	 * </p>
+	 * @param readTimeout the timeout in milliseconds to read the PayPal service response
+	 * @since 1.1
+	 */
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
 	
 }
@@ -24,10 +24,16 @@ import com.topcoder.direct.services.payments.ServiceException;
  * <p>
  * This class retrieves Payoneer balance amount.
  * </p>
+ *
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>Added the connect and read timeouts of the Payoneer requests.</li>
+ * </ul>
+ * </p>
  * 
- * @author TCSASSEMBLER
- * @version 1.0 (Module Assembly - TopCoder Direct Member Payments Dashboard
- *          Backend Assembly)
+ * @author TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.1
  * @since 1.0
  */
 public class PayoneerServiceImpl extends BaseService implements PayoneerService {
@@ -57,6 +63,20 @@ public class PayoneerServiceImpl extends BaseService implements PayoneerService
      */
     private String partnerId;
 
+    /**
+     * Stands for the timeout in milliseconds to connect to Payoneer.
+     *
+     * @since 1.1
+     */
+    private int connectTimeout = 10000;
+
+    /**
+     * Stands for the timeout in milliseconds to read the Payoneer response.
+     *
+     * @since 1.1
+     */
+    private int readTimeout = 10000;
+
     /**
      * <p>
      * This method is responsible for checking aggregate members are initialized
@@ -145,6 +165,8 @@ public class PayoneerServiceImpl extends BaseService implements PayoneerService
 
             // Create connection
             connection = (HttpURLConnection) (new URL(baseApiUrl)).openConnection();
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
             connection.setRequestMethod("POST");
             connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
             connection.setRequestProperty("Content-Length", "" + Integer.toString(urlParameters.getBytes().length));
@@ -263,4 +285,30 @@ public class PayoneerServiceImpl extends BaseService implements PayoneerService
         this.partnerId = partnerId;
     }
 
+    /**
+     * <p>
+     * Setter of connectTimeout field.
+     * </p>
+     *
+     * @param connectTimeout
+     *            the timeout in milliseconds to connect to Payoneer
+     * @since 1.1
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * <p>
+     * Setter of readTimeout field.
+     * </p>
+     *
+     * @param readTimeout
+     *            the timeout in milliseconds to read the Payoneer response
+     * @since 1.1
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
 }
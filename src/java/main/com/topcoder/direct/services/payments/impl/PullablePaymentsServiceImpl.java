@@ -3,7 +3,18 @@
  */
 package com.topcoder.direct.services.payments.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import com.topcoder.commons.utils.LoggingWrapperUtility;
 import com.topcoder.direct.services.payments.*;
@@ -16,15 +27,27 @@ import com.topcoder.direct.services.view.util.DataProvider;
  * This service is responsible for providing member pullable payments. It uses
  * the DataProvider(Query Tool) to perform db operations.
  * </p>
+ *
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>The provider balances are retrieved concurrently, each provider is waited at most
+ * <code>providerTimeout</code> milliseconds.</li>
+ * <li>The last known good balance of each provider is kept with its date. It is served without calling the
+ * provider within <code>freshnessWindow</code> milliseconds, and refreshed in the background once older than
+ * half the window. The concurrent refreshes of a provider are shared. The last known good balance is also served
+ * when the provider fails or times out.</li>
+ * </ul>
+ * </p>
  * 
  * <p>
  * <strong>Thread Safety: </strong> This class is mutable and thus is not thread
- * safe.
+ * safe. It is effectively thread safe when configured by the container and not changed afterwards, the cached
+ * balances are thread safe.
  * </p>
  * 
- * @author TCSASSEMBLER
- * @version 1.0 (Module Assembly - TopCoder Direct Member Payments Dashboard
- *          Backend Assembly)
+ * @author TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.1
  * @since 1.0
  */
 public class PullablePaymentsServiceImpl extends BaseService implements PullablePaymentsService {
@@ -49,6 +72,34 @@ public class PullablePaymentsServiceImpl extends BaseService implements Pullable
      */
     private WesternUnionService westernUnionService;
 
+    /**
+     * Represents the time in milliseconds a retrieved balance is served without calling the provider.
+     *
+     * @since 1.1
+     */
+    private long freshnessWindow = 60000;
+
+    /**
+     * Represents the maximum time in milliseconds to wait for the providers.
+     *
+     * @since 1.1
+     */
+    private long providerTimeout = 5000;
+
+    /**
+     * Represents the pool retrieving the balances, one thread per provider.
+     *
+     * @since 1.1
+     */
+    private ExecutorService executor;
+
+    /**
+     * Represents the cached balances of the Western Union, PayPal and Payoneer providers.
+     *
+     * @since 1.1
+     */
+    private CachedProviderBalance[] balances;
+
     /**
      * <p>
      * This method is responsible for checking aggregate members are initialized
@@ -66,6 +117,54 @@ public class PullablePaymentsServiceImpl extends BaseService implements Pullable
         if (null == paypalService) {
             throw new ConfigurationException("Paypal service is not set correctly.");
         }
+        if (null == westernUnionService) {
+            throw new ConfigurationException("Western union service is not set correctly.");
+        }
+        if (freshnessWindow < 0) {
+            throw new ConfigurationException("freshnessWindow should not be negative.");
+        }
+        if (providerTimeout <= 0) {
+            throw new ConfigurationException("providerTimeout should be positive.");
+        }
+
+        executor = Executors.newFixedThreadPool(3, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "payment-balance");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        balances = new CachedProviderBalance[] {
+            new CachedProviderBalance("western union", new Callable<Double>() {
+                public Double call() throws ServiceException {
+                    return westernUnionService.getBalanceAmount();
+                }
+            }, executor),
+            new CachedProviderBalance("Paypal", new Callable<Double>() {
+                public Double call() throws ServiceException {
+                    return paypalService.getBalanceAmount();
+                }
+            }, executor),
+            new CachedProviderBalance("Payoneer", new Callable<Double>() {
+                public Double call() throws ServiceException {
+                    return payoneerService.getBalanceAmount();
+                }
+            }, executor)
+        };
+    }
+
+    /**
+     * <p>
+     * Stops the pool retrieving the balances.
+     * </p>
+     *
+     * @since 1.1
+     */
+    @PreDestroy
+    protected void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
     }
 
     /**
@@ -73,6 +172,12 @@ public class PullablePaymentsServiceImpl extends BaseService implements Pullable
      * This method is responsible for retrieving member payment balances for
      * each payment method.
      * </p>
+     *
+     * <p>
+     * The balance of a provider is its last known good balance when retrieved within the freshness window, else it
+     * is retrieved concurrently with the other providers. A provider failing or not answering in time gets its last
+     * known good balance, or 0 if it was never retrieved.
+     * </p>
      * 
      * @throws ServiceException
      *             if any error occurs
@@ -87,32 +192,73 @@ public class PullablePaymentsServiceImpl extends BaseService implements Pullable
 
         paymentBalance.setNotSetBalance(0.0);
 
-        try {
-            paymentBalance.setWesternUnionBalance(westernUnionService.getBalanceAmount());
-        } catch (ServiceException e) {
-            paymentBalance.setWesternUnionBalance(0.0);
-            LoggingWrapperUtility.logException(getLogger(), signature, new ServiceException(
-                    "Cannot get western union balance amount", e));
+        // start the refreshes first, so that the providers are called concurrently
+        long now = System.currentTimeMillis();
+        List<Future<CachedProviderBalance.Snapshot>> refreshes =
+            new ArrayList<Future<CachedProviderBalance.Snapshot>>();
+        for (int i = 0; i < balances.length; i++) {
+            refreshes.add(null);
+            CachedProviderBalance.Snapshot snapshot = balances[i].getLastKnownGood();
+            long age = snapshot == null ? Long.MAX_VALUE : now - snapshot.getTime();
+            if (age > freshnessWindow / 2) {
+                Future<CachedProviderBalance.Snapshot> refresh = balances[i].refresh();
+                if (age > freshnessWindow) {
+                    refreshes.set(i, refresh);
+                }
+            }
         }
 
-        try {
-            paymentBalance.setPaypalBalance(paypalService.getBalanceAmount());
-        } catch (ServiceException e) {
-            paymentBalance.setPaypalBalance(0);
-            LoggingWrapperUtility.logException(getLogger(), signature, new ServiceException(
-                "Cannot get Paypal balance amount", e));
-        }
-        try {
-            paymentBalance.setPayoneerBalance(payoneerService.getBalanceAmount());
-        } catch (ServiceException e) {
-            paymentBalance.setPayoneerBalance(0);
-            LoggingWrapperUtility.logException(getLogger(), signature, new ServiceException(
-                "Cannot get Payoneer balance amount", e));
+        long deadline = now + providerTimeout;
+        CachedProviderBalance.Snapshot[] snapshots = new CachedProviderBalance.Snapshot[balances.length];
+        for (int i = 0; i < balances.length; i++) {
+            snapshots[i] = getBalance(balances[i], refreshes.get(i), deadline, signature);
         }
+
+        paymentBalance.setWesternUnionBalance(snapshots[0] == null ? 0.0 : snapshots[0].getAmount());
+        paymentBalance.setWesternUnionBalanceDate(snapshots[0] == null ? null : snapshots[0].getDate());
+        paymentBalance.setPaypalBalance(snapshots[1] == null ? 0.0 : snapshots[1].getAmount());
+        paymentBalance.setPaypalBalanceDate(snapshots[1] == null ? null : snapshots[1].getDate());
+        paymentBalance.setPayoneerBalance(snapshots[2] == null ? 0.0 : snapshots[2].getAmount());
+        paymentBalance.setPayoneerBalanceDate(snapshots[2] == null ? null : snapshots[2].getDate());
+
         LoggingWrapperUtility.logExit(getLogger(), signature, new Object[] {paymentBalance});
         return paymentBalance;
     }
 
+    /**
+     * <p>
+     * Gets the balance of a provider, waiting for its refresh until the deadline.
+     * </p>
+     *
+     * @param balance
+     *            the cached balance of the provider.
+     * @param refresh
+     *            the refresh to wait for, null if the last known good balance is fresh.
+     * @param deadline
+     *            the time the refresh is waited until.
+     * @param signature
+     *            the signature of the calling method, for logging.
+     * @return the balance, null if it was never retrieved.
+     * @since 1.1
+     */
+    private CachedProviderBalance.Snapshot getBalance(CachedProviderBalance balance,
+        Future<CachedProviderBalance.Snapshot> refresh, long deadline, String signature) {
+        if (refresh != null) {
+            try {
+                return CachedProviderBalance.await(refresh, deadline - System.currentTimeMillis());
+            } catch (TimeoutException e) {
+                LoggingWrapperUtility.logException(getLogger(), signature, new ServiceException(
+                    "Cannot get " + balance.getProvider() + " balance amount in " + providerTimeout + " ms", e));
+            } catch (ExecutionException e) {
+                LoggingWrapperUtility.logException(getLogger(), signature, new ServiceException(
+                    "Cannot get " + balance.getProvider() + " balance amount", e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return balance.getLastKnownGood();
+    }
+
     /**
      * <p>
      * This method is responsible for retrieving pullable payments.
@@ -206,4 +352,30 @@ public class PullablePaymentsServiceImpl extends BaseService implements Pullable
     public void setWesternUnionService(WesternUnionService westernUnionService) {
         this.westernUnionService = westernUnionService;
     }
+
+    /**
+     * <p>
+     * Setter of freshnessWindow field.
+     * </p>
+     *
+     * @param freshnessWindow
+     *            the time in milliseconds a retrieved balance is served without calling the provider
+     * @since 1.1
+     */
+    public void setFreshnessWindow(long freshnessWindow) {
+        this.freshnessWindow = freshnessWindow;
+    }
+
+    /**
+     * <p>
+     * Setter of providerTimeout field.
+     * </p>
+     *
+     * @param providerTimeout
+     *            the maximum time in milliseconds to wait for the providers
+     * @since 1.1
+     */
+    public void setProviderTimeout(long providerTimeout) {
+        this.providerTimeout = providerTimeout;
+    }
 }
@@ -3,6 +3,8 @@
  */
 package com.topcoder.direct.services.view.action;
 
+import com.topcoder.direct.services.view.util.PrincipalCache;
+import com.topcoder.direct.services.view.util.SessionData;
 import com.topcoder.shared.security.SimpleResource;
 import com.topcoder.shared.util.DBMS;
 import com.topcoder.web.common.SimpleRequest;
@@ -30,8 +32,15 @@ import javax.servlet.http.HttpSession;
  *  </ul>
  * </p>
  *
- * @author isv, pvmagacho, ecnu_haozi
- * @version 1.2
+ * <p>
+ * Version 1.3 (TopCoder Direct - Cached Principals) Change notes:
+ *  <ul>
+ *   <li>Evict the principal of the user from the {@link PrincipalCache}.</li>
+ *  </ul>
+ * </p>
+ *
+ * @author isv, pvmagacho, ecnu_haozi, TCSDEVELOPER
+ * @version 1.3
  */
 public class LogoutAction extends AbstractAction {
     /**
@@ -52,6 +61,10 @@ public class LogoutAction extends AbstractAction {
     public String execute() throws Exception {
         HttpSession session = ServletActionContext.getRequest().getSession(false);
         if (session != null) {
+            SessionData sessionData = new SessionData(session);
+            if (!sessionData.isAnonymousUser()) {
+                PrincipalCache.getInstance().evict(sessionData.getCurrentUserId());
+            }
             session.invalidate();
         }
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.action.admin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.topcoder.direct.services.view.action.contest.launch.BaseDirectStrutsAction;
+import com.topcoder.direct.services.view.util.cache.CachePolicyRegistry;
+import com.topcoder.direct.services.view.util.metrics.QueryMetrics;
+
+/**
+ * <p>
+ * This action returns the DataAccess query metrics recorded by {@link QueryMetrics} as JSON: the totals, then the
+ * statistics of each content handle, the slowest first, with their break down per calling action.
+ * </p>
+ *
+ * <p>
+ * It is mapped with the TC staff interceptor stack, so only the TC staff can see the metrics.
+ * </p>
+ *
+ * <p>
+ * Version 1.1 (TopCoder Direct - Cache Policies)
+ * <ul>
+ *     <li>The metrics include the declared cache policies with the cache hit rate of their content handle.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> In <b>Struts 2</b> framework, the action is constructed for every request so the thread
+ * safety is not required.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.1
+ */
+public class QueryMetricsAction extends BaseDirectStrutsAction {
+    /**
+     * <p>
+     * Generated serial version uid.
+     * </p>
+     */
+    private static final long serialVersionUID = 1341741193024869567L;
+
+    /**
+     * <p>
+     * Returns the query metrics.
+     * </p>
+     *
+     * @throws Exception if there is any error.
+     */
+    @Override
+    protected void executeAction() throws Exception {
+        setResult(getMetrics());
+    }
+
+    /**
+     * <p>
+     * Clears the query metrics and returns the empty metrics.
+     * </p>
+     *
+     * @return <code>SUCCESS</code> always
+     */
+    public String reset() {
+        QueryMetrics.getInstance().reset();
+        setResult(getMetrics());
+        return SUCCESS;
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the query metrics.
+     * </p>
+     *
+     * @return the query metrics
+     */
+    private static Map<String, Object> getMetrics() {
+        QueryMetrics metrics = QueryMetrics.getInstance();
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("enabled", metrics.isEnabled());
+        result.put("queryCount", metrics.getQueryCount());
+        result.put("errorCount", metrics.getErrorCount());
+        result.put("cacheHitRate", metrics.getCacheHitRate());
+        result.put("contentHandles", metrics.toMap());
+        result.put("cachePolicies", CachePolicyRegistry.getInstance().toMap());
+        return result;
+    }
+}
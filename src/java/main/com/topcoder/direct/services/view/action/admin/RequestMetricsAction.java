@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.action.admin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.topcoder.direct.services.view.action.contest.launch.BaseDirectStrutsAction;
+import com.topcoder.direct.services.view.util.metrics.RequestMetrics;
+
+/**
+ * <p>
+ * This action returns the Struts request metrics recorded by {@link RequestMetrics} as JSON: the totals and the
+ * configuration, the rolling statistics of each action and interceptor, the slowest first, then the break downs of
+ * the sampled slow requests, the latest first.
+ * </p>
+ *
+ * <p>
+ * It is mapped with the TC staff interceptor stack, so only the TC staff can see the metrics.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> In <b>Struts 2</b> framework, the action is constructed for every request so the thread
+ * safety is not required.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class RequestMetricsAction extends BaseDirectStrutsAction {
+    /**
+     * <p>
+     * Generated serial version uid.
+     * </p>
+     */
+    private static final long serialVersionUID = 4059655904302338208L;
+
+    /**
+     * <p>
+     * Returns the request metrics.
+     * </p>
+     *
+     * @throws Exception if there is any error.
+     */
+    @Override
+    protected void executeAction() throws Exception {
+        setResult(getMetrics());
+    }
+
+    /**
+     * <p>
+     * Clears the request metrics and returns the empty metrics.
+     * </p>
+     *
+     * @return <code>SUCCESS</code> always
+     */
+    public String reset() {
+        RequestMetrics.getInstance().reset();
+        setResult(getMetrics());
+        return SUCCESS;
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the request metrics.
+     * </p>
+     *
+     * @return the request metrics
+     */
+    private static Map<String, Object> getMetrics() {
+        RequestMetrics metrics = RequestMetrics.getInstance();
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("enabled", metrics.isEnabled());
+        result.put("slowRequestThresholdMillis", metrics.getSlowRequestThresholdMillis());
+        result.put("sampleRate", metrics.getSampleRate());
+        result.put("requestCount", metrics.getRequestCount());
+        result.put("slowRequestCount", metrics.getSlowRequestCount());
+        result.put("actions", metrics.getActionStatistics());
+        result.put("interceptors", metrics.getInterceptorStatistics());
+        result.put("slowRequests", metrics.getSlowRequestSamples());
+        return result;
+    }
+}
@@ -28,12 +28,15 @@ import com.topcoder.security.TCSubject;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.apache.struts2.ServletActionContext;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -110,11 +113,26 @@ import java.util.UUID;
  * </ul>
  * </p>
  *
- * @author GreatKevin, TCSASSEMBLER
- * @version 1.4
+ * <p>
+ * Version 1.5 (TopCoder Cockpit Asset Archive Streaming)
+ * <ul>
+ *     <li>Added {@link #streamAssetsZip()} to stream the zip of the assets directly to the response, without
+ *     writing it to a temporary file first. A failure after the response is committed aborts the download
+ *     instead of finishing a truncated archive.</li>
+ * </ul>
+ * </p>
+ *
+ * @author GreatKevin, TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.5
  */
 public class ProjectAssetManageAction extends BaseAbstractAssetAction implements FormAction<ProjectIdForm>, ValidationAware {
 
+    /**
+     * The logger.
+     *
+     * @since 1.5
+     */
+    private static final Logger logger = Logger.getLogger(ProjectAssetManageAction.class);
 
     private static final long MAX_ASSET_UPLOAD_SIZE = 20971520;
 
@@ -953,16 +971,8 @@ public class ProjectAssetManageAction extends BaseAbstractAssetAction implements
         try {
             TCSubject currentUser = DirectUtils.getTCSubjectFromSession();
 
-            if (getAssetVersionIds() == null || getAssetVersionIds().length == 0) {
-                throw new IllegalArgumentException("The asset versions to download are not specified");
-            }
-
             // check permission first
-            for(long assetVersionId : getAssetVersionIds()) {
-                Asset assetToCheck = getAssetService().getAsset(getAssetVersionService().getAssetVersion(assetVersionId).getAssetId());
-                // check if has permission on each asset
-                checkIfAssetDownloadAllowed(assetToCheck, currentUser);
-            }
+            List<Long> assetVersionIdsList = checkAssetVersionsDownloadAllowed(currentUser);
 
             long currentTimeMillis = System.currentTimeMillis();
             String assetsZipFileName = BATCH_DOWNLOAD_FILE_NAME_HEADER + currentTimeMillis + ".zip";
@@ -971,11 +981,6 @@ public class ProjectAssetManageAction extends BaseAbstractAssetAction implements
 
             OutputStream zipStream = new FileOutputStream(new File(assetsZipFilePath));
 
-            List<Long> assetVersionIdsList = new ArrayList<Long>();
-            for (long l : getAssetVersionIds()) {
-                assetVersionIdsList.add(l);
-            }
-
             getAssetVersionService().batchGetAssetVersionContents(assetVersionIdsList, zipStream);
 
             // flush and close the string (writes to the zip file)
@@ -1003,6 +1008,63 @@ public class ProjectAssetManageAction extends BaseAbstractAssetAction implements
         return SUCCESS;
     }
 
+    /**
+     * Handles the request to stream the zip of multiple assets files directly to the response.
+     *
+     * @return <code>NONE</code> as the response is written.
+     * @throws Exception if the user can not download the assets.
+     * @since 1.5
+     */
+    public String streamAssetsZip() throws Exception {
+        List<Long> assetVersionIdsList = checkAssetVersionsDownloadAllowed(DirectUtils.getTCSubjectFromSession());
+
+        HttpServletResponse response = ServletActionContext.getResponse();
+        response.setContentType("application/zip");
+        response.setHeader("Content-Disposition", "attachment;filename=\"" + BATCH_DOWNLOAD_FILE_NAME_HEADER
+                + System.currentTimeMillis() + ".zip\"");
+
+        OutputStream output = response.getOutputStream();
+        try {
+            // the archive is written while the files are read, the response is committed by the first entries
+            getAssetVersionService().batchGetAssetVersionContents(assetVersionIdsList, output);
+        } catch (Exception e) {
+            logger.error("Failed to stream the zip of the asset versions " + assetVersionIdsList, e);
+            if (response.isCommitted()) {
+                // abort the download, the archive is left without its central directory so it can't be opened
+                IOUtils.closeQuietly(output);
+            } else {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Checks the current user can download the assets of the requested asset versions.
+     *
+     * @param currentUser the current user.
+     * @return the IDs of the requested asset versions.
+     * @throws Exception if the asset versions are not specified or the user can not download them.
+     * @since 1.5
+     */
+    private List<Long> checkAssetVersionsDownloadAllowed(TCSubject currentUser) throws Exception {
+        if (getAssetVersionIds() == null || getAssetVersionIds().length == 0) {
+            throw new IllegalArgumentException("The asset versions to download are not specified");
+        }
+
+        List<Long> assetVersionIdsList = new ArrayList<Long>();
+        for(long assetVersionId : getAssetVersionIds()) {
+            Asset assetToCheck = getAssetService().getAsset(getAssetVersionService().getAssetVersion(assetVersionId).getAssetId());
+            // check if has permission on each asset
+            checkIfAssetDownloadAllowed(assetToCheck, currentUser);
+            assetVersionIdsList.add(assetVersionId);
+        }
+
+        return assetVersionIdsList;
+    }
+
     /**
      * Handles the request to download the zipped assets file.
      *
@@ -134,7 +134,7 @@ public class ContestIssuesTrackingAction extends StudioOrSoftwareContestAction {
                 getContestServiceFacade(), !isStudio);
         
         // clear the old temporary attachments
-        new SessionFileStore(request.getSession(true)).getFileMap().clear();
+        new SessionFileStore(request.getSession(true)).clear();
     }
 
 
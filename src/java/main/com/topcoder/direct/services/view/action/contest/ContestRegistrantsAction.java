@@ -15,6 +15,7 @@ import com.topcoder.direct.services.view.dto.project.ProjectBriefDTO;
 import com.topcoder.direct.services.view.form.ContestRegistrantsForm;
 import com.topcoder.direct.services.view.util.DataProvider;
 import com.topcoder.direct.services.view.util.DirectUtils;
+import com.topcoder.direct.services.view.util.MemberProfileCache;
 import com.topcoder.direct.services.view.util.SessionData;
 import com.topcoder.security.TCSubject;
 import com.topcoder.service.facade.contest.ContestServiceFacade;
@@ -23,6 +24,7 @@ import com.topcoder.service.user.Registrant;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -65,9 +67,16 @@ import java.util.Map;
  * </ul>
  * </p>
  *
+ * <p>
+ * Version 1.6 (TopCoder Direct - Member Profile Cache)
+ * <ul>
+ *     <li>The handles of the registrants are put in the {@link MemberProfileCache}, so that the pages of the
+ *     contest resolving them again, e.g. the submission downloads, do not look them up.</li>
+ * </ul>
+ * </p>
  *
- * @author isv, GreatKevin
- * @version 1.5
+ * @author isv, GreatKevin, TCSDEVELOPER
+ * @version 1.6
  */
 public class ContestRegistrantsAction extends StudioOrSoftwareContestAction {
 
@@ -183,6 +192,12 @@ public class ContestRegistrantsAction extends StudioOrSoftwareContestAction {
         getViewData().setContestId(contestId);
         getViewData().setContestRegistrants(registrants);
 
+        Map<Long, String> registrantHandles = new HashMap<Long, String>();
+        for (Registrant registrant : registrants) {
+            registrantHandles.put(registrant.getUserId(), registrant.getHandle());
+        }
+        MemberProfileCache.getInstance().putHandles(registrantHandles);
+
         // For normal request flow prepare various data to be displayed to user
         if (!getFormData().isExcel()) {
             // Set contest stats
@@ -7,6 +7,7 @@ import com.topcoder.direct.services.view.action.contest.launch.ContestAction;
 import com.topcoder.direct.services.view.dto.contest.ContestRoundType;
 import com.topcoder.direct.services.view.dto.contest.ContestType;
 import com.topcoder.direct.services.view.util.DirectUtils;
+import com.topcoder.direct.services.view.util.MemberProfileCache;
 import com.topcoder.management.deliverable.Submission;
 import com.topcoder.management.deliverable.Upload;
 import com.topcoder.service.project.SoftwareCompetition;
@@ -21,7 +22,9 @@ import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -50,9 +53,17 @@ import java.util.zip.ZipOutputStream;
  *     </li>
  * </ul>
  * </p>
+ *
+ * <p>
+ * Version 1.3 (TopCoder Direct - Member Profile Cache)
+ * <ul>
+ *     <li>The handles of the copilot posting submitters are resolved in bulk by the {@link MemberProfileCache}
+ *     before the zip is written, rather than once per submission.</li>
+ * </ul>
+ * </p>
  * 
- * @author TCSASSEMBLER
- * @version 1.2
+ * @author TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.3
  */
 public class DownloadAllSoftwareSubmissionsAction extends ContestAction {
 
@@ -165,6 +176,13 @@ public class DownloadAllSoftwareSubmissionsAction extends ContestAction {
      */
     private SoftwareCompetition contest;
 
+    /**
+     * The handles of the submitters by user id, resolved for the copilot posting contests.
+     *
+     * @since 1.3
+     */
+    private Map<Long, String> submitterHandles = new HashMap<Long, String>();
+
     /**
      * <p>
      * Creates a <code>DownloadAllSoftwareSubmissionsAction</code> instance.
@@ -213,6 +231,14 @@ public class DownloadAllSoftwareSubmissionsAction extends ContestAction {
                 submissionsToDownload.add(sub);
             }
         }
+
+        if (isCopilotPosting) {
+            List<Long> submitterIds = new ArrayList<Long>();
+            for (Submission sub : submissionsToDownload) {
+                submitterIds.add(Long.parseLong(sub.getUpload().getCreationUser()));
+            }
+            submitterHandles = MemberProfileCache.getInstance().getHandles(submitterIds);
+        }
     }
 
     /**
@@ -272,7 +298,9 @@ public class DownloadAllSoftwareSubmissionsAction extends ContestAction {
 
                         if(isCopilotPosting) {
                             // special handling for the copilot posting submission, prefix the submitter's handle
-                            final String copilotHandle = getUserService().getUserHandle(Long.parseLong(sub.getUpload().getCreationUser()));
+                            final long submitterId = Long.parseLong(sub.getUpload().getCreationUser());
+                            final String copilotHandle = submitterHandles.containsKey(submitterId)
+                                    ? submitterHandles.get(submitterId) : getUserService().getUserHandle(submitterId);
                             String ext = FilenameUtils.getExtension(file.getRemoteFileName());
                             if(ext != null && ext.trim().length() > 0) {
                                 ext = "." + ext;
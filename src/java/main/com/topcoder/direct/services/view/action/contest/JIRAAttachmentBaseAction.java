@@ -88,7 +88,7 @@ public abstract class JIRAAttachmentBaseAction extends StudioOrSoftwareContestAc
         } else {
             DirectUtils.addAttachmentsToIssue(getIssueKey(), fileStore, attachmentIds.split(","));
         }
-        fileStore.getFileMap().clear();
+        fileStore.clear();
     }
     
     /**
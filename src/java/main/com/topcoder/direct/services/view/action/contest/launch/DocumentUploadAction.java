@@ -4,17 +4,13 @@
 package com.topcoder.direct.services.view.action.contest.launch;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.opensymphony.xwork2.interceptor.annotations.InputConfig;
-import org.apache.commons.io.IOUtils;
 
-import com.topcoder.catalog.entity.CompUploadedFile;
 import com.topcoder.direct.services.view.util.DirectUtils;
 import com.topcoder.direct.services.view.util.SessionFileStore;
 import com.topcoder.util.errorhandling.ExceptionUtils;
@@ -64,13 +60,21 @@ import javax.servlet.http.HttpServletRequest;
  * </p>
  *
  * <p>
+ * Version 1.2 change notes:
+ *   <ol>
+ *     <li>Updated <code>executeActionSoftware()</code> method to spill the uploaded document to the disk store of
+ *     {@link SessionFileStore} instead of reading it into the session.</li>
+ *   </ol>
+ * </p>
+ *
+ * <p>
  * <b>Thread safety:</b> The class is not thread safe because it's mutable by the setters and the values of this class
  * will change based on the request parameters. It's not required to be thread safe because in Struts 2 the actions
  * (different from Struts 1) are created for every request.
  * </p>
  *
- * @author fabrizyo, isv
- * @version 1.1
+ * @author fabrizyo, isv, TCSDEVELOPER
+ * @version 1.2
  */
 public class DocumentUploadAction extends ContestAction {
     /**
@@ -238,23 +242,10 @@ public class DocumentUploadAction extends ContestAction {
         //Gets session file store
         SessionFileStore fileStore = new SessionFileStore(DirectUtils.getServletRequest().getSession(true));
 
-        // populate the document information
-        CompUploadedFile uploadedFile = new CompUploadedFile();
-        uploadedFile.setUploadedFileDesc(contestFileDescription);
-        uploadedFile.setUploadedFileName(documentFileName);
-        //0 requirement document or 24 supporting document
-        uploadedFile.setUploadedFileType(documentTypeId);
-
-        // get the file contents as byte array and load them to the uploadedDocument
-        InputStream stream = null;
-        try {
-            stream = new FileInputStream(document);
-            uploadedFile.setFileData(IOUtils.toByteArray(stream));
-        } finally {
-            IOUtils.closeQuietly(stream);
-        }
-
-        setResult(getFileResult(fileStore.addFile(uploadedFile)));
+        // spill the document to the disk store, the document type is 0 for requirement document or 24 for
+        // supporting document
+        setResult(getFileResult(fileStore.addFile(document, documentFileName, contestFileDescription,
+            documentTypeId)));
     }
 
     /**
@@ -926,7 +926,12 @@ public class SaveDraftContestAction extends ContestAction {
         List<CompUploadedFile> files = new ArrayList<CompUploadedFile>();
         if (docUploadIds != null && docUploadIds.size() > 0) {
             for (String docUploadId : docUploadIds) {
-                CompUploadedFile file = fileStore.getFile(Long.parseLong(docUploadId));
+                CompUploadedFile file;
+                try {
+                    file = fileStore.getFile(Long.parseLong(docUploadId));
+                } catch (DirectException e) {
+                    throw new ContestServiceException(e.getMessage(), e);
+                }
                 if (file != null) {
                     files.add(file);
                 }
@@ -6,6 +6,7 @@ package com.topcoder.direct.services.view.action.copilot;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -18,6 +19,7 @@ import com.topcoder.direct.services.view.dto.copilot.CopilotManageDTO;
 import com.topcoder.direct.services.view.dto.project.ProjectBriefDTO;
 import com.topcoder.direct.services.view.util.DataProvider;
 import com.topcoder.direct.services.view.util.DirectUtils;
+import com.topcoder.direct.services.view.util.MemberProfileCache;
 import com.topcoder.direct.services.view.util.SessionData;
 import com.topcoder.security.TCSubject;
 
@@ -27,8 +29,15 @@ import com.topcoder.security.TCSubject;
  * request.
  * </p>
  * 
- * @author TCSASSEMBLER
- * @version 1.0
+ * <p>
+ * Version 1.1 (TopCoder Direct - Member Profile Cache)
+ * <ul>
+ *     <li>The handles of the copilots are resolved in bulk by the {@link MemberProfileCache}.</li>
+ * </ul>
+ * </p>
+ *
+ * @author TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.1
  * @since TC Direct Manage Copilots Assembly
  */
 public class CopilotManageAction extends BaseDirectStrutsAction {
@@ -146,12 +155,18 @@ public class CopilotManageAction extends BaseDirectStrutsAction {
         List<CopilotBriefDTO> copilots = new ArrayList<CopilotBriefDTO>();
 
         List<CopilotProfile> copilotProfiles = copilotProfileDAO.retrieveAll();
+        List<Long> copilotUserIds = new ArrayList<Long>();
+        for (CopilotProfile copilotProfile : copilotProfiles) {
+            copilotUserIds.add(copilotProfile.getUserId());
+        }
+        Map<Long, String> handles = MemberProfileCache.getInstance().getHandles(copilotUserIds);
+
         for (CopilotProfile copilotProfile : copilotProfiles) {
             CopilotBriefDTO copilot = new CopilotBriefDTO();
 
             copilot.setCopilotProfileId(copilotProfile.getId());
-            copilot.setHandle(getUserService().getUserHandle(
-                    copilotProfile.getUserId()));
+            String handle = handles.get(copilotProfile.getUserId());
+            copilot.setHandle(handle != null ? handle : getUserService().getUserHandle(copilotProfile.getUserId()));
             copilots.add(copilot);
 
         }
@@ -27,8 +27,15 @@ import java.util.Set;
 /**
  * This action handles the request of viewing the enterprise milestone calendar.
  *
+ * <p>
+ * Version 1.1 (Milestone Bulk Operations Performance) change notes:
+ * <ul>
+ *     <li>Loads the milestones through the calendar projection of the milestone service.</li>
+ * </ul>
+ * </p>
+ *
  * @author TCSASSEMBLER
- * @version 1.0 (Release Assembly - TC Cockpit Enterprise Calendar Revamp)
+ * @version 1.1
  */
 public class DashboardMilestoneCalendarAction extends BaseDirectStrutsAction
         implements FormAction<DashboardMilestoneCalendarForm>, ViewAction<DashboardMilestoneCalendarDTO> {
@@ -134,7 +141,7 @@ public class DashboardMilestoneCalendarAction extends BaseDirectStrutsAction
 
         if (viewData.getProjects().keySet().size() > 0) {
 
-            allForProjects = getMilestoneService().getAllForProjects(new ArrayList<Long>(viewData.getProjects().keySet()), ALL_MILESTONE_STATUS, SortOrder.ASCENDING);
+            allForProjects = getMilestoneService().getCalendarForProjects(new ArrayList<Long>(viewData.getProjects().keySet()), ALL_MILESTONE_STATUS, SortOrder.ASCENDING);
         } else {
             allForProjects = new ArrayList<Milestone>();
         }
@@ -38,8 +38,16 @@ import java.util.Map;
  * </ul>
  * </p>
  *
+ * <p>
+ * Version 1.2 (Milestone Bulk Operations Performance)
+ * <ul>
+ *     <li>Update {@link #getRoadmapCalendar()} to load the milestones through the calendar projection of the
+ *     milestone service.</li>
+ * </ul>
+ * </p>
+ *
  * @author GreatKevin
- * @version 1.1
+ * @version 1.2
  */
 public class DashboardRoadmapAction extends BaseDirectStrutsAction implements FormAction<EnterpriseDashboardFilterForm> {
 
@@ -249,7 +257,7 @@ public class DashboardRoadmapAction extends BaseDirectStrutsAction implements Fo
         if (projects == null || projects.size() == 0) {
             milestones = new ArrayList<Milestone>();
         } else {
-            milestones = getMilestoneService().getAllForProjects(new ArrayList<Long>(projects.keySet()), ALL_MILESTONE_STATUS, SortOrder.ASCENDING);
+            milestones = getMilestoneService().getCalendarForProjects(new ArrayList<Long>(projects.keySet()), ALL_MILESTONE_STATUS, SortOrder.ASCENDING);
         }
 
         // extra all the responsible person user id from the milestone
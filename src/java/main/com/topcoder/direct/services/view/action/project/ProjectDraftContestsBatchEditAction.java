@@ -26,6 +26,7 @@ import com.topcoder.direct.services.view.util.DirectUtils;
 import com.topcoder.management.project.Prize;
 import com.topcoder.management.project.ProjectCategory;
 import com.topcoder.security.TCSubject;
+import com.topcoder.service.facade.contest.DraftContestUpdateResult;
 import com.topcoder.service.project.CompetitionPrize;
 import com.topcoder.service.project.ProjectData;
 import com.topcoder.service.project.SoftwareCompetition;
@@ -58,8 +59,18 @@ import java.util.Set;
  *   </ol>
  * </p>
  *
+ * <p>
+ * Version 1.2 (Batch Draft Contests Update Performance) Change notes:
+ *   <ol>
+ *     <li>Updated {@link #updateDraftContests()} to update the contests through
+ *     <code>batchUpdateDraftSoftwareContestsWithResult</code> and return the updated contests and the failed
+ *     contests with their error messages.</li>
+ *     <li>The contest fee configuration of each billing account is loaded once per request.</li>
+ *   </ol>
+ * </p>
+ *
  * @author TCSASSEMBLER
- * @version 1.1 (Module Assembly - TC Cockpit Project Contests Batch Edit)
+ * @version 1.2 (Module Assembly - TC Cockpit Project Contests Batch Edit)
  */
 @WriteProject
 public class ProjectDraftContestsBatchEditAction extends BaseDirectStrutsAction
@@ -95,6 +106,21 @@ public class ProjectDraftContestsBatchEditAction extends BaseDirectStrutsAction
      */
     private ProjectContestFeePercentageService contestFeePercentageService;
 
+    /**
+     * The contest fee percentages loaded in the current request, keyed by billing account id.
+     *
+     * @since 1.2
+     */
+    private final Map<Long, ProjectContestFeePercentage> feePercentages =
+            new HashMap<Long, ProjectContestFeePercentage>();
+
+    /**
+     * The billing accounts with their fixed contest fees loaded in the current request, keyed by billing account id.
+     *
+     * @since 1.2
+     */
+    private final Map<Long, BillingAccount> feeBillingAccounts = new HashMap<Long, BillingAccount>();
+
     /**
      * <p>
      * Entry action for the batch contests edit page.
@@ -211,15 +237,24 @@ public class ProjectDraftContestsBatchEditAction extends BaseDirectStrutsAction
                 toUpdate.add(contest);
             }
 
-            // update the draft contests via contest service facade
-            List<SoftwareCompetition> updatedContests = getContestServiceFacade().batchUpdateDraftSoftwareContests(currentUser, getFormData().getProjectId(), toUpdate);
-
-            for (SoftwareCompetition sc : updatedContests) {
-                // add the updated contest id to the result
-                result.add(sc.getId());
+            // update the draft contests via contest service facade, each contest succeeds or fails on its own
+            List<DraftContestUpdateResult> updateResults = getContestServiceFacade()
+                    .batchUpdateDraftSoftwareContestsWithResult(currentUser, getFormData().getProjectId(), toUpdate);
+            Map<Long, String> failed = new HashMap<Long, String>();
+
+            for (DraftContestUpdateResult updateResult : updateResults) {
+                if (updateResult.isSuccessful()) {
+                    // add the updated contest id to the result
+                    result.add(updateResult.getSoftwareCompetition().getId());
+                } else {
+                    failed.put(updateResult.getContestId(), updateResult.getErrorMessage());
+                }
             }
 
-            setResult(result);
+            Map<String, Object> batchResult = new HashMap<String, Object>();
+            batchResult.put("updated", result);
+            batchResult.put("failed", failed);
+            setResult(batchResult);
 
         } catch (Throwable e) {
 
@@ -337,11 +372,16 @@ public class ProjectDraftContestsBatchEditAction extends BaseDirectStrutsAction
             return contest;
         }
 
-        ProjectContestFeePercentage percentage =
-                getContestFeePercentageService().getByProjectId(newBillingId);
+        if (!feePercentages.containsKey(newBillingId)) {
+            feePercentages.put(newBillingId, getContestFeePercentageService().getByProjectId(newBillingId));
+        }
+        ProjectContestFeePercentage percentage = feePercentages.get(newBillingId);
         if (percentage == null || !percentage.isActive()) {
             // fixed contest fee
-            final BillingAccount billingAccount = getContestFeeService().getBillingAccount(newBillingId);
+            if (!feeBillingAccounts.containsKey(newBillingId)) {
+                feeBillingAccounts.put(newBillingId, getContestFeeService().getBillingAccount(newBillingId));
+            }
+            final BillingAccount billingAccount = feeBillingAccounts.get(newBillingId);
 
             // set to zero
             contest.getProjectHeader().setProperty("Contest Fee Percentage", "0");
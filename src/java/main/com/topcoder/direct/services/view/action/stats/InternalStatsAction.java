@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.topcoder.direct.services.view.action.ForwardAction;
-import com.topcoder.direct.services.view.util.excel2html.ToHtml;
+import com.topcoder.direct.services.view.util.excel2html.StatsPageCache;
 
 /**
  * <p>A <code>Struts</code> action to be used for generating the internal stats page from an excel file. This action will return the raw HTML data in plain text.</p>
@@ -18,8 +18,15 @@ import com.topcoder.direct.services.view.util.excel2html.ToHtml;
  * This class is mutable and stateful: it's not thread safe.
  * </p>
  *
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>The page is served from {@link StatsPageCache} instead of parsing the excel file on every view.</li>
+ * </ul>
+ * </p>
+ *
  * @author TCSDEVELOPER
- * @version 1.0
+ * @version 1.1
  */
 public class InternalStatsAction extends ForwardAction {
     /**
@@ -114,7 +121,7 @@ public class InternalStatsAction extends ForwardAction {
         try {
             if (new File(excelFile).canRead()) {
                 sheetTabs = new ArrayList<String>();
-                tableData = ToHtml.generateStatsPage(sheetIndex, excelFile, sheetTabs);
+                tableData = StatsPageCache.getInstance().generateStatsPage(sheetIndex, excelFile, sheetTabs);
             }
             excelOpenError = "";
         } catch (IllegalArgumentException e){
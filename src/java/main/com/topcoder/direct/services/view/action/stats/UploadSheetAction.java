@@ -8,12 +8,20 @@ import java.io.*;
 import org.apache.commons.io.IOUtils;
 
 import com.topcoder.direct.services.view.action.contest.launch.BaseDirectStrutsAction;
+import com.topcoder.direct.services.view.util.excel2html.StatsPageCache;
 
 /**
  * <p>A <code>Struts</code> action to be used for upload the excel file.</p>
  *
- * @author flexme
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>The stats pages of the uploaded file are rendered in the background by {@link StatsPageCache}.</li>
+ * </ul>
+ * </p>
+ *
+ * @author flexme, TCSDEVELOPER
+ * @version 1.1
  */
 public class UploadSheetAction extends BaseDirectStrutsAction {
 
@@ -104,6 +112,7 @@ public class UploadSheetAction extends BaseDirectStrutsAction {
                 IOUtils.closeQuietly(outputStream);
                 IOUtils.closeQuietly(inputStream);
             }
+            StatsPageCache.getInstance().prerender(excelFile);
         }
         return SUCCESS;
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.action.task;
+
+import com.topcoder.direct.services.project.task.TaskAttachmentContentService;
+import com.topcoder.direct.services.project.task.model.TaskAttachmentContent;
+import com.topcoder.direct.services.view.util.DirectUtils;
+
+/**
+ * <p>
+ * The action to download the content of a task attachment. It only checks the permission and describes the content,
+ * the content itself is streamed by the
+ * {@link com.topcoder.direct.services.view.util.result.TaskAttachmentStreamResult}, which answers the conditional
+ * and range requests. The action returns {@link #NOT_FOUND} when the attachment is not found.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> In <b>Struts 2</b> framework, the action is constructed for every request so the thread
+ * safety is not required.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class DownloadTaskAttachmentAction extends BaseTaskAction {
+    /**
+     * <p>
+     * Generated serial version uid.
+     * </p>
+     */
+    private static final long serialVersionUID = 1821414476945465416L;
+
+    /**
+     * <p>
+     * The result name returned when the task attachment is not found.
+     * </p>
+     */
+    public static final String NOT_FOUND = "notFound";
+
+    /**
+     * <p>
+     * The ID of the downloaded task attachment.
+     * </p>
+     */
+    private long attachmentId;
+
+    /**
+     * <p>
+     * The service serving the task attachment content.
+     * </p>
+     */
+    private TaskAttachmentContentService taskAttachmentContentService;
+
+    /**
+     * <p>
+     * The description of the downloaded content.
+     * </p>
+     */
+    private TaskAttachmentContent content;
+
+    /**
+     * <p>
+     * Executes the action, returning {@link #NOT_FOUND} if there is no content to stream.
+     * </p>
+     *
+     * @return the result name.
+     * @throws Exception if any error occurs.
+     */
+    @Override
+    public String execute() throws Exception {
+        String result = super.execute();
+        return content == null ? NOT_FOUND : result;
+    }
+
+    /**
+     * <p>
+     * Describes the content of the task attachment, checking the permission of the current user.
+     * </p>
+     *
+     * @throws Exception if any error occurs.
+     */
+    @Override
+    protected void executeAction() throws Exception {
+        content = taskAttachmentContentService.getTaskAttachmentContentInfo(
+            DirectUtils.getTCSubjectFromSession().getUserId(), attachmentId);
+    }
+
+    /**
+     * <p>
+     * Gets the ID of the downloaded task attachment.
+     * </p>
+     *
+     * @return the ID of the task attachment.
+     */
+    public long getAttachmentId() {
+        return attachmentId;
+    }
+
+    /**
+     * <p>
+     * Sets the ID of the downloaded task attachment.
+     * </p>
+     *
+     * @param attachmentId the ID of the task attachment.
+     */
+    public void setAttachmentId(long attachmentId) {
+        this.attachmentId = attachmentId;
+    }
+
+    /**
+     * <p>
+     * Gets the service serving the task attachment content.
+     * </p>
+     *
+     * @return the service serving the task attachment content.
+     */
+    public TaskAttachmentContentService getTaskAttachmentContentService() {
+        return taskAttachmentContentService;
+    }
+
+    /**
+     * <p>
+     * Sets the service serving the task attachment content.
+     * </p>
+     *
+     * @param taskAttachmentContentService the service serving the task attachment content.
+     */
+    public void setTaskAttachmentContentService(TaskAttachmentContentService taskAttachmentContentService) {
+        this.taskAttachmentContentService = taskAttachmentContentService;
+    }
+
+    /**
+     * <p>
+     * Gets the description of the downloaded content.
+     * </p>
+     *
+     * @return the description of the content, null before the action is executed.
+     */
+    public TaskAttachmentContent getContent() {
+        return content;
+    }
+}
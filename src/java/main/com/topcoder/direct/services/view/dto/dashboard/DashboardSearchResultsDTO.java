@@ -33,9 +33,12 @@ import com.topcoder.service.facade.contest.ProjectStatusData;
  * <p>
  * Version 2.0 - Add download stream for excel download
  * </p>
+ * <p>
+ * Version 2.1 - Add the flag telling whether the contests after the displayed page match the search
+ * </p>
  *
- * @author isv, BeBetter
- * @version 2.0
+ * @author isv, BeBetter, TCSDEVELOPER
+ * @version 2.1
  */
 public class DashboardSearchResultsDTO extends CommonDTO implements Serializable {
     /**
@@ -79,6 +82,15 @@ public class DashboardSearchResultsDTO extends CommonDTO implements Serializable
      * </p>
      */
     private Boolean isAllProjectsPage;
+
+    /**
+     * <p>
+     * A <code>boolean</code> telling whether more contests than the displayed page match the search.
+     * </p>
+     *
+     * @since 2.1
+     */
+    private boolean moreContests;
 	
     /**
      * <p>
@@ -198,6 +210,30 @@ public class DashboardSearchResultsDTO extends CommonDTO implements Serializable
 	public void setIsAllProjectsPage(Boolean isAllProjectsPage) {
 		this.isAllProjectsPage = isAllProjectsPage;
 	}
+
+    /**
+     * <p>
+     * Gets the flag telling whether more contests than the displayed page match the search.
+     * </p>
+     *
+     * @return true if the contests have a next page, false otherwise.
+     * @since 2.1
+     */
+    public boolean isMoreContests() {
+        return moreContests;
+    }
+
+    /**
+     * <p>
+     * Sets the flag telling whether more contests than the displayed page match the search.
+     * </p>
+     *
+     * @param moreContests true if the contests have a next page, false otherwise.
+     * @since 2.1
+     */
+    public void setMoreContests(boolean moreContests) {
+        this.moreContests = moreContests;
+    }
     /**
      * <p>
      * Gets the workbook download stream.
@@ -14,9 +14,12 @@ import java.io.Serializable;
  * <p>
  * Version 1.1 - Direct Search Assembly - add search fields: startDate,endDate,excel.
  * </p>
+ * <p>
+ * Version 1.2 - Paged Contest Search - add the position fields of the contests page: afterProjectId,afterContestId.
+ * </p>
  *
- * @author isv, BeBetter
- * @version 1.1
+ * @author isv, BeBetter, TCSDEVELOPER
+ * @version 1.2
  */
 public class DashboardSearchForm implements Serializable {
 
@@ -55,6 +58,24 @@ public class DashboardSearchForm implements Serializable {
      */
     private boolean excel;
 
+    /**
+     * <p>
+     * The project id of the last contest of the previous contests page, 0 for the first page.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private long afterProjectId;
+
+    /**
+     * <p>
+     * The id of the last contest of the previous contests page, 0 for the first page.
+     * </p>
+     *
+     * @since 1.2
+     */
+    private long afterContestId;
+
     /**
      * <p>
      * Constructs new <code>DashboardSearchForm</code> instance. This implementation does nothing.
@@ -172,4 +193,52 @@ public class DashboardSearchForm implements Serializable {
     public boolean isExcel() {
         return this.excel;
     }
+
+    /**
+     * <p>
+     * Gets the project id of the last contest of the previous contests page.
+     * </p>
+     *
+     * @return the project id, 0 for the first page
+     * @since 1.2
+     */
+    public long getAfterProjectId() {
+        return this.afterProjectId;
+    }
+
+    /**
+     * <p>
+     * Sets the project id of the last contest of the previous contests page.
+     * </p>
+     *
+     * @param afterProjectId the project id, 0 for the first page
+     * @since 1.2
+     */
+    public void setAfterProjectId(long afterProjectId) {
+        this.afterProjectId = afterProjectId;
+    }
+
+    /**
+     * <p>
+     * Gets the id of the last contest of the previous contests page.
+     * </p>
+     *
+     * @return the contest id, 0 for the first page
+     * @since 1.2
+     */
+    public long getAfterContestId() {
+        return this.afterContestId;
+    }
+
+    /**
+     * <p>
+     * Sets the id of the last contest of the previous contests page.
+     * </p>
+     *
+     * @param afterContestId the contest id, 0 for the first page
+     * @since 1.2
+     */
+    public void setAfterContestId(long afterContestId) {
+        this.afterContestId = afterContestId;
+    }
 }
@@ -3,6 +3,13 @@
  */
 package com.topcoder.direct.services.view.interceptor;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.opensymphony.xwork2.ActionInvocation;
 import com.opensymphony.xwork2.interceptor.Interceptor;
 import com.topcoder.direct.services.view.action.AbstractAction;
@@ -22,6 +29,7 @@ import com.topcoder.direct.services.view.action.project.ProjectGamePlanAction;
 import com.topcoder.direct.services.view.action.project.ProjectOverviewAction;
 import com.topcoder.direct.services.view.action.project.SetCurrentProjectAction;
 import com.topcoder.direct.services.view.action.stats.InternalStatsAction;
+import com.topcoder.direct.services.view.processor.ConcurrentProcessorsGroup;
 import com.topcoder.direct.services.view.processor.ProcessorsGroup;
 import com.topcoder.direct.services.view.processor.RequestProcessor;
 import com.topcoder.direct.services.view.processor.UserProjectsProcessor;
@@ -82,8 +90,21 @@ import com.topcoder.direct.services.view.processor.stats.CoPilotStatsProcessor;
  * - Remove the unneeded pre processors for the ProjectOverviewAction
  * </p>
  *
- * @author isv, Blues, GreatKevin
- * @version 1.6
+ * <p>
+ * Version 1.7 change notes:
+ *   <ul>
+ *     <li>The independent pre processors of the dashboard, calendar, project contests and contest details pages are
+ *     executed concurrently by a {@link ConcurrentProcessorsGroup}, on a pool shared by the requests.</li>
+ *     <li>Added <code>processorsPoolSize</code> and <code>processorsTimeout</code> properties.</li>
+ *   </ul>
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe. The properties are set by Spring before the interceptor is used.
+ * </p>
+ *
+ * @author isv, Blues, GreatKevin, TCSDEVELOPER
+ * @version 1.7
  */
 public class ActionPreProcessor implements Interceptor {
 
@@ -94,6 +115,27 @@ public class ActionPreProcessor implements Interceptor {
      */
     private String loginProcessorClassName;
 
+    /**
+     * Represents the number of threads executing the concurrent pre processors of all the requests.
+     *
+     * @since 1.7
+     */
+    private int processorsPoolSize = 16;
+
+    /**
+     * Represents the maximum time a request waits for its concurrent pre processors, in milliseconds.
+     *
+     * @since 1.7
+     */
+    private long processorsTimeout = 10000;
+
+    /**
+     * Represents the pool executing the concurrent pre processors, created on first use.
+     *
+     * @since 1.7
+     */
+    private ExecutorService processorsExecutor;
+
     /**
      * <p>Constructs new <code>ActionPreProcessor</code> instance. This implementation does nothing.</p>
      */
@@ -107,9 +149,33 @@ public class ActionPreProcessor implements Interceptor {
     }
 
     /**
-     * <p>Destroys this interceptor. This implementation does nothing.</p>
+     * <p>Destroys this interceptor. This implementation stops the pool of the concurrent pre processors.</p>
+     */
+    public synchronized void destroy() {
+        if (processorsExecutor != null) {
+            processorsExecutor.shutdownNow();
+            processorsExecutor = null;
+        }
+    }
+
+    /**
+     * Sets the number of threads executing the concurrent pre processors of all the requests.
+     *
+     * @param processorsPoolSize the number of threads.
+     * @since 1.7
+     */
+    public void setProcessorsPoolSize(int processorsPoolSize) {
+        this.processorsPoolSize = processorsPoolSize;
+    }
+
+    /**
+     * Sets the maximum time a request waits for its concurrent pre processors.
+     *
+     * @param processorsTimeout the timeout in milliseconds.
+     * @since 1.7
      */
-    public void destroy() {
+    public void setProcessorsTimeout(long processorsTimeout) {
+        this.processorsTimeout = processorsTimeout;
     }
 
     /**
@@ -178,14 +244,14 @@ public class ActionPreProcessor implements Interceptor {
             return new ProcessorsGroup(new RequestProcessor[] {
                                                                getLoginProcessor()});
         } else if (action instanceof DashboardAction) {
-            return new ProcessorsGroup(new RequestProcessor[] {new CoPilotStatsProcessor(),
-                                                               new UserProjectsProcessor(),
-                                                               new LatestActivitiesProcessor(),
-                                                               new UpcomingActivitiesProcessor()});
+            return createConcurrentGroup(new RequestProcessor[] {new CoPilotStatsProcessor(),
+                                                                 new UserProjectsProcessor(),
+                                                                 new LatestActivitiesProcessor(),
+                                                                 new UpcomingActivitiesProcessor()});
         } else if (action instanceof CalendarAction) {
-            return new ProcessorsGroup(new RequestProcessor[] {new CoPilotStatsProcessor(),
-                                                               new UserProjectsProcessor()
-                                                              });
+            return createConcurrentGroup(new RequestProcessor[] {new CoPilotStatsProcessor(),
+                                                                 new UserProjectsProcessor()
+                                                                });
         } else if (action instanceof LandingPage) {
             return new ProcessorsGroup(new RequestProcessor[] {});
         } else if (action instanceof CreateProjectAction) {
@@ -201,16 +267,16 @@ public class ActionPreProcessor implements Interceptor {
         } else if (action instanceof ProjectOverviewAction) {
             return new ProcessorsGroup(new RequestProcessor[] {new UserProjectsProcessor()});
         } else if (action instanceof ProjectContestsAction) {
-            return new ProcessorsGroup(new RequestProcessor[] {new ProjectContestsListProcessor(),
-                                                               new ProjectStatsProcessor(),
-                                                               new UserProjectsProcessor()});
+            return createConcurrentGroup(new RequestProcessor[] {new ProjectContestsListProcessor(),
+                                                                 new ProjectStatsProcessor(),
+                                                                 new UserProjectsProcessor()});
         } else if (action instanceof ProjectContestsCalendarViewAction) {
             return new ProcessorsGroup(new RequestProcessor[] {new ProjectStatsProcessor(),
                                                                new UserProjectsProcessor()});
         } else if (action instanceof ContestDetailsAction) {
-            return new ProcessorsGroup(new RequestProcessor[] {new ContestDetailsProcessor(),
-                                                               new ContestStatsProcessor(),
-                                                               new UserProjectsProcessor()});
+            return createConcurrentGroup(new RequestProcessor[] {new ContestDetailsProcessor(),
+                                                                 new ContestStatsProcessor(),
+                                                                 new UserProjectsProcessor()});
         } else if (action instanceof ProjectGamePlanAction) {
             return new ProcessorsGroup(new RequestProcessor[] {new ProjectStatsProcessor(),
                                                                });
@@ -259,6 +325,43 @@ public class ActionPreProcessor implements Interceptor {
         }
     }
 
+    /**
+     * Creates a group executing the given independent processors concurrently.
+     *
+     * @param processors the processors.
+     * @return the group.
+     * @since 1.7
+     */
+    private RequestProcessor createConcurrentGroup(RequestProcessor[] processors) {
+        return new ConcurrentProcessorsGroup(processors, getProcessorsExecutor(), processorsTimeout);
+    }
+
+    /**
+     * Gets the pool executing the concurrent pre processors, creating it on first use. The pool has a bounded queue;
+     * when it is full, the processors run in the request thread.
+     *
+     * @return the pool.
+     * @since 1.7
+     */
+    private synchronized ExecutorService getProcessorsExecutor() {
+        if (processorsExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(processorsPoolSize, processorsPoolSize,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(processorsPoolSize * 16),
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "action-pre-processor-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            processorsExecutor = executor;
+        }
+        return processorsExecutor;
+    }
+
     /**
      * Gets the login processor.
      *
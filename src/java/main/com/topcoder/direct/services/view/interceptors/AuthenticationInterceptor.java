@@ -4,6 +4,7 @@
 
 package com.topcoder.direct.services.view.interceptors;
 
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
@@ -14,12 +15,13 @@ import com.opensymphony.xwork2.ActionInvocation;
 import com.opensymphony.xwork2.interceptor.AbstractInterceptor;
 import com.topcoder.direct.services.view.action.contest.launch.Helper;
 import com.topcoder.direct.services.view.util.SessionData;
-import com.topcoder.direct.services.view.util.DirectUtils;
+import com.topcoder.direct.services.view.util.PrincipalCache;
 import com.topcoder.security.RolePrincipal;
 import com.topcoder.security.TCPrincipal;
 import com.topcoder.security.TCSubject;
 import com.topcoder.shared.security.SimpleResource;
 import com.topcoder.shared.security.User;
+import com.topcoder.shared.util.ApplicationServer;
 import com.topcoder.shared.util.DBMS;
 import com.topcoder.shared.util.logging.Logger;
 import com.topcoder.web.common.SimpleRequest;
@@ -27,6 +29,7 @@ import com.topcoder.web.common.SimpleResponse;
 import com.topcoder.web.common.security.BasicAuthentication;
 import com.topcoder.web.common.security.SessionPersistor;
 
+import java.util.HashSet;
 import java.util.Set;
 
 
@@ -178,11 +181,20 @@ import java.util.Set;
  * </p>
  *
  * <p>
+ * Version 2.4 (TopCoder Direct - Cached Principals) Change notes:
+ *  <ul>
+ *   <li>The requests presenting the SSO cookie digest a user was authenticated with are authenticated from the
+ *   {@link PrincipalCache}, without checking the cookie against the database.</li>
+ *   <li>The roles of the users are read from the {@link PrincipalCache} when cached.</li>
+ *  </ul>
+ * </p>
+ *
+ * <p>
  * <b>Thread safety:</b> This class is mutable and not thread safe.
  * </p>
  *
  * @author woodjhon, TCSDEVELOPER, pvmagacho, ecnu_haozi
- * @version 2.3
+ * @version 2.4
  */
 public class AuthenticationInterceptor extends AbstractInterceptor {
 
@@ -217,6 +229,13 @@ public class AuthenticationInterceptor extends AbstractInterceptor {
      */
     private String redirectBackUrlIdentityKey;
 
+    /**
+     * Represents the cache of the principals of the authenticated users.
+     *
+     * @since 2.4
+     */
+    private PrincipalCache principalCache = PrincipalCache.getInstance();
+
     /**
      * Default constructor, constructs an instance of this class.
      */
@@ -270,20 +289,32 @@ public class AuthenticationInterceptor extends AbstractInterceptor {
         // app without notification to current app. Thus the auth related object in session may invalidate at any time.
         // In this case we need to check SSO cookie and update auth related object in session every time.
 
-        HttpServletResponse response = ServletActionContext.getResponse();
-        BasicAuthentication auth = new BasicAuthentication(
-            new SessionPersistor(request.getSession()), new SimpleRequest(request),
-            new SimpleResponse(response), BasicAuthentication.MAIN_SITE, DBMS.JTS_OLTP_DATASOURCE_NAME);
-        User user = auth.getActiveUser();
+        // the SSO cookie is "user id|digest", the digest a user was authenticated with is cached
+        String[] ssoCookie = getSSOCookie(request);
+        PrincipalCache.CachedPrincipal principal = ssoCookie == null ? null
+            : principalCache.getAuthenticated(Long.parseLong(ssoCookie[0]), ssoCookie[1]);
+        User user = null;
+        if (principal == null) {
+            HttpServletResponse response = ServletActionContext.getResponse();
+            BasicAuthentication auth = new BasicAuthentication(
+                new SessionPersistor(request.getSession()), new SimpleRequest(request),
+                new SimpleResponse(response), BasicAuthentication.MAIN_SITE, DBMS.JTS_OLTP_DATASOURCE_NAME);
+            user = auth.getActiveUser();
+        }
 
         if (sessionData.isAnonymousUser()) {
-            if (user != null  && !user.isAnonymous()) {
+            if (principal != null) {
+                sessionData.setCurrentUser(new TCSubject(new HashSet<TCPrincipal>(principal.getRoles()),
+                    principal.getUserId()));
+                sessionData.setCurrentUserHandle(principal.getHandle());
+            } else if (user != null  && !user.isAnonymous()) {
                 // get user roles for the user id
-                Set<TCPrincipal> roles = DirectUtils.getUserRoles(user.getId());
-                TCSubject tcSubject = new TCSubject(roles, user.getId());
+                Set<TCPrincipal> roles = principalCache.getRoles(user.getId());
+                TCSubject tcSubject = new TCSubject(new HashSet<TCPrincipal>(roles), user.getId());
 
                 sessionData.setCurrentUser(tcSubject);
                 sessionData.setCurrentUserHandle(user.getUserName());
+                cachePrincipal(user, roles, ssoCookie);
              } else {
                 if ("GET".equalsIgnoreCase(request.getMethod())) {
                     StringBuffer redirectBackUrl = new StringBuffer();
@@ -339,6 +370,60 @@ public class AuthenticationInterceptor extends AbstractInterceptor {
         return invocation.invoke();
     }
 
+    /**
+     * Gets the SSO cookie of the request.
+     *
+     * @param request the request
+     * @return the user id and the digest of the SSO cookie, or null if the request has no well formed SSO cookie
+     * @since 2.4
+     */
+    private static String[] getSSOCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (ApplicationServer.SSO_COOKIE_KEY.equals(cookie.getName()) && cookie.getValue() != null) {
+                String[] parts = cookie.getValue().split("\\|");
+                if (parts.length == 2 && parts[0].matches("\\d{1,18}") && parts[1].length() > 0) {
+                    return parts;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Caches the principal of a user authenticated with the SSO cookie, so that the next requests presenting the
+     * same cookie are authenticated from the cache. It is only called when the session is anonymous, since the
+     * active user of an authenticated session is read from the session without checking the cookie.
+     *
+     * @param user the authenticated user
+     * @param roles the roles of the user
+     * @param ssoCookie the user id and the digest of the SSO cookie, null if none
+     * @since 2.4
+     */
+    private void cachePrincipal(User user, Set<TCPrincipal> roles, String[] ssoCookie) {
+        // the user is authenticated with the SSO cookie only when its id is the id of the cookie
+        if (ssoCookie != null && Long.parseLong(ssoCookie[0]) == user.getId()) {
+            principalCache.put(user.getId(), user.getUserName(), new HashSet<TCPrincipal>(roles), ssoCookie[1]);
+        }
+    }
+
+    /**
+     * Sets the cache of the principals of the authenticated users.
+     *
+     * @param principalCache the cache of the principals
+     * @throws IllegalArgumentException if argument is null
+     * @since 2.4
+     */
+    public void setPrincipalCache(PrincipalCache principalCache) {
+        if (principalCache == null) {
+            throw new IllegalArgumentException("principalCache should not be null.");
+        }
+        this.principalCache = principalCache;
+    }
+
     /**
      * Getter for the login page name.
      *
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.interceptors;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.ActionProxy;
+import com.opensymphony.xwork2.DefaultActionInvocation;
+import com.opensymphony.xwork2.config.entities.ActionConfig;
+import com.opensymphony.xwork2.config.entities.InterceptorMapping;
+import com.opensymphony.xwork2.interceptor.Interceptor;
+import com.topcoder.direct.services.view.util.metrics.RequestMetrics;
+import com.topcoder.direct.services.view.util.metrics.RequestTrace;
+
+/**
+ * <p>
+ * The action invocation which times the request: every interceptor of the stack of the action is wrapped by a
+ * timing interceptor, and the action execution and the result rendering are timed too. The times are recorded in
+ * the {@link RequestTrace} of the request and in the {@link RequestMetrics}.
+ * </p>
+ *
+ * <p>
+ * The outermost invocation of the request owns its trace and records it once done. The invocations nested in it, e.g.
+ * by a chain result, add their segments to the same trace.
+ * </p>
+ *
+ * <p>
+ * It is created by {@link TimingActionProxyFactory}, so the interceptor stacks are timed without being changed.
+ * </p>
+ *
+ * <p>
+ * <b>Thread safety:</b> This class is mutable and not thread safe, an invocation is used by a single request.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class TimingActionInvocation extends DefaultActionInvocation {
+    /**
+     * <p>
+     * Generated serial version uid.
+     * </p>
+     */
+    private static final long serialVersionUID = -2392759128712904635L;
+
+    /**
+     * <p>
+     * The segment of the result rendering, open from the end of the action execution to the end of the result.
+     * </p>
+     */
+    private RequestTrace.Segment resultSegment;
+
+    /**
+     * <p>
+     * Creates the invocation.
+     * </p>
+     *
+     * @param extraContext the extra context of the action
+     * @param pushAction whether the action is pushed on the value stack
+     */
+    public TimingActionInvocation(Map<String, Object> extraContext, boolean pushAction) {
+        super(extraContext, pushAction);
+    }
+
+    /**
+     * <p>
+     * Initializes the invocation, wrapping the interceptors of the action with timing interceptors.
+     * </p>
+     *
+     * @param proxy the action proxy
+     */
+    @Override
+    public void init(ActionProxy proxy) {
+        super.init(proxy);
+        if (RequestMetrics.getInstance().isEnabled()) {
+            interceptors = new TimedInterceptorIterator(interceptors);
+        }
+    }
+
+    /**
+     * <p>
+     * Invokes the next interceptor, or the action and the result. The outermost invocation of the request starts and
+     * records its trace.
+     * </p>
+     *
+     * @return the result code
+     * @throws Exception if the interceptors, the action or the result fail
+     */
+    @Override
+    public String invoke() throws Exception {
+        RequestMetrics metrics = RequestMetrics.getInstance();
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null && executed) {
+            return super.invoke();
+        }
+        boolean owner = false;
+        if (trace == null) {
+            if (!metrics.isEnabled()) {
+                return super.invoke();
+            }
+            trace = RequestTrace.begin(getActionName());
+            owner = true;
+        }
+
+        boolean innermost = !interceptors.hasNext();
+        boolean failed = true;
+        try {
+            String code = super.invoke();
+            failed = false;
+            return code;
+        } finally {
+            if (innermost && resultSegment != null) {
+                trace.exit(resultSegment);
+                resultSegment = null;
+            }
+            if (owner) {
+                trace.end();
+                metrics.recordRequest(trace, failed);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Invokes the action method, and opens the segment of the result rendering once it returns.
+     * </p>
+     *
+     * @param action the action
+     * @param actionConfig the action configuration
+     * @return the result code
+     * @throws Exception if the action fails
+     */
+    @Override
+    protected String invokeAction(Object action, ActionConfig actionConfig) throws Exception {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return super.invokeAction(action, actionConfig);
+        }
+        RequestTrace.Segment segment = trace.enter(RequestTrace.ACTION, getActionName() + "!" + proxy.getMethod());
+        String code = null;
+        try {
+            code = super.invokeAction(action, actionConfig);
+            return code;
+        } finally {
+            trace.exit(segment);
+            if (code != null) {
+                resultSegment = trace.enter(RequestTrace.RESULT, code);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the name of the action including its namespace.
+     * </p>
+     *
+     * @return the action name
+     */
+    private String getActionName() {
+        String namespace = proxy.getNamespace();
+        if (namespace == null || namespace.length() == 0 || namespace.endsWith("/")) {
+            return (namespace == null ? "" : namespace) + proxy.getActionName();
+        }
+        return namespace + "/" + proxy.getActionName();
+    }
+
+    /**
+     * <p>
+     * Wraps the interceptor mappings of an iterator with timing interceptors.
+     * </p>
+     *
+     * <p>
+     * <b>Thread safety:</b> This class is not thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class TimedInterceptorIterator implements Iterator<InterceptorMapping> {
+        /**
+         * <p>
+         * The wrapped iterator.
+         * </p>
+         */
+        private final Iterator<InterceptorMapping> iterator;
+
+        /**
+         * <p>
+         * Creates the iterator.
+         * </p>
+         *
+         * @param iterator the wrapped iterator
+         */
+        TimedInterceptorIterator(Iterator<InterceptorMapping> iterator) {
+            this.iterator = iterator;
+        }
+
+        /**
+         * <p>
+         * Checks whether there is another interceptor.
+         * </p>
+         *
+         * @return true if there is another interceptor
+         */
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        /**
+         * <p>
+         * Gets the next interceptor, wrapped with a timing interceptor.
+         * </p>
+         *
+         * @return the next interceptor mapping
+         */
+        public InterceptorMapping next() {
+            InterceptorMapping mapping = iterator.next();
+            return new InterceptorMapping(mapping.getName(),
+                new TimedInterceptor(mapping.getName(), mapping.getInterceptor()));
+        }
+
+        /**
+         * <p>
+         * Not supported.
+         * </p>
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public void remove() {
+            throw new UnsupportedOperationException("remove is not supported.");
+        }
+    }
+
+    /**
+     * <p>
+     * Times an interceptor: its self time, excluding the interceptors, action and result it wraps, is recorded in the
+     * trace of the request and in the interceptor statistics.
+     * </p>
+     *
+     * <p>
+     * The life cycle of the wrapped interceptor is managed by the Struts configuration, so {@link #init()} and
+     * {@link #destroy()} do nothing.
+     * </p>
+     *
+     * <p>
+     * <b>Thread safety:</b> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class TimedInterceptor implements Interceptor {
+        /**
+         * <p>
+         * The generated serial version UID.
+         * </p>
+         */
+        private static final long serialVersionUID = -3197355271426517240L;
+
+        /**
+         * <p>
+         * The name of the interceptor.
+         * </p>
+         */
+        private final String name;
+
+        /**
+         * <p>
+         * The wrapped interceptor.
+         * </p>
+         */
+        private final Interceptor interceptor;
+
+        /**
+         * <p>
+         * Creates the timing interceptor.
+         * </p>
+         *
+         * @param name the name of the interceptor
+         * @param interceptor the wrapped interceptor
+         */
+        TimedInterceptor(String name, Interceptor interceptor) {
+            this.name = name;
+            this.interceptor = interceptor;
+        }
+
+        /**
+         * <p>
+         * Does nothing.
+         * </p>
+         */
+        public void init() {
+            // the wrapped interceptor is initialized by the configuration
+        }
+
+        /**
+         * <p>
+         * Does nothing.
+         * </p>
+         */
+        public void destroy() {
+            // the wrapped interceptor is destroyed by the configuration
+        }
+
+        /**
+         * <p>
+         * Times the wrapped interceptor.
+         * </p>
+         *
+         * @param invocation the action invocation
+         * @return the result of the wrapped interceptor
+         * @throws Exception if the wrapped interceptor fails
+         */
+        public String intercept(ActionInvocation invocation) throws Exception {
+            RequestTrace trace = RequestTrace.current();
+            if (trace == null) {
+                return interceptor.intercept(invocation);
+            }
+            RequestTrace.Segment segment = trace.enter(RequestTrace.INTERCEPTOR, name);
+            boolean failed = true;
+            try {
+                String result = interceptor.intercept(invocation);
+                failed = false;
+                return result;
+            } finally {
+                RequestMetrics.getInstance().recordInterceptor(name, trace.exit(segment), failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.interceptors;
+
+import java.util.Map;
+
+import org.apache.struts2.impl.StrutsActionProxyFactory;
+
+import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.ActionProxy;
+
+/**
+ * <p>
+ * The Struts action proxy factory which creates {@link TimingActionInvocation} instances, so every request is timed
+ * per action and per interceptor.
+ * </p>
+ *
+ * <p>
+ * <strong>Example configuration for struts2:</strong>
+ *
+ * <pre>
+ * &lt;bean type=&quot;com.opensymphony.xwork2.ActionProxyFactory&quot; name=&quot;timing&quot;
+ *       class=&quot;com.topcoder.direct.services.view.interceptors.TimingActionProxyFactory&quot;/&gt;
+ * &lt;constant name=&quot;struts.actionProxyFactory&quot; value=&quot;timing&quot;/&gt;
+ * </pre>
+ *
+ * </p>
+ *
+ * <p>
+ * <b>Thread safety:</b> This class is thread safe, it has no state besides the injected container.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class TimingActionProxyFactory extends StrutsActionProxyFactory {
+    /**
+     * <p>
+     * Creates the factory.
+     * </p>
+     */
+    public TimingActionProxyFactory() {
+    }
+
+    /**
+     * <p>
+     * Creates the action proxy, with a timing action invocation.
+     * </p>
+     *
+     * @param namespace the namespace of the action
+     * @param actionName the name of the action
+     * @param methodName the method of the action, may be null
+     * @param extraContext the extra context of the action
+     * @param executeResult whether the result is executed
+     * @param cleanupContext whether the action context is cleaned up
+     * @return the action proxy
+     */
+    @Override
+    public ActionProxy createActionProxy(String namespace, String actionName, String methodName,
+        Map<String, Object> extraContext, boolean executeResult, boolean cleanupContext) {
+        ActionInvocation inv = new TimingActionInvocation(extraContext, true);
+        container.inject(inv);
+        return createActionProxy(inv, namespace, actionName, methodName, executeResult, cleanupContext);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.opensymphony.xwork2.ActionContext;
+import com.topcoder.direct.services.view.action.TopCoderDirectAction;
+import com.topcoder.shared.util.logging.Logger;
+
+/**
+ * <p>A request processor which groups other processors and executes the independent ones concurrently on a shared
+ * pool. Unlike {@link ProcessorsGroup}, the request latency is the longest chain of processors rather than their sum.
+ * </p>
+ *
+ * <p>A processor starts once the processors it depends on (see {@link #dependsOn(int, int)}) are done. The
+ * {@link ConcurrentRequestProcessor}s load their data on the pool, with the <code>ActionContext</code> of the request
+ * so they can read the request and the session as they do when executed by the request thread. Each of them returns
+ * its own {@link ProcessorResult}, which the request thread applies to the action as soon as the processor is done.
+ * The other processors are executed by the request thread.</p>
+ *
+ * <p>The group waits for the processors at most <code>timeout</code> milliseconds. The processors not done by then,
+ * and the processors depending on them, are skipped: their results are never applied, even when their loading
+ * completes later, so their view data is left unset and their class names are listed
+ * in the {@link #SKIPPED_PROCESSORS_ATTRIBUTE} request attribute, so that the page is rendered with partial data.
+ * As with {@link ProcessorsGroup}, no processor is started once a processor has set the
+ * {@link TopCoderDirectAction#RC_UNEXPECTED_ERROR} result code.</p>
+ *
+ * <p><b>Thread Safety:</b> This class is not thread safe, a group is created for each request. Only the request
+ * thread modifies the action.</p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class ConcurrentProcessorsGroup implements RequestProcessor<TopCoderDirectAction> {
+
+    /**
+     * <p>The name of the request attribute listing the class names of the processors skipped because they did not
+     * complete in time.</p>
+     */
+    public static final String SKIPPED_PROCESSORS_ATTRIBUTE = "skippedProcessors";
+
+    /**
+     * <p>A <code>Logger</code> to be used for logging the events encountered while processing the requests.</p>
+     */
+    private static final Logger log = Logger.getLogger(ConcurrentProcessorsGroup.class);
+
+    /**
+     * <p>A <code>RequestProcessor</code> array listing the processors.</p>
+     */
+    private final RequestProcessor[] processors;
+
+    /**
+     * <p>The indexes of the processors each processor depends on.</p>
+     */
+    private final List<Set<Integer>> prerequisites = new ArrayList<Set<Integer>>();
+
+    /**
+     * <p>The pool executing the processors.</p>
+     */
+    private final ExecutorService executor;
+
+    /**
+     * <p>The maximum time to wait for the processors, in milliseconds.</p>
+     */
+    private final long timeout;
+
+    /**
+     * <p>Constructs new <code>ConcurrentProcessorsGroup</code> instance with specified list of processors to execute.
+     * </p>
+     *
+     * @param processors a <code>RequestProcessor</code> array listing the processors.
+     * @param executor the pool executing the processors.
+     * @param timeout the maximum time to wait for the processors, in milliseconds.
+     * @throws IllegalArgumentException if processors or executor is null, or timeout is not positive.
+     */
+    public ConcurrentProcessorsGroup(RequestProcessor[] processors, ExecutorService executor, long timeout) {
+        if (processors == null) {
+            throw new IllegalArgumentException("The parameter [processors] is NULL");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("The parameter [executor] is NULL");
+        }
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("The parameter [timeout] should be positive");
+        }
+        this.processors = processors;
+        this.executor = executor;
+        this.timeout = timeout;
+        for (int i = 0; i < processors.length; i++) {
+            prerequisites.add(new HashSet<Integer>());
+        }
+    }
+
+    /**
+     * <p>Declares that a processor must only start once another processor is done, e.g. because it reads the view
+     * data set by that processor. A processor can only depend on the processors preceding it, so that there is no
+     * cycle.</p>
+     *
+     * @param processor the index of the dependent processor.
+     * @param prerequisite the index of the processor it depends on.
+     * @return this group.
+     * @throws IllegalArgumentException if prerequisite is not the index of a processor preceding processor.
+     */
+    public ConcurrentProcessorsGroup dependsOn(int processor, int prerequisite) {
+        if (processor >= processors.length || prerequisite < 0 || prerequisite >= processor) {
+            throw new IllegalArgumentException("The processor " + processor + " can not depend on the processor "
+                + prerequisite);
+        }
+        prerequisites.get(processor).add(prerequisite);
+        return this;
+    }
+
+    /**
+     * <p>Processes the incoming request which has been mapped to specified action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     */
+    public void processRequest(final TopCoderDirectAction action) {
+        final ActionContext context = ActionContext.getContext();
+        CompletionService<LoadedResult> completionService = new ExecutorCompletionService<LoadedResult>(executor);
+        Map<Integer, Future<LoadedResult>> running = new HashMap<Integer, Future<LoadedResult>>();
+        Set<Integer> done = new HashSet<Integer>();
+        long deadline = System.currentTimeMillis() + timeout;
+
+        submitReady(action, context, completionService, running, done);
+        try {
+            while (!running.isEmpty() && TopCoderDirectAction.RC_UNEXPECTED_ERROR != action.getResultCode()) {
+                long remaining = deadline - System.currentTimeMillis();
+                Future<LoadedResult> completed = remaining > 0
+                    ? completionService.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                if (completed == null) {
+                    break;
+                }
+                LoadedResult loaded = completed.get();
+                running.remove(loaded.index);
+                if (loaded.result != null) {
+                    ((ConcurrentRequestProcessor) processors[loaded.index]).apply(action, loaded.result);
+                }
+                done.add(loaded.index);
+                submitReady(action, context, completionService, running, done);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // the processors handle their errors, this is unexpected
+            log.error("Failed to execute a request processor", e.getCause());
+            action.setResultCode(TopCoderDirectAction.RC_UNEXPECTED_ERROR);
+            action.setErrorMessage(e.getCause().getMessage());
+            action.setError(e.getCause());
+        }
+
+        // the results of the processors still running are never applied
+        cancel(running);
+        if (TopCoderDirectAction.RC_UNEXPECTED_ERROR != action.getResultCode() && done.size() < processors.length) {
+            markSkipped(action, done);
+        }
+    }
+
+    /**
+     * <p>Starts the processors which are not started yet and whose prerequisites are done. The
+     * {@link ConcurrentRequestProcessor}s load their data on the pool, the other processors are executed by the
+     * request thread. No processor is started once a processor has set the
+     * {@link TopCoderDirectAction#RC_UNEXPECTED_ERROR} result code.</p>
+     *
+     * @param action the current action.
+     * @param context the action context of the request.
+     * @param completionService the service executing the processors.
+     * @param running the running processors by index.
+     * @param done the indexes of the processors done.
+     */
+    @SuppressWarnings("unchecked")
+    private void submitReady(final TopCoderDirectAction action, final ActionContext context,
+        CompletionService<LoadedResult> completionService, Map<Integer, Future<LoadedResult>> running,
+        Set<Integer> done) {
+        // as the processors only depend on the preceding ones, the next ones see a processor executed by the
+        // request thread done
+        for (int i = 0; i < processors.length
+            && TopCoderDirectAction.RC_UNEXPECTED_ERROR != action.getResultCode(); i++) {
+            if (running.containsKey(i) || done.contains(i) || !done.containsAll(prerequisites.get(i))) {
+                continue;
+            }
+            if (!(processors[i] instanceof ConcurrentRequestProcessor)) {
+                processors[i].processRequest(action);
+                done.add(i);
+                continue;
+            }
+            final int index = i;
+            final ConcurrentRequestProcessor processor = (ConcurrentRequestProcessor) processors[i];
+            try {
+                running.put(index, completionService.submit(new Callable<LoadedResult>() {
+                    public LoadedResult call() {
+                        // the processor loads the data of the request without modifying the action, so the
+                        // processors may run after the request times out
+                        ActionContext previous = ActionContext.getContext();
+                        ActionContext.setContext(context);
+                        try {
+                            return new LoadedResult(index, processor.load(action));
+                        } finally {
+                            ActionContext.setContext(previous);
+                        }
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // the pool is shut down, run the processor in the request thread
+                processor.processRequest(action);
+                done.add(index);
+            }
+        }
+    }
+
+    /**
+     * <p>Cancels the running processors.</p>
+     *
+     * @param running the running processors by index.
+     */
+    private static void cancel(Map<Integer, Future<LoadedResult>> running) {
+        for (Future<LoadedResult> future : running.values()) {
+            future.cancel(true);
+        }
+        running.clear();
+    }
+
+    /**
+     * <p>Lists the processors not done in the {@link #SKIPPED_PROCESSORS_ATTRIBUTE} request attribute.</p>
+     *
+     * @param action the current action.
+     * @param done the indexes of the processors done.
+     */
+    private void markSkipped(TopCoderDirectAction action, Set<Integer> done) {
+        List<String> skipped = new ArrayList<String>();
+        for (int i = 0; i < processors.length; i++) {
+            if (!done.contains(i)) {
+                skipped.add(processors[i].getClass().getSimpleName());
+            }
+        }
+        log.warn("The request processors " + skipped + " did not complete in " + timeout + " ms");
+        if (action.getRequestData() != null) {
+            action.getRequestData().getRequest().setAttribute(SKIPPED_PROCESSORS_ATTRIBUTE, skipped);
+        }
+    }
+
+    /**
+     * <p>The result loaded by a processor, with the index of the processor.</p>
+     */
+    private static class LoadedResult {
+
+        /**
+         * <p>The index of the processor.</p>
+         */
+        private final int index;
+
+        /**
+         * <p>The result loaded by the processor, null if the action requires no data.</p>
+         */
+        private final ProcessorResult result;
+
+        /**
+         * <p>Constructs new <code>LoadedResult</code> instance.</p>
+         *
+         * @param index the index of the processor.
+         * @param result the result loaded by the processor.
+         */
+        LoadedResult(int index, ProcessorResult result) {
+            this.index = index;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.processor;
+
+/**
+ * <p>A request processor which can be executed concurrently by a {@link ConcurrentProcessorsGroup}. Its work is split
+ * in two steps: {@link #load(Object)} gets the data on a pool thread and only reads the action, then
+ * {@link #apply(Object, ProcessorResult)} sets the loaded data to the action on the request thread. So a processor
+ * which does not complete in time has no effect on the action.</p>
+ *
+ * <p><b>Thread Safety:</b> The implementations should be thread safe, {@link #load(Object)} is called on a pool
+ * thread.</p>
+ *
+ * @param <T> the type of the actions.
+ * @param <D> the type of the loaded data.
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface ConcurrentRequestProcessor<T, D> extends RequestProcessor<T> {
+
+    /**
+     * <p>Loads the data for the incoming request which has been mapped to specified action, without modifying the
+     * action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @return the loaded data or the error which failed the loading, null if the action requires no data.
+     */
+    ProcessorResult<D> load(T action);
+
+    /**
+     * <p>Sets the loaded data or the loading error to the action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @param result the result returned by {@link #load(Object)}.
+     */
+    void apply(T action, ProcessorResult<D> result);
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.processor;
+
+import com.topcoder.direct.services.view.action.TopCoderDirectAction;
+
+/**
+ * <p>The result of a {@link ConcurrentRequestProcessor} loaded for a request: either the loaded data or the error
+ * which failed the loading. Each processor gets its own result, so the processors executed concurrently do not share
+ * any state until their results are applied to the action.</p>
+ *
+ * <p><b>Thread Safety:</b> This class is immutable and thread safe.</p>
+ *
+ * @param <D> the type of the loaded data.
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class ProcessorResult<D> {
+
+    /**
+     * <p>The loaded data.</p>
+     */
+    private final D data;
+
+    /**
+     * <p>The error which failed the loading, null if the data is loaded.</p>
+     */
+    private final Exception error;
+
+    /**
+     * <p>Constructs new <code>ProcessorResult</code> instance.</p>
+     *
+     * @param data the loaded data.
+     * @param error the error which failed the loading, null if the data is loaded.
+     */
+    public ProcessorResult(D data, Exception error) {
+        this.data = data;
+        this.error = error;
+    }
+
+    /**
+     * <p>Gets the loaded data.</p>
+     *
+     * @return the loaded data.
+     */
+    public D getData() {
+        return data;
+    }
+
+    /**
+     * <p>Gets the error which failed the loading.</p>
+     *
+     * @return the error, null if the data is loaded.
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * <p>Sets the error which failed the loading to the action, as the processors do when they fail.</p>
+     *
+     * @param action the current action.
+     * @return true if the loading failed, false if the data is loaded.
+     */
+    public boolean applyError(TopCoderDirectAction action) {
+        if (error == null) {
+            return false;
+        }
+        action.setResultCode(TopCoderDirectAction.RC_UNEXPECTED_ERROR);
+        action.setErrorMessage(error.getMessage());
+        action.setError(error);
+        return true;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2010 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2010 - 2013 TopCoder Inc., All Rights Reserved.
  */
 package com.topcoder.direct.services.view.processor;
 
@@ -18,10 +18,18 @@ import java.util.List;
  * <p>This processor expects the actions of {@link ViewAction} type with view data of {@link UserProjectsDTO.Aware} type
  * to be passed to it. If any of those requirements is not met then this processor does nothing.</p>
  *
- * @author isv
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ *     <li>Implements {@link ConcurrentRequestProcessor} so that it can be executed concurrently: the data is loaded
+ *     without modifying the action, then applied to the action.</li>
+ * </ul>
+ * </p>
+ *
+ * @author isv, TCSDEVELOPER
+ * @version 1.1
  */
-public class UserProjectsProcessor implements RequestProcessor<ViewAction> {
+public class UserProjectsProcessor implements ConcurrentRequestProcessor<ViewAction, UserProjectsDTO> {
 
     /**
      * <p>A <code>Logger</code> to be used for logging the events encountered while processing the requests.</p>
@@ -42,6 +50,21 @@ public class UserProjectsProcessor implements RequestProcessor<ViewAction> {
      * @param action an <code>Object</code> representing the current action mapped to incoming request.
      */
     public void processRequest(ViewAction action) {
+        ProcessorResult<UserProjectsDTO> result = load(action);
+        if (result != null) {
+            apply(action, result);
+        }
+    }
+
+    /**
+     * <p>Loads the data for the incoming request which has been mapped to specified action, without modifying the
+     * action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @return the loaded data or the error which failed the loading, null if the action requires no data.
+     * @since 1.1
+     */
+    public ProcessorResult<UserProjectsDTO> load(ViewAction action) {
         try {
             Object data = action.getViewData();
             if (data instanceof UserProjectsDTO.Aware) {
@@ -49,14 +72,25 @@ public class UserProjectsProcessor implements RequestProcessor<ViewAction> {
                     = DataProvider.getUserProjects(action.getSessionData().getCurrentUserId());
                 UserProjectsDTO userProjectsDTO = new UserProjectsDTO();
                 userProjectsDTO.setProjects(projects);
-                UserProjectsDTO.Aware viewData = (UserProjectsDTO.Aware) data;
-                viewData.setUserProjects(userProjectsDTO);
+                return new ProcessorResult<UserProjectsDTO>(userProjectsDTO, null);
             }
+            return null;
         } catch (Exception e) {
             log.debug("Failed to retrieve details on user projects", e);
-            action.setResultCode(ViewAction.RC_UNEXPECTED_ERROR);
-            action.setErrorMessage(e.getMessage());
-            action.setError(e);
+            return new ProcessorResult<UserProjectsDTO>(null, e);
+        }
+    }
+
+    /**
+     * <p>Sets the loaded data or the loading error to the action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @param result the result returned by {@link #load(ViewAction)}.
+     * @since 1.1
+     */
+    public void apply(ViewAction action, ProcessorResult<UserProjectsDTO> result) {
+        if (!result.applyError(action)) {
+            ((UserProjectsDTO.Aware) action.getViewData()).setUserProjects(result.getData());
         }
     }
 }
@@ -1,11 +1,12 @@
 /*
- * Copyright (C) 2010 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2010 - 2013 TopCoder Inc., All Rights Reserved.
  */
 package com.topcoder.direct.services.view.processor.contest;
 
 import com.topcoder.direct.services.view.action.ViewAction;
 import com.topcoder.direct.services.view.dto.contest.ContestDTO;
-import com.topcoder.direct.services.view.processor.RequestProcessor;
+import com.topcoder.direct.services.view.processor.ConcurrentRequestProcessor;
+import com.topcoder.direct.services.view.processor.ProcessorResult;
 import com.topcoder.direct.services.view.util.DataProvider;
 import com.topcoder.shared.util.logging.Logger;
 
@@ -16,10 +17,18 @@ import com.topcoder.shared.util.logging.Logger;
  * <p>This processor expects the actions of {@link ViewAction} type with view data of {@link ContestDTO.Aware} type to
  * be passed to it.</p>
  *
- * @author isv
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ *     <li>Implements {@link ConcurrentRequestProcessor} so that it can be executed concurrently: the data is loaded
+ *     without modifying the action, then applied to the action.</li>
+ * </ul>
+ * </p>
+ *
+ * @author isv, TCSDEVELOPER
+ * @version 1.1
  */
-public class ContestDetailsProcessor implements RequestProcessor<ViewAction> {
+public class ContestDetailsProcessor implements ConcurrentRequestProcessor<ViewAction, ContestDTO> {
 
     /**
      * <p>A <code>Logger</code> to be used for logging the events encountered while processing the requests.</p>
@@ -38,16 +47,37 @@ public class ContestDetailsProcessor implements RequestProcessor<ViewAction> {
      * @param action an <code>Object</code> representing the current action mapped to incoming request.
      */
     public void processRequest(ViewAction action) {
-        ContestDTO.Aware data = (ContestDTO.Aware) action.getViewData();
-        long contestId = data.getContestId();
+        apply(action, load(action));
+    }
+
+    /**
+     * <p>Loads the data for the incoming request which has been mapped to specified action, without modifying the
+     * action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @return the loaded data or the error which failed the loading.
+     * @since 1.1
+     */
+    public ProcessorResult<ContestDTO> load(ViewAction action) {
+        long contestId = ((ContestDTO.Aware) action.getViewData()).getContestId();
         try {
-            ContestDTO contest = DataProvider.getContest(contestId);
-            data.setContest(contest);
+            return new ProcessorResult<ContestDTO>(DataProvider.getContest(contestId), null);
         } catch (Exception e) {
             log.error("Failed to retrieve details for contest " + contestId, e);
-            action.setResultCode(ViewAction.RC_UNEXPECTED_ERROR);
-            action.setErrorMessage(e.getMessage());
-            action.setError(e);
+            return new ProcessorResult<ContestDTO>(null, e);
+        }
+    }
+
+    /**
+     * <p>Sets the loaded data or the loading error to the action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @param result the result returned by {@link #load(ViewAction)}.
+     * @since 1.1
+     */
+    public void apply(ViewAction action, ProcessorResult<ContestDTO> result) {
+        if (!result.applyError(action)) {
+            ((ContestDTO.Aware) action.getViewData()).setContest(result.getData());
         }
     }
 }
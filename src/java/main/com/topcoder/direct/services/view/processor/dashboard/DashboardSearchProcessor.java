@@ -3,9 +3,12 @@
  */
 package com.topcoder.direct.services.view.processor.dashboard;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import com.topcoder.direct.services.view.action.dashboard.DashboardSearchAction;
+import com.topcoder.direct.services.view.dto.dashboard.DashboardContestSearchResultDTO;
 import com.topcoder.direct.services.view.dto.dashboard.DashboardSearchCriteriaType;
 import com.topcoder.direct.services.view.dto.dashboard.DashboardSearchResultsDTO;
 import com.topcoder.direct.services.view.form.DashboardSearchForm;
@@ -31,11 +34,25 @@ import com.topcoder.shared.util.logging.Logger;
  * - add search functions for Platform Managers' projects type
  * </p>
  *
- * @author isv, BeBetter, bugbuka
- * @version 1.2
+ * <p>
+ * Version 1.3 - Paged Contest Search
+ * - the contests search reads only the displayed page of the contests, the excel download reads all of them
+ * </p>
+ *
+ * @author isv, BeBetter, bugbuka, TCSDEVELOPER
+ * @version 1.3
  */
 public class DashboardSearchProcessor implements RequestProcessor<DashboardSearchAction> {
 
+    /**
+     * <p>
+     * The number of contests displayed in a page of the contests search results.
+     * </p>
+     *
+     * @since 1.3
+     */
+    private static final int CONTESTS_PAGE_SIZE = 50;
+
     /**
      * <p>
      * A <code>Logger</code> to be used for logging the events encountered while processing the requests.
@@ -91,7 +108,18 @@ public class DashboardSearchProcessor implements RequestProcessor<DashboardSearc
                 viewData.setResultType(DashboardSearchCriteriaType.PROJECTS);
                 viewData.setIsAllProjectsPage(false);
             } else if (DashboardSearchCriteriaType.CONTESTS == criteriaType) {
-                viewData.setContests(DataProvider.searchUserContests(tcSubject, searchFor, start, end));
+                if (form.isExcel()) {
+                    viewData.setContests(DataProvider.searchUserContests(tcSubject, searchFor, start, end));
+                } else {
+                    // one more contest than the page is read to know whether there is a next page
+                    List<DashboardContestSearchResultDTO> contests = DataProvider.searchUserContests(tcSubject,
+                        searchFor, start, end, form.getAfterProjectId(), form.getAfterContestId(),
+                        CONTESTS_PAGE_SIZE + 1);
+                    viewData.setMoreContests(contests.size() > CONTESTS_PAGE_SIZE);
+                    viewData.setContests(contests.size() > CONTESTS_PAGE_SIZE
+                        ? new ArrayList<DashboardContestSearchResultDTO>(contests.subList(0, CONTESTS_PAGE_SIZE))
+                        : contests);
+                }
                 viewData.setResultType(DashboardSearchCriteriaType.CONTESTS);
                 viewData.setIsAllProjectsPage(false);
             } else if (DashboardSearchCriteriaType.MEMBERS == criteriaType) {
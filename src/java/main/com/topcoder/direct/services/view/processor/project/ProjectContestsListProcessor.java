@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2010 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2010 - 2013 TopCoder Inc., All Rights Reserved.
  */
 package com.topcoder.direct.services.view.processor.project;
 
@@ -9,7 +9,8 @@ import com.topcoder.direct.services.view.action.dashboard.ActiveContestsAction;
 import com.topcoder.direct.services.view.action.project.ProjectContestsAction;
 import com.topcoder.direct.services.view.dto.project.ProjectContestsListDTO;
 import com.topcoder.direct.services.view.form.ProjectIdForm;
-import com.topcoder.direct.services.view.processor.RequestProcessor;
+import com.topcoder.direct.services.view.processor.ConcurrentRequestProcessor;
+import com.topcoder.direct.services.view.processor.ProcessorResult;
 import com.topcoder.direct.services.view.util.DataProvider;
 import com.topcoder.shared.util.logging.Logger;
 
@@ -21,10 +22,19 @@ import com.topcoder.shared.util.logging.Logger;
  * {@link ProjectContestsListDTO.Aware} type and of {@link FormAction} type with form data of {@link ProjectIdForm} type
  * to be passed to it. If any of those requirements is not met then this processor does nothing.</p>
  *
- * @author isv
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ *     <li>Implements {@link ConcurrentRequestProcessor} so that it can be executed concurrently: the data is loaded
+ *     without modifying the action, then applied to the action.</li>
+ * </ul>
+ * </p>
+ *
+ * @author isv, TCSDEVELOPER
+ * @version 1.1
  */
-public class ProjectContestsListProcessor implements RequestProcessor<FormAction<ProjectIdForm>> {
+public class ProjectContestsListProcessor
+    implements ConcurrentRequestProcessor<FormAction<ProjectIdForm>, ProjectContestsListDTO> {
 
     /**
      * <p>A <code>Logger</code> to be used for logging the events encountered while processing the requests.</p>
@@ -43,31 +53,51 @@ public class ProjectContestsListProcessor implements RequestProcessor<FormAction
      * @param action an <code>Object</code> representing the current action mapped to incoming request.
      */
     public void processRequest(FormAction<ProjectIdForm> action) {
-        if (action instanceof ViewAction) {
-            ViewAction viewAction = (ViewAction) action;
-            Object data = viewAction.getViewData();
-            if (data instanceof ProjectContestsListDTO.Aware) {
-                long projectId = action.getFormData().getProjectId();
-                long currentUserId = action.getSessionData().getCurrentUserId();
-                try {
-                    ProjectContestsListDTO contests = null;
-					if (action instanceof ActiveContestsAction)
-					{
-						contests = DataProvider.getActiveContests(currentUserId);
-					}
-					else if (action instanceof ProjectContestsAction)
-					{
-						contests = DataProvider.getProjectContests(currentUserId, projectId);	
-					}
-                    ProjectContestsListDTO.Aware viewData = (ProjectContestsListDTO.Aware) data;
-                    viewData.setProjectContests(contests);
-                } catch (Exception e) {
-                    log.error("Failed to retrieve details on project contests for project " + projectId, e);
-                    action.setResultCode(ViewAction.RC_UNEXPECTED_ERROR);
-                    action.setErrorMessage(e.getMessage());
-                    action.setError(e);
+        ProcessorResult<ProjectContestsListDTO> result = load(action);
+        if (result != null) {
+            apply(action, result);
+        }
+    }
+
+    /**
+     * <p>Loads the data for the incoming request which has been mapped to specified action, without modifying the
+     * action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @return the loaded data or the error which failed the loading, null if the action requires no data.
+     * @since 1.1
+     */
+    public ProcessorResult<ProjectContestsListDTO> load(FormAction<ProjectIdForm> action) {
+        if (action instanceof ViewAction
+            && ((ViewAction) action).getViewData() instanceof ProjectContestsListDTO.Aware) {
+            long projectId = action.getFormData().getProjectId();
+            long currentUserId = action.getSessionData().getCurrentUserId();
+            try {
+                ProjectContestsListDTO contests = null;
+                if (action instanceof ActiveContestsAction) {
+                    contests = DataProvider.getActiveContests(currentUserId);
+                } else if (action instanceof ProjectContestsAction) {
+                    contests = DataProvider.getProjectContests(currentUserId, projectId);
                 }
+                return new ProcessorResult<ProjectContestsListDTO>(contests, null);
+            } catch (Exception e) {
+                log.error("Failed to retrieve details on project contests for project " + projectId, e);
+                return new ProcessorResult<ProjectContestsListDTO>(null, e);
             }
         }
+        return null;
+    }
+
+    /**
+     * <p>Sets the loaded data or the loading error to the action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @param result the result returned by {@link #load(FormAction)}.
+     * @since 1.1
+     */
+    public void apply(FormAction<ProjectIdForm> action, ProcessorResult<ProjectContestsListDTO> result) {
+        if (!result.applyError(action)) {
+            ((ProjectContestsListDTO.Aware) ((ViewAction) action).getViewData()).setProjectContests(result.getData());
+        }
     }
 }
@@ -1,11 +1,12 @@
 /*
- * Copyright (C) 2010 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2010 - 2013 TopCoder Inc., All Rights Reserved.
  */
 package com.topcoder.direct.services.view.processor.project;
 
 import com.topcoder.direct.services.view.action.ViewAction;
 import com.topcoder.direct.services.view.dto.UpcomingActivitiesDTO;
-import com.topcoder.direct.services.view.processor.RequestProcessor;
+import com.topcoder.direct.services.view.processor.ConcurrentRequestProcessor;
+import com.topcoder.direct.services.view.processor.ProcessorResult;
 import com.topcoder.direct.services.view.util.DataProvider;
 import com.topcoder.shared.util.logging.Logger;
 
@@ -17,10 +18,18 @@ import com.topcoder.shared.util.logging.Logger;
  * {@link UpcomingActivitiesDTO.Aware} type to be passed to it. If any of those requirements is not met then this
  * processor does nothing.</p>
  *
- * @author isv
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ *     <li>Implements {@link ConcurrentRequestProcessor} so that it can be executed concurrently: the data is loaded
+ *     without modifying the action, then applied to the action.</li>
+ * </ul>
+ * </p>
+ *
+ * @author isv, TCSDEVELOPER
+ * @version 1.1
  */
-public class UpcomingActivitiesProcessor implements RequestProcessor<ViewAction> {
+public class UpcomingActivitiesProcessor implements ConcurrentRequestProcessor<ViewAction, UpcomingActivitiesDTO> {
 
     /**
      * <p>A <code>Logger</code> to be used for logging the events encountered while processing the requests.</p>
@@ -39,20 +48,46 @@ public class UpcomingActivitiesProcessor implements RequestProcessor<ViewAction>
      * @param action an <code>Object</code> representing the current action mapped to incoming request.
      */
     public void processRequest(ViewAction action) {
+        ProcessorResult<UpcomingActivitiesDTO> result = load(action);
+        if (result != null) {
+            apply(action, result);
+        }
+    }
+
+    /**
+     * <p>Loads the data for the incoming request which has been mapped to specified action, without modifying the
+     * action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @return the loaded data or the error which failed the loading, null if the action requires no data.
+     * @since 1.1
+     */
+    public ProcessorResult<UpcomingActivitiesDTO> load(ViewAction action) {
         long currentUserId = action.getSessionData().getCurrentUserId();
         try {
             Object data = action.getViewData();
             if (data instanceof UpcomingActivitiesDTO.Aware) {
-                UpcomingActivitiesDTO latestActivities
+                UpcomingActivitiesDTO upcomingActivities
                     = DataProvider.getUpcomingActivitiesForUserProjects(currentUserId, 15);
-                UpcomingActivitiesDTO.Aware viewData = (UpcomingActivitiesDTO.Aware) data;
-                viewData.setUpcomingActivities(latestActivities);
+                return new ProcessorResult<UpcomingActivitiesDTO>(upcomingActivities, null);
             }
+            return null;
         } catch (Exception e) {
             log.error("Failed to retrieve details on upcoming activities on projects for user " + currentUserId, e);
-            action.setResultCode(ViewAction.RC_UNEXPECTED_ERROR);
-            action.setErrorMessage(e.getMessage());
-            action.setError(e);
+            return new ProcessorResult<UpcomingActivitiesDTO>(null, e);
+        }
+    }
+
+    /**
+     * <p>Sets the loaded data or the loading error to the action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @param result the result returned by {@link #load(ViewAction)}.
+     * @since 1.1
+     */
+    public void apply(ViewAction action, ProcessorResult<UpcomingActivitiesDTO> result) {
+        if (!result.applyError(action)) {
+            ((UpcomingActivitiesDTO.Aware) action.getViewData()).setUpcomingActivities(result.getData());
         }
     }
 }
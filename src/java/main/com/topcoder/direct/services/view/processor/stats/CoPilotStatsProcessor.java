@@ -1,12 +1,13 @@
 /*
- * Copyright (C) 2010 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2010 - 2013 TopCoder Inc., All Rights Reserved.
  */
 
 package com.topcoder.direct.services.view.processor.stats;
 
 import com.topcoder.direct.services.view.action.ViewAction;
 import com.topcoder.direct.services.view.dto.CoPilotStatsDTO;
-import com.topcoder.direct.services.view.processor.RequestProcessor;
+import com.topcoder.direct.services.view.processor.ConcurrentRequestProcessor;
+import com.topcoder.direct.services.view.processor.ProcessorResult;
 import com.topcoder.direct.services.view.util.DataProvider;
 import com.topcoder.shared.util.logging.Logger;
 
@@ -17,10 +18,18 @@ import com.topcoder.shared.util.logging.Logger;
  * <p>This processor expects the actions of {@link ViewAction} type with view data of {@link CoPilotStatsDTO.Aware} type
  * to be passed to it. If any of those requirements is not met then this processor does nothing.</p>
  *
- * @author isv
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ *     <li>Implements {@link ConcurrentRequestProcessor} so that it can be executed concurrently: the data is loaded
+ *     without modifying the action, then applied to the action.</li>
+ * </ul>
+ * </p>
+ *
+ * @author isv, TCSDEVELOPER
+ * @version 1.1
  */
-public class CoPilotStatsProcessor implements RequestProcessor<ViewAction> {
+public class CoPilotStatsProcessor implements ConcurrentRequestProcessor<ViewAction, CoPilotStatsDTO> {
 
     /**
      * <p>A <code>Logger</code> to be used for logging the events encountered while processing the requests.</p>
@@ -41,18 +50,45 @@ public class CoPilotStatsProcessor implements RequestProcessor<ViewAction> {
      * @param action an <code>Object</code> representing the current action mapped to incoming request.
      */
     public void processRequest(ViewAction action) {
+        ProcessorResult<CoPilotStatsDTO> result = load(action);
+        if (result != null) {
+            apply(action, result);
+        }
+    }
+
+    /**
+     * <p>Loads the data for the incoming request which has been mapped to specified action, without modifying the
+     * action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @return the loaded data or the error which failed the loading, null if the action requires no data.
+     * @since 1.1
+     */
+    public ProcessorResult<CoPilotStatsDTO> load(ViewAction action) {
         try {
             Object data = action.getViewData();
             if (data instanceof CoPilotStatsDTO.Aware) {
-                CoPilotStatsDTO coPilotStats = DataProvider.getCopilotStats();
-                CoPilotStatsDTO.Aware viewData = (CoPilotStatsDTO.Aware) data;
-                viewData.setCoPilotStats(coPilotStats);
+                CoPilotStatsDTO coPilotStats
+                    = DataProvider.getCopilotStats();
+                return new ProcessorResult<CoPilotStatsDTO>(coPilotStats, null);
             }
+            return null;
         } catch (Exception e) {
             log.debug("Failed to retrieve statistics on co-piloting projects", e);
-            action.setResultCode(ViewAction.RC_UNEXPECTED_ERROR);
-            action.setErrorMessage(e.getMessage());
-            action.setError(e);
+            return new ProcessorResult<CoPilotStatsDTO>(null, e);
+        }
+    }
+
+    /**
+     * <p>Sets the loaded data or the loading error to the action.</p>
+     *
+     * @param action an <code>Object</code> representing the current action mapped to incoming request.
+     * @param result the result returned by {@link #load(ViewAction)}.
+     * @since 1.1
+     */
+    public void apply(ViewAction action, ProcessorResult<CoPilotStatsDTO> result) {
+        if (!result.applyError(action)) {
+            ((CoPilotStatsDTO.Aware) action.getViewData()).setCoPilotStats(result.getData());
         }
     }
 }
@@ -3,6 +3,7 @@
  */
 package com.topcoder.direct.services.view.util;
 
+import com.topcoder.direct.services.view.util.metrics.InstrumentedDataAccess;
 import com.topcoder.project.service.ProjectServices;
 import com.topcoder.security.TCSubject;
 import com.topcoder.security.groups.model.GroupPermissionType;
@@ -66,8 +67,15 @@ import javax.servlet.http.HttpServletRequest;
  * </ul>
  * </p>
  *
+ * <p>
+ * Version 1.6 (TopCoder Direct - Query Metrics)
+ * <ul>
+ *     <li>The queries are run with {@link InstrumentedDataAccess} so they are recorded in the query metrics.</li>
+ * </ul>
+ * </p>
+ *
  * @author isv, GreatKevin, TCSASSEMBLER
- * @version 1.5
+ * @version 1.6
  */
 public class AuthorizationProvider {
 
@@ -97,7 +105,7 @@ public class AuthorizationProvider {
             return true;
         }
         
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("has_cockpit_project_permissions");
         request.setProperty("tcdirectid", String.valueOf(projectId));
@@ -133,7 +141,7 @@ public class AuthorizationProvider {
             return true;
         }
         
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("has_cockpit_project_permissions");
         request.setProperty("tcdirectid", String.valueOf(projectId));
@@ -167,7 +175,7 @@ public class AuthorizationProvider {
             return true;
         }
         
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("has_cockpit_permissions");
         request.setProperty("pj", String.valueOf(contestId));
@@ -204,7 +212,7 @@ public class AuthorizationProvider {
             return true;
         }
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("has_milestone_write_permission");
         request.setProperty("mid", String.valueOf(milestoneId));
@@ -0,0 +1,630 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.topcoder.direct.services.view.dto.contest.ContestBriefDTO;
+import com.topcoder.direct.services.view.dto.contest.ContestHealthDTO;
+import com.topcoder.direct.services.view.dto.project.ProjectBriefDTO;
+import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer.ResultSetRow;
+import com.topcoder.shared.util.logging.Logger;
+
+/**
+ * <p>
+ * Precomputes the health of the contests shown by the contests health dashboards, so that the dashboards read the
+ * evaluated statuses rather than running the health query and evaluating each contest on each request.
+ * </p>
+ *
+ * <p>
+ * The health query is filtered by the permissions of the user, so the engine keeps the contests of each user and
+ * direct project the dashboards were read for. They are refreshed every <code>refreshInterval</code> milliseconds in
+ * the background, and dropped once they are not read for <code>maxIdleTime</code> milliseconds. The reads only
+ * consult the precomputed results, the health query only runs on the request thread for the first read of a
+ * project. The health of a
+ * contest is shared by the users and projects it is shown for, and is only evaluated again when the data it depends
+ * on (its phases, registrations, reviewers, forum threads or dependencies) changed, or when its current phase gets
+ * close to its end or late.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the contests and the projects are kept in concurrent maps of
+ * immutable entries, replaced as a whole when refreshed. The refreshes run on a single thread.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class ContestHealthEngine {
+    /**
+     * <p>
+     * The columns of the health query the health of a contest depends on.
+     * </p>
+     */
+    private static final String[] HEALTH_COLUMNS = {"is_studio", "reliability_total", "registration_phase_status",
+        "project_category_id", "reliability_eligible", "current_phase_end_time", "unanswered_threads",
+        "required_reviewers_count", "registered_reviewers_count", "review_hours_left", "dependencies_count",
+        "incomplete_dependencies_count", "tc_direct_project_id", "tc_direct_project_name", "contest_name",
+        "contest_type"};
+
+    /**
+     * <p>
+     * The time before the end of the current phase when it is closing, in milliseconds.
+     * </p>
+     */
+    private static final long CLOSING_TIME = 2 * 3600 * 1000;
+
+    /**
+     * <p>
+     * A <code>Logger</code> to be used for logging the refreshes.
+     * </p>
+     */
+    private static final Logger logger = Logger.getLogger(ContestHealthEngine.class);
+
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final ContestHealthEngine INSTANCE = new ContestHealthEngine();
+
+    /**
+     * <p>
+     * The evaluated contests by contest id.
+     * </p>
+     */
+    private final ConcurrentMap<Long, ContestHealth> contests = new ConcurrentHashMap<Long, ContestHealth>();
+
+    /**
+     * <p>
+     * The contests of the projects read by the dashboards, by user id and direct project id.
+     * </p>
+     */
+    private final ConcurrentMap<String, ProjectContests> projects = new ConcurrentHashMap<String, ProjectContests>();
+
+    /**
+     * <p>
+     * The interval in milliseconds between the refreshes.
+     * </p>
+     */
+    private volatile long refreshInterval = 5 * 60 * 1000;
+
+    /**
+     * <p>
+     * The time in milliseconds after which the projects not read are not refreshed anymore.
+     * </p>
+     */
+    private volatile long maxIdleTime = 60 * 60 * 1000;
+
+    /**
+     * <p>
+     * The scheduler of the refreshes, null if the engine is not started.
+     * </p>
+     */
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * <p>
+     * Creates the engine.
+     * </p>
+     */
+    ContestHealthEngine() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static ContestHealthEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Schedules the background refreshes.
+     * </p>
+     *
+     * @throws IllegalStateException if the refresh interval or the max idle time is not positive
+     */
+    public synchronized void start() {
+        if (refreshInterval <= 0 || maxIdleTime <= 0) {
+            throw new IllegalStateException("The refreshInterval and maxIdleTime should be positive.");
+        }
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "contest-health-engine");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    refreshAll();
+                } catch (Exception e) {
+                    logger.error("Failed to refresh the contests health", e);
+                }
+            }
+        }, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <p>
+     * Stops the background refreshes.
+     * </p>
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the health of the contests of a direct project from the precomputed results. The project is only
+     * refreshed now if it was never read, or if the engine is not started and the project was not refreshed for a
+     * refresh interval. The health of the contests whose current phase got closing or late is evaluated again in
+     * memory.
+     * </p>
+     *
+     * @param userId the id of the user reading the dashboard
+     * @param projectId the id of the direct project
+     * @return new briefs and health of the contests
+     * @throws Exception if the contests health can not be retrieved
+     */
+    public Map<ContestBriefDTO, ContestHealthDTO> getProjectContestsHealth(long userId, long projectId)
+        throws Exception {
+        long now = System.currentTimeMillis();
+        String key = userId + ":" + projectId;
+        ProjectContests project = projects.get(key);
+        if (project == null || (scheduler == null && now - project.getRefreshTime() >= refreshInterval)) {
+            project = refresh(userId, projectId);
+        }
+        project.touch(now);
+        if (!contests.keySet().containsAll(project.getContestIds())) {
+            // a background refresh dropped the contests of the project as it was being added or had been idle
+            project = refresh(userId, projectId);
+        }
+
+        Map<Long, ProjectBriefDTO> projectBriefs = new HashMap<Long, ProjectBriefDTO>();
+        Map<ContestBriefDTO, ContestHealthDTO> result = new HashMap<ContestBriefDTO, ContestHealthDTO>();
+        for (Long contestId : project.getContestIds()) {
+            ContestHealth contest = contests.get(contestId);
+            if (contest == null) {
+                continue;
+            }
+            if (now >= contest.getValidUntil()) {
+                // the current phase got closing or late since the contest was evaluated
+                contest = evaluate(contest.getRow(), contest.getFingerprint());
+                contests.put(contestId, contest);
+            }
+            result.put(DataProvider.createContestHealthBrief(contest.getRow(), projectBriefs), contest.copyHealth());
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Runs the health query of a project, and evaluates the contests whose health data changed.
+     * </p>
+     *
+     * @param userId the id of the user
+     * @param projectId the id of the direct project
+     * @return the refreshed project
+     * @throws Exception if the contests health can not be retrieved
+     */
+    private ProjectContests refresh(long userId, long projectId) throws Exception {
+        List<Long> contestIds = new ArrayList<Long>();
+        int evaluated = 0;
+        for (ResultSetRow row : DataProvider.getProjectContestsHealthData(userId, projectId)) {
+            long contestId = row.getLongItem("contest_id");
+            String fingerprint = fingerprint(row);
+            ContestHealth contest = contests.get(contestId);
+            if (contest == null || !contest.getFingerprint().equals(fingerprint)
+                || System.currentTimeMillis() >= contest.getValidUntil()) {
+                contests.put(contestId, evaluate(row, fingerprint));
+                evaluated++;
+            }
+            contestIds.add(contestId);
+        }
+
+        String key = userId + ":" + projectId;
+        ProjectContests previous = projects.get(key);
+        ProjectContests project = new ProjectContests(userId, projectId, contestIds,
+            previous == null ? System.currentTimeMillis() : previous.getLastReadTime());
+        projects.put(key, project);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Refreshed the health of the " + contestIds.size() + " contests of the project " + projectId
+                + " for the user " + userId + ", " + evaluated + " evaluated");
+        }
+        return project;
+    }
+
+    /**
+     * <p>
+     * Refreshes the projects read recently, drops the others and the contests no project shows anymore.
+     * </p>
+     */
+    void refreshAll() {
+        long start = System.currentTimeMillis();
+        for (Map.Entry<String, ProjectContests> entry : projects.entrySet()) {
+            ProjectContests project = entry.getValue();
+            if (start - project.getLastReadTime() >= maxIdleTime) {
+                projects.remove(entry.getKey(), project);
+                continue;
+            }
+            try {
+                project = refresh(project.getUserId(), project.getProjectId());
+            } catch (Exception e) {
+                // the previous results are served until the next refresh
+                logger.error("Failed to refresh the contests health of the project " + project.getProjectId(), e);
+            }
+        }
+
+        Set<Long> shown = new HashSet<Long>();
+        for (ProjectContests project : projects.values()) {
+            shown.addAll(project.getContestIds());
+        }
+        contests.keySet().retainAll(shown);
+        logger.info("Refreshed the health of " + contests.size() + " contests of " + projects.size()
+            + " projects in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * <p>
+     * Evaluates the health of a contest.
+     * </p>
+     *
+     * @param row the row of the contest in the health query
+     * @param fingerprint the fingerprint of the health data of the contest
+     * @return the evaluated contest
+     */
+    private static ContestHealth evaluate(ResultSetRow row, String fingerprint) {
+        ContestHealthDTO health = DataProvider.evaluateContestHealth(row);
+
+        // the phase status depends on the time, it is evaluated again when it changes
+        long validUntil = Long.MAX_VALUE;
+        Date currentPhaseEndTime = DataProvider.getCurrentPhaseEndTime(row);
+        if (currentPhaseEndTime != null) {
+            long now = System.currentTimeMillis();
+            long endTime = currentPhaseEndTime.getTime();
+            if (now < endTime - CLOSING_TIME) {
+                validUntil = endTime - CLOSING_TIME;
+            } else if (now <= endTime) {
+                validUntil = endTime + 1;
+            }
+        }
+        return new ContestHealth(row, fingerprint, health, validUntil);
+    }
+
+    /**
+     * <p>
+     * Gets the fingerprint of the health data of a contest.
+     * </p>
+     *
+     * @param row the row of the contest in the health query
+     * @return the fingerprint
+     */
+    private static String fingerprint(ResultSetRow row) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (String column : HEALTH_COLUMNS) {
+            fingerprint.append(row.getItem(column).getResultData()).append('|');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * <p>
+     * Gets the interval in milliseconds between the refreshes.
+     * </p>
+     *
+     * @return the refresh interval in milliseconds
+     */
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * <p>
+     * Sets the interval in milliseconds between the refreshes. It is used when the engine is started.
+     * </p>
+     *
+     * @param refreshInterval the refresh interval in milliseconds
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * <p>
+     * Gets the time in milliseconds after which the projects not read are not refreshed anymore.
+     * </p>
+     *
+     * @return the max idle time in milliseconds
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * <p>
+     * Sets the time in milliseconds after which the projects not read are not refreshed anymore.
+     * </p>
+     *
+     * @param maxIdleTime the max idle time in milliseconds
+     */
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * <p>
+     * The evaluated health of a contest, with the health query row it was evaluated from.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is effectively immutable and thread safe, the health is copied when read.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static final class ContestHealth {
+        /**
+         * <p>
+         * The row of the contest in the health query.
+         * </p>
+         */
+        private final ResultSetRow row;
+
+        /**
+         * <p>
+         * The fingerprint of the health data of the contest.
+         * </p>
+         */
+        private final String fingerprint;
+
+        /**
+         * <p>
+         * The evaluated health, never given out.
+         * </p>
+         */
+        private final ContestHealthDTO health;
+
+        /**
+         * <p>
+         * The time until which the evaluated health is valid, in milliseconds.
+         * </p>
+         */
+        private final long validUntil;
+
+        /**
+         * <p>
+         * Creates the evaluated health.
+         * </p>
+         *
+         * @param row the row of the contest in the health query
+         * @param fingerprint the fingerprint of the health data of the contest
+         * @param health the evaluated health
+         * @param validUntil the time until which the evaluated health is valid, in milliseconds
+         */
+        ContestHealth(ResultSetRow row, String fingerprint, ContestHealthDTO health, long validUntil) {
+            this.row = row;
+            this.fingerprint = fingerprint;
+            this.health = health;
+            this.validUntil = validUntil;
+        }
+
+        /**
+         * <p>
+         * Gets the row of the contest in the health query.
+         * </p>
+         *
+         * @return the row
+         */
+        ResultSetRow getRow() {
+            return row;
+        }
+
+        /**
+         * <p>
+         * Gets the fingerprint of the health data of the contest.
+         * </p>
+         *
+         * @return the fingerprint
+         */
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * <p>
+         * Gets the time until which the evaluated health is valid.
+         * </p>
+         *
+         * @return the time in milliseconds
+         */
+        long getValidUntil() {
+            return validUntil;
+        }
+
+        /**
+         * <p>
+         * Copies the evaluated health, so that the caller can set its dashboard data.
+         * </p>
+         *
+         * @return a new copy of the evaluated health
+         */
+        ContestHealthDTO copyHealth() {
+            ContestHealthDTO copy = new ContestHealthDTO();
+            copy.setShowRegHealth(health.getShowRegHealth());
+            copy.setRegistrationStatus(health.getRegistrationStatus());
+            copy.setCurrentPhaseStatus(health.getCurrentPhaseStatus());
+            copy.setUnansweredForumPostsNumber(health.getUnansweredForumPostsNumber());
+            copy.setReviewersSignupStatus(health.getReviewersSignupStatus());
+            copy.setDependenciesStatus(health.getDependenciesStatus());
+            copy.setUnresolvedIssuesNumber(health.getUnresolvedIssuesNumber());
+            copy.setPhaseStatusColor(health.getPhaseStatusColor());
+            copy.setRegStatusColor(health.getRegStatusColor());
+            copy.setForumActivityStatusColor(health.getForumActivityStatusColor());
+            copy.setReviewersSignupStatusColor(health.getReviewersSignupStatusColor());
+            copy.setDependenciesStatusColor(health.getDependenciesStatusColor());
+            copy.setContestStatusColor(health.getContestStatusColor());
+            copy.setContestIssuesColor(health.getContestIssuesColor());
+            return copy;
+        }
+    }
+
+    /**
+     * <p>
+     * The contests of a direct project read by a user.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is thread safe, only the last read time changes and it is volatile.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static final class ProjectContests {
+        /**
+         * <p>
+         * The id of the user.
+         * </p>
+         */
+        private final long userId;
+
+        /**
+         * <p>
+         * The id of the direct project.
+         * </p>
+         */
+        private final long projectId;
+
+        /**
+         * <p>
+         * The ids of the contests.
+         * </p>
+         */
+        private final List<Long> contestIds;
+
+        /**
+         * <p>
+         * The time the contests were refreshed, in milliseconds.
+         * </p>
+         */
+        private final long refreshTime = System.currentTimeMillis();
+
+        /**
+         * <p>
+         * The time the contests were last read, in milliseconds.
+         * </p>
+         */
+        private volatile long lastReadTime;
+
+        /**
+         * <p>
+         * Creates the contests of a project.
+         * </p>
+         *
+         * @param userId the id of the user
+         * @param projectId the id of the direct project
+         * @param contestIds the ids of the contests
+         * @param lastReadTime the time the contests were last read, in milliseconds
+         */
+        ProjectContests(long userId, long projectId, List<Long> contestIds, long lastReadTime) {
+            this.userId = userId;
+            this.projectId = projectId;
+            this.contestIds = Collections.unmodifiableList(contestIds);
+            this.lastReadTime = lastReadTime;
+        }
+
+        /**
+         * <p>
+         * Gets the id of the user.
+         * </p>
+         *
+         * @return the id of the user
+         */
+        long getUserId() {
+            return userId;
+        }
+
+        /**
+         * <p>
+         * Gets the id of the direct project.
+         * </p>
+         *
+         * @return the id of the direct project
+         */
+        long getProjectId() {
+            return projectId;
+        }
+
+        /**
+         * <p>
+         * Gets the ids of the contests.
+         * </p>
+         *
+         * @return the unmodifiable ids of the contests
+         */
+        List<Long> getContestIds() {
+            return contestIds;
+        }
+
+        /**
+         * <p>
+         * Gets the time the contests were refreshed.
+         * </p>
+         *
+         * @return the time in milliseconds
+         */
+        long getRefreshTime() {
+            return refreshTime;
+        }
+
+        /**
+         * <p>
+         * Gets the time the contests were last read.
+         * </p>
+         *
+         * @return the time in milliseconds
+         */
+        long getLastReadTime() {
+            return lastReadTime;
+        }
+
+        /**
+         * <p>
+         * Records that the contests are read.
+         * </p>
+         *
+         * @param time the time of the read, in milliseconds
+         */
+        void touch(long time) {
+            lastReadTime = time;
+        }
+    }
+}
@@ -118,12 +118,17 @@ import com.topcoder.direct.services.view.dto.search.ContestSearchResult;
 import com.topcoder.direct.services.view.dto.search.ProjectSearchResult;
 import com.topcoder.direct.services.view.form.enterpriseDashboard.EnterpriseDashboardFilterForm;
 import com.topcoder.direct.services.view.util.jira.JiraRpcServiceWrapper;
+import com.topcoder.direct.services.view.util.cache.CachePolicyRegistry;
+import com.topcoder.direct.services.view.util.metrics.InstrumentedCachedDataAccess;
+import com.topcoder.direct.services.view.util.metrics.InstrumentedDataAccess;
 import com.topcoder.management.deliverable.Submission;
 import com.topcoder.management.deliverable.Upload;
 import com.topcoder.management.project.ProjectStatus;
 import com.topcoder.marathonmatch.service.dto.MMDownloadSubmissionDTO;
 import com.topcoder.security.TCSubject;
+import com.topcoder.management.project.SimpleProjectContestDataCriteria;
 import com.topcoder.service.facade.contest.CommonProjectContestData;
+import com.topcoder.service.facade.contest.ContestServiceFacade;
 import com.topcoder.service.facade.contest.ForumPoster;
 import com.topcoder.service.facade.contest.ProjectSummaryData;
 import com.topcoder.service.project.ProjectData;
@@ -133,7 +138,6 @@ import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer;
 import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer.ResultSetRow;
 import com.topcoder.shared.dataAccess.resultSet.TCResultItem;
 import com.topcoder.shared.util.DBMS;
-import com.topcoder.web.common.CachedDataAccess;
 import com.topcoder.web.common.cache.MaxAge;
 import com.topcoder.web.common.tag.HandleTag;
 import org.apache.commons.collections.CollectionUtils;
@@ -1032,15 +1036,72 @@ import java.util.Set;
  * </ul>
  * </p>
  *
+ * <p>
+ * Version 6.5 (TopCoder Direct - Query Metrics)
+ * <ul>
+ *     <li>All the queries are run with {@link InstrumentedDataAccess} and {@link InstrumentedCachedDataAccess}, which
+ *     record their latency, row count, errors and cache hits per content handle and calling action in
+ *     {@link com.topcoder.direct.services.view.util.metrics.QueryMetrics}.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 6.6 (TopCoder Direct - Cache Policies)
+ * <ul>
+ *     <li>The queries get their data access from the {@link CachePolicyRegistry}, so the cache policy declared for
+ *     their content handle overrides how long their results are cached, and the cached results are removed when the
+ *     entities they depend on are changed.</li>
+ *     <li>Added {@link #getDataAccess(String)} and {@link #getDataAccess(MaxAge, String)}.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 6.7 (TopCoder Direct - Member Profile Cache)
+ * <ul>
+ *     <li>{@link #getMemberPhotos(long[])} resolves the photos with the {@link MemberProfileCache}.</li>
+ *     <li>Added {@link #loadMemberPhotoPaths(long[])}.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 6.8 (TopCoder Direct - Contests Health Engine)
+ * <ul>
+ *     <li>{@link #getProjectContestsHealth(long, long, boolean)} reads the cached health from the precomputed results
+ *     of the {@link ContestHealthEngine}.</li>
+ *     <li>Added {@link #getProjectContestsHealthData(long, long)}, {@link #evaluateContestHealth(ResultSetRow)},
+ *     {@link #getCurrentPhaseEndTime(ResultSetRow)} and {@link #createContestHealthBrief(ResultSetRow, Map)} so the
+ *     engine evaluates the contests as the uncached health does.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 6.9 (TopCoder Direct - Paged Contest Search)
+ * <ul>
+ *     <li>{@link #searchUserContests(TCSubject, String, Date, Date)} reads the matching contests of the user page by
+ *     page, the contest name and start date filters are applied by the query.</li>
+ *     <li>Added {@link #searchUserContests(TCSubject, String, Date, Date, long, long, int)} to read only the displayed
+ *     page of the matching contests.</li>
+ * </ul>
+ * </p>
+ *
  * @author isv, BeBetter, tangzx, xjtufreeman, Blues, flexme, Veve,
  * @author GreatKevin, duxiaoyang, minhu,
  * @author bugbuka, leo_lol, morehappiness, notpad, GreatKevin, zhu_tao, GreatKevin, 
- * @author Ghost_141, GreatKevin, Veve, GreatKevin
- * @version 6.4
+ * @author Ghost_141, GreatKevin, Veve, GreatKevin, TCSDEVELOPER
+ * @version 6.9
  * @since 1.0
  */
 public class DataProvider {
 
+    /**
+     * <p>
+     * The number of contests read at once by {@link #searchUserContests(TCSubject, String, Date, Date)}.
+     * </p>
+     *
+     * @since 6.9
+     */
+    private static final int SEARCH_CONTESTS_PAGE_SIZE = 500;
+
     /**
      * The suffiex for 'monthly'
      */
@@ -1097,6 +1158,30 @@ public class DataProvider {
     private DataProvider() {
     }
 
+    /**
+     * <p>Gets the data access of the queries which are not cached unless their cache policy says otherwise.</p>
+     *
+     * @param dataSourceName the name of the data source.
+     * @return the data access resolving the cache policy of each query.
+     * @since 6.6
+     */
+    private static DataAccess getDataAccess(String dataSourceName) {
+        return CachePolicyRegistry.getInstance().getDataAccess(dataSourceName);
+    }
+
+    /**
+     * <p>Gets the data access of the queries which are cached for the given maximum age unless their cache policy
+     * says otherwise.</p>
+     *
+     * @param maxAge how long the results are cached by default.
+     * @param dataSourceName the name of the data source.
+     * @return the data access resolving the cache policy of each query.
+     * @since 6.6
+     */
+    private static DataAccess getDataAccess(MaxAge maxAge, String dataSourceName) {
+        return CachePolicyRegistry.getInstance().getDataAccess(maxAge, dataSourceName);
+    }
+
     /**
      * <p>Gets the current number of registered <code>TopCoder</code> members.</p>
      *
@@ -1104,7 +1189,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs while communicating to persistent data store.
      */
     public static int getMemberCount() throws Exception {
-        CachedDataAccess countDai = new CachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.DW_DATASOURCE_NAME);
+        DataAccess countDai = getDataAccess(MaxAge.QUARTER_HOUR, DBMS.DW_DATASOURCE_NAME);
         Request countReq = new Request();
         countReq.setContentHandle("member_count");
         return countDai.getData(countReq).get("member_count").getIntItem(0, "member_count");
@@ -1119,7 +1204,7 @@ public class DataProvider {
      * @since 2.2.0
      */
     public static List<ContestCopilotDTO> getCopilotsForDirectProject(long directProjectId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_project_copilots");
         request.setProperty("tcdirectid", String.valueOf(directProjectId));
@@ -1161,7 +1246,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs while communicating to persistent data store.
      */
     public static CoPilotStatsDTO getCopilotStats() throws Exception {
-        CachedDataAccess countDai = new CachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess countDai = getDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request countReq = new Request();
         countReq.setContentHandle("copilot_stats");
 
@@ -1215,7 +1300,7 @@ public class DataProvider {
 
 
         // use cached access to store the basic copilot information because it does not change refrequently
-        CachedDataAccess cachedAccess = new CachedDataAccess(MaxAge.THREE_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess cachedAccess = getDataAccess(MaxAge.THREE_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request profileRequest = new Request();
         profileRequest.setContentHandle("copilot_profile_info");
         ResultSetContainer profileResult;
@@ -1238,7 +1323,7 @@ public class DataProvider {
         }
 
         // add copilot statistics by counting all the contests with copilots in the project
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_project_copilot_contests");
         request.setProperty("uid", String.valueOf(currentUser.getUserId()));
@@ -1291,7 +1376,7 @@ public class DataProvider {
     public static List<CopilotFeedbackAdminDTO> getAllCopilotFeedback() throws Exception {
         List<CopilotFeedbackAdminDTO> result = new ArrayList<CopilotFeedbackAdminDTO>();
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("get_all_copilot_feedback");
 
@@ -1352,7 +1437,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs while communicating to persistent data store.
      */
     public static TopCoderDirectFactsDTO getTopCoderDirectFacts() throws Exception {
-        CachedDataAccess countDai = new CachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess countDai = getDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request countReq = new Request();
         countReq.setContentHandle("tc_direct_facts");
 
@@ -1366,7 +1451,7 @@ public class DataProvider {
             result.setPrizePurse(tcDirectFactsResult.getDoubleItem(0, "prize_purse"));
         }
 
-        CachedDataAccess dai = new CachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.JIRA_DATASOURCE_NAME);
+        DataAccess dai = getDataAccess(MaxAge.QUARTER_HOUR, DBMS.JIRA_DATASOURCE_NAME);
         Request dataRequest = new Request();
         dataRequest.setContentHandle("bug_race_active_contests_summary");
 
@@ -1408,7 +1493,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs while communicating to persistent data store.
      */
     public static LatestActivitiesDTO getLatestActivitiesForUserProjects(long userId, int days) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_latest_activities_replatforming");
         // Setting to 0 means getting all the direct projects of the user
@@ -1551,7 +1636,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs while communicating to persistent data store.
      */
     public static UpcomingActivitiesDTO getUpcomingActivitiesForUserProjects(long userId, int days) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_upcoming_activities_replatforming");
         request.setProperty("tcdirectid", "0");
@@ -1590,7 +1675,7 @@ public class DataProvider {
      * @since 2.5.0 (Cockpit Performance Improvement Project Overview and Manage Copilot Posting)
      */
     public static UpcomingActivitiesDTO getUpcomingActivitiesForProject(long userId, long projectId, int days) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         // initialize the request
         Request request = new Request();
@@ -1694,7 +1779,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs.
      */
     public static List<ProjectSummaryData> getProjectData(TCSubject tcSubject) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_my_projects_contests");
 
@@ -1839,7 +1924,7 @@ public class DataProvider {
      * @since 5.2
      */
     public static List<ProjectSummaryData> getPMProjectData(TCSubject tcSubject) throws Exception {
-		CachedDataAccess dataAccessor = new CachedDataAccess(MaxAge.HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
+		DataAccess dataAccessor = getDataAccess(MaxAge.HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_my_pm_projects_contests_v3");
 
@@ -2018,24 +2103,91 @@ public class DataProvider {
      * @throws Exception if any error occurs
      */
     public static List<DashboardContestSearchResultDTO> searchUserContests(TCSubject tcSubject, String searchFor,
-        final Date begin, final Date end) throws Exception {
-        List<CommonProjectContestData> contests = DirectUtils.getContestServiceFacade().getCommonProjectContestData(
-            tcSubject);
-        List<CommonProjectContestData> filteredContests;
-        if (StringUtils.isBlank(searchFor) && begin == null && end == null) {
-            filteredContests = contests;
-        } else {
-            final String searchForLowerCase = searchFor.toLowerCase();
-            filteredContests = (List<CommonProjectContestData>) CollectionUtils.select(contests, new Predicate() {
-                //@Override
-                public boolean evaluate(Object data) {
-                    CommonProjectContestData contest = (CommonProjectContestData) data;
-                    return isMatched(contest, searchForLowerCase, begin, end);
-                }
-            });
+        Date begin, Date end) throws Exception {
+        ContestServiceFacade contestServiceFacade = DirectUtils.getContestServiceFacade();
+        SimpleProjectContestDataCriteria criteria = createContestSearchCriteria(searchFor, begin, end);
+        criteria.setPageSize(SEARCH_CONTESTS_PAGE_SIZE);
+        List<CommonProjectContestData> filteredContests = new ArrayList<CommonProjectContestData>();
+        List<CommonProjectContestData> contests;
+        do {
+            contests = contestServiceFacade.getCommonProjectContestDataPage(tcSubject, criteria);
+            filteredContests.addAll(contests);
+            if (!contests.isEmpty()) {
+                CommonProjectContestData last = contests.get(contests.size() - 1);
+                criteria.setAfterProjectId(last.getProjectId());
+                criteria.setAfterContestId(last.getContestId());
+            }
+        } while (contests.size() == SEARCH_CONTESTS_PAGE_SIZE);
+
+        return toContestSearchResults(filteredContests);
+    }
+
+    /**
+     * <p>Gets a page of the contests associated with specified user and matching the specified criteria. The
+     * contests are sorted by project id and contest id, and the page starts after the given project and contest, so
+     * only the contests of the page are read.</p>
+     *
+     * @param tcSubject the <code>TCSubject</code> entity
+     * @param searchFor the value which will be searched against
+     * @param begin the begin date for contest start date
+     * @param end the end date for contest start date
+     * @param afterProjectId the project id of the last contest of the previous page, 0 for the first page
+     * @param afterContestId the id of the last contest of the previous page, 0 for the first page
+     * @param pageSize the maximum number of contests of the page
+     * @return a <code>List</code> providing the details on contests of the page.
+     *
+     * @throws Exception if any error occurs
+     * @since 6.9
+     */
+    public static List<DashboardContestSearchResultDTO> searchUserContests(TCSubject tcSubject, String searchFor,
+        Date begin, Date end, long afterProjectId, long afterContestId, int pageSize) throws Exception {
+        SimpleProjectContestDataCriteria criteria = createContestSearchCriteria(searchFor, begin, end);
+        criteria.setAfterProjectId(afterProjectId);
+        criteria.setAfterContestId(afterContestId);
+        criteria.setPageSize(pageSize);
+
+        return toContestSearchResults(
+            DirectUtils.getContestServiceFacade().getCommonProjectContestDataPage(tcSubject, criteria));
+    }
+
+    /**
+     * Creates the criteria of the contests matching the search text and the start date range.
+     *
+     * @param searchFor the search for string
+     * @param begin the begin date, the contests starting on this day match
+     * @param end the end date, the contests starting on this day match
+     * @return the criteria of the first page of the matching contests
+     * @since 6.9
+     */
+    private static SimpleProjectContestDataCriteria createContestSearchCriteria(String searchFor, Date begin,
+        Date end) {
+        SimpleProjectContestDataCriteria criteria = new SimpleProjectContestDataCriteria();
+        if (!StringUtils.isBlank(searchFor)) {
+            criteria.setContestName(searchFor);
         }
+        if (begin != null) {
+            criteria.setStartDateFrom(DirectUtils.getDateWithoutTime(begin));
+        }
+        if (end != null) {
+            // the contests starting on the end day match, so the bound is the start of the next day
+            Calendar nextDay = Calendar.getInstance();
+            nextDay.setTime(DirectUtils.getDateWithoutTime(end));
+            nextDay.add(Calendar.DATE, 1);
+            criteria.setStartDateTo(nextDay.getTime());
+        }
+        return criteria;
+    }
 
-        return (List<DashboardContestSearchResultDTO>) CollectionUtils.collect(filteredContests, new Transformer() {
+    /**
+     * Converts the contests to the contest search results.
+     *
+     * @param contests the contests
+     * @return the contest search results
+     * @since 6.9
+     */
+    private static List<DashboardContestSearchResultDTO> toContestSearchResults(
+        List<CommonProjectContestData> contests) {
+        return (List<DashboardContestSearchResultDTO>) CollectionUtils.collect(contests, new Transformer() {
             //@Override
             public Object transform(Object data) {
                 CommonProjectContestData contest = (CommonProjectContestData) data;
@@ -2073,36 +2225,6 @@ public class DataProvider {
         });
     }
 
-    /**
-     * Tests to see if given contest is matched against all conditions.
-     *
-     * @param contest the contest object
-     * @param searchFor the search for string
-     * @param begin the beging date
-     * @param end the end date
-     * @return true if matched otherwise false
-     */
-    private static boolean isMatched(CommonProjectContestData contest, String searchFor, Date begin, Date end) {
-
-        String searchForLower = searchFor.toLowerCase();
-
-        if (!StringUtils.isBlank(searchFor) && contest.getCname() != null
-            && !contest.getCname().toLowerCase().contains(searchForLower)) {
-            return false;
-        }
-
-        Date contestStartDate = DirectUtils.getDateWithoutTime((DirectUtils.getDate(contest.getStartDate())));
-        if (begin != null && contestStartDate != null && begin.compareTo(contestStartDate) > 0) {
-            return false;
-        }
-
-        if (end != null && contestStartDate != null && end.compareTo(contestStartDate) < 0) {
-            return false;
-        }
-
-        return true;
-    }
-
     /**
      * <p>
      * Gets the details on users assigned to projects associated with specified user and matching the specified
@@ -2135,7 +2257,7 @@ public class DataProvider {
 
         TCSubject currentUser = DirectUtils.getTCSubjectFromSession();
         Map<Long, String> result = new LinkedHashMap<Long, String>();
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
 
         
@@ -2271,7 +2393,7 @@ public class DataProvider {
 
         String tcDirectProjectName = "";
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_project_overview_statistics");
         request.setProperty("uid", String.valueOf(tcSubject.getUserId()));
@@ -2366,7 +2488,7 @@ public class DataProvider {
 
             // date format to prepare date for query input
             DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-            DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+            DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
             Request request = new Request();
 
             if (!setReportQueryParameters(request, currentUser, clientId, billingAccountId, projectId)) {
@@ -2507,7 +2629,7 @@ public class DataProvider {
 
         // date format to prepare date for query input
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
 
         if (!setReportQueryParameters(request, currentUser, clientId, billingAccountId, projectId)) {
@@ -2585,7 +2707,7 @@ public class DataProvider {
     public static LatestProjectActivitiesDTO getLatestActivitiesForProject(long userId, long projectId)
         throws Exception {
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_latest_activities_replatforming");
 
@@ -2672,7 +2794,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs.
      */
     public static ProjectContestsListDTO getProjectContests(long userId, long projectId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_my_contests_replatforming");
         request.setProperty("uid", String.valueOf(userId));
@@ -2763,7 +2885,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs.
      */
     public static ProjectContestsListDTO getActiveContests(long userId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_active_contests_replatforming");
         request.setProperty("uid", String.valueOf(userId));
@@ -2928,7 +3050,7 @@ public class DataProvider {
      * @throws Exception if an unexpected error occurs.
      */
     public static List<TypedContestBriefDTO> getProjectTypedContests(long userId, long projectId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_my_typed_contests_replatforming");
         request.setProperty("uid", String.valueOf(userId));
@@ -3027,7 +3149,7 @@ public class DataProvider {
      */
     public static void setSoftwareCheckpointSubmissionsData(SoftwareContestSubmissionsDTO dto) throws Exception {
         final String commandName = "direct_software_milestone_submissions_view";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(commandName);
         request.setProperty("pj", String.valueOf(dto.getProjectId()));
@@ -3134,7 +3256,7 @@ public class DataProvider {
      */
     public static void setSoftwareSubmissionsData(SoftwareContestSubmissionsDTO dto) throws Exception {
         final String queryName = "direct_software_submissions_view";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("pj", String.valueOf(dto.getProjectId()));
@@ -3255,7 +3377,7 @@ public class DataProvider {
      */
     public static List<ContestFinalFixDTO> getContestFinalFixes(long contestId) throws Exception {
         final String queryName = "direct_contest_final_fixes";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("pj", String.valueOf(contestId));
@@ -3320,7 +3442,7 @@ public class DataProvider {
         Set<Long> projectsWithStats = new HashSet<Long>();
 
         final String queryName = "direct_dashboard_enterprise_health";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("tdpis", projectIds);
@@ -3391,7 +3513,7 @@ public class DataProvider {
         Set<Long> projectsWithStats = new HashSet<Long>();
 
         final String queryName = "direct_project_stat_v2";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("tcdirectid", projectIds);
@@ -3460,7 +3582,7 @@ public class DataProvider {
         Map<Long, String> map = new LinkedHashMap<Long, String>();
 
         final String queryName = "project_categories_replatforming";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
 
@@ -3484,7 +3606,7 @@ public class DataProvider {
         Map<Long, String> map = new LinkedHashMap<Long, String>();
 
         final String queryName = "all_direct_project_status";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
 
@@ -3508,7 +3630,7 @@ public class DataProvider {
         Map<Long, String> studioMap = new LinkedHashMap<Long, String>();
 
         final String queryName = "project_categories_replatforming";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
 
@@ -3557,14 +3679,14 @@ public class DataProvider {
         if (projectCategoriesIds == null || projectCategoriesIds.length == 0) {
             queryName = "dashboard_contest_cost_breakdown";
             request.setProperty("pids", concatenate(projectIds, ", "));
-            dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+            dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         } else {
             DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
             queryName = "dashboard_market_cost_breakdown";
             request.setProperty("pcids", concatenate(projectCategoriesIds, ", "));
             request.setProperty("sdt", dateFormatter.format(startDate));
             request.setProperty("edt", dateFormatter.format(endDate));
-            dataAccessor = new CachedDataAccess(MaxAge.THREE_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
+            dataAccessor = getDataAccess(MaxAge.THREE_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
         }
         request.setContentHandle(queryName);
         final ResultSetContainer resultSetContainer = dataAccessor.getData(request).get(queryName);
@@ -3632,7 +3754,7 @@ public class DataProvider {
 
         // query for contest status
         String queryName;
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         if(projectIds[0] != 0) {
             queryName = "direct_dashboard_enterprise_contest_stats_project";
@@ -3698,7 +3820,7 @@ public class DataProvider {
 
         // query for contest status
         final String queryName = "direct_dashboard_enterprise_contest_stats_overall";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("sdt", dateFormatter.format(startDate));
@@ -3745,7 +3867,7 @@ public class DataProvider {
         // query for contest average status
         Map<Integer, List<Double>> contestTypeAvgMap = new HashMap<Integer, List<Double>>();
         final String contestAvgQuery = "direct_dashboard_enterprise_contest_avg";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(contestAvgQuery);
         request.setProperty("sdt", dateFormatter.format(startDate));
@@ -3809,7 +3931,7 @@ public class DataProvider {
         String billingAccountIdsList = concatenate(billingAccountIds, ", ");
 
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
 
         String queryName;
@@ -3901,7 +4023,7 @@ public class DataProvider {
 
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         String projectCategoryIdsList = concatenate(projectCategoryIds, ", ");
 
@@ -3984,7 +4106,7 @@ public class DataProvider {
         String billingAccountIdsList = concatenate(billingAccountIds, ", ");
 
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
 
         String queryName = "direct_dashboard_enterprise_summary";
@@ -4054,7 +4176,7 @@ public class DataProvider {
         if(monthly) {
             queryName += MONTHLY_SUFFIX;
         }
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("sdt", dateFormatter.format(startDate));
@@ -4115,10 +4237,10 @@ public class DataProvider {
         DataAccess dataAccessor;
 
         if (cached) {
-            dataAccessor = new CachedDataAccess(MaxAge.QUARTER_HOUR,
+            dataAccessor = getDataAccess(MaxAge.QUARTER_HOUR,
                     DBMS.TCS_OLTP_DATASOURCE_NAME);
         } else {
-            dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+            dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         }
 
         Request request = new Request();
@@ -4386,7 +4508,7 @@ public class DataProvider {
      * @since 2.8.0
      */
     public static CopilotProjectDTO getCopilotProject(long userId, long tcDirectProjectid) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("tc_direct_project_copilots");
         request.setProperty("uid", String.valueOf(userId));
@@ -4449,7 +4571,7 @@ public class DataProvider {
             throws Exception {
         Map<Long, CopilotProjectDTO> copilotProjects = new HashMap<Long, CopilotProjectDTO>();
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("tc_copilot_projects");
         request.setProperty("uid", String.valueOf(userId));
@@ -4552,7 +4674,7 @@ public class DataProvider {
 
         String queryName = "pipeline_drafts_ratio_" + viewType.toString().toLowerCase();
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("uid", String.valueOf(userId));
@@ -4605,7 +4727,7 @@ public class DataProvider {
         List<ProjectContestDTO> result = new ArrayList<ProjectContestDTO>();
         Map<Long, ProjectBriefDTO> directProjects = new HashMap<Long, ProjectBriefDTO>();
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
         request.setContentHandle("direct_my_copilot_postings");
@@ -4673,7 +4795,7 @@ public class DataProvider {
     public static List<ContestBriefDTO> getProjectCopilotPostingContests(long directProjectId) throws Exception {
         List<ContestBriefDTO> result = new ArrayList<ContestBriefDTO>();
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
         request.setContentHandle("project_copilot_postings");
@@ -4707,7 +4829,7 @@ public class DataProvider {
      * @since 2.1.7
      */
     public static List<ProjectPhaseDTO> getCurrentPhases(long projectId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
         request.setContentHandle("current_project_phases");
@@ -4743,7 +4865,7 @@ public class DataProvider {
             return result;
         }
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
 
@@ -4779,7 +4901,7 @@ public class DataProvider {
      */
     public static Map<Long, String> getDirectProjectsForClient(String clientName) throws Exception {
         String handlerName = "client_direct_project_ids_v2";
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
 
@@ -4828,7 +4950,7 @@ public class DataProvider {
         Map<Long, String> clientsMap = new HashMap<Long, String>();
         Map<Long, Long> projectClientMap = new HashMap<Long, Long>();
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
 
         Request request = new Request();
 
@@ -4837,7 +4959,7 @@ public class DataProvider {
 
         if (DirectUtils.isTcOperations(tcSubject) || DirectUtils.isTcStaff(tcSubject)) {
             //System.out.println("query the cockpit admin...");
-            dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+            dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
             request.setContentHandle("admin_client_billing_accounts_v2");
             resultContainer = dataAccess.getData(request).get(
                     "admin_client_billing_accounts_v2");
@@ -4932,7 +5054,7 @@ public class DataProvider {
         if (applicationContext.get(DirectUtils.PROJECT_BILLING_MAPPING_RESULT_CACHE) == null
                 || applicationContext.get(DirectUtils.PROJECT_BILLING_MAPPING_RECORD_CACHE) == null) {
 
-            DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+            DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
             Request request = new Request();
 
@@ -5156,7 +5278,7 @@ public class DataProvider {
 
         // date format to prepare date for query input
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
 
         String queryName = "dashboard_cost_report_v2";
@@ -5331,7 +5453,7 @@ public class DataProvider {
 
         // date format to prepare date for query input
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
 
         String queryName;
@@ -5524,7 +5646,7 @@ public class DataProvider {
         List<String> result = new ArrayList<String>();
 
         final String queryName = "get_invoice_number_from_billing";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("billingaccountid", String.valueOf(billingAccountId));
@@ -5550,7 +5672,7 @@ public class DataProvider {
         List<IdNamePair> result = new ArrayList<IdNamePair>();
 
         final String queryName = "get_projects_from_billing_and_invoice_number";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("billingaccountid", String.valueOf(billingAccountId));
@@ -5576,7 +5698,7 @@ public class DataProvider {
      * @throws Exception if any error occurs.
      */
     public static ContestReceiptDTO getContestReceipt(long contestId, boolean isStudio) throws Exception {
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
         request.setContentHandle("direct_contest_receipt_replatforming");
@@ -5905,6 +6027,11 @@ public class DataProvider {
      * <p>Sub-sequent assemblies must implement this method to use the appropriate logic for getting the details on
      * project. Current implementation uses mock data.</p>
      *
+     * <p>
+     * Update in version 6.8: the cached health is read from the precomputed results of the
+     * {@link ContestHealthEngine}.
+     * </p>
+     *
      * @param userId a <code>long</code> providing the ID of a user associated with project.
      * @param projectId a <code>long</code> providing the ID for project to get the details for associated contests for.
      * @param cached a flag indicates whether to cache the query result.
@@ -5916,113 +6043,147 @@ public class DataProvider {
     public static Map<ContestBriefDTO, ContestHealthDTO> getProjectContestsHealth(long userId, long projectId,
                                                                                   boolean cached)
         throws Exception {
-
-        DataAccess dataAccessor;
-
         if (cached) {
-            dataAccessor = new CachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
-        } else {
-            dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+            return ContestHealthEngine.getInstance().getProjectContestsHealth(userId, projectId);
         }
 
         DirectUtils.refreshCache("direct_project_overview_contests_health_replatforming");
 
+        final Map<Long, ProjectBriefDTO> projects = new HashMap<Long, ProjectBriefDTO>();
+
+        Map<ContestBriefDTO, ContestHealthDTO> contests = new HashMap<ContestBriefDTO, ContestHealthDTO>();
+        for (ResultSetRow row : getProjectContestsHealthData(userId, projectId)) {
+            // Map contest to health status
+            contests.put(createContestHealthBrief(row, projects), evaluateContestHealth(row));
+        }
+
+        return contests;
+    }
+
+    /**
+     * <p>Runs the contests health query of a project, without caching its result.</p>
+     *
+     * @param userId a <code>long</code> providing the ID of a user associated with project.
+     * @param projectId a <code>long</code> providing the ID for project to get the contests health for.
+     * @return the rows of the contests health query, one per contest.
+     * @throws Exception if an unexpected error occurs.
+     * @since 6.8
+     */
+    static ResultSetContainer getProjectContestsHealthData(long userId, long projectId) throws Exception {
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+
         Request request = new Request();
         request.setContentHandle("direct_project_overview_contests_health_replatforming");
         request.setProperty("uid", String.valueOf(userId));
         request.setProperty("tcdirectid", String.valueOf(projectId));
 
-        final Map<Long, ProjectBriefDTO> projects = new HashMap<Long, ProjectBriefDTO>();
+        return dataAccessor.getData(request).get("direct_project_overview_contests_health_replatforming");
+    }
 
-        final ResultSetContainer resultContainer = dataAccessor.getData(request).get("direct_project_overview_contests_health_replatforming");
-        final int recordNum = resultContainer.size();
+    /**
+     * <p>Evaluates the health of a contest from its row of the contests health query.</p>
+     *
+     * @param row the row of the contest.
+     * @return the health of the contest, evaluated at the current time.
+     * @since 6.8
+     */
+    static ContestHealthDTO evaluateContestHealth(ResultSetRow row) {
+        ContestHealthDTO contestHealthDTO = new ContestHealthDTO();
 
-        Map<ContestBriefDTO, ContestHealthDTO> contests = new HashMap<ContestBriefDTO, ContestHealthDTO>();
-        for (int i = 0; i < recordNum; i++) {
+        boolean isStudio = row.getBooleanItem("is_studio");
+        contestHealthDTO.setShowRegHealth(true);
+
+        if (isStudio) {
+            contestHealthDTO.setRegistrationStatus(RegistrationStatus.HEALTHY);
+            contestHealthDTO.setShowRegHealth(false);
+        } else {
+            // Evaluate current registration status
+            double reliabilityTotal = getDouble(row, "reliability_total");
+            long registrationPhaseStatus = getLong(row, "registration_phase_status");
+            long projectCategoryId = getLong(row, "project_category_id");
+            String reliabilityEligible = row.getStringItem("reliability_eligible");
+            setRegistrationPhaseStatus(contestHealthDTO, reliabilityTotal, registrationPhaseStatus, reliabilityEligible);
 
-                ContestHealthDTO contestHealthDTO = new ContestHealthDTO();
+            if(projectCategoryId == 29L || "false".equals(reliabilityEligible)) {
+                // always set to health
+                contestHealthDTO.setRegistrationStatus(RegistrationStatus.HEALTHY);
+                contestHealthDTO.setShowRegHealth(false);
+            }
 
-                boolean isStudio = resultContainer.getBooleanItem(i, "is_studio");
-				contestHealthDTO.setShowRegHealth(true);
+        }
 
-                if (isStudio) {
-                    contestHealthDTO.setRegistrationStatus(RegistrationStatus.HEALTHY);
-                    contestHealthDTO.setShowRegHealth(false);
-                } else {
-                    // Evaluate current registration status
-                    double reliabilityTotal = getDouble(resultContainer.getRow(i), "reliability_total");
-                    long registrationPhaseStatus = getLong(resultContainer.getRow(i), "registration_phase_status");
-                    long projectCategoryId = getLong(resultContainer.getRow(i), "project_category_id");
-					String reliabilityEligible = resultContainer.getRow(i).getStringItem("reliability_eligible");
-                    setRegistrationPhaseStatus(contestHealthDTO, reliabilityTotal, registrationPhaseStatus, reliabilityEligible);
-
-                    if(projectCategoryId == 29L || "false".equals(reliabilityEligible)) {
-                        // always set to health
-                        contestHealthDTO.setRegistrationStatus(RegistrationStatus.HEALTHY);
-                        contestHealthDTO.setShowRegHealth(false);
-                    }
+        // Evaluate current phase status
+        setCurrentPhaseStatus(contestHealthDTO, getCurrentPhaseEndTime(row));
 
-                }
+        // Evaluate forum activity status
+        int unAnsweredThreadsCount = getInt(row, "unanswered_threads");
+        contestHealthDTO.setUnansweredForumPostsNumber(unAnsweredThreadsCount);
 
-                // Evaluate current phase status
-                Date currentPhaseEndTime = null;
-                if (resultContainer.getItem(i, "current_phase_end_time").getResultData() != null) {
-                    currentPhaseEndTime = resultContainer.getTimestampItem(i, "current_phase_end_time");
-                }
-                setCurrentPhaseStatus(contestHealthDTO, currentPhaseEndTime);
-
-                // Evaluate forum activity status
-                int unAnsweredThreadsCount = getInt(resultContainer.getRow(i), "unanswered_threads");
-                contestHealthDTO.setUnansweredForumPostsNumber(unAnsweredThreadsCount);
-
-                // Evaluate review sign-up status
-                int requiredReviewersCount = getInt(resultContainer.getRow(i), "required_reviewers_count");
-                int registeredReviewersCount = getInt(resultContainer.getRow(i), "registered_reviewers_count");
-                long hoursLeft = getInt(resultContainer.getRow(i), "review_hours_left");
-                setReviewSignupStatus(contestHealthDTO, hoursLeft, requiredReviewersCount,
-                                      registeredReviewersCount);
-
-                // Evaluate dependencies status
-                Integer dependenciesCount
-                    = resultContainer.getIntItem(i, "dependencies_count");
-                Integer incompleteDependenciesCount
-                    = resultContainer.getIntItem(i, "incomplete_dependencies_count");
-
-                if (dependenciesCount == 0) {
-                    contestHealthDTO.setDependenciesStatus(DependenciesStatus.NO_DEPENDENCIES);
-                } else if (incompleteDependenciesCount > 0) {
-                    contestHealthDTO.setDependenciesStatus(DependenciesStatus.DEPENDENCIES_NON_SATISFIED);
-                } else {
-                    contestHealthDTO.setDependenciesStatus(DependenciesStatus.DEPENDENCIES_SATISFIED);
-                }
+        // Evaluate review sign-up status
+        int requiredReviewersCount = getInt(row, "required_reviewers_count");
+        int registeredReviewersCount = getInt(row, "registered_reviewers_count");
+        long hoursLeft = getInt(row, "review_hours_left");
+        setReviewSignupStatus(contestHealthDTO, hoursLeft, requiredReviewersCount,
+                              registeredReviewersCount);
 
-                // Set colors based on evaluated statuses
-                DashboardHelper.setContestStatusColor(contestHealthDTO);
+        // Evaluate dependencies status
+        Integer dependenciesCount = row.getIntItem("dependencies_count");
+        Integer incompleteDependenciesCount = row.getIntItem("incomplete_dependencies_count");
 
-                // Get details for TC Direct Project
-                long tcDirectProjectId = resultContainer.getLongItem(i, "tc_direct_project_id");
-                String tcDirectProjectName = resultContainer.getStringItem(i, "tc_direct_project_name");
+        if (dependenciesCount == 0) {
+            contestHealthDTO.setDependenciesStatus(DependenciesStatus.NO_DEPENDENCIES);
+        } else if (incompleteDependenciesCount > 0) {
+            contestHealthDTO.setDependenciesStatus(DependenciesStatus.DEPENDENCIES_NON_SATISFIED);
+        } else {
+            contestHealthDTO.setDependenciesStatus(DependenciesStatus.DEPENDENCIES_SATISFIED);
+        }
 
-                final ProjectBriefDTO project;
-                if (projects.containsKey(tcDirectProjectId)) {
-                    project = projects.get(tcDirectProjectId);
-                } else {
-                    project = createProject(tcDirectProjectId, tcDirectProjectName);
-                    projects.put(tcDirectProjectId, project);
-                }
+        // Set colors based on evaluated statuses
+        DashboardHelper.setContestStatusColor(contestHealthDTO);
+
+        return contestHealthDTO;
+    }
 
-                // Get details for contest
-                long contestId = resultContainer.getLongItem(i, "contest_id");
-                String contestName = resultContainer.getStringItem(i, "contest_name");
-                String contestType = resultContainer.getStringItem(i, "contest_type");
+    /**
+     * <p>Gets the end time of the current phase of a contest from its row of the contests health query.</p>
+     *
+     * @param row the row of the contest.
+     * @return the end time of the current phase, or <code>null</code> if there is no active phase.
+     * @since 6.8
+     */
+    static Date getCurrentPhaseEndTime(ResultSetRow row) {
+        if (row.getItem("current_phase_end_time").getResultData() != null) {
+            return row.getTimestampItem("current_phase_end_time");
+        }
+        return null;
+    }
 
-                ContestBriefDTO contestBrief = createContest(contestId, contestName, project, !isStudio, contestType);
+    /**
+     * <p>Creates the brief of a contest from its row of the contests health query.</p>
+     *
+     * @param row the row of the contest.
+     * @param projects the briefs of the projects already created, by project ID; the project of the contest is
+     *        added if it is not there.
+     * @return the brief of the contest.
+     * @since 6.8
+     */
+    static ContestBriefDTO createContestHealthBrief(ResultSetRow row, Map<Long, ProjectBriefDTO> projects) {
+        // Get details for TC Direct Project
+        long tcDirectProjectId = row.getLongItem("tc_direct_project_id");
+        String tcDirectProjectName = row.getStringItem("tc_direct_project_name");
 
-                // Map contest to health status
-                contests.put(contestBrief, contestHealthDTO);
+        ProjectBriefDTO project = projects.get(tcDirectProjectId);
+        if (project == null) {
+            project = createProject(tcDirectProjectId, tcDirectProjectName);
+            projects.put(tcDirectProjectId, project);
         }
 
-        return contests;
+        // Get details for contest
+        long contestId = row.getLongItem("contest_id");
+        String contestName = row.getStringItem("contest_name");
+        String contestType = row.getStringItem("contest_type");
+
+        return createContest(contestId, contestName, project, !row.getBooleanItem("is_studio"), contestType);
     }
 
      /**
@@ -6034,7 +6195,7 @@ public class DataProvider {
      */
     public static String getDocumentUrl(String documentId) throws Exception {
         final String queryName = "retrieve_document_url_replatforming";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("docid", documentId);
@@ -6237,7 +6398,7 @@ public class DataProvider {
      * @since 2.8.0
      */
     public static long getTopCoderDirectProjectForumThreadsCount(Long tcDirectProjectId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("tc_direct_project_forum_threads_count");
         request.setProperty("tcdirectid", String.valueOf(tcDirectProjectId));
@@ -6262,7 +6423,7 @@ public class DataProvider {
         throws Exception {
         DateFormat format = new SimpleDateFormat("MM/dd/yyyy HH:mm");
         List<ProjectForumStatusDTO> result = new ArrayList<ProjectForumStatusDTO>();
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("tc_direct_project_forum_status");
         request.setProperty("tcdirectid", String.valueOf(tcDirectProjectId));
@@ -6307,7 +6468,7 @@ public class DataProvider {
         Map<Long, String> map = new LinkedHashMap<Long, String>();
 
         final String queryName = "project_copilot_types";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
 
@@ -6397,7 +6558,7 @@ public class DataProvider {
                                                                           List<Long> contestIds, List<Long> paymentIds,
                                                                           List<String> invoiceTypeNames)
             throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("tc_direct_contest_payment_invoice");
         List<Long> paymentIdsList = new ArrayList<Long>();
@@ -6488,36 +6649,47 @@ public class DataProvider {
     /**
      * Get member photos with specify user id array.
      *
+     * <p>
+     * Update in version 6.7: the photos are resolved by the {@link MemberProfileCache}.
+     * </p>
+     *
      * @param userIds the user id array.
      * @return retrieved member photos.
      * @throws Exception if any exception occurs.
      * @since 3.2
      */
     public static Map<Long, MemberPhotoDTO> getMemberPhotos(long[] userIds) throws  Exception {
-        Map<Long, MemberPhotoDTO> memberPhotos = new HashMap<Long, MemberPhotoDTO>();
+        return MemberProfileCache.getInstance().getPhotos(userIds);
+    }
+
+    /**
+     * Loads the photo paths of some users, with one query.
+     *
+     * @param userIds the user id array.
+     * @return the photo paths by user id, the users without photo are not included.
+     * @throws Exception if any exception occurs.
+     * @since 6.7
+     */
+    static Map<Long, String> loadMemberPhotoPaths(long[] userIds) throws Exception {
+        Map<Long, String> photoPaths = new HashMap<Long, String>();
 
         if (userIds.length == 0) {
-            return memberPhotos;
+            return photoPaths;
         }
 
         final String queryName = "coder_image_data_list";
-        DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("uids", concatenate(userIds, ","));
 
         final ResultSetContainer container = dataAccess.getData(request).get(queryName);
         for (ResultSetRow row : container) {
-            MemberPhotoDTO photo = new MemberPhotoDTO();
-
-            photo.setPhotoPath(new StringBuilder().append(row.getStringItem("image_path")).
+            photoPaths.put(row.getLongItem("coder_id"), new StringBuilder().append(row.getStringItem("image_path")).
                     append(row.getStringItem("file_name")).toString());
-            photo.setId(row.getLongItem("coder_id"));
-
-            memberPhotos.put(photo.getId(), photo);
         }
 
-        return memberPhotos;
+        return photoPaths;
     }
 
     /**
@@ -6530,7 +6702,7 @@ public class DataProvider {
     public static Map<Long, CopilotPoolMember> getCopilotStatistics() throws Exception {
         final String commandName = "copilot_pool_statistics";
         final String queryName = "copilot_pool_statistics";
-        DataAccess dataAccess = new CachedDataAccess(MaxAge.THREE_HOUR, DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(MaxAge.THREE_HOUR, DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(commandName);
 
@@ -6564,7 +6736,7 @@ public class DataProvider {
         List<CopilotSkillDTO> skillRules = new ArrayList<CopilotSkillDTO>();
 
         String commandName = "copilot_skills";
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(commandName);
 
@@ -6606,7 +6778,7 @@ public class DataProvider {
         String requestInput = concatenate(userIds, ",");
 
         String commandName = "copilots_info";
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(commandName);
         request.setProperty("uids", requestInput);
@@ -6698,7 +6870,7 @@ public class DataProvider {
 
         commandName = "copilots_statistics";
 
-        dataAccess = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        dataAccess = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         request = new Request();
         request.setContentHandle(commandName);
         request.setProperty("uids", requestInput);
@@ -6744,7 +6916,7 @@ public class DataProvider {
         final String projectedCostQuery = "direct_project_general_info_projected_cost";
 
         // final String projectCostQuery = "direct_project_general_info_cost";
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(commandName);
         request.setProperty("tcdirectid", String.valueOf(projectId));
@@ -6907,7 +7079,7 @@ public class DataProvider {
         // page size should start from 0
         String pagination = "SKIP " + pageSize * pageNumber + " FIRST " + pageSize;
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_filter_projects";
         Request request = new Request();
         request.setContentHandle(query);
@@ -6948,7 +7120,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_projects";
         Request request = new Request();
         request.setContentHandle(query);
@@ -6989,7 +7161,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_total_spend_v3";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7074,7 +7246,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_total_spend_v3";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7172,7 +7344,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_contests_pipeline";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7283,7 +7455,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_contests_pipeline";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7390,7 +7562,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_projects_pipeline";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7468,7 +7640,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_projects_pipeline";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7525,7 +7697,7 @@ public class DataProvider {
         }
 
         String filteredProjectIds = concatenate(projectIds, ", ");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         String query = "enterprise_dashboard_projects_financial";
         Request request = new Request();
         request.setContentHandle(query);
@@ -7591,7 +7763,7 @@ public class DataProvider {
 
         // date format to prepare date for query input
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
 
         if (!setReportQueryParameters(request, currentUser, clientId, billingAccountId, projectId)) {
@@ -7674,7 +7846,7 @@ public class DataProvider {
 
         // date format to prepare date for query input
         DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
 
         if (!setReportQueryParameters(request, currentUser, clientId, billingAccountId, projectId)) {
@@ -7746,7 +7918,7 @@ public class DataProvider {
      *             if any error occurs.
      */
     public static List<ProjectForumTemplateDTO> getDirectProjectForumTemplates(long projectType) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_project_forum_template");
         request.setProperty("pt", "" + projectType);
@@ -7798,7 +7970,7 @@ public class DataProvider {
         DateFormat dateFormat2 = new SimpleDateFormat("MM.dd.yyyy");
 
         // Get project contest results from DB
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("project_contest_results");
         request.setProperty("tcdirectid", String.valueOf(tcDirectProjectId));
@@ -7862,7 +8034,7 @@ public class DataProvider {
         DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
 
         // Get project contest results from DB
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("project_contest_submissions");
         request.setProperty("tcdirectid", String.valueOf(tcDirectProjectId));
@@ -8030,7 +8202,7 @@ public class DataProvider {
      */
     public static Map<Long, Boolean> getContestIdsToExport(long projectId, long userId, Date startDate, Date endDate)
             throws Exception {
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
         request.setContentHandle("contest_ids_to_export");
@@ -8061,7 +8233,7 @@ public class DataProvider {
      * @since 4.1
      */
     public static List<Submission> getContesSubmissionIdsToExport(long contestId, boolean isStudio) throws Exception {
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         if (isStudio) {
             request.setContentHandle("studio_submission_to_export");
@@ -8102,7 +8274,7 @@ public class DataProvider {
      * @since 4.1
      */
     public static boolean showContestsDownload(long projectId) throws Exception {
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("show_contests_download");
         request.setProperty("tcdirectid", String.valueOf(projectId));
@@ -8126,7 +8298,7 @@ public class DataProvider {
      */
     public static List<ClientUserStatsDTO> getClientUserStats() throws Exception {
         List<ClientUserStatsDTO> result = new ArrayList<ClientUserStatsDTO>();
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_DW_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("client_user_stats");
         final ResultSetContainer resultSetContainer = dataAccess.getData(request).get("client_user_stats");
@@ -8158,7 +8330,7 @@ public class DataProvider {
      */
     public static Map<Long, BillingCostReportEntryDTO> getRelatedSecondInstallment(List<Long> paymentIds,
             List<String> invoiceTypeNames) throws Exception {
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("tc_direct_payment_second_installment");
         List<Long> paymentIdsList = new ArrayList<Long>();
@@ -8204,7 +8376,7 @@ public class DataProvider {
 
         final TCSubject currentUser = DirectUtils.getTCSubjectFromSession();
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("global_instant_search");
 
@@ -8357,7 +8529,7 @@ public class DataProvider {
      * @since 6.6
      */
     public static List<ProblemDTO> getActiveProblemSet() throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("active_problems");
         final Map<String, ResultSetContainer> queryData = dataAccessor.getData(request);
@@ -8386,7 +8558,7 @@ public class DataProvider {
         Map<Long, String> map = new LinkedHashMap<Long, String>();
 
         final String queryName = "get_all_platform_specialists";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
 
@@ -8411,7 +8583,7 @@ public class DataProvider {
     public static List<PlatformSpecialistReportDTO> getPlatformSpecialistReportData(String userIds, String startDate,
                                                                                     String endDate) throws Exception {
         final String queryName = "member_spend_by_platform_specialist";
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("uids", userIds);
@@ -8467,7 +8639,7 @@ public class DataProvider {
      */
     public static PullablePayments getPullablePayments() throws Exception {
       final String queryName = "get_pullable_payments";
-      DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+      DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
       Request request = new Request();
       request.setContentHandle(queryName);
       
@@ -8512,7 +8684,7 @@ public class DataProvider {
         
       final DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
       final String queryName = "get_payments_by_status";
-      DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+      DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
       Request request = new Request();
       request.setContentHandle(queryName);
       request.setProperty("sda", dateFormatter.format(startDate));
@@ -8575,7 +8747,7 @@ public class DataProvider {
 
         final DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
         final String queryName = "get_potential_member_payments";
-        DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle(queryName);
         request.setProperty("ed", dateFormatter.format(endDate));
@@ -8629,7 +8801,7 @@ public class DataProvider {
         
         final DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
       final String queryName = "get_payment_history";
-      DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+      DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
       Request request = new Request();
       request.setContentHandle(queryName);
       request.setProperty("sda", dateFormatter.format(startDate));
@@ -8705,7 +8877,7 @@ public class DataProvider {
             throw new IllegalArgumentException("Specified dates should not be null");
         }
       final DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
-      DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+      DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
       Request request = new Request();
       String queryName = "";
       if(criteria.getPaymentStatusId() == PaymentStatus.PAID.getPaymentStatusId()) {
@@ -8757,7 +8929,7 @@ public class DataProvider {
      */
     public static List<TopMemberPayment> getTopMemberPayments(TopMemberPaymentCriteria criteria) throws Exception {
       final String queryName = "top_10_payments_summary";
-      DataAccess dataAccess = new DataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
+      DataAccess dataAccess = getDataAccess(DBMS.JTS_OLTP_DATASOURCE_NAME);
       Request request = new Request();
       request.setContentHandle(queryName);
       if(null != criteria.getSortColumn()) {
@@ -8821,7 +8993,7 @@ public class DataProvider {
         r.setProperty("cr", String.valueOf(coderId));
         r.setProperty("ex", "0");
 
-        DataAccess dataAccess = new DataAccess(DBMS.OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.OLTP_DATASOURCE_NAME);
         ResultSetContainer rsc = dataAccess.getData(r).get("long_contest_latest_submission");
         if(!rsc.isEmpty()) {
             ResultSetRow firstRow = rsc.get(0);
@@ -8848,7 +9020,7 @@ public class DataProvider {
      * @since 6.22
      */
     public static List<MilestoneContestDTO> getMilestoneContestAssociations(long directProjectId, long milestoneId, long userId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_project_milestones_contests_associations");
         request.setProperty("uid", String.valueOf(userId));
@@ -8896,7 +9068,7 @@ public class DataProvider {
         r.setContentHandle("max_recent_items_number");
         r.setProperty("itemTypeId", String.valueOf(recentItemTypeId));
 
-        DataAccess cachedDataAccess = new CachedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess cachedDataAccess = new InstrumentedCachedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         ResultSetContainer resultSet = cachedDataAccess.getData(r).get("max_recent_items_number");
 
         if(!resultSet.isEmpty()) {
@@ -8924,7 +9096,7 @@ public class DataProvider {
         r.setProperty("ps", String.valueOf(maxRecentProjectsNumber));
         r.setProperty("uid", String.valueOf(userId));
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         ResultSetContainer resultSet = dataAccess.getData(r).get("user_recent_direct_projects");
 
         List<DirectProjectAccess> result = new ArrayList<DirectProjectAccess>();
@@ -8956,7 +9128,7 @@ public class DataProvider {
         r.setContentHandle("get_billing_with_cmc_account_id");
         r.setProperty("cmcaccountid", cmcAccountId);
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         ResultSetContainer resultSet = dataAccess.getData(r).get("get_billing_with_cmc_account_id");
 
         if(!resultSet.isEmpty()) {
@@ -8984,7 +9156,7 @@ public class DataProvider {
         r.setContentHandle("get_client_groups_from_billing");
         r.setProperty("billingaccountid", String.valueOf(billingAccountId));
 
-        DataAccess dataAccess = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccess = getDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         ResultSetContainer resultSet = dataAccess.getData(r).get("get_client_groups_from_billing");
 
         List<IdNamePair> result = new ArrayList<IdNamePair>();
@@ -23,7 +23,6 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
-import javax.naming.Context;
 import javax.naming.NamingException;
 import javax.servlet.ServletContext;
 import javax.servlet.http.Cookie;
@@ -79,6 +78,8 @@ import com.topcoder.direct.services.view.dto.contest.ProjectPhaseType;
 import com.topcoder.direct.services.view.dto.project.ProjectBriefDTO;
 import com.topcoder.direct.services.view.interceptor.SecurityGroupsAccessInterceptor;
 import com.topcoder.direct.services.view.util.jira.JiraRpcServiceWrapper;
+import com.topcoder.direct.services.view.util.metrics.InstrumentedCachedDataAccess;
+import com.topcoder.direct.services.view.util.metrics.InstrumentedDataAccess;
 import com.topcoder.management.deliverable.Submission;
 import com.topcoder.management.deliverable.Upload;
 import com.topcoder.management.deliverable.persistence.UploadPersistenceException;
@@ -109,7 +110,6 @@ import com.topcoder.service.permission.PermissionServiceException;
 import com.topcoder.service.project.ProjectData;
 import com.topcoder.service.project.SoftwareCompetition;
 import com.topcoder.service.user.UserServiceException;
-import com.topcoder.shared.common.TCContext;
 import com.topcoder.shared.dataAccess.DataAccess;
 import com.topcoder.shared.dataAccess.Request;
 import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer;
@@ -646,8 +646,25 @@ import com.topcoder.web.common.cache.MaxAge;
  * </ul>
  * </p>
  *
- * @author BeBetter, isv, flexme, Blues, Veve, GreatKevin, minhu, FireIce, Ghost_141, jiajizhou86, GreatKevin
- * @version 1.5
+ * <p>
+ * Version 1.6 (TopCoder Direct - Query Metrics)
+ * <ul>
+ *     <li>The queries are run with {@link InstrumentedDataAccess} and {@link InstrumentedCachedDataAccess} so they
+ *     are recorded in the query metrics.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Version 1.7 (TopCoder Direct - Cached Remote Facades)
+ * <ul>
+ *     <li>{@link #getContestServiceFacade()} and {@link #getUserTransaction()} get the cached proxies of
+ *     {@link RemoteFacadeLocator} instead of looking them up with a new naming context on each call.</li>
+ * </ul>
+ * </p>
+ *
+ * @author BeBetter, isv, flexme, Blues, Veve, GreatKevin, minhu, FireIce, Ghost_141, jiajizhou86, GreatKevin,
+ *         TCSDEVELOPER
+ * @version 1.7
  */
 public final class DirectUtils {
 
@@ -927,9 +944,8 @@ public final class DirectUtils {
      * @throws NamingException if any naming exception occurs
      */
     public static ContestServiceFacade getContestServiceFacade() throws NamingException {
-        Context context = TCContext.getContext(DirectProperties.CONTEST_SERVICE_FACADE_CONTEXT_FACTORY,
-            DirectProperties.CONTEST_SERVICE_FACADE_PROVIDER_URL);
-        return (ContestServiceFacade) context.lookup(DirectProperties.CONTEST_SERVICE_FACADE_JNDI_NAME);
+        return RemoteFacadeLocator.getInstance().lookup(ContestServiceFacade.class,
+            DirectProperties.CONTEST_SERVICE_FACADE_JNDI_NAME);
     }
 
     /**
@@ -990,7 +1006,7 @@ public final class DirectUtils {
             SoftwareCompetition softwareCompetition)
         throws Exception {
 
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("direct_contest_stats_replatforming");
         request.setProperty("pj", String.valueOf(contestId));
@@ -1105,7 +1121,7 @@ public final class DirectUtils {
      * @throws Exception if any error occurs.
      */
     public static Set<TCPrincipal> getUserRoles(long userId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("security_roles");
         request.setProperty("uid", String.valueOf(userId));
@@ -1134,7 +1150,7 @@ public final class DirectUtils {
      * @since 1.8.0
      */
     public static List<String> getStudioSubmissionArtifacts(long submissionId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("studio_submission_artifacts");
         request.setProperty("subid", String.valueOf(submissionId));
@@ -1159,7 +1175,7 @@ public final class DirectUtils {
      * @throws Exception if any error occurs.
      */
     public static long getStudioSubmissionArtifactCount(long submissionId) throws Exception {
-        DataAccess dataAccessor = new DataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
+        DataAccess dataAccessor = new InstrumentedDataAccess(DBMS.TCS_OLTP_DATASOURCE_NAME);
         Request request = new Request();
         request.setContentHandle("studio_submission_artifact_count");
         request.setProperty("subid", String.valueOf(submissionId));
@@ -1739,9 +1755,7 @@ public final class DirectUtils {
      * @throws NamingException if any naming exception occurs
      */
     public static UserTransaction getUserTransaction() throws NamingException {
-        Context context = TCContext.getContext(DirectProperties.CONTEST_SERVICE_FACADE_CONTEXT_FACTORY,
-            DirectProperties.CONTEST_SERVICE_FACADE_PROVIDER_URL);
-        return (UserTransaction) context.lookup("UserTransaction");
+        return RemoteFacadeLocator.getInstance().lookup(UserTransaction.class, "UserTransaction");
     }
 
     /**
@@ -2551,7 +2565,7 @@ public final class DirectUtils {
      */
     public static Map<String, com.topcoder.clients.model.ContestType> getContesetTypes() throws Exception {
 
-        CachedDataAccess dataAccess = new CachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
+        CachedDataAccess dataAccess = new InstrumentedCachedDataAccess(MaxAge.QUARTER_HOUR, DBMS.TCS_OLTP_DATASOURCE_NAME);
 
         Request request = new Request();
         request.setContentHandle("project_categories_replatforming");
@@ -0,0 +1,552 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.topcoder.direct.services.view.dto.MemberPhotoDTO;
+import com.topcoder.shared.util.DBMS;
+
+/**
+ * <p>
+ * Resolves the handles, the photos and the user ids of the members in bulk. The members not cached are looked up
+ * with one query per <code>chunkSize</code> members, and cached in size-bounded LRU maps for
+ * <code>timeToLive</code> milliseconds. The members which are not found are cached too, so that they are not looked
+ * up again on each page.
+ * </p>
+ *
+ * <p>
+ * The pages listing many members should resolve them with one call per page rather than one per member.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the maps are synchronized and their values immutable. Two threads
+ * resolving the same members at the same time may both look them up.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class MemberProfileCache {
+    /**
+     * <p>
+     * The SQL retrieving the handles of some users, the placeholder is replaced by the user ids parameters.
+     * </p>
+     */
+    private static final String HANDLES_SQL = "SELECT user_id, handle FROM user WHERE user_id IN (%s)";
+
+    /**
+     * <p>
+     * The SQL retrieving the user ids of some handles, the placeholder is replaced by the handles parameters.
+     * </p>
+     */
+    private static final String USER_IDS_SQL = "SELECT user_id, handle FROM user WHERE handle_lower IN (%s)";
+
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final MemberProfileCache INSTANCE = new MemberProfileCache();
+
+    /**
+     * <p>
+     * The cached handles by user id.
+     * </p>
+     */
+    private final LruCache<Long, String> handles = new LruCache<Long, String>();
+
+    /**
+     * <p>
+     * The cached user ids by lower case handle.
+     * </p>
+     */
+    private final LruCache<String, Long> userIds = new LruCache<String, Long>();
+
+    /**
+     * <p>
+     * The cached photo paths by user id.
+     * </p>
+     */
+    private final LruCache<Long, String> photos = new LruCache<Long, String>();
+
+    /**
+     * <p>
+     * The time in milliseconds the members are cached.
+     * </p>
+     */
+    private volatile long timeToLive = 10 * 60 * 1000;
+
+    /**
+     * <p>
+     * The maximum number of members cached in each map.
+     * </p>
+     */
+    private volatile int maxSize = 50000;
+
+    /**
+     * <p>
+     * The maximum number of members looked up by a query.
+     * </p>
+     */
+    private volatile int chunkSize = 500;
+
+    /**
+     * <p>
+     * Creates the cache.
+     * </p>
+     */
+    MemberProfileCache() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static MemberProfileCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Gets the handle of a user.
+     * </p>
+     *
+     * @param userId the user id
+     * @return the handle, or null if the user is not found
+     * @throws Exception if the handle can not be retrieved
+     */
+    public String getHandle(long userId) throws Exception {
+        return getHandles(Collections.singleton(userId)).get(userId);
+    }
+
+    /**
+     * <p>
+     * Gets the handles of some users.
+     * </p>
+     *
+     * @param ids the user ids
+     * @return the handles by user id, the users not found are not included
+     * @throws Exception if the handles can not be retrieved
+     */
+    public Map<Long, String> getHandles(Collection<Long> ids) throws Exception {
+        Map<Long, String> result = new HashMap<Long, String>();
+        List<Long> missing = new ArrayList<Long>();
+        for (Long id : new LinkedHashSet<Long>(ids)) {
+            Entry<String> entry = handles.get(id);
+            if (entry == null) {
+                missing.add(id);
+            } else if (entry.getValue() != null) {
+                result.put(id, entry.getValue());
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            List<Long> chunk = missing.subList(from, Math.min(missing.size(), from + chunkSize));
+            Map<Long, String> found = queryHandles(HANDLES_SQL, chunk);
+            for (Long id : chunk) {
+                handles.put(id, found.get(id));
+            }
+            result.putAll(found);
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the user ids of some handles, ignoring their case.
+     * </p>
+     *
+     * @param names the handles
+     * @return the user ids by handle as given, the handles not found are not included
+     * @throws Exception if the user ids can not be retrieved
+     */
+    public Map<String, Long> getUserIds(Collection<String> names) throws Exception {
+        Map<String, Long> byLowerHandle = new HashMap<String, Long>();
+        List<String> missing = new ArrayList<String>();
+        for (String name : names) {
+            String lower = name.toLowerCase(Locale.US);
+            Entry<Long> entry = userIds.get(lower);
+            if (entry == null) {
+                if (!missing.contains(lower)) {
+                    missing.add(lower);
+                }
+            } else if (entry.getValue() != null) {
+                byLowerHandle.put(lower, entry.getValue());
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            List<String> chunk = missing.subList(from, Math.min(missing.size(), from + chunkSize));
+            Map<Long, String> found = queryHandles(USER_IDS_SQL, chunk);
+            for (Map.Entry<Long, String> user : found.entrySet()) {
+                byLowerHandle.put(user.getValue().toLowerCase(Locale.US), user.getKey());
+            }
+            for (String lower : chunk) {
+                userIds.put(lower, byLowerHandle.get(lower));
+            }
+        }
+
+        Map<String, Long> result = new HashMap<String, Long>();
+        for (String name : names) {
+            Long id = byLowerHandle.get(name.toLowerCase(Locale.US));
+            if (id != null) {
+                result.put(name, id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the photos of some users.
+     * </p>
+     *
+     * @param ids the user ids
+     * @return new photos by user id, the users without photo are not included
+     * @throws Exception if the photos can not be retrieved
+     */
+    public Map<Long, MemberPhotoDTO> getPhotos(long[] ids) throws Exception {
+        Map<Long, String> paths = new HashMap<Long, String>();
+        List<Long> missing = new ArrayList<Long>();
+        Set<Long> seen = new LinkedHashSet<Long>();
+        for (long id : ids) {
+            if (!seen.add(id)) {
+                continue;
+            }
+            Entry<String> entry = photos.get(id);
+            if (entry == null) {
+                missing.add(id);
+            } else if (entry.getValue() != null) {
+                paths.put(id, entry.getValue());
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += chunkSize) {
+            List<Long> chunk = missing.subList(from, Math.min(missing.size(), from + chunkSize));
+            long[] chunkIds = new long[chunk.size()];
+            for (int i = 0; i < chunkIds.length; i++) {
+                chunkIds[i] = chunk.get(i);
+            }
+            Map<Long, String> found = DataProvider.loadMemberPhotoPaths(chunkIds);
+            for (Long id : chunk) {
+                photos.put(id, found.get(id));
+            }
+            paths.putAll(found);
+        }
+
+        Map<Long, MemberPhotoDTO> result = new HashMap<Long, MemberPhotoDTO>();
+        for (Map.Entry<Long, String> path : paths.entrySet()) {
+            MemberPhotoDTO photo = new MemberPhotoDTO();
+            photo.setId(path.getKey());
+            photo.setPhotoPath(path.getValue());
+            result.put(path.getKey(), photo);
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Caches the handles of some users which are already known, e.g. from the contest registrants.
+     * </p>
+     *
+     * @param known the handles by user id
+     */
+    public void putHandles(Map<Long, String> known) {
+        for (Map.Entry<Long, String> user : known.entrySet()) {
+            if (user.getValue() != null) {
+                handles.put(user.getKey(), user.getValue());
+                userIds.put(user.getValue().toLowerCase(Locale.US), user.getKey());
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Evicts a user, e.g. after its handle or photo is changed.
+     * </p>
+     *
+     * @param userId the user id
+     */
+    public void evict(long userId) {
+        Entry<String> handle = handles.get(userId);
+        if (handle != null && handle.getValue() != null) {
+            userIds.remove(handle.getValue().toLowerCase(Locale.US));
+        }
+        handles.remove(userId);
+        photos.remove(userId);
+    }
+
+    /**
+     * <p>
+     * Evicts all the users.
+     * </p>
+     */
+    public void clear() {
+        handles.clear();
+        userIds.clear();
+        photos.clear();
+    }
+
+    /**
+     * <p>
+     * Looks up the users of some user ids or lower case handles.
+     * </p>
+     *
+     * @param sql the SQL, with a placeholder for the parameters
+     * @param keys the user ids or lower case handles
+     * @return the handles by user id of the users found
+     * @throws Exception if the users can not be retrieved
+     */
+    private static Map<Long, String> queryHandles(String sql, List<?> keys) throws Exception {
+        StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            parameters.append(i == 0 ? "?" : ",?");
+        }
+
+        Map<Long, String> found = new HashMap<Long, String>();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = DatabaseUtils.getDatabaseConnection(DBMS.COMMON_OLTP_DATASOURCE_NAME);
+            statement = connection.prepareStatement(String.format(sql, parameters));
+            for (int i = 0; i < keys.size(); i++) {
+                statement.setObject(i + 1, keys.get(i));
+            }
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                found.put(resultSet.getLong("user_id"), resultSet.getString("handle"));
+            }
+        } finally {
+            DatabaseUtils.close(resultSet);
+            DatabaseUtils.close(statement);
+            DatabaseUtils.close(connection);
+        }
+        return found;
+    }
+
+    /**
+     * <p>
+     * Gets the time in milliseconds the members are cached.
+     * </p>
+     *
+     * @return the time to live in milliseconds
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * <p>
+     * Sets the time in milliseconds the members are cached.
+     * </p>
+     *
+     * @param timeToLive the time to live in milliseconds
+     * @throws IllegalArgumentException if timeToLive is negative
+     */
+    public void setTimeToLive(long timeToLive) {
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("The parameter [timeToLive] should not be negative");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * <p>
+     * Gets the maximum number of members cached in each map.
+     * </p>
+     *
+     * @return the maximum number of members
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of members cached in each map, the least recently used are evicted first.
+     * </p>
+     *
+     * @param maxSize the maximum number of members
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The parameter [maxSize] should be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * <p>
+     * Gets the maximum number of members looked up by a query.
+     * </p>
+     *
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of members looked up by a query.
+     * </p>
+     *
+     * @param chunkSize the chunk size
+     * @throws IllegalArgumentException if chunkSize is not positive
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The parameter [chunkSize] should be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * <p>
+     * A size-bounded LRU map whose entries expire <code>timeToLive</code> milliseconds after they are put. A null
+     * value records that the key was looked up and not found.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is thread safe, the map is synchronized.
+     * </p>
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private class LruCache<K, V> {
+        /**
+         * <p>
+         * The entries in access order.
+         * </p>
+         */
+        private final Map<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<K, MemberProfileCache.Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        /**
+         * <p>
+         * Gets the entry of a key if it is cached and not expired.
+         * </p>
+         *
+         * @param key the key
+         * @return the entry, or null if it is not cached or expired
+         */
+        synchronized Entry<V> get(K key) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expirationTime <= System.currentTimeMillis()) {
+                entries.remove(key);
+                entry = null;
+            }
+            return entry;
+        }
+
+        /**
+         * <p>
+         * Caches the value of a key.
+         * </p>
+         *
+         * @param key the key
+         * @param value the value, null if the key was not found
+         */
+        synchronized void put(K key, V value) {
+            entries.put(key, new Entry<V>(value, System.currentTimeMillis() + timeToLive));
+        }
+
+        /**
+         * <p>
+         * Removes a key.
+         * </p>
+         *
+         * @param key the key
+         */
+        synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        /**
+         * <p>
+         * Removes all the keys.
+         * </p>
+         */
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+    /**
+     * <p>
+     * A cached value and the time it expires.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is immutable and thread safe.
+     * </p>
+     *
+     * @param <V> the type of the value
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static final class Entry<V> {
+        /**
+         * <p>
+         * The value, null if the key was not found.
+         * </p>
+         */
+        private final V value;
+
+        /**
+         * <p>
+         * The time the value expires, in milliseconds.
+         * </p>
+         */
+        private final long expirationTime;
+
+        /**
+         * <p>
+         * Creates the entry.
+         * </p>
+         *
+         * @param value the value, null if the key was not found
+         * @param expirationTime the time the value expires, in milliseconds
+         */
+        Entry(V value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        /**
+         * <p>
+         * Gets the value.
+         * </p>
+         *
+         * @return the value, null if the key was not found
+         */
+        V getValue() {
+            return value;
+        }
+    }
+}
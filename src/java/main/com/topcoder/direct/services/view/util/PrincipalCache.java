@@ -0,0 +1,408 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.topcoder.security.TCPrincipal;
+
+/**
+ * <p>
+ * Caches the principals of the users authenticated on this node: their handles, their roles and the digest of the
+ * SSO cookie they were authenticated with. A request presenting the same SSO cookie digest is authenticated from the
+ * cache, without checking the cookie against the database and looking the user and its roles up again.
+ * </p>
+ *
+ * <p>
+ * The principals are cached for <code>timeToLive</code> milliseconds, so that the role changes and the deactivation
+ * of the users are picked up shortly. The principal of a user is evicted when the user logs out, and can be evicted
+ * through JMX (see {@link PrincipalCacheMBean}) after its roles are changed. A changed SSO cookie, e.g. after a
+ * password change, does not match the cached digest and is checked against the database.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the principals are kept in a synchronized LRU map and the
+ * cached principals are immutable.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class PrincipalCache implements PrincipalCacheMBean {
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final PrincipalCache INSTANCE = new PrincipalCache();
+
+    /**
+     * <p>
+     * The cached principals by user id, in access order.
+     * </p>
+     */
+    private final Map<Long, CachedPrincipal> principals = new LinkedHashMap<Long, CachedPrincipal>(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedPrincipal> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * <p>
+     * The number of requests authenticated from the cache.
+     * </p>
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of requests which could not be authenticated from the cache.
+     * </p>
+     */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The time in milliseconds the principals are cached.
+     * </p>
+     */
+    private volatile long timeToLive = 60000;
+
+    /**
+     * <p>
+     * The maximum number of principals cached.
+     * </p>
+     */
+    private volatile int maxSize = 10000;
+
+    /**
+     * <p>
+     * Creates the cache.
+     * </p>
+     */
+    PrincipalCache() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static PrincipalCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Gets the principal of a user authenticated with an SSO cookie digest.
+     * </p>
+     *
+     * @param userId the user id of the SSO cookie
+     * @param ssoDigest the digest of the SSO cookie
+     * @return the principal, or null if it is not cached, expired or was authenticated with another digest
+     */
+    public CachedPrincipal getAuthenticated(long userId, String ssoDigest) {
+        CachedPrincipal principal = getValid(userId);
+        if (principal != null && principal.getSsoDigest() != null && ssoDigest != null
+            && MessageDigest.isEqual(principal.getSsoDigest().getBytes(), ssoDigest.getBytes())) {
+            hitCount.incrementAndGet();
+            return principal;
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * <p>
+     * Gets the roles of a user, from the cache or from the database.
+     * </p>
+     *
+     * @param userId the user id
+     * @return the roles of the user
+     * @throws Exception if the roles can not be retrieved
+     */
+    public Set<TCPrincipal> getRoles(long userId) throws Exception {
+        CachedPrincipal principal = getValid(userId);
+        return principal == null ? DirectUtils.getUserRoles(userId) : principal.getRoles();
+    }
+
+    /**
+     * <p>
+     * Caches the principal of an authenticated user.
+     * </p>
+     *
+     * @param userId the user id
+     * @param handle the handle of the user
+     * @param roles the roles of the user
+     * @param ssoDigest the digest of the SSO cookie the user was authenticated with, null if none
+     */
+    public void put(long userId, String handle, Set<TCPrincipal> roles, String ssoDigest) {
+        CachedPrincipal principal = new CachedPrincipal(userId, handle, roles, ssoDigest,
+            System.currentTimeMillis() + timeToLive);
+        synchronized (principals) {
+            principals.put(userId, principal);
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the principal of a user if it is cached and not expired.
+     * </p>
+     *
+     * @param userId the user id
+     * @return the principal, or null if it is not cached or expired
+     */
+    private CachedPrincipal getValid(long userId) {
+        synchronized (principals) {
+            CachedPrincipal principal = principals.get(userId);
+            if (principal != null && principal.getExpirationTime() <= System.currentTimeMillis()) {
+                principals.remove(userId);
+                principal = null;
+            }
+            return principal;
+        }
+    }
+
+    /**
+     * <p>
+     * Evicts the principal of a user, e.g. after its roles are changed.
+     * </p>
+     *
+     * @param userId the user id
+     */
+    public void evict(long userId) {
+        synchronized (principals) {
+            principals.remove(userId);
+        }
+    }
+
+    /**
+     * <p>
+     * Evicts all the principals.
+     * </p>
+     */
+    public void clear() {
+        synchronized (principals) {
+            principals.clear();
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the number of principals cached.
+     * </p>
+     *
+     * @return the number of principals cached
+     */
+    public int getSize() {
+        synchronized (principals) {
+            return principals.size();
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the number of requests authenticated from the cache.
+     * </p>
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of requests which could not be authenticated from the cache.
+     * </p>
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the time in milliseconds the principals are cached.
+     * </p>
+     *
+     * @return the time to live in milliseconds
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * <p>
+     * Sets the time in milliseconds the principals are cached. The principals already cached keep their expiration
+     * time.
+     * </p>
+     *
+     * @param timeToLive the time to live in milliseconds
+     * @throws IllegalArgumentException if timeToLive is negative
+     */
+    public void setTimeToLive(long timeToLive) {
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("The parameter [timeToLive] should not be negative");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * <p>
+     * Gets the maximum number of principals cached.
+     * </p>
+     *
+     * @return the maximum number of principals
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of principals cached, the least recently used are evicted first.
+     * </p>
+     *
+     * @param maxSize the maximum number of principals
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The parameter [maxSize] should be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * <p>
+     * The cached principal of a user.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    public static final class CachedPrincipal {
+        /**
+         * <p>
+         * The user id.
+         * </p>
+         */
+        private final long userId;
+
+        /**
+         * <p>
+         * The handle of the user.
+         * </p>
+         */
+        private final String handle;
+
+        /**
+         * <p>
+         * The roles of the user.
+         * </p>
+         */
+        private final Set<TCPrincipal> roles;
+
+        /**
+         * <p>
+         * The digest of the SSO cookie the user was authenticated with, null if none.
+         * </p>
+         */
+        private final String ssoDigest;
+
+        /**
+         * <p>
+         * The time the principal expires, in milliseconds.
+         * </p>
+         */
+        private final long expirationTime;
+
+        /**
+         * <p>
+         * Creates the principal.
+         * </p>
+         *
+         * @param userId the user id
+         * @param handle the handle of the user
+         * @param roles the roles of the user
+         * @param ssoDigest the digest of the SSO cookie the user was authenticated with, null if none
+         * @param expirationTime the time the principal expires, in milliseconds
+         */
+        CachedPrincipal(long userId, String handle, Set<TCPrincipal> roles, String ssoDigest, long expirationTime) {
+            this.userId = userId;
+            this.handle = handle;
+            this.roles = Collections.unmodifiableSet(roles);
+            this.ssoDigest = ssoDigest;
+            this.expirationTime = expirationTime;
+        }
+
+        /**
+         * <p>
+         * Gets the user id.
+         * </p>
+         *
+         * @return the user id
+         */
+        public long getUserId() {
+            return userId;
+        }
+
+        /**
+         * <p>
+         * Gets the handle of the user.
+         * </p>
+         *
+         * @return the handle
+         */
+        public String getHandle() {
+            return handle;
+        }
+
+        /**
+         * <p>
+         * Gets the roles of the user.
+         * </p>
+         *
+         * @return the unmodifiable roles
+         */
+        public Set<TCPrincipal> getRoles() {
+            return roles;
+        }
+
+        /**
+         * <p>
+         * Gets the digest of the SSO cookie the user was authenticated with.
+         * </p>
+         *
+         * @return the digest, null if none
+         */
+        String getSsoDigest() {
+            return ssoDigest;
+        }
+
+        /**
+         * <p>
+         * Gets the time the principal expires.
+         * </p>
+         *
+         * @return the time in milliseconds
+         */
+        long getExpirationTime() {
+            return expirationTime;
+        }
+    }
+}
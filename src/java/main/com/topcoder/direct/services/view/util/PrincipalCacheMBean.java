@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+/**
+ * <p>
+ * The JMX management interface of {@link PrincipalCache}.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> The implementations must be thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface PrincipalCacheMBean {
+    /**
+     * <p>
+     * Gets the time in milliseconds the principals are cached.
+     * </p>
+     *
+     * @return the time to live in milliseconds
+     */
+    long getTimeToLive();
+
+    /**
+     * <p>
+     * Sets the time in milliseconds the principals are cached.
+     * </p>
+     *
+     * @param timeToLive the time to live in milliseconds
+     */
+    void setTimeToLive(long timeToLive);
+
+    /**
+     * <p>
+     * Gets the maximum number of principals cached.
+     * </p>
+     *
+     * @return the maximum number of principals
+     */
+    int getMaxSize();
+
+    /**
+     * <p>
+     * Sets the maximum number of principals cached.
+     * </p>
+     *
+     * @param maxSize the maximum number of principals
+     */
+    void setMaxSize(int maxSize);
+
+    /**
+     * <p>
+     * Gets the number of principals cached.
+     * </p>
+     *
+     * @return the number of principals cached
+     */
+    int getSize();
+
+    /**
+     * <p>
+     * Gets the number of requests authenticated from the cache.
+     * </p>
+     *
+     * @return the number of hits
+     */
+    long getHitCount();
+
+    /**
+     * <p>
+     * Gets the number of requests which could not be authenticated from the cache.
+     * </p>
+     *
+     * @return the number of misses
+     */
+    long getMissCount();
+
+    /**
+     * <p>
+     * Evicts the principal of a user, e.g. after its roles are changed.
+     * </p>
+     *
+     * @param userId the user id
+     */
+    void evict(long userId);
+
+    /**
+     * <p>
+     * Evicts all the principals.
+     * </p>
+     */
+    void clear();
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+
+import com.topcoder.shared.common.TCContext;
+import com.topcoder.shared.util.logging.Logger;
+
+/**
+ * <p>
+ * Locates the remote services of the application server by JNDI name. The services are looked up once and their
+ * proxies are cached per JNDI name; the naming contexts used for the lookups are pooled rather than created for each
+ * lookup.
+ * </p>
+ *
+ * <p>
+ * The returned objects wrap the looked up proxies. When a call fails because the server could not be reached, e.g.
+ * after a restart of the server made the proxy stale, the service is looked up again and the call is retried once.
+ * The calls failing for any other reason are not retried, as they may have been executed by the server.
+ * </p>
+ *
+ * <p>
+ * The lookups, the failed lookups and the reconnections are counted and published through JMX (see
+ * {@link RemoteFacadeLocatorMBean}).
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the proxies are cached in a concurrent map and the naming
+ * contexts pooled in a blocking queue. Two threads looking up the same service at the same time may both look it up,
+ * only one of the proxies is cached.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class RemoteFacadeLocator implements RemoteFacadeLocatorMBean {
+    /**
+     * <p>
+     * The names of the exception classes which are not on the class path of the web application, thrown when the
+     * server could not be reached or the looked up bean is gone.
+     * </p>
+     */
+    private static final String[] CONNECT_FAILURES = {"javax.ejb.NoSuchEJBException",
+        "org.jboss.remoting.CannotConnectException"};
+
+    /**
+     * <p>
+     * A <code>Logger</code> to be used for logging the lookups and reconnections.
+     * </p>
+     */
+    private static final Logger logger = Logger.getLogger(RemoteFacadeLocator.class);
+
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final RemoteFacadeLocator INSTANCE = new RemoteFacadeLocator();
+
+    /**
+     * <p>
+     * The cached proxies by JNDI name.
+     * </p>
+     */
+    private final ConcurrentMap<String, Object> proxies = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * <p>
+     * The idle naming contexts.
+     * </p>
+     */
+    private final BlockingQueue<Context> contexts = new LinkedBlockingQueue<Context>();
+
+    /**
+     * <p>
+     * The number of JNDI lookups made.
+     * </p>
+     */
+    private final AtomicLong lookupCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of JNDI lookups which failed.
+     * </p>
+     */
+    private final AtomicLong lookupFailureCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of calls retried on a new proxy.
+     * </p>
+     */
+    private final AtomicLong reconnectCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The maximum number of idle naming contexts kept in the pool.
+     * </p>
+     */
+    private volatile int maxPooledContexts = 8;
+
+    /**
+     * <p>
+     * Creates the locator.
+     * </p>
+     */
+    RemoteFacadeLocator() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static RemoteFacadeLocator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Gets a remote service, looking it up if its proxy is not cached yet.
+     * </p>
+     *
+     * @param <T> the type of the service
+     * @param type the interface of the service
+     * @param jndiName the JNDI name of the service
+     * @return the service
+     * @throws NamingException if the service can not be looked up
+     */
+    public <T> T lookup(Class<T> type, String jndiName) throws NamingException {
+        Object proxy = proxies.get(jndiName);
+        if (proxy == null) {
+            RemoteInvocationHandler handler = new RemoteInvocationHandler(jndiName, resolve(jndiName));
+            proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+            Object cached = proxies.putIfAbsent(jndiName, proxy);
+            if (cached != null) {
+                proxy = cached;
+            }
+        }
+        return type.cast(proxy);
+    }
+
+    /**
+     * <p>
+     * Looks up a remote service with a pooled naming context.
+     * </p>
+     *
+     * @param jndiName the JNDI name of the service
+     * @return the proxy of the service
+     * @throws NamingException if the service can not be looked up
+     */
+    private Object resolve(String jndiName) throws NamingException {
+        lookupCount.incrementAndGet();
+        Context context = contexts.poll();
+        try {
+            if (context == null) {
+                context = TCContext.getContext(DirectProperties.CONTEST_SERVICE_FACADE_CONTEXT_FACTORY,
+                    DirectProperties.CONTEST_SERVICE_FACADE_PROVIDER_URL);
+            }
+            Object service = context.lookup(jndiName);
+            release(context);
+            return service;
+        } catch (NamingException e) {
+            lookupFailureCount.incrementAndGet();
+            // the context may be connected to a server which is gone, it is not reused
+            close(context);
+            throw e;
+        }
+    }
+
+    /**
+     * <p>
+     * Returns a naming context to the pool, or closes it if the pool is full.
+     * </p>
+     *
+     * @param context the naming context
+     */
+    private void release(Context context) {
+        if (contexts.size() >= maxPooledContexts || !contexts.offer(context)) {
+            close(context);
+        }
+    }
+
+    /**
+     * <p>
+     * Closes a naming context, ignoring the errors.
+     * </p>
+     *
+     * @param context the naming context, may be null
+     */
+    private static void close(Context context) {
+        if (context != null) {
+            try {
+                context.close();
+            } catch (NamingException e) {
+                logger.debug("Failed to close the naming context", e);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Checks whether a remote call failed because the server could not be reached, so that it was not executed.
+     * </p>
+     *
+     * @param error the error of the call
+     * @return whether the server could not be reached
+     */
+    static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof java.net.ConnectException || cause instanceof java.rmi.ConnectException
+                || cause instanceof java.rmi.ConnectIOException || cause instanceof java.rmi.NoSuchObjectException) {
+                return true;
+            }
+            for (String name : CONNECT_FAILURES) {
+                if (name.equals(cause.getClass().getName())) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * Gets the number of JNDI lookups made.
+     * </p>
+     *
+     * @return the number of lookups
+     */
+    public long getLookupCount() {
+        return lookupCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of JNDI lookups which failed.
+     * </p>
+     *
+     * @return the number of failed lookups
+     */
+    public long getLookupFailureCount() {
+        return lookupFailureCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of calls retried on a new proxy because the cached one could not reach the server.
+     * </p>
+     *
+     * @return the number of reconnections
+     */
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of proxies cached.
+     * </p>
+     *
+     * @return the number of proxies cached
+     */
+    public int getCachedProxyCount() {
+        return proxies.size();
+    }
+
+    /**
+     * <p>
+     * Gets the number of idle naming contexts in the pool.
+     * </p>
+     *
+     * @return the number of idle naming contexts
+     */
+    public int getPooledContextCount() {
+        return contexts.size();
+    }
+
+    /**
+     * <p>
+     * Gets the maximum number of idle naming contexts kept in the pool.
+     * </p>
+     *
+     * @return the maximum number of idle naming contexts
+     */
+    public int getMaxPooledContexts() {
+        return maxPooledContexts;
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of idle naming contexts kept in the pool.
+     * </p>
+     *
+     * @param maxPooledContexts the maximum number of idle naming contexts
+     * @throws IllegalArgumentException if maxPooledContexts is negative
+     */
+    public void setMaxPooledContexts(int maxPooledContexts) {
+        if (maxPooledContexts < 0) {
+            throw new IllegalArgumentException("The parameter [maxPooledContexts] should not be negative");
+        }
+        this.maxPooledContexts = maxPooledContexts;
+    }
+
+    /**
+     * <p>
+     * Drops the cached proxies and closes the pooled naming contexts, so that the services are looked up again.
+     * </p>
+     */
+    public void reset() {
+        proxies.clear();
+        Context context;
+        while ((context = contexts.poll()) != null) {
+            close(context);
+        }
+    }
+
+    /**
+     * <p>
+     * Calls the looked up proxy of a service, and looks the service up again and retries the call once when the
+     * proxy could not reach the server.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is thread safe, the proxy is replaced atomically.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private class RemoteInvocationHandler implements InvocationHandler {
+        /**
+         * <p>
+         * The JNDI name of the service.
+         * </p>
+         */
+        private final String jndiName;
+
+        /**
+         * <p>
+         * The looked up proxy of the service.
+         * </p>
+         */
+        private volatile Object target;
+
+        /**
+         * <p>
+         * Creates the handler.
+         * </p>
+         *
+         * @param jndiName the JNDI name of the service
+         * @param target the looked up proxy of the service
+         */
+        RemoteInvocationHandler(String jndiName, Object target) {
+            this.jndiName = jndiName;
+            this.target = target;
+        }
+
+        /**
+         * <p>
+         * Calls the looked up proxy of the service.
+         * </p>
+         *
+         * @param proxy the proxy called
+         * @param method the method called
+         * @param args the arguments of the call
+         * @return the result of the call
+         * @throws Throwable if the call fails
+         */
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object current = target;
+            try {
+                return method.invoke(current, args);
+            } catch (InvocationTargetException e) {
+                Throwable error = e.getTargetException();
+                if (!isConnectFailure(error)) {
+                    throw error;
+                }
+                logger.warn("The remote service " + jndiName + " could not be reached, looking it up again: "
+                    + error);
+                reconnectCount.incrementAndGet();
+                synchronized (this) {
+                    if (target == current) {
+                        try {
+                            target = resolve(jndiName);
+                        } catch (NamingException lookupError) {
+                            // the server is still unreachable, the caller gets the error of the call
+                            logger.warn("Failed to look up the remote service " + jndiName + " again", lookupError);
+                            throw error;
+                        }
+                    }
+                    current = target;
+                }
+                try {
+                    return method.invoke(current, args);
+                } catch (InvocationTargetException retryError) {
+                    throw retryError.getTargetException();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util;
+
+/**
+ * <p>
+ * The JMX management interface of {@link RemoteFacadeLocator}.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> The implementations must be thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface RemoteFacadeLocatorMBean {
+    /**
+     * <p>
+     * Gets the number of JNDI lookups made.
+     * </p>
+     *
+     * @return the number of lookups
+     */
+    long getLookupCount();
+
+    /**
+     * <p>
+     * Gets the number of JNDI lookups which failed.
+     * </p>
+     *
+     * @return the number of failed lookups
+     */
+    long getLookupFailureCount();
+
+    /**
+     * <p>
+     * Gets the number of calls retried on a new proxy because the cached one could not reach the server.
+     * </p>
+     *
+     * @return the number of reconnections
+     */
+    long getReconnectCount();
+
+    /**
+     * <p>
+     * Gets the number of proxies cached.
+     * </p>
+     *
+     * @return the number of proxies cached
+     */
+    int getCachedProxyCount();
+
+    /**
+     * <p>
+     * Gets the number of idle naming contexts in the pool.
+     * </p>
+     *
+     * @return the number of idle naming contexts
+     */
+    int getPooledContextCount();
+
+    /**
+     * <p>
+     * Gets the maximum number of idle naming contexts kept in the pool.
+     * </p>
+     *
+     * @return the maximum number of idle naming contexts
+     */
+    int getMaxPooledContexts();
+
+    /**
+     * <p>
+     * Sets the maximum number of idle naming contexts kept in the pool.
+     * </p>
+     *
+     * @param maxPooledContexts the maximum number of idle naming contexts
+     */
+    void setMaxPooledContexts(int maxPooledContexts);
+
+    /**
+     * <p>
+     * Drops the cached proxies and closes the pooled naming contexts, so that the services are looked up again.
+     * </p>
+     */
+    void reset();
+}
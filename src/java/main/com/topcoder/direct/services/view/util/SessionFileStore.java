@@ -1,15 +1,27 @@
 /*
- * Copyright (C) 2009 - 2012 TopCoder Inc., All Rights Reserved.
+ * Copyright (C) 2009 - 2013 TopCoder Inc., All Rights Reserved.
  */
 package com.topcoder.direct.services.view.util;
 
-import java.util.Date;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+import org.apache.commons.io.IOUtils;
 
 import com.topcoder.catalog.entity.CompUploadedFile;
+import com.topcoder.direct.services.exception.DirectException;
+import com.topcoder.direct.services.view.util.upload.UploadedFileHandle;
+import com.topcoder.direct.services.view.util.upload.UploadedFileStore;
 
 /**
  * <p>
@@ -20,16 +32,34 @@ import com.topcoder.catalog.entity.CompUploadedFile;
  * <p>
  * Version 1.1 (Release Assembly - TC Direct Issue Tracking Tab Update Assembly 2 v1.0) change notes:
  *   <ol>
- *     <li>Change method {@link #getFileMap()} to public.</li>
+ *     <li>Change method <code>getFileMap()</code> to public.</li>
+ *   </ol>
+ * </p>
+ *
+ * <p>
+ * Version 1.2 change notes:
+ *   <ol>
+ *     <li>The content of the files is spilled to the {@link UploadedFileStore} instead of being kept in the
+ *     session, which only keeps the {@link UploadedFileHandle}s of the files. The files of a session are deleted
+ *     when the session ends, and their total size is bounded.</li>
+ *     <li>Added {@link #addFile(File, String, String, Long)}, {@link #getHandle(long)}, {@link #openStream(long)} and
+ *     {@link #clear()} methods.</li>
+ *     <li>Replaced <code>getFileMap()</code> method with {@link #clear()}; {@link #getFile(long)} now reads the
+ *     content from the disk.</li>
  *   </ol>
  * </p>
- * 
- * @author BeBetter, TCSASSEMBER
- * @version 1.1
+ *
+ * @author BeBetter, TCSASSEMBER, TCSDEVELOPER
+ * @version 1.2
  */
 public class SessionFileStore {
 
-    private static final String SESSION_VAR_FILE_MAP = "SESSION_VAR_FILE_MAP";
+    /**
+     * The session attribute of the handles of the files.
+     *
+     * @since 1.2
+     */
+    private static final String SESSION_VAR_FILE_HANDLES = "SESSION_VAR_FILE_HANDLES";
 
     private final HttpSession session;
 
@@ -40,27 +70,234 @@ public class SessionFileStore {
         this.session = session;
     }
 
-    public long addFile(CompUploadedFile file) {
-        long fileTempId = new Date().getTime();
-        getFileMap().put(fileTempId, file);
-        return fileTempId;
+    /**
+     * <p>
+     * Adds an uploaded file, copying its content to the disk store.
+     * </p>
+     *
+     * @param content the uploaded file.
+     * @param fileName the name of the uploaded file.
+     * @param description the description of the uploaded file.
+     * @param fileType the type of the uploaded file.
+     * @return the ID of the added file.
+     * @throws DirectException if the file exceeds the upload limits, or can not be stored.
+     * @since 1.2
+     */
+    public long addFile(File content, String fileName, String description, Long fileType) throws DirectException {
+        InputStream input = null;
+        try {
+            input = new FileInputStream(content);
+            return addFile(input, content.length(), fileName, description, fileType);
+        } catch (IOException e) {
+            throw new DirectException("Failed to read the uploaded file " + fileName + ".", e);
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+    }
+
+    /**
+     * <p>
+     * Adds a file, copying its content to the disk store.
+     * </p>
+     *
+     * @param file the file.
+     * @return the ID of the added file.
+     * @throws DirectException if the file exceeds the upload limits, or can not be stored.
+     */
+    public long addFile(CompUploadedFile file) throws DirectException {
+        byte[] data = file.getFileData() == null ? new byte[0] : file.getFileData();
+        return addFile(new ByteArrayInputStream(data), data.length, file.getUploadedFileName(),
+            file.getUploadedFileDesc(), file.getUploadedFileType());
     }
 
     public void removeFile(long fileTempId) {
-        getFileMap().remove(fileTempId);
+        UploadedFileHandle handle;
+        FileHandles handles = getFileHandles();
+        synchronized (handles) {
+            handle = handles.remove(fileTempId);
+        }
+        if (handle != null) {
+            UploadedFileStore.getInstance().delete(handle);
+        }
+    }
+
+    /**
+     * <p>
+     * Gets a file, reading its content from the disk store.
+     * </p>
+     *
+     * @param fileTempId the ID of the file.
+     * @return the file, null if there is no such file.
+     * @throws DirectException if the content of the file expired, or can not be read.
+     */
+    public CompUploadedFile getFile(long fileTempId) throws DirectException {
+        UploadedFileHandle handle = getHandle(fileTempId);
+        if (handle == null) {
+            return null;
+        }
+        CompUploadedFile file = new CompUploadedFile();
+        file.setUploadedFileName(handle.getFileName());
+        file.setUploadedFileDesc(handle.getDescription());
+        file.setUploadedFileType(handle.getFileType());
+        file.setFileData(UploadedFileStore.getInstance().readContent(handle));
+        return file;
+    }
+
+    /**
+     * <p>
+     * Gets the handle of a file.
+     * </p>
+     *
+     * @param fileTempId the ID of the file.
+     * @return the handle, null if there is no such file.
+     * @since 1.2
+     */
+    public UploadedFileHandle getHandle(long fileTempId) {
+        FileHandles handles = getFileHandles();
+        synchronized (handles) {
+            return handles.get(fileTempId);
+        }
+    }
+
+    /**
+     * <p>
+     * Opens the content of a file.
+     * </p>
+     *
+     * @param fileTempId the ID of the file.
+     * @return the stream of the content, the caller closes it; null if there is no such file.
+     * @throws DirectException if the content of the file expired.
+     * @since 1.2
+     */
+    public InputStream openStream(long fileTempId) throws DirectException {
+        UploadedFileHandle handle = getHandle(fileTempId);
+        return handle == null ? null : UploadedFileStore.getInstance().openStream(handle);
+    }
+
+    /**
+     * <p>
+     * Removes all the files of the session.
+     * </p>
+     *
+     * @since 1.2
+     */
+    public void clear() {
+        getFileHandles().deleteAll();
     }
 
-    public CompUploadedFile getFile(long fileTempId) {
-        return getFileMap().get(fileTempId);
+    /**
+     * <p>
+     * Adds a file to the disk store and records its handle, checking the size of the files of the session.
+     * </p>
+     *
+     * @param input the content.
+     * @param length the length of the content.
+     * @param fileName the name of the file.
+     * @param description the description of the file.
+     * @param fileType the type of the file.
+     * @return the ID of the added file.
+     * @throws DirectException if the file exceeds the upload limits, or can not be stored.
+     * @since 1.2
+     */
+    private long addFile(InputStream input, long length, String fileName, String description, Long fileType)
+        throws DirectException {
+        UploadedFileStore store = UploadedFileStore.getInstance();
+        FileHandles handles = getFileHandles();
+        synchronized (handles) {
+            if (handles.getTotalSize() + length > store.getMaxSessionSize()) {
+                throw new DirectException("The uploaded files exceed the limit of " + store.getMaxSessionSize()
+                    + " bytes, please remove some of them.");
+            }
+        }
+
+        UploadedFileHandle handle = store.store(input, length, fileName, description, fileType);
+        synchronized (handles) {
+            handles.put(handle.getId(), handle);
+        }
+        return handle.getId();
     }
 
-    public Map<Long, CompUploadedFile> getFileMap() {
+    /**
+     * <p>
+     * Gets the handles of the files of the session, creating them if needed.
+     * </p>
+     *
+     * @return the handles of the files.
+     * @since 1.2
+     */
+    private FileHandles getFileHandles() {
         synchronized (session) {
-            if (session.getAttribute(SESSION_VAR_FILE_MAP) == null) {
-                session.setAttribute(SESSION_VAR_FILE_MAP, new HashMap<Long, CompUploadedFile>());
+            FileHandles handles = (FileHandles) session.getAttribute(SESSION_VAR_FILE_HANDLES);
+            if (handles == null) {
+                handles = new FileHandles();
+                session.setAttribute(SESSION_VAR_FILE_HANDLES, handles);
             }
+            return handles;
         }
+    }
 
-        return (Map<Long, CompUploadedFile>) session.getAttribute(SESSION_VAR_FILE_MAP);
+    /**
+     * <p>
+     * The handles of the files of a session, by file ID. The files are deleted from the disk store when the handles
+     * are unbound from the session, which happens when the session is invalidated or expires.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is not thread safe, the users synchronize on it.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.2
+     */
+    private static class FileHandles extends HashMap<Long, UploadedFileHandle> implements HttpSessionBindingListener {
+        /**
+         * The serial version ID.
+         */
+        private static final long serialVersionUID = -4305957207152264612L;
+
+        /**
+         * Gets the total size of the files.
+         *
+         * @return the total size in bytes.
+         */
+        long getTotalSize() {
+            long size = 0;
+            for (UploadedFileHandle handle : values()) {
+                size += handle.getSize();
+            }
+            return size;
+        }
+
+        /**
+         * Removes the handles and deletes their files from the disk store.
+         */
+        void deleteAll() {
+            List<UploadedFileHandle> removed;
+            synchronized (this) {
+                removed = new ArrayList<UploadedFileHandle>(values());
+                clear();
+            }
+            for (UploadedFileHandle handle : removed) {
+                UploadedFileStore.getInstance().delete(handle);
+            }
+        }
+
+        /**
+         * Does nothing.
+         *
+         * @param event the binding event.
+         */
+        public void valueBound(HttpSessionBindingEvent event) {
+            // does nothing
+        }
+
+        /**
+         * Deletes the files when the handles are unbound from the session.
+         *
+         * @param event the binding event.
+         */
+        public void valueUnbound(HttpSessionBindingEvent event) {
+            deleteAll();
+        }
     }
 }
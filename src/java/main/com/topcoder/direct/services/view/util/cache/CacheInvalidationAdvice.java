@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.log4j.Logger;
+import org.springframework.beans.BeanWrapperImpl;
+
+/**
+ * <p>
+ * The Spring AOP advice which publishes the cache invalidation events of the write methods of the service facades to
+ * the {@link CachePolicyRegistry}, once they succeed.
+ * </p>
+ *
+ * <p>
+ * The events of each method are declared in the application context, keyed by the simple name of the facade
+ * interface and the method name, as a comma separated list of <code>entity[=source]</code>. The source gives the
+ * entity ID: the index of an argument, or <code>return</code> for the returned value, followed by an optional
+ * property path, e.g. <code>contest=1.projectHeader.id, project=2</code>. An entity without source invalidates all
+ * the entities of its type. When the argument is a collection or an array, the property path is applied to each of
+ * its elements.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the events are replaced as a whole.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class CacheInvalidationAdvice implements MethodInterceptor {
+    /**
+     * <p>
+     * The logger.
+     * </p>
+     */
+    private static final Logger LOGGER = Logger.getLogger(CacheInvalidationAdvice.class);
+
+    /**
+     * <p>
+     * The source of the entity IDs taken from the returned value.
+     * </p>
+     */
+    private static final String RETURN = "return";
+
+    /**
+     * <p>
+     * The registry the events are published to.
+     * </p>
+     */
+    private final CachePolicyRegistry registry;
+
+    /**
+     * <p>
+     * The events keyed by <code>Interface.method</code>.
+     * </p>
+     */
+    private volatile Map<String, List<Event>> events = Collections.emptyMap();
+
+    /**
+     * <p>
+     * Creates the advice publishing to the single registry.
+     * </p>
+     */
+    public CacheInvalidationAdvice() {
+        this(CachePolicyRegistry.getInstance());
+    }
+
+    /**
+     * <p>
+     * Creates the advice.
+     * </p>
+     *
+     * @param registry the registry the events are published to
+     */
+    public CacheInvalidationAdvice(CachePolicyRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * <p>
+     * Sets the declared events, replacing the current ones.
+     * </p>
+     *
+     * @param declarations the declared events keyed by <code>Interface.method</code>
+     */
+    public void setEvents(Properties declarations) {
+        Map<String, List<Event>> parsed = new HashMap<String, List<Event>>();
+        for (String method : declarations.stringPropertyNames()) {
+            List<Event> methodEvents = new ArrayList<Event>();
+            for (String declaration : declarations.getProperty(method).split(",")) {
+                if (declaration.trim().length() > 0) {
+                    methodEvents.add(new Event(declaration.trim()));
+                }
+            }
+            parsed.put(method, methodEvents);
+        }
+        events = parsed;
+    }
+
+    /**
+     * <p>
+     * Calls the facade method and publishes its events once it succeeds.
+     * </p>
+     *
+     * @param invocation the method invocation
+     * @return the result of the facade method
+     * @throws Throwable if the facade method fails
+     */
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        List<Event> methodEvents = events.get(invocation.getMethod().getDeclaringClass().getSimpleName() + "."
+            + invocation.getMethod().getName());
+        if (methodEvents != null) {
+            for (Event event : methodEvents) {
+                try {
+                    event.publish(registry, invocation.getArguments(), result);
+                } catch (RuntimeException e) {
+                    // the change is done, the results expire with their maximum age anyway
+                    LOGGER.error("Failed to publish the cache invalidation " + event.entityType + " of "
+                        + invocation.getMethod(), e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * A declared invalidation event.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class Event {
+        /**
+         * <p>
+         * The invalidated entity type.
+         * </p>
+         */
+        private final String entityType;
+
+        /**
+         * <p>
+         * The index of the argument holding the entity ID, -1 for the returned value.
+         * </p>
+         */
+        private final int argument;
+
+        /**
+         * <p>
+         * The property path of the entity ID in the argument, null for the argument itself.
+         * </p>
+         */
+        private final String propertyPath;
+
+        /**
+         * <p>
+         * Whether all the entities of the type are invalidated.
+         * </p>
+         */
+        private final boolean all;
+
+        /**
+         * <p>
+         * Parses a declared event.
+         * </p>
+         *
+         * @param declaration the declared event, <code>entity[=source]</code>
+         * @throws IllegalArgumentException if the declaration is not valid
+         */
+        Event(String declaration) {
+            String[] parts = declaration.split("=", 2);
+            entityType = parts[0].trim();
+            all = parts.length == 1;
+            if (all) {
+                argument = -1;
+                propertyPath = null;
+                return;
+            }
+            String[] source = parts[1].trim().split("\\.", 2);
+            try {
+                argument = RETURN.equals(source[0]) ? -1 : Integer.parseInt(source[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The source of the event is not valid: " + declaration, e);
+            }
+            propertyPath = source.length > 1 ? source[1] : null;
+        }
+
+        /**
+         * <p>
+         * Publishes the event of a method call.
+         * </p>
+         *
+         * @param registry the registry the event is published to
+         * @param arguments the arguments of the method
+         * @param result the returned value of the method
+         */
+        void publish(CachePolicyRegistry registry, Object[] arguments, Object result) {
+            if (all) {
+                registry.invalidateAll(entityType);
+                return;
+            }
+            Object value = argument < 0 ? result : arguments[argument];
+            if (value instanceof Object[]) {
+                value = Arrays.asList((Object[]) value);
+            }
+            if (value instanceof Collection<?>) {
+                for (Object element : (Collection<?>) value) {
+                    publish(registry, element);
+                }
+            } else {
+                publish(registry, value);
+            }
+        }
+
+        /**
+         * <p>
+         * Publishes the event of one value.
+         * </p>
+         *
+         * @param registry the registry the event is published to
+         * @param value the value holding the entity ID at the property path, ignored if the ID is not a number
+         */
+        private void publish(CachePolicyRegistry registry, Object value) {
+            Object id = value != null && propertyPath != null
+                ? new BeanWrapperImpl(value).getPropertyValue(propertyPath) : value;
+            if (id instanceof Number) {
+                registry.invalidate(entityType, ((Number) id).longValue());
+            }
+        }
+    }
+}
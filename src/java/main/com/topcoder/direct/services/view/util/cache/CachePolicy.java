@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.topcoder.web.common.cache.MaxAge;
+
+/**
+ * <p>
+ * The cache policy of a query content handle: how long its results are cached, and the entity types its results
+ * depend on.
+ * </p>
+ *
+ * <p>
+ * A dependency may name the request parameter holding the entity IDs, e.g. <code>project=tcdirectid</code>. Then
+ * only the cached results of the invalidated entity are removed; otherwise all the cached results of the content
+ * handle are removed.
+ * </p>
+ *
+ * <p>
+ * The policy is declared as <code>MAX_AGE[; entity[=parameter], ...]</code> where <code>MAX_AGE</code> is the name
+ * of a {@link MaxAge} constant, or <code>NONE</code> to never cache the content handle, e.g.
+ * <code>FIVE_MINUTES; project=tcdirectid, permission</code>.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class CachePolicy {
+    /**
+     * <p>
+     * The maximum age declaring that the content handle is not cached.
+     * </p>
+     */
+    static final String NONE = "NONE";
+
+    /**
+     * <p>
+     * The content handle.
+     * </p>
+     */
+    private final String contentHandle;
+
+    /**
+     * <p>
+     * How long the results are cached, null if they are not cached.
+     * </p>
+     */
+    private final MaxAge maxAge;
+
+    /**
+     * <p>
+     * The request parameter holding the entity IDs per entity type the results depend on. The parameter is null
+     * when the results depend on all the entities of the type.
+     * </p>
+     */
+    private final Map<String, String> dependencies;
+
+    /**
+     * <p>
+     * Creates the policy.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @param maxAge how long the results are cached, null if they are not cached
+     * @param dependencies the request parameter holding the entity IDs per entity type, the parameter being null
+     *            when the results depend on all the entities of the type
+     */
+    public CachePolicy(String contentHandle, MaxAge maxAge, Map<String, String> dependencies) {
+        this.contentHandle = contentHandle;
+        this.maxAge = maxAge;
+        this.dependencies = Collections.unmodifiableMap(new LinkedHashMap<String, String>(dependencies));
+    }
+
+    /**
+     * <p>
+     * Parses a declared policy.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @param declaration the declared policy, see the class documentation for the format
+     * @return the policy
+     * @throws IllegalArgumentException if the declaration is not valid
+     */
+    public static CachePolicy parse(String contentHandle, String declaration) {
+        String[] parts = declaration.split(";", 2);
+        String maxAgeName = parts[0].trim();
+        MaxAge maxAge = null;
+        if (!NONE.equalsIgnoreCase(maxAgeName)) {
+            try {
+                maxAge = MaxAge.valueOf(maxAgeName);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("The max age of the content handle " + contentHandle
+                    + " is not valid: " + maxAgeName, e);
+            }
+        }
+
+        Map<String, String> dependencies = new LinkedHashMap<String, String>();
+        if (parts.length > 1) {
+            for (String dependency : parts[1].split(",")) {
+                String[] entity = dependency.split("=", 2);
+                String entityType = entity[0].trim();
+                if (entityType.length() == 0) {
+                    continue;
+                }
+                dependencies.put(entityType, entity.length > 1 && entity[1].trim().length() > 0
+                    ? entity[1].trim() : null);
+            }
+        }
+        return new CachePolicy(contentHandle, maxAge, dependencies);
+    }
+
+    /**
+     * <p>
+     * Gets the content handle.
+     * </p>
+     *
+     * @return the content handle
+     */
+    public String getContentHandle() {
+        return contentHandle;
+    }
+
+    /**
+     * <p>
+     * Gets how long the results are cached.
+     * </p>
+     *
+     * @return the maximum age, null if the results are not cached
+     */
+    public MaxAge getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * <p>
+     * Gets the entity types the results depend on.
+     * </p>
+     *
+     * @return the request parameter holding the entity IDs per entity type, the parameter being null when the
+     *         results depend on all the entities of the type
+     */
+    public Map<String, String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * <p>
+     * Gets the policy in its declared form.
+     * </p>
+     *
+     * @return the declared policy
+     */
+    public String toString() {
+        StringBuilder result = new StringBuilder(maxAge == null ? NONE : maxAge.name());
+        String separator = "; ";
+        for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+            result.append(separator).append(dependency.getKey());
+            if (dependency.getValue() != null) {
+                result.append('=').append(dependency.getValue());
+            }
+            separator = ", ";
+        }
+        return result.toString();
+    }
+}
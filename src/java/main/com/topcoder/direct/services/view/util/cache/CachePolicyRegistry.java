@@ -0,0 +1,451 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.log4j.Logger;
+
+import com.topcoder.direct.services.view.util.metrics.QueryMetrics;
+import com.topcoder.shared.dataAccess.DataAccess;
+import com.topcoder.shared.dataAccess.RequestInt;
+import com.topcoder.shared.util.dwload.CacheClearer;
+import com.topcoder.web.common.cache.CacheClient;
+import com.topcoder.web.common.cache.CacheClientFactory;
+import com.topcoder.web.common.cache.MaxAge;
+import com.topcoder.web.common.cache.address.AddressFactory;
+import com.topcoder.web.common.cache.address.CacheAddress;
+
+/**
+ * <p>
+ * The registry of the cache policies of the query content handles. It resolves the data access of the queries (see
+ * {@link #getDataAccess(MaxAge, String)}), and removes the cached results when the entities they depend on change
+ * (see {@link #invalidate(String, long)}).
+ * </p>
+ *
+ * <p>
+ * The policies are declared in the application context, see {@link CachePolicy} for the format:
+ *
+ * <pre>
+ * &lt;bean id=&quot;cachePolicyRegistry&quot; class=&quot;...CachePolicyRegistry&quot; factory-method=&quot;getInstance&quot;&gt;
+ *     &lt;property name=&quot;policies&quot;&gt;
+ *         &lt;props&gt;
+ *             &lt;prop key=&quot;direct_project_copilots&quot;&gt;QUARTER_HOUR; project=tcdirectid&lt;/prop&gt;
+ *         &lt;/props&gt;
+ *     &lt;/property&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * </p>
+ *
+ * <p>
+ * The cached results of the content handles with a policy are tracked, up to a maximum number, with the entity IDs
+ * found in their request parameters; the invalidation of an entity removes exactly the tracked results depending on
+ * it. When a policy depends on all the entities of a type, the invalidation of one of them removes all the cached
+ * results of the content handle, with <code>CacheClearer.removelike</code> as <code>DirectUtils.refreshCache</code>
+ * does. The results cached by another server and not tracked here expire with their maximum age.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the policies are replaced as a whole and the tracked results are
+ * accessed under the lock of the registry. The cache is updated outside of the lock.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class CachePolicyRegistry implements CachePolicyRegistryMBean {
+    /**
+     * <p>
+     * The logger.
+     * </p>
+     */
+    private static final Logger LOGGER = Logger.getLogger(CachePolicyRegistry.class);
+
+    /**
+     * <p>
+     * The prefix of the index keys of all the results of a content handle.
+     * </p>
+     */
+    private static final String HANDLE_PREFIX = "#";
+
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final CachePolicyRegistry INSTANCE = new CachePolicyRegistry();
+
+    /**
+     * <p>
+     * The policies keyed by content handle.
+     * </p>
+     */
+    private volatile Map<String, CachePolicy> policies = Collections.emptyMap();
+
+    /**
+     * <p>
+     * The maximum number of tracked results.
+     * </p>
+     */
+    private volatile int maxTrackedEntries = 10000;
+
+    /**
+     * <p>
+     * The tracked results keyed by cache key, the least recently used first.
+     * </p>
+     */
+    private final Map<String, TrackedEntry> tracked = new LinkedHashMap<String, TrackedEntry>(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<String, TrackedEntry> eldest) {
+            if (size() > maxTrackedEntries) {
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * <p>
+     * The keys of the tracked results per entity (<code>type:id</code>) and per content handle.
+     * </p>
+     */
+    private final Map<String, Set<String>> index = new HashMap<String, Set<String>>();
+
+    /**
+     * <p>
+     * Creates the registry.
+     * </p>
+     */
+    CachePolicyRegistry() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static CachePolicyRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Sets the declared policies, replacing the current ones.
+     * </p>
+     *
+     * @param declarations the declared policies keyed by content handle
+     * @throws IllegalArgumentException if a declaration is not valid
+     */
+    public void setPolicies(Properties declarations) {
+        Map<String, CachePolicy> parsed = new TreeMap<String, CachePolicy>();
+        for (String contentHandle : declarations.stringPropertyNames()) {
+            parsed.put(contentHandle, CachePolicy.parse(contentHandle, declarations.getProperty(contentHandle)));
+        }
+        policies = Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * <p>
+     * Sets the maximum number of tracked results.
+     * </p>
+     *
+     * @param maxTrackedEntries the maximum number of tracked results
+     * @throws IllegalArgumentException if the argument is not positive
+     */
+    public void setMaxTrackedEntries(int maxTrackedEntries) {
+        if (maxTrackedEntries <= 0) {
+            throw new IllegalArgumentException("maxTrackedEntries should be positive.");
+        }
+        this.maxTrackedEntries = maxTrackedEntries;
+    }
+
+    /**
+     * <p>
+     * Gets the policy of the given content handle.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @return the policy, null if the content handle has none
+     */
+    public CachePolicy getPolicy(String contentHandle) {
+        return contentHandle == null ? null : policies.get(contentHandle);
+    }
+
+    /**
+     * <p>
+     * Gets the data access of the given data source, which does not cache the content handles without policy.
+     * </p>
+     *
+     * @param dataSourceName the name of the data source
+     * @return the data access
+     */
+    public DataAccess getDataAccess(String dataSourceName) {
+        return new PolicyDataAccess(this, null, dataSourceName);
+    }
+
+    /**
+     * <p>
+     * Gets the data access of the given data source, which caches the content handles without policy for the given
+     * maximum age.
+     * </p>
+     *
+     * @param defaultMaxAge how long the results of the content handles without policy are cached
+     * @param dataSourceName the name of the data source
+     * @return the data access
+     */
+    public DataAccess getDataAccess(MaxAge defaultMaxAge, String dataSourceName) {
+        return new PolicyDataAccess(this, defaultMaxAge, dataSourceName);
+    }
+
+    /**
+     * <p>
+     * Tracks the cached results of the given request for their invalidation.
+     * </p>
+     *
+     * @param policy the policy of the content handle of the request
+     * @param request the request
+     */
+    void track(CachePolicy policy, RequestInt request) {
+        if (policy.getDependencies().isEmpty()) {
+            return;
+        }
+        CacheAddress address = AddressFactory.create(request, policy.getMaxAge());
+        String key = address.getKey();
+        List<String> indexKeys = new ArrayList<String>();
+        indexKeys.add(HANDLE_PREFIX + policy.getContentHandle());
+        for (Map.Entry<String, String> dependency : policy.getDependencies().entrySet()) {
+            String value = dependency.getValue() == null ? null : request.getProperty(dependency.getValue());
+            if (value != null) {
+                for (String id : value.split(",")) {
+                    if (id.trim().length() > 0) {
+                        indexKeys.add(dependency.getKey() + ":" + id.trim());
+                    }
+                }
+            }
+        }
+
+        synchronized (this) {
+            if (tracked.get(key) != null) {
+                return;
+            }
+            TrackedEntry entry = new TrackedEntry(address, indexKeys);
+            tracked.put(key, entry);
+            for (String indexKey : indexKeys) {
+                Set<String> keys = index.get(indexKey);
+                if (keys == null) {
+                    keys = new HashSet<String>();
+                    index.put(indexKey, keys);
+                }
+                keys.add(key);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Removes the cached results depending on the given entity. It is called once the entity has been changed.
+     * </p>
+     *
+     * @param entityType the entity type
+     * @param entityId the entity ID
+     */
+    public void invalidate(String entityType, long entityId) {
+        invalidate(entityType, entityType + ":" + entityId);
+    }
+
+    /**
+     * <p>
+     * Removes the cached results depending on any entity of the given type.
+     * </p>
+     *
+     * @param entityType the entity type
+     */
+    public void invalidateAll(String entityType) {
+        invalidate(entityType, null);
+    }
+
+    /**
+     * <p>
+     * Gets the declared cache policies with the cache hit rate of their content handle.
+     * </p>
+     *
+     * @return the cache policies, one per content handle
+     */
+    public String[] getPolicies() {
+        List<String> result = new ArrayList<String>();
+        QueryMetrics metrics = QueryMetrics.getInstance();
+        for (CachePolicy policy : policies.values()) {
+            result.add(policy.getContentHandle() + " " + policy + " (hit rate "
+                + metrics.getCacheHitRate(policy.getContentHandle()) + ")");
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * <p>
+     * Gets the number of cached results tracked for their invalidation.
+     * </p>
+     *
+     * @return the number of tracked results
+     */
+    public synchronized int getTrackedEntryCount() {
+        return tracked.size();
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the policies as a map, with the cache hit rate of their content handle.
+     * </p>
+     *
+     * @return the policies keyed by content handle
+     */
+    public Map<String, Object> toMap() {
+        QueryMetrics metrics = QueryMetrics.getInstance();
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (CachePolicy policy : policies.values()) {
+            Map<String, Object> policyMap = new LinkedHashMap<String, Object>();
+            policyMap.put("maxAge", policy.getMaxAge() == null ? CachePolicy.NONE : policy.getMaxAge().name());
+            policyMap.put("dependencies", policy.getDependencies());
+            policyMap.put("cacheHitRate", metrics.getCacheHitRate(policy.getContentHandle()));
+            result.put(policy.getContentHandle(), policyMap);
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Removes the cached results depending on the given entity type, and on the given entity if any.
+     * </p>
+     *
+     * @param entityType the entity type
+     * @param entityKey the index key of the entity, null for all the entities of the type
+     */
+    private void invalidate(String entityType, String entityKey) {
+        Set<String> wholeHandles = new HashSet<String>();
+        List<CacheAddress> addresses = new ArrayList<CacheAddress>();
+        synchronized (this) {
+            Set<String> keys = new HashSet<String>();
+            for (CachePolicy policy : policies.values()) {
+                if (policy.getDependencies().containsKey(entityType)
+                    && (entityKey == null || policy.getDependencies().get(entityType) == null)) {
+                    wholeHandles.add(policy.getContentHandle());
+                    addAll(keys, index.get(HANDLE_PREFIX + policy.getContentHandle()));
+                }
+            }
+            if (entityKey != null) {
+                addAll(keys, index.get(entityKey));
+            }
+            for (String key : keys) {
+                TrackedEntry entry = tracked.remove(key);
+                if (entry != null) {
+                    unindex(key, entry);
+                    addresses.add(entry.address);
+                }
+            }
+        }
+
+        try {
+            if (!addresses.isEmpty()) {
+                CacheClient client = CacheClientFactory.create();
+                for (CacheAddress address : addresses) {
+                    client.remove(address);
+                }
+            }
+            if (!wholeHandles.isEmpty()) {
+                CacheClearer.removelike(wholeHandles);
+            }
+        } catch (Exception e) {
+            // the results expire with their maximum age anyway, the change must not fail
+            LOGGER.error("Failed to invalidate the cached results depending on " + entityType + " "
+                + (entityKey == null ? "(all)" : entityKey), e);
+        }
+    }
+
+    /**
+     * <p>
+     * Removes a tracked result from the index.
+     * </p>
+     *
+     * @param key the cache key of the result
+     * @param entry the tracked result
+     */
+    private void unindex(String key, TrackedEntry entry) {
+        for (String indexKey : entry.indexKeys) {
+            Set<String> keys = index.get(indexKey);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    index.remove(indexKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Adds the given keys, if any, to a set.
+     * </p>
+     *
+     * @param keys the set
+     * @param added the added keys, may be null
+     */
+    private static void addAll(Set<String> keys, Set<String> added) {
+        if (added != null) {
+            keys.addAll(added);
+        }
+    }
+
+    /**
+     * <p>
+     * A tracked cached result: its cache address and its index keys.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class TrackedEntry {
+        /**
+         * <p>
+         * The cache address of the result.
+         * </p>
+         */
+        private final CacheAddress address;
+
+        /**
+         * <p>
+         * The index keys of the result.
+         * </p>
+         */
+        private final List<String> indexKeys;
+
+        /**
+         * <p>
+         * Creates the tracked result.
+         * </p>
+         *
+         * @param address the cache address of the result
+         * @param indexKeys the index keys of the result
+         */
+        TrackedEntry(CacheAddress address, List<String> indexKeys) {
+            this.address = address;
+            this.indexKeys = indexKeys;
+        }
+    }
+}
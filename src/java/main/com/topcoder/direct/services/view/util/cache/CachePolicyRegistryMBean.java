@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.cache;
+
+/**
+ * <p>
+ * The JMX management interface of {@link CachePolicyRegistry}.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> The implementations must be thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface CachePolicyRegistryMBean {
+    /**
+     * <p>
+     * Gets the declared cache policies with the cache hit rate of their content handle.
+     * </p>
+     *
+     * @return the cache policies, one per content handle
+     */
+    String[] getPolicies();
+
+    /**
+     * <p>
+     * Gets the number of cached results tracked for their invalidation.
+     * </p>
+     *
+     * @return the number of tracked results
+     */
+    int getTrackedEntryCount();
+
+    /**
+     * <p>
+     * Removes the cached results depending on the given entity.
+     * </p>
+     *
+     * @param entityType the entity type
+     * @param entityId the entity ID
+     */
+    void invalidate(String entityType, long entityId);
+
+    /**
+     * <p>
+     * Removes the cached results depending on any entity of the given type.
+     * </p>
+     *
+     * @param entityType the entity type
+     */
+    void invalidateAll(String entityType);
+}
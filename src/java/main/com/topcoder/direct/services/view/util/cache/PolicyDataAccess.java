@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.cache;
+
+import java.util.Map;
+
+import com.topcoder.direct.services.view.util.metrics.InstrumentedCachedDataAccess;
+import com.topcoder.direct.services.view.util.metrics.InstrumentedDataAccess;
+import com.topcoder.shared.dataAccess.DataAccess;
+import com.topcoder.shared.dataAccess.RequestInt;
+import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer;
+import com.topcoder.web.common.cache.MaxAge;
+
+/**
+ * <p>
+ * A <code>DataAccess</code> which caches the results of each request as declared by the {@link CachePolicy} of its
+ * content handle in the {@link CachePolicyRegistry}. The content handles without policy use the default of the
+ * caller: cached for the given maximum age, or not cached.
+ * </p>
+ *
+ * <p>
+ * The queries run through {@link InstrumentedDataAccess} or {@link InstrumentedCachedDataAccess}, so they are
+ * recorded in the query metrics. The cached results of the content handles with a policy are tracked by the registry
+ * for their invalidation.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class PolicyDataAccess extends DataAccess {
+    /**
+     * <p>
+     * The registry of the cache policies.
+     * </p>
+     */
+    private final CachePolicyRegistry registry;
+
+    /**
+     * <p>
+     * How long the results of the content handles without policy are cached, null if they are not cached.
+     * </p>
+     */
+    private final MaxAge defaultMaxAge;
+
+    /**
+     * <p>
+     * Creates the data access.
+     * </p>
+     *
+     * @param registry the registry of the cache policies
+     * @param defaultMaxAge how long the results of the content handles without policy are cached, null if they are
+     *            not cached
+     * @param dataSourceName the name of the data source
+     */
+    public PolicyDataAccess(CachePolicyRegistry registry, MaxAge defaultMaxAge, String dataSourceName) {
+        super(dataSourceName);
+        this.registry = registry;
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    /**
+     * <p>
+     * Gets the results of the given request, from the cache if its policy caches them.
+     * </p>
+     *
+     * @param request the request
+     * @return the query results keyed by query name
+     * @throws Exception if the query fails
+     */
+    public Map<String, ResultSetContainer> getData(RequestInt request) throws Exception {
+        CachePolicy policy = registry.getPolicy(InstrumentedDataAccess.getContentHandle(request));
+        MaxAge maxAge = policy == null ? defaultMaxAge : policy.getMaxAge();
+        if (maxAge == null) {
+            return new InstrumentedDataAccess(dataSourceName).getData(request);
+        }
+
+        Map<String, ResultSetContainer> result =
+            new InstrumentedCachedDataAccess(maxAge, dataSourceName).getData(request);
+        if (policy != null) {
+            registry.track(policy, request);
+        }
+        return result;
+    }
+}
@@ -16,14 +16,38 @@ import com.topcoder.project.phases.template.DefaultPhaseTemplate;
 import com.topcoder.project.service.ProjectServices;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>The singleton cost calculation service to calculate all the costs related stuff</p>
  *
- * @author hohosky
- * @version 1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>The quotes of the challenges not created yet (project id &lt;= 0) are memoized by contest category, review
+ * type, prize and submission count, and the payable phases of the phase template of each contest category are
+ * cached, so that the phase template is applied once per category.</li>
+ * <li>Added {@link #getPhasesPayments(long, ReviewType, List)} to quote several prizes of a contest category at
+ * once.</li>
+ * <li>The cached values expire after <code>cacheTimeToLive</code> milliseconds, and are dropped when the template
+ * manager or the payment calculator is replaced, or by {@link #invalidateCache()} when the phase templates or the
+ * default payments change.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * <strong>Thread Safety:</strong> This class is thread safe once configured, the caches are concurrent maps
+ * published through a volatile field.
+ * </p>
+ *
+ * @author hohosky, TCSDEVELOPER
+ * @version 1.1
  */
 public class CostCalculationService {
 
@@ -154,6 +178,20 @@ public class CostCalculationService {
      */
     private DefaultPhaseTemplate templateManager;
 
+    /**
+     * The time in milliseconds the cached quotes and phase templates are used.
+     *
+     * @since 1.1
+     */
+    private long cacheTimeToLive = 10 * 60 * 1000;
+
+    /**
+     * The cached quotes and phase templates.
+     *
+     * @since 1.1
+     */
+    private volatile QuoteCache cache = new QuoteCache();
+
 
     /**
      * Gets the default submission number for the given contest category id.
@@ -183,27 +221,141 @@ public class CostCalculationService {
     public Map<String, BigDecimal> getPhasesPayment(long projectId, long projectCategoryId,
                                                     ReviewType reviewType, BigDecimal prize) throws Exception {
 
-        // get phases first
-        Project phases = null;
-
         if (projectId > 0) {
-            phases = projectServices.getPhases(projectId);
-        } else {
-            phases = templateManager.applyTemplate(getPhaseTemplateName(projectCategoryId));
+            Project phases = projectServices.getPhases(projectId);
+            if (phases == null) {
+                throw new IllegalArgumentException(
+                        "Could not find out the phases for contest type ID:" + projectCategoryId + " contest ID:" +
+                                projectId);
+            }
+            return calculatePhasesPayment(projectId, Arrays.asList(phases.getAllPhases()), projectCategoryId,
+                    reviewType, prize);
         }
 
-        if (phases == null) {
-            throw new IllegalArgumentException(
-                    "Could not find out the phases for contest type ID:" + projectCategoryId + " contest ID:" +
-                            projectId);
+        return new HashMap<String, BigDecimal>(getQuote(getCache(), projectCategoryId, reviewType, prize));
+    }
+
+    /**
+     * Gets the payment of each phases of the specified challenge category type for several first place prizes. The
+     * phase template of the category is applied once for all the prizes.
+     *
+     * @param projectCategoryId the category type id of the challenge.
+     * @param reviewType the review type.
+     * @param prizes the first place prize amounts.
+     * @return the payments of each phase by prize, in the order of the prizes.
+     * @throws Exception if there is any error.
+     * @since 1.1
+     */
+    public List<Map<String, BigDecimal>> getPhasesPayments(long projectCategoryId, ReviewType reviewType,
+                                                           List<BigDecimal> prizes) throws Exception {
+        QuoteCache current = getCache();
+        List<Map<String, BigDecimal>> result = new ArrayList<Map<String, BigDecimal>>();
+        for (BigDecimal prize : prizes) {
+            result.add(new HashMap<String, BigDecimal>(getQuote(current, projectCategoryId, reviewType, prize)));
         }
+        return result;
+    }
+
+    /**
+     * Drops the cached quotes and phase templates. It should be called when the phase templates or the default
+     * payments change.
+     *
+     * @since 1.1
+     */
+    public void invalidateCache() {
+        cache = new QuoteCache();
+    }
 
+    /**
+     * Gets the cached quotes and phase templates, dropping them once expired.
+     *
+     * @return the cache.
+     * @since 1.1
+     */
+    private QuoteCache getCache() {
+        QuoteCache current = cache;
+        if (System.currentTimeMillis() - current.created > cacheTimeToLive) {
+            current = new QuoteCache();
+            cache = current;
+        }
+        return current;
+    }
 
+    /**
+     * Gets the memoized payment of each phases of the specified challenge category type, calculating it from the
+     * phase template of the category if it is not cached.
+     *
+     * @param current the cache.
+     * @param projectCategoryId the category type id of the challenge.
+     * @param reviewType the review type.
+     * @param prize the first place prize amount of the challenge.
+     * @return the payments of each phase, which must not be modified.
+     * @throws Exception if there is any error.
+     * @since 1.1
+     */
+    private Map<String, BigDecimal> getQuote(QuoteCache current, long projectCategoryId, ReviewType reviewType,
+                                             BigDecimal prize) throws Exception {
+        String key = projectCategoryId + "|" + reviewType + "|" + prize + "|"
+                + getDefaultSubmissionNumber(projectCategoryId);
+        Map<String, BigDecimal> quote = current.quotes.get(key);
+        if (quote == null) {
+            quote = Collections.unmodifiableMap(calculatePhasesPayment(0,
+                    getTemplatePhases(current, projectCategoryId), projectCategoryId, reviewType, prize));
+            current.quotes.put(key, quote);
+        }
+        return quote;
+    }
+
+    /**
+     * Gets the payable phases of the phase template of a contest category, applying the template if they are not
+     * cached.
+     *
+     * @param current the cache.
+     * @param projectCategoryId the category type id of the challenge.
+     * @return the payable phases, which must not be modified.
+     * @throws Exception if there is any error.
+     * @since 1.1
+     */
+    private List<Phase> getTemplatePhases(QuoteCache current, long projectCategoryId) throws Exception {
+        List<Phase> phases = current.templatePhases.get(projectCategoryId);
+        if (phases == null) {
+            Project project = templateManager.applyTemplate(getPhaseTemplateName(projectCategoryId));
+            if (project == null) {
+                throw new IllegalArgumentException(
+                        "Could not find out the phases for contest type ID:" + projectCategoryId + " contest ID:0");
+            }
+            phases = new ArrayList<Phase>();
+            for (Phase phase : project.getAllPhases()) {
+                if (PHASE_RESOURCE_ROLE_MAP.containsKey(phase.getPhaseType().getName())) {
+                    phases.add(phase);
+                }
+            }
+            phases = Collections.unmodifiableList(phases);
+            current.templatePhases.put(projectCategoryId, phases);
+        }
+        return phases;
+    }
+
+    /**
+     * Calculates the payment of each of the given phases.
+     *
+     * @param projectId the id of the challenge, 0 for a phase template.
+     * @param phases the phases.
+     * @param projectCategoryId the category type id of the challenge.
+     * @param reviewType the review type.
+     * @param prize the first place prize amount of the challenge.
+     * @return the payments of each phase.
+     * @throws Exception if there is any error.
+     * @since 1.1
+     */
+    private Map<String, BigDecimal> calculatePhasesPayment(long projectId, List<Phase> phases,
+                                                           long projectCategoryId, ReviewType reviewType,
+                                                           BigDecimal prize) throws Exception {
         BigDecimal total = BigDecimal.ZERO;
         Map<String, BigDecimal> resultMap = new HashMap<String, BigDecimal>();
 
         // iterate all the phases to calculate the cost
-        for (Phase phase : phases.getAllPhases()) {
+        for (Phase phase : phases) {
             if (PHASE_RESOURCE_ROLE_MAP.containsKey(phase.getPhaseType().getName())) {
                 BigDecimal phasePayment = getPhasePayment(projectId, phase, projectCategoryId, reviewType, prize);
                 if (phasePayment != null) {
@@ -336,6 +488,7 @@ public class CostCalculationService {
      */
     public void setProjectPaymentCalculator(DefaultProjectPaymentCalculator projectPaymentCalculator) {
         this.projectPaymentCalculator = projectPaymentCalculator;
+        invalidateCache();
     }
 
     /**
@@ -354,5 +507,44 @@ public class CostCalculationService {
      */
     public void setTemplateManager(DefaultPhaseTemplate templateManager) {
         this.templateManager = templateManager;
+        invalidateCache();
+    }
+
+    /**
+     * Setter for the time in milliseconds the cached quotes and phase templates are used.
+     *
+     * @param cacheTimeToLive the time to live in milliseconds.
+     * @since 1.1
+     */
+    public void setCacheTimeToLive(long cacheTimeToLive) {
+        this.cacheTimeToLive = cacheTimeToLive;
+    }
+
+    /**
+     * <p>The memoized quotes and the payable phases of the phase templates.</p>
+     *
+     * <p><strong>Thread Safety:</strong> This class is thread safe, the maps are concurrent. A value computed
+     * concurrently by several threads is the same, so the last one wins.</p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.1
+     * @since 1.1
+     */
+    private static final class QuoteCache {
+        /**
+         * The creation time of the cache.
+         */
+        private final long created = System.currentTimeMillis();
+
+        /**
+         * The payable phases of the phase template by contest category id.
+         */
+        private final Map<Long, List<Phase>> templatePhases = new ConcurrentHashMap<Long, List<Phase>>();
+
+        /**
+         * The payment of each phases by contest category, review type, prize and submission count.
+         */
+        private final Map<String, Map<String, BigDecimal>> quotes =
+                new ConcurrentHashMap<String, Map<String, BigDecimal>>();
     }
 }
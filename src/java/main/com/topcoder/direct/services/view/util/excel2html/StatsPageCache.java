@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.excel2html;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+
+import com.topcoder.shared.util.logging.Logger;
+
+/**
+ * <p>
+ * A cache of the internal stats pages generated by {@link ToHtml#generateStatsPage(int, String, List)}. Parsing the
+ * workbook with POI is the expensive part of generating a page, so the pages of all the sheets are generated
+ * together by {@link ToHtml#generateStatsPages(String, List)} and kept gzipped in memory with the sheet tabs.
+ * </p>
+ *
+ * <p>
+ * The cached pages are keyed by the identity of the workbook file: its canonical path, size, last modification time
+ * and MD5 hash. The hash is only computed again when the size or the modification time of the file changes, so a
+ * page view costs a <code>stat</code> of the file. The workbooks are evicted in least recently used order once the
+ * gzipped pages exceed {@link #MAX_SIZE} bytes. A workbook is rendered at most once at a time: the requests arriving
+ * while it is rendered wait for that rendering, which is also started in the background by {@link #prerender(String)}
+ * once a new workbook is uploaded.
+ * </p>
+ *
+ * <p>
+ * <strong>Thread Safety:</strong> This class is thread safe, the access to its state is synchronized.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public final class StatsPageCache {
+
+    /**
+     * <p>The maximum size in bytes of the cached gzipped pages.</p>
+     */
+    public static final long MAX_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * <p>The charset of the cached pages.</p>
+     */
+    private static final String CHARSET = "UTF-8";
+
+    /**
+     * <p>A <code>Logger</code> to be used for logging the errors of the background renderings.</p>
+     */
+    private static final Logger logger = Logger.getLogger(StatsPageCache.class);
+
+    /**
+     * <p>The singleton instance.</p>
+     */
+    private static final StatsPageCache INSTANCE = new StatsPageCache();
+
+    /**
+     * <p>The rendered workbooks by file identity, in least recently used order.</p>
+     */
+    private final LinkedHashMap<FileIdentity, RenderedWorkbook> workbooks =
+        new LinkedHashMap<FileIdentity, RenderedWorkbook>(16, 0.75f, true);
+
+    /**
+     * <p>The running renderings by file identity.</p>
+     */
+    private final Map<FileIdentity, Future<RenderedWorkbook>> renderings =
+        new HashMap<FileIdentity, Future<RenderedWorkbook>>();
+
+    /**
+     * <p>The last computed identity of the files by canonical path.</p>
+     */
+    private final Map<String, FileIdentity> identities = new HashMap<String, FileIdentity>();
+
+    /**
+     * <p>The size in bytes of the cached gzipped pages.</p>
+     */
+    private long size;
+
+    /**
+     * <p>The executor of the background renderings.</p>
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "stats-page-renderer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * <p>Creates the cache.</p>
+     */
+    private StatsPageCache() {
+    }
+
+    /**
+     * <p>Gets the singleton instance.</p>
+     *
+     * @return the cache.
+     */
+    public static StatsPageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Gets the stats page of a sheet, rendering the pages of the workbook if they are not cached.</p>
+     *
+     * @param sheetIndex the index of the sheet.
+     * @param excelFile the path of the workbook.
+     * @param tabs the list to add the names of the sheets with rows to.
+     * @return the page of the sheet.
+     * @throws IllegalArgumentException if the file is not a workbook or there is no such sheet.
+     * @throws Exception if any other error occurs.
+     */
+    public String generateStatsPage(int sheetIndex, String excelFile, List<String> tabs) throws Exception {
+        RenderedWorkbook workbook = getWorkbook(getIdentity(new File(excelFile)));
+        if (sheetIndex < 0 || sheetIndex >= workbook.pages.size()) {
+            throw new IllegalArgumentException("Sheet index (" + sheetIndex + ") is out of range (0.."
+                + (workbook.pages.size() - 1) + ")");
+        }
+        tabs.addAll(workbook.tabs);
+        return gunzip(workbook.pages.get(sheetIndex));
+    }
+
+    /**
+     * <p>Starts rendering the pages of a workbook in the background, so that they are cached before being viewed.
+     * The errors are logged: they are reported again when the pages are viewed. The hash of the file is computed
+     * again, as a new file may have the same size and modification time as the file it replaces.</p>
+     *
+     * @param excelFile the path of the workbook.
+     * @throws IOException if the path of the file can not be resolved.
+     */
+    public void prerender(final String excelFile) throws IOException {
+        String path = new File(excelFile).getCanonicalPath();
+        synchronized (this) {
+            identities.remove(path);
+        }
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    getWorkbook(getIdentity(new File(excelFile)));
+                } catch (Exception e) {
+                    logger.error("Failed to render the stats pages of " + excelFile, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * <p>Gets the rendered pages of a workbook, rendering them if they are not cached.</p>
+     *
+     * @param identity the identity of the workbook file.
+     * @return the rendered pages.
+     * @throws Exception if the pages can not be rendered.
+     */
+    private RenderedWorkbook getWorkbook(final FileIdentity identity) throws Exception {
+        FutureTask<RenderedWorkbook> task = null;
+        Future<RenderedWorkbook> rendering;
+        synchronized (this) {
+            RenderedWorkbook workbook = workbooks.get(identity);
+            if (workbook != null) {
+                return workbook;
+            }
+            rendering = renderings.get(identity);
+            if (rendering == null) {
+                task = new FutureTask<RenderedWorkbook>(new Callable<RenderedWorkbook>() {
+                    public RenderedWorkbook call() throws Exception {
+                        return render(identity);
+                    }
+                });
+                rendering = task;
+                renderings.put(identity, task);
+            }
+        }
+
+        if (task != null) {
+            try {
+                task.run();
+            } finally {
+                synchronized (this) {
+                    renderings.remove(identity);
+                }
+            }
+        }
+        try {
+            return rendering.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Renders and caches the pages of a workbook.</p>
+     *
+     * @param identity the identity of the workbook file.
+     * @return the rendered pages.
+     * @throws Exception if the pages can not be rendered.
+     */
+    private RenderedWorkbook render(FileIdentity identity) throws Exception {
+        List<String> tabs = new ArrayList<String>();
+        List<String> pages = ToHtml.generateStatsPages(identity.path, tabs);
+
+        List<byte[]> compressed = new ArrayList<byte[]>();
+        long workbookSize = 0;
+        for (String page : pages) {
+            byte[] bytes = gzip(page);
+            compressed.add(bytes);
+            workbookSize += bytes.length;
+        }
+        RenderedWorkbook workbook = new RenderedWorkbook(Collections.unmodifiableList(tabs), compressed,
+            workbookSize);
+
+        synchronized (this) {
+            // the older versions of the file are not viewed anymore
+            for (Iterator<Map.Entry<FileIdentity, RenderedWorkbook>> it = workbooks.entrySet().iterator();
+                it.hasNext();) {
+                Map.Entry<FileIdentity, RenderedWorkbook> entry = it.next();
+                if (entry.getKey().path.equals(identity.path)) {
+                    size -= entry.getValue().size;
+                    it.remove();
+                }
+            }
+            workbooks.put(identity, workbook);
+            size += workbookSize;
+            for (Iterator<RenderedWorkbook> it = workbooks.values().iterator(); size > MAX_SIZE && it.hasNext();) {
+                RenderedWorkbook eldest = it.next();
+                if (eldest != workbook) {
+                    size -= eldest.size;
+                    it.remove();
+                }
+            }
+        }
+        return workbook;
+    }
+
+    /**
+     * <p>Gets the identity of a file. The hash of the file is computed again only when its size or modification
+     * time changes.</p>
+     *
+     * @param file the file.
+     * @return the identity of the file.
+     * @throws IOException if the file can not be read.
+     */
+    private FileIdentity getIdentity(File file) throws IOException {
+        String path = file.getCanonicalPath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        synchronized (this) {
+            FileIdentity identity = identities.get(path);
+            if (identity != null && identity.length == length && identity.lastModified == lastModified) {
+                return identity;
+            }
+        }
+
+        FileIdentity identity = new FileIdentity(path, length, lastModified, hash(file));
+        synchronized (this) {
+            identities.put(path, identity);
+        }
+        return identity;
+    }
+
+    /**
+     * <p>Computes the MD5 hash of a file.</p>
+     *
+     * @param file the file.
+     * @return the hex encoded hash.
+     * @throws IOException if the file can not be read.
+     */
+    private static String hash(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            return new String(Hex.encodeHex(digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported", e);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * <p>Compresses a page.</p>
+     *
+     * @param page the page.
+     * @return the gzipped page.
+     * @throws IOException if the page can not be compressed.
+     */
+    private static byte[] gzip(String page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GZIPOutputStream out = new GZIPOutputStream(bytes);
+        out.write(page.getBytes(CHARSET));
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * <p>Decompresses a page.</p>
+     *
+     * @param bytes the gzipped page.
+     * @return the page.
+     * @throws IOException if the page can not be decompressed.
+     */
+    private static String gunzip(byte[] bytes) throws IOException {
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return IOUtils.toString(in, CHARSET);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * <p>
+     * The identity of a workbook file.
+     * </p>
+     *
+     * <p>
+     * <strong>Thread Safety:</strong> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static final class FileIdentity {
+        /**
+         * <p>The canonical path of the file.</p>
+         */
+        private final String path;
+
+        /**
+         * <p>The size of the file.</p>
+         */
+        private final long length;
+
+        /**
+         * <p>The last modification time of the file.</p>
+         */
+        private final long lastModified;
+
+        /**
+         * <p>The hex encoded MD5 hash of the file.</p>
+         */
+        private final String hash;
+
+        /**
+         * <p>Creates the identity.</p>
+         *
+         * @param path the canonical path of the file.
+         * @param length the size of the file.
+         * @param lastModified the last modification time of the file.
+         * @param hash the hex encoded MD5 hash of the file.
+         */
+        private FileIdentity(String path, long length, long lastModified, String hash) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        /**
+         * <p>Checks whether this identity equals another object.</p>
+         *
+         * @param obj the object.
+         * @return true if the object is an identity with the same values.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FileIdentity)) {
+                return false;
+            }
+            FileIdentity other = (FileIdentity) obj;
+            return path.equals(other.path) && length == other.length && lastModified == other.lastModified
+                && hash.equals(other.hash);
+        }
+
+        /**
+         * <p>Gets the hash code of this identity.</p>
+         *
+         * @return the hash code.
+         */
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + hash.hashCode();
+        }
+    }
+
+    /**
+     * <p>
+     * The gzipped pages of a workbook and its sheet tabs.
+     * </p>
+     *
+     * <p>
+     * <strong>Thread Safety:</strong> This class is immutable and thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static final class RenderedWorkbook {
+        /**
+         * <p>The names of the sheets with rows.</p>
+         */
+        private final List<String> tabs;
+
+        /**
+         * <p>The gzipped pages by sheet index.</p>
+         */
+        private final List<byte[]> pages;
+
+        /**
+         * <p>The size in bytes of the gzipped pages.</p>
+         */
+        private final long size;
+
+        /**
+         * <p>Creates the rendered workbook.</p>
+         *
+         * @param tabs the names of the sheets with rows.
+         * @param pages the gzipped pages by sheet index.
+         * @param size the size in bytes of the gzipped pages.
+         */
+        private RenderedWorkbook(List<String> tabs, List<byte[]> pages, long size) {
+            this.tabs = tabs;
+            this.pages = pages;
+            this.size = size;
+        }
+    }
+}
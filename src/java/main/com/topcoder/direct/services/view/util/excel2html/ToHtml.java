@@ -27,8 +27,16 @@ import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
  * This example shows how to display a spreadsheet in HTML using the classes for
  * spreadsheet display.
  *
- * @author FireIce
- * @version  1.0
+ * <p>
+ * Version 1.1 change notes:
+ * <ul>
+ * <li>Added {@link #generateStatsPages(String, List)} to render the pages of all the sheets from a single parse of
+ * the workbook, see {@link StatsPageCache}.</li>
+ * </ul>
+ * </p>
+ *
+ * @author FireIce, TCSDEVELOPER
+ * @version  1.1
  */
 public class ToHtml {
     private final Workbook wb;
@@ -155,6 +163,39 @@ public class ToHtml {
         return strBuf.toString();
     }
     
+    /**
+     * Generates the stats pages of all the sheets of a workbook, parsing it once. The page of a sheet is the same
+     * as the one generated by {@link #generateStatsPage(int, String, List)} for that sheet.
+     *
+     * @param excelFile the path of the workbook.
+     * @param tabs the list to add the names of the sheets with rows to.
+     * @return the pages by sheet index.
+     * @throws Exception if any error occurs.
+     * @since 1.1
+     */
+    public static List<String> generateStatsPages(String excelFile, List<String> tabs) throws Exception {
+        StringBuilder strBuf = new StringBuilder();
+        ToHtml toHtml = create(excelFile, strBuf);
+        toHtml.ensureOut();
+        toHtml.printInlineStyle();
+        String style = strBuf.toString();
+
+        List<String> pages = new ArrayList<String>();
+        for (int i = 0; i < toHtml.wb.getNumberOfSheets(); i++) {
+            strBuf.setLength(0);
+            toHtml.gotBounds = false;
+            Sheet sheet = toHtml.wb.getSheetAt(i);
+            toHtml.printSheet(i, sheet);
+            pages.add(style + strBuf);
+            if (sheet.rowIterator().hasNext()) {
+                tabs.add(sheet.getSheetName());
+            }
+        }
+        toHtml.out.close();
+
+        return pages;
+    }
+
     public static String generateStatsPageForAllSheets(String excelFile)  throws Exception {
 
         StringBuilder strBuf = new StringBuilder();
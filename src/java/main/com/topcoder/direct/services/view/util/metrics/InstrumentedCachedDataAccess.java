@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import com.topcoder.shared.dataAccess.DataRetrieverInt;
+import com.topcoder.shared.dataAccess.RequestInt;
+import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer;
+import com.topcoder.web.common.CachedDataAccess;
+import com.topcoder.web.common.cache.MaxAge;
+
+/**
+ * <p>
+ * A <code>CachedDataAccess</code> which records the latency, row count, errors and cache hits of its queries in
+ * {@link QueryMetrics}.
+ * </p>
+ *
+ * <p>
+ * <code>CachedDataAccess</code> only asks for a data retriever when the results are not in the cache, so a call to
+ * {@link #getDataRetriever(Connection)} during {@link #getData(RequestInt)} marks a cache miss.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class has the same thread safety as <code>CachedDataAccess</code>, the cache miss flag
+ * is kept per thread.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class InstrumentedCachedDataAccess extends CachedDataAccess {
+    /**
+     * <p>
+     * Whether the query of the current thread missed the cache.
+     * </p>
+     */
+    private static final ThreadLocal<boolean[]> CACHE_MISS = new ThreadLocal<boolean[]>() {
+        protected boolean[] initialValue() {
+            return new boolean[1];
+        }
+    };
+
+    /**
+     * <p>
+     * Creates the data access on the given data source, with the default cache expiration.
+     * </p>
+     *
+     * @param dataSourceName the name of the data source
+     */
+    public InstrumentedCachedDataAccess(String dataSourceName) {
+        super(dataSourceName);
+    }
+
+    /**
+     * <p>
+     * Creates the data access on the given data source.
+     * </p>
+     *
+     * @param maxAge the cache expiration
+     * @param dataSourceName the name of the data source
+     */
+    public InstrumentedCachedDataAccess(MaxAge maxAge, String dataSourceName) {
+        super(maxAge, dataSourceName);
+    }
+
+    /**
+     * <p>
+     * Gets the results of the given request from the cache or the database, and records the query.
+     * </p>
+     *
+     * @param request the request
+     * @return the query results keyed by query name
+     * @throws Exception if the query fails
+     */
+    public Map<String, ResultSetContainer> getData(RequestInt request) throws Exception {
+        boolean[] cacheMiss = CACHE_MISS.get();
+        cacheMiss[0] = false;
+        long start = System.nanoTime();
+        boolean failed = true;
+        Map<String, ResultSetContainer> result = null;
+        try {
+            result = super.getData(request);
+            failed = false;
+            return result;
+        } finally {
+            QueryMetrics.getInstance().record(InstrumentedDataAccess.getContentHandle(request),
+                System.nanoTime() - start, InstrumentedDataAccess.countRows(result), failed, true, !cacheMiss[0]);
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the data retriever running the query, which is only called on a cache miss.
+     * </p>
+     *
+     * @param connection the database connection
+     * @return the data retriever
+     */
+    protected DataRetrieverInt getDataRetriever(Connection connection) {
+        CACHE_MISS.get()[0] = true;
+        return super.getDataRetriever(connection);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.util.Map;
+
+import com.topcoder.shared.dataAccess.DataAccess;
+import com.topcoder.shared.dataAccess.DataAccessConstants;
+import com.topcoder.shared.dataAccess.RequestInt;
+import com.topcoder.shared.dataAccess.resultSet.ResultSetContainer;
+
+/**
+ * <p>
+ * A <code>DataAccess</code> which records the latency, row count and errors of its queries in
+ * {@link QueryMetrics}.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class has the same thread safety as <code>DataAccess</code>.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class InstrumentedDataAccess extends DataAccess {
+    /**
+     * <p>
+     * Creates the data access on the given data source.
+     * </p>
+     *
+     * @param dataSourceName the name of the data source
+     */
+    public InstrumentedDataAccess(String dataSourceName) {
+        super(dataSourceName);
+    }
+
+    /**
+     * <p>
+     * Runs the query of the given request and records it.
+     * </p>
+     *
+     * @param request the request
+     * @return the query results keyed by query name
+     * @throws Exception if the query fails
+     */
+    public Map<String, ResultSetContainer> getData(RequestInt request) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Map<String, ResultSetContainer> result = null;
+        try {
+            result = super.getData(request);
+            failed = false;
+            return result;
+        } finally {
+            QueryMetrics.getInstance().record(getContentHandle(request), System.nanoTime() - start,
+                countRows(result), failed, false, false);
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the content handle of the given request.
+     * </p>
+     *
+     * @param request the request
+     * @return the content handle, null if the request has none
+     */
+    public static String getContentHandle(RequestInt request) {
+        return request == null ? null : request.getProperty(DataAccessConstants.COMMAND);
+    }
+
+    /**
+     * <p>
+     * Counts the rows of the given query results.
+     * </p>
+     *
+     * @param result the query results keyed by query name, may be null
+     * @return the number of rows of all the results
+     */
+    static int countRows(Map<String, ResultSetContainer> result) {
+        int rows = 0;
+        if (result != null) {
+            for (ResultSetContainer container : result.values()) {
+                if (container != null) {
+                    rows += container.size();
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.opensymphony.xwork2.ActionContext;
+
+/**
+ * <p>
+ * Records the latency, row count, errors and cache hits of the DataAccess queries per content handle, and per
+ * content handle and calling action. The calling action is the Struts action being executed by the current thread.
+ * </p>
+ *
+ * <p>
+ * The queries are recorded by {@link InstrumentedDataAccess} and {@link InstrumentedCachedDataAccess}. The
+ * statistics are published through JMX (see {@link QueryMetricsMBean}) and by the admin query metrics action. Each
+ * query is also added to the {@link RequestTrace} of the current request, if any.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the statistics are kept in concurrent maps of
+ * {@link QueryStatistics} which are updated without locking.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class QueryMetrics implements QueryMetricsMBean {
+    /**
+     * <p>
+     * The name used for the queries run outside of a Struts action.
+     * </p>
+     */
+    static final String NO_ACTION = "(none)";
+
+    /**
+     * <p>
+     * The number of content handles returned by {@link #getTopContentHandles()}.
+     * </p>
+     */
+    private static final int TOP_COUNT = 20;
+
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final QueryMetrics INSTANCE = new QueryMetrics();
+
+    /**
+     * <p>
+     * The statistics per content handle.
+     * </p>
+     */
+    private final ConcurrentMap<String, HandleStatistics> handles =
+        new ConcurrentHashMap<String, HandleStatistics>();
+
+    /**
+     * <p>
+     * Whether the executions are recorded.
+     * </p>
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * <p>
+     * Creates the metrics.
+     * </p>
+     */
+    QueryMetrics() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Records one query execution.
+     * </p>
+     *
+     * @param contentHandle the content handle of the query
+     * @param nanos the latency of the execution, in nanoseconds
+     * @param rowCount the number of rows returned, ignored when the execution failed
+     * @param failed whether the execution failed
+     * @param cached whether the execution went through the cache
+     * @param cacheHit whether the execution was served from the cache
+     */
+    public void record(String contentHandle, long nanos, int rowCount, boolean failed, boolean cached,
+        boolean cacheHit) {
+        String handle = contentHandle == null ? "(unknown)" : contentHandle;
+        RequestTrace.recordCall(RequestTrace.DB, cacheHit ? handle + " (cached)" : handle, nanos);
+        if (!enabled) {
+            return;
+        }
+        HandleStatistics statistics = getHandleStatistics(handle);
+        statistics.total.record(nanos, rowCount, failed, cached, cacheHit);
+        statistics.getActionStatistics(getCurrentAction()).record(nanos, rowCount, failed, cached, cacheHit);
+    }
+
+    /**
+     * <p>
+     * Gets whether the executions are recorded.
+     * </p>
+     *
+     * @return whether the executions are recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * <p>
+     * Sets whether the executions are recorded.
+     * </p>
+     *
+     * @param enabled whether the executions are recorded
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * <p>
+     * Gets the number of query executions recorded.
+     * </p>
+     *
+     * @return the number of query executions
+     */
+    public long getQueryCount() {
+        long count = 0;
+        for (HandleStatistics statistics : handles.values()) {
+            count += statistics.total.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * Gets the number of failed query executions recorded.
+     * </p>
+     *
+     * @return the number of failed query executions
+     */
+    public long getErrorCount() {
+        long count = 0;
+        for (HandleStatistics statistics : handles.values()) {
+            count += statistics.total.getErrors();
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * Gets the ratio of the cached query executions served from the cache.
+     * </p>
+     *
+     * @return the cache hit rate, between 0 and 1
+     */
+    public double getCacheHitRate() {
+        long lookups = 0;
+        long hits = 0;
+        for (HandleStatistics statistics : handles.values()) {
+            lookups += statistics.total.getCacheLookups();
+            hits += statistics.total.getCacheHits();
+        }
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * <p>
+     * Gets the ratio of the cached executions of the given content handle served from the cache.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @return the cache hit rate, between 0 and 1, 0 if the content handle was not executed through the cache
+     */
+    public double getCacheHitRate(String contentHandle) {
+        HandleStatistics statistics = handles.get(contentHandle);
+        return statistics == null ? 0 : statistics.total.getCacheHitRate();
+    }
+
+    /**
+     * <p>
+     * Gets the content handles with the greatest total latency, with their count and latencies.
+     * </p>
+     *
+     * @return the slowest content handles, the slowest first
+     */
+    public String[] getTopContentHandles() {
+        List<Map.Entry<String, HandleStatistics>> entries = getSortedHandles();
+        String[] result = new String[Math.min(TOP_COUNT, entries.size())];
+        for (int i = 0; i < result.length; i++) {
+            Map<String, Object> statistics = entries.get(i).getValue().total.toMap();
+            statistics.remove("histogram");
+            result[i] = entries.get(i).getKey() + " " + statistics;
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the statistics of the given content handle, overall and per calling action.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @return the statistics, or null if the content handle was not executed
+     */
+    public String getContentHandleStatistics(String contentHandle) {
+        HandleStatistics statistics = handles.get(contentHandle);
+        return statistics == null ? null : statistics.toMap().toString();
+    }
+
+    /**
+     * <p>
+     * Clears the recorded statistics.
+     * </p>
+     */
+    public void reset() {
+        handles.clear();
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the statistics of all the content handles, the slowest first.
+     * </p>
+     *
+     * @return the statistics keyed by content handle
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, HandleStatistics> entry : getSortedHandles()) {
+            result.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the content handles sorted by their total latency, the slowest first.
+     * </p>
+     *
+     * @return the sorted content handles
+     */
+    private List<Map.Entry<String, HandleStatistics>> getSortedHandles() {
+        List<Map.Entry<String, HandleStatistics>> entries =
+            new ArrayList<Map.Entry<String, HandleStatistics>>(handles.entrySet());
+        // the totals change while sorting, so they are read once
+        final Map<String, Long> totals = new HashMap<String, Long>();
+        for (Map.Entry<String, HandleStatistics> entry : entries) {
+            totals.put(entry.getKey(), entry.getValue().total.getTotalNanos());
+        }
+        Collections.sort(entries, new Comparator<Map.Entry<String, HandleStatistics>>() {
+            public int compare(Map.Entry<String, HandleStatistics> e1, Map.Entry<String, HandleStatistics> e2) {
+                return totals.get(e2.getKey()).compareTo(totals.get(e1.getKey()));
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * <p>
+     * Gets the statistics of the given content handle, creating them if needed.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @return the statistics
+     */
+    private HandleStatistics getHandleStatistics(String contentHandle) {
+        HandleStatistics statistics = handles.get(contentHandle);
+        if (statistics == null) {
+            HandleStatistics created = new HandleStatistics();
+            statistics = handles.putIfAbsent(contentHandle, created);
+            if (statistics == null) {
+                statistics = created;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * <p>
+     * Gets the name of the Struts action executed by the current thread.
+     * </p>
+     *
+     * @return the action name, or {@link #NO_ACTION} if there is none
+     */
+    private static String getCurrentAction() {
+        ActionContext context = ActionContext.getContext();
+        String name = context == null ? null : context.getName();
+        return name == null ? NO_ACTION : name;
+    }
+
+    /**
+     * <p>
+     * The statistics of one content handle, overall and per calling action.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class HandleStatistics {
+        /**
+         * <p>
+         * The overall statistics.
+         * </p>
+         */
+        private final QueryStatistics total = new QueryStatistics();
+
+        /**
+         * <p>
+         * The statistics per calling action.
+         * </p>
+         */
+        private final ConcurrentMap<String, QueryStatistics> actions =
+            new ConcurrentHashMap<String, QueryStatistics>();
+
+        /**
+         * <p>
+         * Gets the statistics of the given calling action, creating them if needed.
+         * </p>
+         *
+         * @param action the calling action
+         * @return the statistics
+         */
+        QueryStatistics getActionStatistics(String action) {
+            QueryStatistics statistics = actions.get(action);
+            if (statistics == null) {
+                QueryStatistics created = new QueryStatistics();
+                statistics = actions.putIfAbsent(action, created);
+                if (statistics == null) {
+                    statistics = created;
+                }
+            }
+            return statistics;
+        }
+
+        /**
+         * <p>
+         * Gets a snapshot of the statistics.
+         * </p>
+         *
+         * @return the overall statistics, with the statistics per calling action under the "actions" key
+         */
+        Map<String, Object> toMap() {
+            Map<String, Object> result = total.toMap();
+            Map<String, Object> byAction = new LinkedHashMap<String, Object>();
+            for (Map.Entry<String, QueryStatistics> entry : actions.entrySet()) {
+                Map<String, Object> statistics = entry.getValue().toMap();
+                statistics.remove("histogram");
+                byAction.put(entry.getKey(), statistics);
+            }
+            result.put("actions", byAction);
+            return result;
+        }
+    }
+}
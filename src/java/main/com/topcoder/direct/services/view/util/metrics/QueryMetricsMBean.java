@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+/**
+ * <p>
+ * The JMX management interface of {@link QueryMetrics}.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> The implementations must be thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface QueryMetricsMBean {
+    /**
+     * <p>
+     * Gets whether the executions are recorded.
+     * </p>
+     *
+     * @return whether the executions are recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * <p>
+     * Sets whether the executions are recorded.
+     * </p>
+     *
+     * @param enabled whether the executions are recorded
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * <p>
+     * Gets the number of query executions recorded.
+     * </p>
+     *
+     * @return the number of query executions
+     */
+    long getQueryCount();
+
+    /**
+     * <p>
+     * Gets the number of failed query executions recorded.
+     * </p>
+     *
+     * @return the number of failed query executions
+     */
+    long getErrorCount();
+
+    /**
+     * <p>
+     * Gets the ratio of the cached query executions served from the cache.
+     * </p>
+     *
+     * @return the cache hit rate, between 0 and 1
+     */
+    double getCacheHitRate();
+
+    /**
+     * <p>
+     * Gets the content handles with the greatest total latency, with their count and latencies.
+     * </p>
+     *
+     * @return the slowest content handles, the slowest first
+     */
+    String[] getTopContentHandles();
+
+    /**
+     * <p>
+     * Gets the statistics of the given content handle, overall and per calling action.
+     * </p>
+     *
+     * @param contentHandle the content handle
+     * @return the statistics, or null if the content handle was not executed
+     */
+    String getContentHandleStatistics(String contentHandle);
+
+    /**
+     * <p>
+     * Clears the recorded statistics.
+     * </p>
+     */
+    void reset();
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * The statistics of the executions of one query: the number of executions, errors and rows, the cache hits and a
+ * latency histogram.
+ * </p>
+ *
+ * <p>
+ * The histogram has fixed buckets, so recording an execution is a few atomic increments and never allocates or
+ * locks. The percentiles are estimated as the upper bound of the bucket they fall in.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the counters are updated atomically. A snapshot taken while the
+ * query runs may be off by the executions in progress.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class QueryStatistics {
+    /**
+     * <p>
+     * The upper bounds of the latency histogram buckets, in milliseconds. The last bucket has no upper bound.
+     * </p>
+     */
+    static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /**
+     * <p>
+     * The number of nanoseconds in a millisecond.
+     * </p>
+     */
+    static final long NANOS_PER_MILLI = 1000000L;
+
+    /**
+     * <p>
+     * The number of executions.
+     * </p>
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of failed executions.
+     * </p>
+     */
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of rows returned by the successful executions.
+     * </p>
+     */
+    private final AtomicLong rows = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of executions served from the cache.
+     * </p>
+     */
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of executions which went through the cache, served from it or not.
+     * </p>
+     */
+    private final AtomicLong cacheLookups = new AtomicLong();
+
+    /**
+     * <p>
+     * The total latency of the executions, in nanoseconds.
+     * </p>
+     */
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /**
+     * <p>
+     * The greatest latency of the executions, in nanoseconds.
+     * </p>
+     */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of executions in each bucket of the latency histogram.
+     * </p>
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+    /**
+     * <p>
+     * Creates the statistics.
+     * </p>
+     */
+    public QueryStatistics() {
+    }
+
+    /**
+     * <p>
+     * Records one execution.
+     * </p>
+     *
+     * @param nanos the latency of the execution, in nanoseconds
+     * @param rowCount the number of rows returned, ignored when the execution failed
+     * @param failed whether the execution failed
+     * @param cached whether the execution went through the cache
+     * @param cacheHit whether the execution was served from the cache
+     */
+    void record(long nanos, int rowCount, boolean failed, boolean cached, boolean cacheHit) {
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+        buckets.incrementAndGet(getBucket(nanos / NANOS_PER_MILLI));
+
+        if (failed) {
+            errors.incrementAndGet();
+        } else {
+            rows.addAndGet(rowCount);
+        }
+        if (cached) {
+            cacheLookups.incrementAndGet();
+            if (cacheHit) {
+                cacheHits.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the number of executions.
+     * </p>
+     *
+     * @return the number of executions
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of failed executions.
+     * </p>
+     *
+     * @return the number of failed executions
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * <p>
+     * Gets the total latency of the executions, in nanoseconds.
+     * </p>
+     *
+     * @return the total latency
+     */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of executions which went through the cache.
+     * </p>
+     *
+     * @return the number of cache lookups
+     */
+    public long getCacheLookups() {
+        return cacheLookups.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of executions served from the cache.
+     * </p>
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the statistics as a map, in the order displayed by the admin page.
+     * </p>
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> toMap() {
+        long executions = count.get();
+        long[] histogram = new long[buckets.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = buckets.get(i);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("count", executions);
+        result.put("errors", errors.get());
+        result.put("rows", rows.get());
+        result.put("averageRows", executions == 0 ? 0 : rows.get() / executions);
+        result.put("averageMillis", executions == 0 ? 0 : totalNanos.get() / executions / NANOS_PER_MILLI);
+        result.put("maxMillis", maxNanos.get() / NANOS_PER_MILLI);
+        result.put("p50Millis", getPercentile(histogram, 0.5));
+        result.put("p95Millis", getPercentile(histogram, 0.95));
+        result.put("p99Millis", getPercentile(histogram, 0.99));
+        result.put("totalMillis", totalNanos.get() / NANOS_PER_MILLI);
+        if (cacheLookups.get() > 0) {
+            result.put("cacheHitRate", getCacheHitRate());
+        }
+
+        result.put("histogram", toHistogramMap(histogram));
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the ratio of the cache lookups served from the cache.
+     * </p>
+     *
+     * @return the cache hit rate, between 0 and 1
+     */
+    public double getCacheHitRate() {
+        long lookups = cacheLookups.get();
+        return lookups == 0 ? 0 : (double) cacheHits.get() / lookups;
+    }
+
+    /**
+     * <p>
+     * Gets the bucket of the given latency.
+     * </p>
+     *
+     * @param millis the latency, in milliseconds
+     * @return the bucket index
+     */
+    static int getBucket(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (millis <= BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS.length;
+    }
+
+    /**
+     * <p>
+     * Estimates a percentile of the latency from the histogram.
+     * </p>
+     *
+     * @param histogram the histogram
+     * @param percentile the percentile, between 0 and 1
+     * @return the upper bound of the bucket of the percentile in milliseconds, -1 if it is in the last bucket, 0
+     *         if there is no execution
+     */
+    static long getPercentile(long[] histogram, double percentile) {
+        long total = 0;
+        for (long bucket : histogram) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return BUCKET_BOUNDS[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>
+     * Labels the buckets of the given histogram with their bounds.
+     * </p>
+     *
+     * @param histogram the histogram
+     * @return the number of executions keyed by the bucket label
+     */
+    static Map<String, Long> toHistogramMap(long[] histogram) {
+        Map<String, Long> histogramMap = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < histogram.length; i++) {
+            histogramMap.put(i < BUCKET_BOUNDS.length ? "<=" + BUCKET_BOUNDS[i] + "ms"
+                : ">" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] + "ms", histogram[i]);
+        }
+        return histogramMap;
+    }
+}
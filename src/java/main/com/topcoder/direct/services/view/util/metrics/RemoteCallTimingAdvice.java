@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * <p>
+ * The Spring AOP advice which records the calls to the remote EJB services in the {@link RequestTrace} of the
+ * current request, as {@link RequestTrace#EJB} calls named by the service interface and the method.
+ * </p>
+ *
+ * <p>
+ * It is applied to the service beans looked up from JNDI by a <code>BeanNameAutoProxyCreator</code> of the
+ * application context. The calls made outside of a traced request are not timed.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class RemoteCallTimingAdvice implements MethodInterceptor {
+    /**
+     * <p>
+     * Creates the advice.
+     * </p>
+     */
+    public RemoteCallTimingAdvice() {
+    }
+
+    /**
+     * <p>
+     * Calls the remote method and records its time in the trace of the current request.
+     * </p>
+     *
+     * @param invocation the method invocation
+     * @return the result of the remote method
+     * @throws Throwable if the remote method fails
+     */
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (RequestTrace.current() == null) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTrace.recordCall(RequestTrace.EJB, invocation.getMethod().getDeclaringClass().getSimpleName()
+                + "." + invocation.getMethod().getName(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * Records the time of the Struts requests per action, and the self time of the Struts interceptors, in rolling
+ * histograms. The break down ({@link RequestTrace}) of the requests slower than a configurable threshold is sampled
+ * into a bounded ring buffer, the oldest being overwritten.
+ * </p>
+ *
+ * <p>
+ * The requests are timed by the <code>TimingActionInvocation</code> of the Struts configuration. The statistics are
+ * published through JMX (see {@link RequestMetricsMBean}) and by the admin request metrics action.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the statistics are kept in concurrent maps of
+ * {@link RollingStatistics} and the slow requests in an atomic array, all updated without locking.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class RequestMetrics implements RequestMetricsMBean {
+    /**
+     * <p>
+     * The number of actions returned by {@link #getTopActions()}.
+     * </p>
+     */
+    private static final int TOP_COUNT = 20;
+
+    /**
+     * <p>
+     * The number of slots of the rolling histograms.
+     * </p>
+     */
+    private static final int SLOT_COUNT = 12;
+
+    /**
+     * <p>
+     * The duration of a slot of the rolling histograms: with 12 slots, the histograms cover the last hour.
+     * </p>
+     */
+    private static final long SLOT_MILLIS = 5 * 60 * 1000L;
+
+    /**
+     * <p>
+     * The single instance.
+     * </p>
+     */
+    private static final RequestMetrics INSTANCE = new RequestMetrics();
+
+    /**
+     * <p>
+     * The request statistics per action.
+     * </p>
+     */
+    private final ConcurrentMap<String, RollingStatistics> actions =
+        new ConcurrentHashMap<String, RollingStatistics>();
+
+    /**
+     * <p>
+     * The self time statistics per interceptor.
+     * </p>
+     */
+    private final ConcurrentMap<String, RollingStatistics> interceptors =
+        new ConcurrentHashMap<String, RollingStatistics>();
+
+    /**
+     * <p>
+     * The number of requests since the last reset.
+     * </p>
+     */
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The number of slow requests since the last reset.
+     * </p>
+     */
+    private final AtomicLong slowRequestCount = new AtomicLong();
+
+    /**
+     * <p>
+     * The break downs of the sampled slow requests, used as a ring buffer.
+     * </p>
+     */
+    private volatile AtomicReferenceArray<Map<String, Object>> samples =
+        new AtomicReferenceArray<Map<String, Object>>(100);
+
+    /**
+     * <p>
+     * The number of slow request break downs added to the ring buffer.
+     * </p>
+     */
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    /**
+     * <p>
+     * Whether the requests are timed.
+     * </p>
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * <p>
+     * The time above which a request is slow, in milliseconds.
+     * </p>
+     */
+    private volatile long slowRequestThresholdMillis = 2000;
+
+    /**
+     * <p>
+     * The break down of one slow request out of this number is kept.
+     * </p>
+     */
+    private volatile int sampleRate = 1;
+
+    /**
+     * <p>
+     * Creates the metrics.
+     * </p>
+     */
+    RequestMetrics() {
+    }
+
+    /**
+     * <p>
+     * Gets the single instance.
+     * </p>
+     *
+     * @return the single instance
+     */
+    public static RequestMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Records a finished request, and keeps its break down if it is slow and sampled.
+     * </p>
+     *
+     * @param trace the trace of the request, ended
+     * @param failed whether the request failed with an exception
+     */
+    public void recordRequest(RequestTrace trace, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        long nanos = trace.getTotalNanos();
+        requestCount.incrementAndGet();
+        getStatistics(actions, trace.getAction()).record(nanos, failed);
+
+        if (nanos >= slowRequestThresholdMillis * QueryStatistics.NANOS_PER_MILLI
+            && slowRequestCount.incrementAndGet() % sampleRate == 0) {
+            Map<String, Object> sample = trace.toMap();
+            sample.put("failed", failed);
+            AtomicReferenceArray<Map<String, Object>> buffer = samples;
+            buffer.set((int) (sampleCount.getAndIncrement() % buffer.length()), sample);
+        }
+    }
+
+    /**
+     * <p>
+     * Records the self time of an interceptor.
+     * </p>
+     *
+     * @param interceptor the interceptor name
+     * @param nanos the self time of the interceptor, in nanoseconds
+     * @param failed whether the interceptor or the invocation it wraps failed
+     */
+    public void recordInterceptor(String interceptor, long nanos, boolean failed) {
+        if (enabled) {
+            getStatistics(interceptors, interceptor).record(nanos, failed);
+        }
+    }
+
+    /**
+     * <p>
+     * Gets whether the requests are timed.
+     * </p>
+     *
+     * @return whether the requests are timed
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * <p>
+     * Sets whether the requests are timed.
+     * </p>
+     *
+     * @param enabled whether the requests are timed
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * <p>
+     * Gets the time above which a request is slow and its break down may be kept.
+     * </p>
+     *
+     * @return the slow request threshold, in milliseconds
+     */
+    public long getSlowRequestThresholdMillis() {
+        return slowRequestThresholdMillis;
+    }
+
+    /**
+     * <p>
+     * Sets the time above which a request is slow and its break down may be kept.
+     * </p>
+     *
+     * @param slowRequestThresholdMillis the slow request threshold, in milliseconds
+     * @throws IllegalArgumentException if the argument is negative
+     */
+    public void setSlowRequestThresholdMillis(long slowRequestThresholdMillis) {
+        if (slowRequestThresholdMillis < 0) {
+            throw new IllegalArgumentException("slowRequestThresholdMillis should not be negative.");
+        }
+        this.slowRequestThresholdMillis = slowRequestThresholdMillis;
+    }
+
+    /**
+     * <p>
+     * Gets the sample rate of the slow requests: the break down of one slow request out of this number is kept.
+     * </p>
+     *
+     * @return the sample rate
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * <p>
+     * Sets the sample rate of the slow requests.
+     * </p>
+     *
+     * @param sampleRate the sample rate, 1 to keep all the slow requests
+     * @throws IllegalArgumentException if the argument is not positive
+     */
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("sampleRate should be positive.");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * <p>
+     * Gets the number of slow request break downs kept.
+     * </p>
+     *
+     * @return the capacity of the slow request buffer
+     */
+    public int getSampleCapacity() {
+        return samples.length();
+    }
+
+    /**
+     * <p>
+     * Sets the number of slow request break downs kept. The kept break downs are cleared.
+     * </p>
+     *
+     * @param sampleCapacity the capacity of the slow request buffer
+     * @throws IllegalArgumentException if the argument is not positive
+     */
+    public void setSampleCapacity(int sampleCapacity) {
+        if (sampleCapacity <= 0) {
+            throw new IllegalArgumentException("sampleCapacity should be positive.");
+        }
+        samples = new AtomicReferenceArray<Map<String, Object>>(sampleCapacity);
+        sampleCount.set(0);
+    }
+
+    /**
+     * <p>
+     * Gets the number of requests timed since the last reset.
+     * </p>
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the number of slow requests since the last reset.
+     * </p>
+     *
+     * @return the number of slow requests
+     */
+    public long getSlowRequestCount() {
+        return slowRequestCount.get();
+    }
+
+    /**
+     * <p>
+     * Gets the actions with the greatest total time in the window, with their count and latencies.
+     * </p>
+     *
+     * @return the slowest actions, the slowest first
+     */
+    public String[] getTopActions() {
+        List<Map.Entry<String, RollingStatistics>> entries = getSorted(actions);
+        String[] result = new String[Math.min(TOP_COUNT, entries.size())];
+        for (int i = 0; i < result.length; i++) {
+            Map<String, Object> statistics = entries.get(i).getValue().toMap();
+            statistics.remove("histogram");
+            result[i] = entries.get(i).getKey() + " " + statistics;
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the break downs of the slow requests kept, the latest first.
+     * </p>
+     *
+     * @return the slow requests
+     */
+    public String[] getSlowRequests() {
+        List<Map<String, Object>> slowRequests = getSlowRequestSamples();
+        String[] result = new String[slowRequests.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = slowRequests.get(i).toString();
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Clears the recorded statistics and slow requests.
+     * </p>
+     */
+    public void reset() {
+        actions.clear();
+        interceptors.clear();
+        requestCount.set(0);
+        slowRequestCount.set(0);
+        samples = new AtomicReferenceArray<Map<String, Object>>(samples.length());
+        sampleCount.set(0);
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the request statistics per action, the slowest first.
+     * </p>
+     *
+     * @return the statistics keyed by action
+     */
+    public Map<String, Object> getActionStatistics() {
+        return toMap(actions);
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the self time statistics per interceptor, the slowest first.
+     * </p>
+     *
+     * @return the statistics keyed by interceptor name
+     */
+    public Map<String, Object> getInterceptorStatistics() {
+        return toMap(interceptors);
+    }
+
+    /**
+     * <p>
+     * Gets the break downs of the slow requests kept, the latest first.
+     * </p>
+     *
+     * @return the slow requests
+     */
+    public List<Map<String, Object>> getSlowRequestSamples() {
+        AtomicReferenceArray<Map<String, Object>> buffer = samples;
+        long count = sampleCount.get();
+        List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+        for (long i = count - 1; i >= 0 && i >= count - buffer.length(); i--) {
+            Map<String, Object> sample = buffer.get((int) (i % buffer.length()));
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the given statistics, the slowest first.
+     * </p>
+     *
+     * @param statistics the statistics
+     * @return the snapshot of the statistics keyed by name
+     */
+    private static Map<String, Object> toMap(ConcurrentMap<String, RollingStatistics> statistics) {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, RollingStatistics> entry : getSorted(statistics)) {
+            result.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the given statistics sorted by their total time, the slowest first.
+     * </p>
+     *
+     * @param statistics the statistics
+     * @return the sorted statistics
+     */
+    private static List<Map.Entry<String, RollingStatistics>> getSorted(
+        ConcurrentMap<String, RollingStatistics> statistics) {
+        List<Map.Entry<String, RollingStatistics>> entries =
+            new ArrayList<Map.Entry<String, RollingStatistics>>(statistics.entrySet());
+        // the totals change while sorting, so they are read once
+        final Map<String, Long> totals = new HashMap<String, Long>();
+        for (Map.Entry<String, RollingStatistics> entry : entries) {
+            totals.put(entry.getKey(), entry.getValue().getTotalNanos());
+        }
+        Collections.sort(entries, new Comparator<Map.Entry<String, RollingStatistics>>() {
+            public int compare(Map.Entry<String, RollingStatistics> e1, Map.Entry<String, RollingStatistics> e2) {
+                return totals.get(e2.getKey()).compareTo(totals.get(e1.getKey()));
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * <p>
+     * Gets the statistics of the given name, creating them if needed.
+     * </p>
+     *
+     * @param statistics the statistics keyed by name
+     * @param name the name
+     * @return the statistics
+     */
+    private static RollingStatistics getStatistics(ConcurrentMap<String, RollingStatistics> statistics,
+        String name) {
+        RollingStatistics result = statistics.get(name);
+        if (result == null) {
+            RollingStatistics created = new RollingStatistics(SLOT_COUNT, SLOT_MILLIS);
+            result = statistics.putIfAbsent(name, created);
+            if (result == null) {
+                result = created;
+            }
+        }
+        return result;
+    }
+}
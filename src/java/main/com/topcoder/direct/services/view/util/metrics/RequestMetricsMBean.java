@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+/**
+ * <p>
+ * The JMX management interface of {@link RequestMetrics}.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> The implementations must be thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public interface RequestMetricsMBean {
+    /**
+     * <p>
+     * Gets whether the requests are timed.
+     * </p>
+     *
+     * @return whether the requests are timed
+     */
+    boolean isEnabled();
+
+    /**
+     * <p>
+     * Sets whether the requests are timed.
+     * </p>
+     *
+     * @param enabled whether the requests are timed
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * <p>
+     * Gets the time above which a request is slow and its break down may be kept.
+     * </p>
+     *
+     * @return the slow request threshold, in milliseconds
+     */
+    long getSlowRequestThresholdMillis();
+
+    /**
+     * <p>
+     * Sets the time above which a request is slow and its break down may be kept.
+     * </p>
+     *
+     * @param slowRequestThresholdMillis the slow request threshold, in milliseconds
+     */
+    void setSlowRequestThresholdMillis(long slowRequestThresholdMillis);
+
+    /**
+     * <p>
+     * Gets the sample rate of the slow requests: the break down of one slow request out of this number is kept.
+     * </p>
+     *
+     * @return the sample rate
+     */
+    int getSampleRate();
+
+    /**
+     * <p>
+     * Sets the sample rate of the slow requests.
+     * </p>
+     *
+     * @param sampleRate the sample rate, 1 to keep all the slow requests
+     */
+    void setSampleRate(int sampleRate);
+
+    /**
+     * <p>
+     * Gets the number of slow request break downs kept.
+     * </p>
+     *
+     * @return the capacity of the slow request buffer
+     */
+    int getSampleCapacity();
+
+    /**
+     * <p>
+     * Sets the number of slow request break downs kept. The kept break downs are cleared.
+     * </p>
+     *
+     * @param sampleCapacity the capacity of the slow request buffer
+     */
+    void setSampleCapacity(int sampleCapacity);
+
+    /**
+     * <p>
+     * Gets the number of requests timed since the last reset.
+     * </p>
+     *
+     * @return the number of requests
+     */
+    long getRequestCount();
+
+    /**
+     * <p>
+     * Gets the number of slow requests since the last reset.
+     * </p>
+     *
+     * @return the number of slow requests
+     */
+    long getSlowRequestCount();
+
+    /**
+     * <p>
+     * Gets the actions with the greatest total time in the window, with their count and latencies.
+     * </p>
+     *
+     * @return the slowest actions, the slowest first
+     */
+    String[] getTopActions();
+
+    /**
+     * <p>
+     * Gets the break downs of the slow requests kept, the latest first.
+     * </p>
+     *
+     * @return the slow requests
+     */
+    String[] getSlowRequests();
+
+    /**
+     * <p>
+     * Clears the recorded statistics and slow requests.
+     * </p>
+     */
+    void reset();
+}
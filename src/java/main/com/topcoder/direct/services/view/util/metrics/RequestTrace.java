@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The timing break down of the Struts request executed by the current thread: the interceptors, the action, the
+ * result rendering, and the DB and remote EJB calls made meanwhile.
+ * </p>
+ *
+ * <p>
+ * The interceptors, the action and the result are nested segments, entered and exited in turn; the self time of a
+ * segment excludes the time of the segments nested in it, so the self times of these segments add up to the request
+ * time. The DB and remote EJB calls are recorded once done and are part of the time of the enclosing segment.
+ * </p>
+ *
+ * <p>
+ * At most {@link #MAX_SEGMENTS} segments are kept, the next ones are only counted in the category totals.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is not thread safe, a trace is only used by the thread executing the request.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public final class RequestTrace {
+    /**
+     * <p>
+     * The category of the Struts interceptors.
+     * </p>
+     */
+    public static final String INTERCEPTOR = "interceptor";
+
+    /**
+     * <p>
+     * The category of the action execution.
+     * </p>
+     */
+    public static final String ACTION = "action";
+
+    /**
+     * <p>
+     * The category of the result rendering, e.g. the JSP or the JSON output.
+     * </p>
+     */
+    public static final String RESULT = "result";
+
+    /**
+     * <p>
+     * The category of the DB queries.
+     * </p>
+     */
+    public static final String DB = "db";
+
+    /**
+     * <p>
+     * The category of the remote EJB calls.
+     * </p>
+     */
+    public static final String EJB = "ejb";
+
+    /**
+     * <p>
+     * The maximum number of segments kept by a trace.
+     * </p>
+     */
+    static final int MAX_SEGMENTS = 200;
+
+    /**
+     * <p>
+     * The trace of the request executed by the current thread.
+     * </p>
+     */
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<RequestTrace>();
+
+    /**
+     * <p>
+     * The name of the action of the request.
+     * </p>
+     */
+    private final String action;
+
+    /**
+     * <p>
+     * The time the request started.
+     * </p>
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * <p>
+     * The nano time the request started.
+     * </p>
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * <p>
+     * The nano time the request ended, 0 while it runs.
+     * </p>
+     */
+    private long endNanos;
+
+    /**
+     * <p>
+     * The segments kept, in the order they started.
+     * </p>
+     */
+    private final List<Segment> segments = new ArrayList<Segment>();
+
+    /**
+     * <p>
+     * The nested segments not exited yet, the innermost last.
+     * </p>
+     */
+    private final LinkedList<Segment> open = new LinkedList<Segment>();
+
+    /**
+     * <p>
+     * The number of segments and their total time in nanoseconds, per category. The self time is used for the
+     * nested segments.
+     * </p>
+     */
+    private final Map<String, long[]> categories = new LinkedHashMap<String, long[]>();
+
+    /**
+     * <p>
+     * The number of segments not kept.
+     * </p>
+     */
+    private int droppedSegments;
+
+    /**
+     * <p>
+     * Creates the trace.
+     * </p>
+     *
+     * @param action the name of the action of the request
+     */
+    private RequestTrace(String action) {
+        this.action = action;
+    }
+
+    /**
+     * <p>
+     * Starts the trace of the request executed by the current thread.
+     * </p>
+     *
+     * @param action the name of the action of the request
+     * @return the new trace, or null if the current thread already has a trace
+     */
+    public static RequestTrace begin(String action) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        RequestTrace trace = new RequestTrace(action);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * <p>
+     * Gets the trace of the request executed by the current thread.
+     * </p>
+     *
+     * @return the trace, or null if the current thread does not execute a traced request
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * <p>
+     * Records a call made by the request executed by the current thread, if it is traced.
+     * </p>
+     *
+     * @param category the category of the call, e.g. {@link #DB}
+     * @param name the name of the call, e.g. the query name
+     * @param nanos the duration of the call, in nanoseconds
+     */
+    public static void recordCall(String category, String name, long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            Segment segment = trace.add(category, name, System.nanoTime() - nanos);
+            segment.nanos = nanos;
+            segment.selfNanos = nanos;
+            trace.count(category, nanos);
+        }
+    }
+
+    /**
+     * <p>
+     * Ends the trace and detaches it from the current thread.
+     * </p>
+     */
+    public void end() {
+        endNanos = System.nanoTime();
+        while (!open.isEmpty()) {
+            exit(open.getFirst());
+        }
+        CURRENT.remove();
+    }
+
+    /**
+     * <p>
+     * Enters a nested segment.
+     * </p>
+     *
+     * @param category the category of the segment
+     * @param name the name of the segment, e.g. the interceptor name
+     * @return the segment, to give to {@link #exit(Segment)}
+     */
+    public Segment enter(String category, String name) {
+        Segment segment = add(category, name, System.nanoTime());
+        open.addLast(segment);
+        return segment;
+    }
+
+    /**
+     * <p>
+     * Exits a nested segment, and the segments entered in it and not exited yet.
+     * </p>
+     *
+     * @param segment the segment
+     * @return the self time of the segment, in nanoseconds
+     */
+    public long exit(Segment segment) {
+        if (!open.contains(segment)) {
+            return segment.selfNanos;
+        }
+        long now = System.nanoTime();
+        Segment last;
+        do {
+            last = open.removeLast();
+            last.nanos = now - last.startNanos;
+            last.selfNanos = last.nanos - last.childNanos;
+            if (!open.isEmpty()) {
+                open.getLast().childNanos += last.nanos;
+            }
+            count(last.category, last.selfNanos);
+        } while (last != segment);
+        return segment.selfNanos;
+    }
+
+    /**
+     * <p>
+     * Gets the name of the action of the request.
+     * </p>
+     *
+     * @return the action name
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * <p>
+     * Gets the time of the request, up to now if it runs.
+     * </p>
+     *
+     * @return the time of the request, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+    }
+
+    /**
+     * <p>
+     * Gets the break down of the request as a map, in the order displayed by the admin page.
+     * </p>
+     *
+     * @return the break down, with the totals per category and the segments in the order they started
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("action", action);
+        result.put("startTime", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(startTime)));
+        result.put("totalMillis", toMillis(getTotalNanos()));
+
+        Map<String, Object> totals = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, long[]> entry : categories.entrySet()) {
+            Map<String, Object> total = new LinkedHashMap<String, Object>();
+            total.put("count", entry.getValue()[0]);
+            total.put("millis", toMillis(entry.getValue()[1]));
+            totals.put(entry.getKey(), total);
+        }
+        result.put("categories", totals);
+
+        List<Map<String, Object>> segmentMaps = new ArrayList<Map<String, Object>>(segments.size());
+        for (Segment segment : segments) {
+            Map<String, Object> segmentMap = new LinkedHashMap<String, Object>();
+            segmentMap.put("category", segment.category);
+            segmentMap.put("name", segment.name);
+            segmentMap.put("depth", segment.depth);
+            segmentMap.put("offsetMillis", toMillis(segment.startNanos - startNanos));
+            segmentMap.put("millis", toMillis(segment.nanos));
+            segmentMap.put("selfMillis", toMillis(segment.selfNanos));
+            segmentMaps.add(segmentMap);
+        }
+        result.put("segments", segmentMaps);
+        result.put("droppedSegments", droppedSegments);
+        return result;
+    }
+
+    /**
+     * <p>
+     * Creates a segment and keeps it if the limit is not reached.
+     * </p>
+     *
+     * @param category the category of the segment
+     * @param name the name of the segment
+     * @param start the nano time the segment started
+     * @return the segment
+     */
+    private Segment add(String category, String name, long start) {
+        Segment segment = new Segment(category, name, open.size(), start);
+        if (segments.size() < MAX_SEGMENTS) {
+            segments.add(segment);
+        } else {
+            droppedSegments++;
+        }
+        return segment;
+    }
+
+    /**
+     * <p>
+     * Adds a segment to the total of its category.
+     * </p>
+     *
+     * @param category the category
+     * @param nanos the time of the segment, in nanoseconds
+     */
+    private void count(String category, long nanos) {
+        long[] total = categories.get(category);
+        if (total == null) {
+            total = new long[2];
+            categories.put(category, total);
+        }
+        total[0]++;
+        total[1] += nanos;
+    }
+
+    /**
+     * <p>
+     * Converts nanoseconds to milliseconds, rounded to the hundredth.
+     * </p>
+     *
+     * @param nanos the nanoseconds
+     * @return the milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10000.0) / 100.0;
+    }
+
+    /**
+     * <p>
+     * A segment of the request: an interceptor, the action, the result or a call.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is not thread safe, it is only used by the thread of its trace.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    public static final class Segment {
+        /**
+         * <p>
+         * The category of the segment.
+         * </p>
+         */
+        private final String category;
+
+        /**
+         * <p>
+         * The name of the segment.
+         * </p>
+         */
+        private final String name;
+
+        /**
+         * <p>
+         * The number of segments the segment is nested in.
+         * </p>
+         */
+        private final int depth;
+
+        /**
+         * <p>
+         * The nano time the segment started.
+         * </p>
+         */
+        private final long startNanos;
+
+        /**
+         * <p>
+         * The time of the segment, in nanoseconds.
+         * </p>
+         */
+        private long nanos;
+
+        /**
+         * <p>
+         * The time of the segments nested in the segment, in nanoseconds.
+         * </p>
+         */
+        private long childNanos;
+
+        /**
+         * <p>
+         * The time of the segment without the nested segments, in nanoseconds.
+         * </p>
+         */
+        private long selfNanos;
+
+        /**
+         * <p>
+         * Creates the segment.
+         * </p>
+         *
+         * @param category the category of the segment
+         * @param name the name of the segment
+         * @param depth the number of segments the segment is nested in
+         * @param startNanos the nano time the segment started
+         */
+        private Segment(String category, String name, int depth, long startNanos) {
+            this.category = category;
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * The latency statistics of the executions of the last time window: the number of executions and errors, and a
+ * latency histogram with the buckets of {@link QueryStatistics}.
+ * </p>
+ *
+ * <p>
+ * The window is divided in slots of a fixed duration, used in turn. When the current slot is older than the window
+ * it is cleared and reused, so the statistics cover between <code>slotCount - 1</code> and <code>slotCount</code>
+ * slots and the old executions roll out without any background task.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe, the counters are updated atomically and a slot is cleared under
+ * its lock. An execution recorded while its slot is being cleared by another thread may be lost.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class RollingStatistics {
+    /**
+     * <p>
+     * The duration of a slot, in milliseconds.
+     * </p>
+     */
+    private final long slotMillis;
+
+    /**
+     * <p>
+     * The slots of the window.
+     * </p>
+     */
+    private final Slot[] slots;
+
+    /**
+     * <p>
+     * Creates the statistics.
+     * </p>
+     *
+     * @param slotCount the number of slots of the window
+     * @param slotMillis the duration of a slot, in milliseconds
+     * @throws IllegalArgumentException if any argument is not positive
+     */
+    public RollingStatistics(int slotCount, long slotMillis) {
+        if (slotCount <= 0 || slotMillis <= 0) {
+            throw new IllegalArgumentException("slotCount and slotMillis should be positive.");
+        }
+        this.slotMillis = slotMillis;
+        slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * <p>
+     * Records one execution.
+     * </p>
+     *
+     * @param nanos the latency of the execution, in nanoseconds
+     * @param failed whether the execution failed
+     */
+    void record(long nanos, boolean failed) {
+        Slot slot = getSlot(System.currentTimeMillis() / slotMillis);
+        slot.count.incrementAndGet();
+        slot.totalNanos.addAndGet(nanos);
+        long max = slot.maxNanos.get();
+        while (nanos > max && !slot.maxNanos.compareAndSet(max, nanos)) {
+            max = slot.maxNanos.get();
+        }
+        slot.buckets.incrementAndGet(QueryStatistics.getBucket(nanos / QueryStatistics.NANOS_PER_MILLI));
+        if (failed) {
+            slot.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * <p>
+     * Gets the total latency of the executions of the window, in nanoseconds.
+     * </p>
+     *
+     * @return the total latency
+     */
+    public long getTotalNanos() {
+        long epoch = System.currentTimeMillis() / slotMillis;
+        long total = 0;
+        for (Slot slot : slots) {
+            if (isInWindow(slot, epoch)) {
+                total += slot.totalNanos.get();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * <p>
+     * Gets a snapshot of the statistics of the window as a map, in the order displayed by the admin page.
+     * </p>
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> toMap() {
+        long epoch = System.currentTimeMillis() / slotMillis;
+        long count = 0;
+        long errors = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        long[] histogram = new long[QueryStatistics.BUCKET_BOUNDS.length + 1];
+        for (Slot slot : slots) {
+            if (isInWindow(slot, epoch)) {
+                count += slot.count.get();
+                errors += slot.errors.get();
+                totalNanos += slot.totalNanos.get();
+                maxNanos = Math.max(maxNanos, slot.maxNanos.get());
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] += slot.buckets.get(i);
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("count", count);
+        result.put("errors", errors);
+        result.put("averageMillis", count == 0 ? 0 : totalNanos / count / QueryStatistics.NANOS_PER_MILLI);
+        result.put("maxMillis", maxNanos / QueryStatistics.NANOS_PER_MILLI);
+        result.put("p50Millis", QueryStatistics.getPercentile(histogram, 0.5));
+        result.put("p95Millis", QueryStatistics.getPercentile(histogram, 0.95));
+        result.put("p99Millis", QueryStatistics.getPercentile(histogram, 0.99));
+        result.put("totalMillis", totalNanos / QueryStatistics.NANOS_PER_MILLI);
+        result.put("histogram", QueryStatistics.toHistogramMap(histogram));
+        return result;
+    }
+
+    /**
+     * <p>
+     * Gets the slot of the given epoch, clearing it if it was used by an older epoch.
+     * </p>
+     *
+     * @param epoch the epoch, i.e. the current time divided by the slot duration
+     * @return the slot
+     */
+    private Slot getSlot(long epoch) {
+        Slot slot = slots[(int) (epoch % slots.length)];
+        if (slot.epoch != epoch) {
+            synchronized (slot) {
+                if (slot.epoch != epoch) {
+                    slot.clear();
+                    slot.epoch = epoch;
+                }
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * <p>
+     * Checks whether the given slot belongs to the window ending at the given epoch.
+     * </p>
+     *
+     * @param slot the slot
+     * @param epoch the current epoch
+     * @return true if the slot is in the window
+     */
+    private boolean isInWindow(Slot slot, long epoch) {
+        return slot.epoch > epoch - slots.length && slot.epoch <= epoch;
+    }
+
+    /**
+     * <p>
+     * The counters of one slot of the window.
+     * </p>
+     *
+     * <p>
+     * <b>Thread Safety:</b> This class is thread safe.
+     * </p>
+     *
+     * @author TCSDEVELOPER
+     * @version 1.0
+     */
+    private static class Slot {
+        /**
+         * <p>
+         * The epoch of the slot, -1 if it was never used.
+         * </p>
+         */
+        private volatile long epoch = -1;
+
+        /**
+         * <p>
+         * The number of executions.
+         * </p>
+         */
+        private final AtomicLong count = new AtomicLong();
+
+        /**
+         * <p>
+         * The number of failed executions.
+         * </p>
+         */
+        private final AtomicLong errors = new AtomicLong();
+
+        /**
+         * <p>
+         * The total latency of the executions, in nanoseconds.
+         * </p>
+         */
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        /**
+         * <p>
+         * The greatest latency of the executions, in nanoseconds.
+         * </p>
+         */
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        /**
+         * <p>
+         * The number of executions in each bucket of the latency histogram.
+         * </p>
+         */
+        private final AtomicLongArray buckets = new AtomicLongArray(QueryStatistics.BUCKET_BOUNDS.length + 1);
+
+        /**
+         * <p>
+         * Clears the counters.
+         * </p>
+         */
+        void clear() {
+            count.set(0);
+            errors.set(0);
+            totalNanos.set(0);
+            maxNanos.set(0);
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+        }
+    }
+}
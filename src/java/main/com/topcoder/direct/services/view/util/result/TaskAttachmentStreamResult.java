@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.result;
+
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.struts2.ServletActionContext;
+
+import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.Result;
+import com.topcoder.direct.services.project.task.model.TaskAttachmentContent;
+import com.topcoder.direct.services.view.action.task.DownloadTaskAttachmentAction;
+
+/**
+ * <p>
+ * Custom result type for downloading the content of a task attachment.
+ * </p>
+ *
+ * <p>
+ * The content is transferred to the response by
+ * {@link com.topcoder.direct.services.project.task.TaskAttachmentContentService}, without copying it through the
+ * Struts stream result buffers. The result answers <code>If-None-Match</code> and <code>If-Modified-Since</code>
+ * with <code>304 Not Modified</code>, and a single byte range of <code>Range</code> (honoring
+ * <code>If-Range</code>) with <code>206 Partial Content</code>. Multiple ranges are answered with the whole content.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class TaskAttachmentStreamResult implements Result {
+    /**
+     * <p>
+     * Generated serial version uid.
+     * </p>
+     */
+    private static final long serialVersionUID = 786256098709364704L;
+
+    /**
+     * The unit of the supported ranges.
+     */
+    private static final String BYTES_UNIT = "bytes=";
+
+    /**
+     * Handles the result type execution.
+     *
+     * @param invocation the action invocation.
+     * @throws Exception if any error.
+     */
+    public void execute(ActionInvocation invocation) throws Exception {
+        DownloadTaskAttachmentAction action = (DownloadTaskAttachmentAction) invocation.getAction();
+        HttpServletRequest request = ServletActionContext.getRequest();
+        HttpServletResponse response = ServletActionContext.getResponse();
+
+        TaskAttachmentContent content = action.getContent();
+        if (content == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String entityTag = "\"" + content.getEntityTag() + "\"";
+        long lastModified = content.getLastModified().getTime();
+        long length = content.getLength();
+
+        response.setHeader("ETag", entityTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+
+        if (isNotModified(request, entityTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long[] range = getRange(request, entityTag, lastModified, length);
+        if (range != null && range.length == 0) {
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        long offset = 0;
+        long count = length;
+        if (range != null) {
+            offset = range[0];
+            count = range[1] - range[0] + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length);
+        } else if (content.getDigest() != null) {
+            response.setHeader("Content-MD5",
+                new String(Base64.encodeBase64(Hex.decodeHex(content.getDigest().toCharArray())), "US-ASCII"));
+        }
+        response.setContentType(content.getAttachment().getMimeType());
+        response.setHeader("Content-Disposition",
+            ("attachment;filename=" + content.getAttachment().getFileName()).replaceAll(" ", "%20"));
+        if (count <= Integer.MAX_VALUE) {
+            response.setContentLength((int) count);
+        } else {
+            response.setHeader("Content-Length", String.valueOf(count));
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        ServletOutputStream outputStream = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        action.getTaskAttachmentContentService().transferTaskAttachmentContent(content, offset, count, target);
+        outputStream.flush();
+    }
+
+    /**
+     * <p>
+     * Checks whether the client already has the content, by its entity tag, or else by its modification date.
+     * </p>
+     *
+     * @param request the request.
+     * @param entityTag the quoted entity tag of the content.
+     * @param lastModified the last modification time of the content.
+     * @return true if the content is not modified.
+     */
+    private static boolean isNotModified(HttpServletRequest request, String entityTag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, entityTag);
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        // the HTTP dates have no milliseconds
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * <p>
+     * Gets the byte range requested by the client.
+     * </p>
+     *
+     * @param request the request.
+     * @param entityTag the quoted entity tag of the content.
+     * @param lastModified the last modification time of the content.
+     * @param length the length of the content.
+     * @return the first and last byte positions, an empty array if the range is not satisfiable, or null if the whole
+     *         content is returned.
+     */
+    private static long[] getRange(HttpServletRequest request, String entityTag, long lastModified, long length) {
+        String range = request.getHeader("Range");
+        if (range == null || !range.startsWith(BYTES_UNIT) || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange != null) {
+            long ifRangeDate = ifRange.trim().endsWith("\"") ? -1 : getDateHeader(request, "If-Range");
+            if (ifRangeDate >= 0 ? lastModified / 1000 != ifRangeDate / 1000 : !entityTag.equals(ifRange.trim())) {
+                // the client has another version, send it the whole content
+                return null;
+            }
+        }
+
+        String spec = range.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.length() == 0) {
+                // suffix range, the last bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.length() == 0 ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (end < start) {
+                    return start >= length ? new long[0] : null;
+                }
+            }
+            return start >= length ? new long[0] : new long[] {start, end};
+        } catch (NumberFormatException e) {
+            // ignore the invalid range
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * Checks whether a list of entity tags matches the entity tag of the content, comparing them weakly.
+     * </p>
+     *
+     * @param entityTags the comma separated list of entity tags, or *.
+     * @param entityTag the quoted entity tag of the content.
+     * @return true if the list matches the entity tag.
+     */
+    private static boolean matches(String entityTags, String entityTag) {
+        for (String tag : entityTags.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || entityTag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * Gets a date header, ignoring the invalid dates.
+     * </p>
+     *
+     * @param request the request.
+     * @param name the name of the header.
+     * @return the date, -1 if the header is missing or not a date.
+     */
+    private static long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.upload;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * The lightweight handle of a file stored by {@link UploadedFileStore}. It describes the file and names its content
+ * in the store, so it is cheap to keep in the HTTP session and to replicate.
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is immutable and thread safe.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class UploadedFileHandle implements Serializable {
+    /**
+     * The serial version ID.
+     */
+    private static final long serialVersionUID = 2604721938461925731L;
+
+    /**
+     * The unique ID of the file.
+     */
+    private final long id;
+
+    /**
+     * The name of the content file in the store.
+     */
+    private final String storageName;
+
+    /**
+     * The name of the uploaded file.
+     */
+    private final String fileName;
+
+    /**
+     * The description of the uploaded file.
+     */
+    private final String description;
+
+    /**
+     * The type of the uploaded file.
+     */
+    private final Long fileType;
+
+    /**
+     * The size of the content in bytes.
+     */
+    private final long size;
+
+    /**
+     * Creates the handle.
+     *
+     * @param id the unique ID of the file.
+     * @param storageName the name of the content file in the store.
+     * @param fileName the name of the uploaded file.
+     * @param description the description of the uploaded file.
+     * @param fileType the type of the uploaded file.
+     * @param size the size of the content in bytes.
+     */
+    UploadedFileHandle(long id, String storageName, String fileName, String description, Long fileType, long size) {
+        this.id = id;
+        this.storageName = storageName;
+        this.fileName = fileName;
+        this.description = description;
+        this.fileType = fileType;
+        this.size = size;
+    }
+
+    /**
+     * Gets the unique ID of the file.
+     *
+     * @return the ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the content file in the store.
+     *
+     * @return the storage name.
+     */
+    String getStorageName() {
+        return storageName;
+    }
+
+    /**
+     * Gets the name of the uploaded file.
+     *
+     * @return the file name.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Gets the description of the uploaded file.
+     *
+     * @return the description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the type of the uploaded file.
+     *
+     * @return the file type.
+     */
+    public Long getFileType() {
+        return fileType;
+    }
+
+    /**
+     * Gets the size of the content.
+     *
+     * @return the size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+}
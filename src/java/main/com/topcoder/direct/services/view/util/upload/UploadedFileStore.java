@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
+ */
+package com.topcoder.direct.services.view.util.upload;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import com.topcoder.direct.services.exception.DirectException;
+
+/**
+ * <p>
+ * Stores the files uploaded during the contest launch in a bounded disk area instead of the HTTP session. The
+ * session only keeps the {@link UploadedFileHandle}s of its files (see
+ * {@link com.topcoder.direct.services.view.util.SessionFileStore}), and the content is read from the disk when it is
+ * needed.
+ * </p>
+ *
+ * <p>
+ * The total size of the stored files is bounded by <code>maxTotalSize</code>, and the files older than
+ * <code>timeToLive</code> are deleted by a cleanup which runs at most once per <code>cleanupInterval</code>, when
+ * files are stored. The store also bounds the size of the files of a single session to
+ * <code>maxSessionSize</code>, which is checked by the session file store.
+ * </p>
+ *
+ * <p>
+ * The store is a singleton so that the session file stores can reach it, it is configured by Spring:
+ * <pre>
+ * &lt;bean id=&quot;uploadedFileStore&quot; class=&quot;...UploadedFileStore&quot; factory-method=&quot;getInstance&quot;&gt;
+ *     &lt;property name=&quot;directory&quot; value=&quot;/tmp/direct-uploads&quot;/&gt;
+ *     &lt;property name=&quot;maxTotalSize&quot; value=&quot;1073741824&quot;/&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * <b>Thread Safety:</b> This class is thread safe. The setters are expected to be called by Spring before the store
+ * is used; the used size is guarded by the store.
+ * </p>
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class UploadedFileStore {
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(UploadedFileStore.class);
+
+    /**
+     * The extension of the content files.
+     */
+    private static final String CONTENT_EXTENSION = ".upload";
+
+    /**
+     * The single instance.
+     */
+    private static final UploadedFileStore INSTANCE = new UploadedFileStore();
+
+    /**
+     * The directory of the content files.
+     */
+    private volatile File directory = new File(System.getProperty("java.io.tmpdir"), "direct-uploads");
+
+    /**
+     * The maximum total size of the stored files, in bytes.
+     */
+    private volatile long maxTotalSize = 1024L * 1024 * 1024;
+
+    /**
+     * The maximum size of the files of a session, in bytes.
+     */
+    private volatile long maxSessionSize = 100L * 1024 * 1024;
+
+    /**
+     * The time after which the stored files are deleted, in milliseconds.
+     */
+    private volatile long timeToLive = 24L * 60 * 60 * 1000;
+
+    /**
+     * The minimum interval between two cleanups, in milliseconds.
+     */
+    private volatile long cleanupInterval = 10L * 60 * 1000;
+
+    /**
+     * The source of the IDs of the stored files.
+     */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * The time of the next cleanup.
+     */
+    private final AtomicLong nextCleanupTime = new AtomicLong();
+
+    /**
+     * The total size of the stored files, -1 until the directory is scanned.
+     */
+    private long usedSize = -1;
+
+    /**
+     * Creates the store.
+     */
+    private UploadedFileStore() {
+        // does nothing
+    }
+
+    /**
+     * Gets the single instance of the store.
+     *
+     * @return the store.
+     */
+    public static UploadedFileStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Stores the content of an uploaded file.
+     * </p>
+     *
+     * @param input the content, it is not closed.
+     * @param length the expected length of the content in bytes.
+     * @param fileName the name of the uploaded file.
+     * @param description the description of the uploaded file.
+     * @param fileType the type of the uploaded file.
+     * @return the handle of the stored file.
+     * @throws DirectException if the store is full, if the content is longer than expected, or if it can not be
+     *             written.
+     */
+    public UploadedFileHandle store(InputStream input, long length, String fileName, String description,
+        Long fileType) throws DirectException {
+        cleanup(false);
+        if (!reserve(length)) {
+            // the expired files may free enough space
+            cleanup(true);
+            if (!reserve(length)) {
+                throw new DirectException("The upload area is full, please try again later.");
+            }
+        }
+
+        String storageName = UUID.randomUUID().toString();
+        File file = getFile(storageName);
+        long count = 0;
+        try {
+            OutputStream output = new FileOutputStream(file);
+            try {
+                byte[] buffer = new byte[(int) Math.min(64 * 1024, Math.max(length, 1))];
+                int read;
+                while ((read = input.read(buffer)) >= 0) {
+                    count += read;
+                    if (count > length) {
+                        throw new IOException("The content of " + fileName + " is longer than " + length + " bytes.");
+                    }
+                    output.write(buffer, 0, read);
+                }
+            } finally {
+                output.close();
+            }
+        } catch (IOException e) {
+            file.delete();
+            release(length);
+            throw new DirectException("Failed to store the uploaded file " + fileName + ".", e);
+        }
+        release(length - count);
+        return new UploadedFileHandle(sequence.incrementAndGet(), storageName, fileName, description, fileType,
+            count);
+    }
+
+    /**
+     * <p>
+     * Opens the content of a stored file.
+     * </p>
+     *
+     * @param handle the handle of the file.
+     * @return the stream of the content, the caller closes it.
+     * @throws DirectException if the file expired.
+     */
+    public InputStream openStream(UploadedFileHandle handle) throws DirectException {
+        try {
+            return new FileInputStream(getFile(handle.getStorageName()));
+        } catch (FileNotFoundException e) {
+            throw new DirectException("The uploaded file " + handle.getFileName() + " expired.", e);
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the whole content of a stored file.
+     * </p>
+     *
+     * @param handle the handle of the file.
+     * @return the content.
+     * @throws DirectException if the file expired, or can not be read.
+     */
+    public byte[] readContent(UploadedFileHandle handle) throws DirectException {
+        InputStream input = openStream(handle);
+        try {
+            return IOUtils.toByteArray(input);
+        } catch (IOException e) {
+            throw new DirectException("Failed to read the uploaded file " + handle.getFileName() + ".", e);
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+    }
+
+    /**
+     * <p>
+     * Checks whether the content of a stored file still exists.
+     * </p>
+     *
+     * @param handle the handle of the file.
+     * @return true if the content exists.
+     */
+    public boolean exists(UploadedFileHandle handle) {
+        return getFile(handle.getStorageName()).isFile();
+    }
+
+    /**
+     * <p>
+     * Deletes a stored file. Does nothing if it is already deleted.
+     * </p>
+     *
+     * @param handle the handle of the file.
+     */
+    public void delete(UploadedFileHandle handle) {
+        File file = getFile(handle.getStorageName());
+        long size = file.length();
+        if (file.delete()) {
+            release(size);
+        }
+    }
+
+    /**
+     * <p>
+     * Deletes the files older than the time to live.
+     * </p>
+     *
+     * @param force true to run even if the cleanup interval is not elapsed.
+     */
+    private void cleanup(boolean force) {
+        final long now = System.currentTimeMillis();
+        long cleanupTime = nextCleanupTime.get();
+        if (!force && now < cleanupTime || !nextCleanupTime.compareAndSet(cleanupTime, now + cleanupInterval)) {
+            return;
+        }
+
+        File[] expired = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.getName().endsWith(CONTENT_EXTENSION) && now - file.lastModified() > timeToLive;
+            }
+        });
+        if (expired == null) {
+            return;
+        }
+        for (File file : expired) {
+            long size = file.length();
+            if (file.delete()) {
+                release(size);
+            }
+        }
+        if (expired.length > 0) {
+            LOGGER.info("Deleted " + expired.length + " expired uploaded files.");
+        }
+    }
+
+    /**
+     * <p>
+     * Reserves space for a file, scanning the directory on first use.
+     * </p>
+     *
+     * @param size the size of the file.
+     * @return false if the store is full.
+     */
+    private synchronized boolean reserve(long size) {
+        if (usedSize < 0) {
+            directory.mkdirs();
+            usedSize = 0;
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    usedSize += file.length();
+                }
+            }
+        }
+        if (usedSize + size > maxTotalSize) {
+            return false;
+        }
+        usedSize += size;
+        return true;
+    }
+
+    /**
+     * <p>
+     * Releases the space of a file.
+     * </p>
+     *
+     * @param size the size of the file.
+     */
+    private synchronized void release(long size) {
+        if (usedSize >= 0) {
+            usedSize = Math.max(0, usedSize - size);
+        }
+    }
+
+    /**
+     * Gets a content file.
+     *
+     * @param storageName the name of the content in the store.
+     * @return the content file.
+     */
+    private File getFile(String storageName) {
+        return new File(directory, storageName + CONTENT_EXTENSION);
+    }
+
+    /**
+     * Gets the maximum size of the files of a session.
+     *
+     * @return the maximum session size in bytes.
+     */
+    public long getMaxSessionSize() {
+        return maxSessionSize;
+    }
+
+    /**
+     * Sets the directory of the content files.
+     *
+     * @param directory the directory.
+     */
+    public void setDirectory(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Sets the maximum total size of the stored files.
+     *
+     * @param maxTotalSize the maximum total size in bytes.
+     */
+    public void setMaxTotalSize(long maxTotalSize) {
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    /**
+     * Sets the maximum size of the files of a session.
+     *
+     * @param maxSessionSize the maximum session size in bytes.
+     */
+    public void setMaxSessionSize(long maxSessionSize) {
+        this.maxSessionSize = maxSessionSize;
+    }
+
+    /**
+     * Sets the time after which the stored files are deleted.
+     *
+     * @param timeToLive the time to live in milliseconds.
+     */
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Sets the minimum interval between two cleanups.
+     *
+     * @param cleanupInterval the cleanup interval in milliseconds.
+     */
+    public void setCleanupInterval(long cleanupInterval) {
+        this.cleanupInterval = cleanupInterval;
+    }
+}
@@ -1,14 +1,16 @@
 <%@ page import="com.topcoder.direct.services.configs.ServerConfiguration" %>
 <%--
-  - Author: isv, TCSASSEMBLER
-  - Version: 1.2
-  - Copyright (C) 2010-2011 TopCoder Inc., All Rights Reserved.
+  - Author: isv, TCSASSEMBLER, TCSDEVELOPER
+  - Version: 1.3
+  - Copyright (C) 2010-2013 TopCoder Inc., All Rights Reserved.
   -
   - Description: This page renders the list of contests matching the search criteria.
   -
   - Version 1.1 (Submission Viewer Release 1 assembly) changes: linked submission numbers for each contest
   - to respective submission pages for Studio contests.
   - Version 1.2 (TC Direct - Page Layout Update Assembly 2) changes: fixed layout issues.
+  - Version 1.3 (TC Direct - Paged Contest Search) changes: renders one page of the contests read by the server,
+  - with the links to the first and the next page.
 --%>
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ include file="/WEB-INF/includes/taglibs.jsp" %>
@@ -121,5 +123,26 @@
         </tbody>
     </table>
     <!-- End .projectsStats -->
+    <div class="contestsPager">
+        <s:if test="formData.afterContestId > 0">
+            <a href="<s:url action="dashboardSearch" namespace="/">
+                <s:param name="formData.searchFor" value="formData.searchFor"/>
+                <s:param name="formData.searchIn" value="formData.searchIn"/>
+                <s:param name="formData.startDate" value="formData.startDate"/>
+                <s:param name="formData.endDate" value="formData.endDate"/>
+            </s:url>" class="button1"><span>First</span></a>
+        </s:if>
+        <s:if test="viewData.moreContests">
+            <s:set var="lastContest" value="viewData.contests[viewData.contests.size() - 1].contest"/>
+            <a href="<s:url action="dashboardSearch" namespace="/">
+                <s:param name="formData.searchFor" value="formData.searchFor"/>
+                <s:param name="formData.searchIn" value="formData.searchIn"/>
+                <s:param name="formData.startDate" value="formData.startDate"/>
+                <s:param name="formData.endDate" value="formData.endDate"/>
+                <s:param name="formData.afterProjectId" value="#lastContest.project.id"/>
+                <s:param name="formData.afterContestId" value="#lastContest.id"/>
+            </s:url>" class="button1"><span>Next</span></a>
+        </s:if>
+    </div>
 </div>
 <!-- End #contestsResult -->
@@ -1,10 +1,13 @@
 <%--
-  - Author: GreatKevin, TCSASSEMBLER
+  - Author: GreatKevin, TCSASSEMBLER, TCSDEVELOPER
   - Version: 1.0 (Release Assembly - TopCoder Cockpit Asset View And File Version）
   -
   - Version 1.1 (Release Assembly - TopCoder Cockpit Asset View Release 4 - Resource restriction update)
   - - Update the permission setting to be Project / Public, remove private permission settings
   -
+  - Version 1.2 (TopCoder Cockpit Asset Archive Streaming)
+  - - The batch download zips the files while they are downloaded
+  -
   - Copyright (C) 2013 TopCoder Inc., All Rights Reserved.
   -
   - Description: modal windows used in the project assets page
@@ -700,7 +703,7 @@
             <div class="fileDondloaded">
                 <h2>File Ready</h2>
                 <div class="fileDdownloadInfor">
-                    <p>All files have been zipped and ready for download.</p>
+                    <p>All files will be zipped while they are downloaded.</p>
                     <div class="fileInfor">
                         <span class="icon-file"><img src="/images/icon-zip.png" alt="ZIP" /></span>
                         <span class="filaName">2012-10-08 Cockpit Files.zip <span>(4.8 MB)</span></span>
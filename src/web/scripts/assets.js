@@ -25,8 +25,11 @@
  *  Version 1.4 (Release Assembly - TopCoder Cockpit Asset View Release 4 - Bug Fixes)
  *  - Fixes bugs listed in http://apps.topcoder.com/wiki/x/X4CaBg
  *
- * @author GreatKevin, TCSASSEMBLER
- * @version 1.4
+ *  Version 1.5 (TopCoder Cockpit Asset Archive Streaming)
+ *  - The batch download streams the zip of the selected files, instead of zipping them to a temporary file first
+ *
+ * @author GreatKevin, TCSASSEMBLER, TCSDEVELOPER
+ * @version 1.5
  */
 $(document).ready(function(){
 
@@ -1619,7 +1622,6 @@ $(document).ready(function(){
     // Batch Download
 
     $('.batchOperation .download').live('click',function(){
-        modalPreloader();
         var checkedRows = $("table.projectStats:visible tr input[type=checkbox]:checked");
         $("#batchDownload .fileList ul li:gt(0)").remove();
         $("#batchDownload span.listFileNumber").text(checkedRows.length);
@@ -1634,25 +1636,11 @@ $(document).ready(function(){
             item.appendTo("#batchDownload .fileList ul");
         });
 
-        $.ajax({
-            type: 'POST',
-            url: ctx + "/" + "getAssetsZip",
-            data: {assetVersionIds: assetVersionIdsToDownload, uploadFileProjectId:$("#assetProjectId").val()},
-            cache: false,
-            dataType: 'json',
-            success: function (jsonResult) {
-                handleJsonResult(jsonResult,
-                    function (result) {
-                        modalLoad('#batchDownload');
-                        $('#batchDownload').find(".fileDdownloadInfor span.filaName").html(
-                            result.fileName + " <span>(" + result.fileSizeDisplay + ")</span>");
-                        $('#batchDownload').find(".downloadedButtons a").attr('href', 'downloadAssets?sessionKey=' + result.uploadSessionKey);
-                    },
-                    function (errorMessage) {
-                        showServerError(errorMessage);
-                    });
-            }
-        });
+        // the zip is written to the response while the files are read, so its size is not known beforehand
+        $('#batchDownload').find(".fileDdownloadInfor span.filaName").text(checkedRows.length + " file(s)");
+        $('#batchDownload').find(".downloadedButtons a").attr('href',
+            'streamAssets?' + $.param({assetVersionIds: assetVersionIdsToDownload}, true));
+        modalLoad('#batchDownload');
     });
 
     $('#batchDownload .btnCancelDownload, #batchDownload .btnDownload').live('click',function(){
@@ -225,7 +225,7 @@ $(document).ready(function () {
                 handleJsonResult(
                     jsonResult,
                     function (result) {
-                        $.each(result, function (index, value) {
+                        $.each(result.updated, function (index, value) {
                             $("#contestTable.editTable tbody tr").each(function () {
                                 var contestId = $(this).find("input[name=contestId]").val();
                                 if (contestId == value) {
@@ -233,11 +233,22 @@ $(document).ready(function () {
                                     $(this).removeClass('selectRow');
                                 }
                             });
+                        });
 
-                            loadBatchContestsBuffer();
+                        loadBatchContestsBuffer();
 
-                            showSuccessfulMessage("The draft contests have been updated.");
+                        // the failed contests are reported one by one, the other contests are still updated
+                        var failures = [];
+                        $.each(result.failed, function (contestId, error) {
+                            failures.push("Challenge " + contestId + ": " + error);
                         });
+
+                        if (failures.length > 0) {
+                            modalAllClose();
+                            showErrors(failures.join("<br/>"));
+                        } else {
+                            showSuccessfulMessage("The draft contests have been updated.");
+                        }
                     },
                     function (errorMessage) {
                         modalAllClose();
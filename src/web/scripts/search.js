@@ -112,8 +112,11 @@
  * Version 2.2 (TopCoder Direct - Challenges Section Filters Panel)
  * - Add filter parameters for the my created challenges / my challenges data tables.
  *
- * @author BeBetter, isv, Blues, tangzx, GreatKevin, minhu, GreatKevin, bugbuka, leo_lol, morehappiness, Ghost_141, tangzx, GreatKevin
- * @version 2.2
+ * Version 2.3 (TopCoder Direct - Paged Contest Search)
+ * - The contests search results table only sorts the page of contests read by the server.
+ *
+ * @author BeBetter, isv, Blues, tangzx, GreatKevin, minhu, GreatKevin, bugbuka, leo_lol, morehappiness, Ghost_141, tangzx, GreatKevin, TCSDEVELOPER
+ * @version 2.3
  */
 var cookieOptions = { path: '/', expires: 1 };
 var COOKIE_NAME = "pagination";
@@ -832,17 +835,14 @@ $(document).ready(function() {
 			]
 
     });
+    // the contests are paged by the server, the table only sorts the contests of the page
     $("#contestsResult .paginatedDataTable").dataTable({
-        "iDisplayLength": 10,
-        "bStateSave": true,
+        "bPaginate": false,
+        "bStateSave": false,
         "bFilter": false,
         "bSort": true,
 		"bAutoWidth": false,
-			  "oLanguage": {
- 			  	"sLengthMenu": sStdMenu + " per page"
- 			  },            
-        "sPaginationType": "full_numbers",
-        "sDom": 'rti<"bottom2"fp><"bottom1"l',
+        "sDom": 'rti',
 		"aaSorting": [[0,'asc']],
 		"aoColumns": [
 				{ "sType": "html" },